@@ -16,6 +16,9 @@
  */
 package com.netflix.ndbench.api.plugin;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
 /**
  * @author vchella
  */
@@ -25,4 +28,24 @@ public interface DataGenerator {
 
     Integer getRandomInteger();
     Integer getRandomIntegerValue();
+
+    /**
+     * Returns the value to write under 'key'. Generators that support verifiable values return a value the read
+     * side can check against the key; others return {@link #getRandomValue()}.
+     */
+    default String getValue(String key) {
+        return getRandomValue();
+    }
+
+    /**
+     * Binary counterpart of {@link #getValue(String)}, for plugins that write values as bytes. 'key' holds the UTF-8
+     * encoded key between its position and limit, and is left unchanged. The returned buffer may be a read-only view
+     * shared with other callers, so its contents must not be modified.
+     * <p>
+     * The default implementation encodes the value returned by {@link #getValue(String)}.
+     */
+    default ByteBuffer getValueBytes(ByteBuffer key) {
+        String value = getValue(StandardCharsets.UTF_8.decode(key.duplicate()).toString());
+        return ByteBuffer.wrap(value.getBytes(StandardCharsets.UTF_8));
+    }
 }
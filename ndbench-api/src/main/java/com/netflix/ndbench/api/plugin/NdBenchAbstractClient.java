@@ -17,6 +17,13 @@
 
 package com.netflix.ndbench.api.plugin;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
 /**
  * Defines default methods that provide a hook point for Auto-tuning, more information for which may be found
  * <a href="http://github.com/Netflix/ndbench/wiki/Configuration">here</a>.
@@ -54,6 +61,150 @@ public interface NdBenchAbstractClient<W> {
      */
     W writeSingle(final String key) throws Exception;
 
+    /**
+     * Reads 'key' and writes it back with a new value, as done by the "rmw" operation of a workload mix.
+     * <p>
+     * The default implementation performs a {@link #readSingle} followed by a {@link #writeSingle}. Plugins whose
+     * data store supports conditional or atomic updates may override it to use them instead.
+     *
+     * @return the result of the write
+     */
+    default W readModifyWrite(final String key) throws Exception {
+        readSingle(key);
+        return writeSingle(key);
+    }
+
+    /**
+     * Deletes 'key', as done by the "delete" operation of a workload mix. Plugins which support deletes must
+     * override this method, and {@link #supportsDeletes}.
+     */
+    default String deleteSingle(final String key) throws Exception {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " does not support deletes");
+    }
+
+    /**
+     * Reads all of 'keys' as one request. Used when the driver's batch size is larger than 1, and by the "multiget"
+     * operation of a workload mix. The driver counts the call as a single read, and each key as one item of it.
+     * <p>
+     * The default implementation performs a {@link #readSingle} per key. Plugins whose client library can fetch
+     * several keys in one request (multi-get, bulk or batch APIs) should override it.
+     *
+     * @return the results {@link #readSingle} would have returned, in the order of 'keys'
+     */
+    default List<String> readBatch(final List<String> keys) throws Exception {
+        List<String> results = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            results.add(readSingle(key));
+        }
+        return results;
+    }
+
+    /**
+     * Writes all of 'keys' as one request. Used when the driver's batch size is larger than 1; the driver counts
+     * the call as a single write, and each key as one item of it.
+     * <p>
+     * The default implementation performs a {@link #writeSingle} per key. Plugins whose client library can write
+     * several keys in one request (pipelines, bulk or batch APIs) should override it.
+     *
+     * @return the results {@link #writeSingle} would have returned, in the order of 'keys'
+     */
+    default List<W> writeBatch(final List<String> keys) throws Exception {
+        List<W> results = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            results.add(writeSingle(key));
+        }
+        return results;
+    }
+
+    /**
+     * Reads up to 'limit' consecutive entries starting at 'startKey', as done by the "scan" operation of a workload
+     * mix. Plugins for data stores that support range reads must override this method, and {@link #supportsScans}.
+     *
+     * @return the entries read
+     */
+    default List<String> scan(final String startKey, final int limit) throws Exception {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " does not support scans");
+    }
+
+    /**
+     * Binary counterpart of {@link #readSingle}, used when the binary data path is enabled. 'key' holds the UTF-8
+     * encoded key between its position and limit. The buffer is reused for subsequent operations once this method
+     * returns, so implementations must not retain it.
+     * <p>
+     * The default implementation decodes the key and calls {@link #readSingle}. Plugins whose client library accepts
+     * keys as bytes should override this method (and {@link #writeSingleBinary}) to skip the decoding, and take
+     * values from {@link DataGenerator#getValueBytes(ByteBuffer)}.
+     */
+    default String readSingleBinary(final ByteBuffer key) throws Exception {
+        return readSingle(StandardCharsets.UTF_8.decode(key.duplicate()).toString());
+    }
+
+    /**
+     * Binary counterpart of {@link #writeSingle}. See {@link #readSingleBinary} for details.
+     */
+    default W writeSingleBinary(final ByteBuffer key) throws Exception {
+        return writeSingle(StandardCharsets.UTF_8.decode(key.duplicate()).toString());
+    }
+
+    /**
+     * Perform a single read operation without blocking the calling thread.
+     * <p>
+     * The default implementation simply performs a blocking {@link #readSingle} on the calling thread and returns
+     * an already completed stage. Plugins whose client library offers non-blocking calls should override this
+     * method (and {@link #writeAsync}) so that a single driver worker can keep many operations in flight when
+     * async mode is enabled.
+     *
+     * @return a stage completed with the result {@link #readSingle} would have returned, or completed
+     * exceptionally with whatever {@link #readSingle} would have thrown.
+     */
+    default CompletionStage<String> readAsync(final String key) {
+        CompletableFuture<String> future = new CompletableFuture<>();
+        try {
+            future.complete(readSingle(key));
+        } catch (Exception e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Perform a single write operation without blocking the calling thread. See {@link #readAsync} for details.
+     */
+    default CompletionStage<W> writeAsync(final String key) {
+        CompletableFuture<W> future = new CompletableFuture<>();
+        try {
+            future.complete(writeSingle(key));
+        } catch (Exception e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Whether this plugin writes the values of {@link DataGenerator#getValue(String)} and returns what it stored from
+     * {@link #readSingle}, which value verification requires. The driver does not verify the values of plugins that
+     * return false, since they would all appear corrupted.
+     */
+    default boolean supportsValueVerification() {
+        return false;
+    }
+
+    /**
+     * Whether this plugin implements {@link #deleteSingle}. The driver refuses to start a workload mix containing
+     * deletes for plugins that return false.
+     */
+    default boolean supportsDeletes() {
+        return false;
+    }
+
+    /**
+     * Whether this plugin implements {@link #scan}. The driver refuses to start a workload mix containing scans for
+     * plugins that return false.
+     */
+    default boolean supportsScans() {
+        return false;
+    }
+
 
     /**
      * shutdown the client
@@ -77,19 +228,13 @@ public interface NdBenchAbstractClient<W> {
      * 'event' and 'runStats', and 'currentRateLimit' in order to determine whether or not it is appropriate to auto-tune
      * read / write rate limits for the currently running benchmark.
      * <p>
-     * This method will be called by the benchmark driver after every write operation (this applies
-     * to the initial implementation -- subsequent releases may also allow tuning based on responses to read operations).
-     * <p>
-     * Note that if there are multiple read or write workers it is possible that an attempt by one thread to auto-tune
-     * the rate limit to a particular level might be overwritten by the rate limit value set by another thread. But
-     * such overwrites should not affect the eventual trend of the rate limit either downward or upward.
+     * These methods are called by the benchmark driver's auto-tune controller once per stats interval, from a single
+     * thread, while reads / writes are running -- never by the workers performing the operations. A recommended rate
+     * is applied once, before the next interval starts.
      *
      * @param currentRateLimit - the write rate limit currently in effect.
-     * @param event            - conveys information related to the most recently performed read or write operation which
-     *                         this method will use to decide  whether or not it is appropriate to auto-tune
-     *                         write / read rate limits for the currently running benchmark. An event will typically
-     *                         capture details of errors occurring in the context of  an attempt to perform
-     *                         either a read or write operation.
+     * @param event            - always null since tuning moved off the per-operation path; kept for compatibility.
+     *                         Recommendations should be based on 'runStats'.
      * @param runStats         - statistics such as average write/read latency for current benchmark run
      * @return - the new suggested rate limit -- ignored by driver if less-than-or-equal-to 0.
      */
@@ -102,6 +247,6 @@ public interface NdBenchAbstractClient<W> {
      * See documentation for {@link #autoTuneWriteRateLimit}
      */
     default double autoTuneReadRateLimit(double currentRateLimit, W event, NdBenchMonitor runStats) {
-        throw new UnsupportedOperationException("not yet implemented");
+        return -1D;
     }
 }
@@ -70,6 +70,92 @@ public interface NdBenchMonitor {
 
 
     void recordWriteLatency(long duration);
+
+    /**
+     * Largest delay (in microseconds) between the scheduled start of a read and the time its worker was released,
+     * over the last stats update interval. Consistently high values mean the benchmark client can't keep up.
+     */
+    default void setReadSchedulerLagMicros(long lagMicros) {
+    }
+
+    default long getReadSchedulerLagMicros() {
+        return 0L;
+    }
+
+    default void setWriteSchedulerLagMicros(long lagMicros) {
+    }
+
+    default long getWriteSchedulerLagMicros() {
+        return 0L;
+    }
+
+    /**
+     * Records the outcome of one operation of a workload mix, so that each kind of operation (e.g. "read", "scan")
+     * gets its own counts and latency histogram
+     *
+     * @param duration latency of the operation, in microseconds
+     */
+    default void recordOperation(String operation, long duration, boolean success) {
+    }
+
+    /**
+     * Records one successful batch read of 'items' keys (see NdBenchAbstractClient#readBatch). The request itself
+     * is additionally counted and timed like any other read, via {@link #incReadSuccess} and
+     * {@link #recordReadLatency}.
+     *
+     * @param duration latency of the whole request, in microseconds
+     */
+    default void recordReadBatch(int items, long duration) {
+    }
+
+    default long getReadItems() {
+        return 0L;
+    }
+
+    default void setReadItemRPS(long readItemRPS) {
+    }
+
+    default long getReadItemRPS() {
+        return 0L;
+    }
+
+    /**
+     * Write counterpart of {@link #recordReadBatch}
+     */
+    default void recordWriteBatch(int items, long duration) {
+    }
+
+    default long getWriteItems() {
+        return 0L;
+    }
+
+    default void setWriteItemRPS(long writeItemRPS) {
+    }
+
+    default long getWriteItemRPS() {
+        return 0L;
+    }
+
+    /**
+     * Number of reads whose value failed verification, i.e. was corrupted or written under a different key
+     */
+    default void incReadVerificationFailure() {
+    }
+
+    default long getReadVerificationFailures() {
+        return 0L;
+    }
+
+    /**
+     * Number of reads whose value was intact but older than a write of its key that had succeeded before the read
+     */
+    default void incReadStaleValue() {
+    }
+
+    default long getReadStaleValues() {
+        return 0L;
+    }
+
     int getCacheHitRatioInt();
 
      void resetStats();
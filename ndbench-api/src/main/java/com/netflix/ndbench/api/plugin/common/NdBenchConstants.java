@@ -43,9 +43,11 @@ public final class NdBenchConstants {
 
     public static final String READ_RATE_LIMIT="readRateLimit";
     public static final String WRITE_RATE_LIMIT="writeRateLimit";
+    public static final String MIX_RATE_LIMIT="mixRateLimit";
 
     // Use constant so as to avoid hard coded string references in calling code
     public static final String WRITE_RATE_LIMIT_FULL_NAME = PROP_NAMESPACE + WRITE_RATE_LIMIT;
+    public static final String READ_RATE_LIMIT_FULL_NAME = PROP_NAMESPACE + READ_RATE_LIMIT;
 
     public static final String CONFIG_CLUSTER_DISCOVERY_NAME="clusters.json";
 
@@ -6,7 +6,10 @@ package com.netflix.ndbench.plugin.cass;
 import com.datastax.driver.core.Cluster;
 import com.datastax.driver.core.ConsistencyLevel;
 import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.ResultSetFuture;
 import com.datastax.driver.core.Session;
+import com.datastax.driver.core.Statement;
 import com.google.inject.Inject;
 import com.netflix.archaius.api.PropertyFactory;
 import com.netflix.ndbench.api.plugin.DataGenerator;
@@ -14,6 +17,9 @@ import com.netflix.ndbench.api.plugin.NdBenchClient;
 import com.netflix.ndbench.api.plugin.common.NdBenchConstants;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
 /**
  * @author vchella
  */
@@ -68,6 +74,59 @@ public abstract class CJavaDriverBasePlugin implements NdBenchClient {
     }
 
 
+    @Override
+    public String readSingle(String key) throws Exception {
+        return processReadResult(key, session.execute(buildReadStatement(key)));
+    }
+
+    @Override
+    public String writeSingle(String key) throws Exception {
+        session.execute(buildWriteStatement(key));
+        return ResultOK;
+    }
+
+    /**
+     * Issues the read via {@link Session#executeAsync}, so the calling worker is not blocked while the
+     * request is in flight. Note that the result set is processed on the driver's I/O thread, which is fine
+     * as long as reads return fewer rows than the fetch size (i.e. processing never triggers another page fetch.)
+     */
+    @Override
+    public CompletionStage<String> readAsync(String key) {
+        CompletableFuture<String> result = new CompletableFuture<>();
+        try {
+            ResultSetFuture future = session.executeAsync(buildReadStatement(key));
+            future.addListener(() -> {
+                try {
+                    result.complete(processReadResult(key, future.getUninterruptibly()));
+                } catch (Exception e) {
+                    result.completeExceptionally(e);
+                }
+            }, Runnable::run);
+        } catch (Exception e) {
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    @Override
+    public CompletionStage<String> writeAsync(String key) {
+        CompletableFuture<String> result = new CompletableFuture<>();
+        try {
+            ResultSetFuture future = session.executeAsync(buildWriteStatement(key));
+            future.addListener(() -> {
+                try {
+                    future.getUninterruptibly();
+                    result.complete(ResultOK);
+                } catch (Exception e) {
+                    result.completeExceptionally(e);
+                }
+            }, Runnable::run);
+        } catch (Exception e) {
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
     @Override
     public void shutdown() throws Exception {
             this.cassJavaDriverManager.shutDown();
@@ -95,6 +154,16 @@ public abstract class CJavaDriverBasePlugin implements NdBenchClient {
         upsertCF(this.session);
     }
 
+   abstract Statement buildReadStatement(String key);
+
+   /**
+    * @return {@link #ResultOK} if 'rs' holds the expected data for 'key', {@link #CacheMiss} if it holds none
+    * @throws Exception if the data held by 'rs' is not as expected
+    */
+   abstract String processReadResult(String key, ResultSet rs) throws Exception;
+
+   abstract Statement buildWriteStatement(String key);
+
    abstract void prepStatements(Session session);
    abstract void upsertKeyspace(Session session);
    abstract void upsertCF(Session session);
@@ -12,7 +12,7 @@ import com.netflix.ndbench.api.plugin.common.NdBenchConstants;
 
 import java.time.Instant;
 import java.util.List;
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 /**
  * @author vchella
  */
@@ -26,8 +26,6 @@ public class CassJavaDriverBatch extends CJavaDriverBasePlugin {
     private static Boolean useTimeStamp;
     private static Boolean useMultiPartition;
 
-    Random randomObj = new Random();
-
     protected PreparedStatement writePstmt2;
 
     @Inject
@@ -71,12 +69,15 @@ public class CassJavaDriverBatch extends CJavaDriverBasePlugin {
     }
 
     @Override
-    public String readSingle(String key) throws Exception {
+    Statement buildReadStatement(String key) {
         BoundStatement statement = readPstmt.bind();
         statement.setString("cyclist_name", key);
         statement.setConsistencyLevel(this.ReadConsistencyLevel);
-        ResultSet rs = session.execute(statement);
+        return statement;
+    }
 
+    @Override
+    String processReadResult(String key, ResultSet rs) throws Exception {
         List<Row> result = rs.all();
 
         if (!result.isEmpty()) {
@@ -92,7 +93,7 @@ public class CassJavaDriverBatch extends CJavaDriverBasePlugin {
     }
 
     @Override
-    public String writeSingle(String key) throws Exception {
+    Statement buildWriteStatement(String key) {
 
         BatchStatement batch = new BatchStatement();
         for (int i = 0; i < this.batchSize; i++) {
@@ -100,7 +101,7 @@ public class CassJavaDriverBatch extends CJavaDriverBasePlugin {
             BoundStatement bStmt;
             if(useMultiPartition)
             {
-                if(randomObj.nextBoolean())
+                if(ThreadLocalRandom.current().nextBoolean())
                 {
                  bStmt = getBStmtTable1(key);
                 }
@@ -120,18 +121,16 @@ public class CassJavaDriverBatch extends CJavaDriverBasePlugin {
         if(useTimeStamp) {
             batch.setDefaultTimestamp(Instant.now().toEpochMilli()*1000);
         }
-        session.execute(batch);
-        batch.clear();
-        return ResultOK;
+        return batch;
     }
 
     private BoundStatement getBStmtTable1(String key) {
         BoundStatement bStmt = writePstmt.bind();
         bStmt.setString("cyclist_name", key);
         bStmt.setInt("expense_id", this.dataGenerator.getRandomIntegerValue());
-        bStmt.setFloat("amount", randomObj.nextFloat());
+        bStmt.setFloat("amount", ThreadLocalRandom.current().nextFloat());
         bStmt.setString("description", this.dataGenerator.getRandomValue());
-        bStmt.setBool("paid", randomObj.nextBoolean());
+        bStmt.setBool("paid", ThreadLocalRandom.current().nextBoolean());
         return bStmt;
     }
 
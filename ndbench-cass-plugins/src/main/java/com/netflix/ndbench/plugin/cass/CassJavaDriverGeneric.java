@@ -25,15 +25,17 @@ public class CassJavaDriverGeneric extends CJavaDriverBasePlugin {
     }
 
     @Override
-    public String readSingle(String key) throws Exception {
-
-        boolean success = true;
-        int nCols = 0;
-
+    Statement buildReadStatement(String key) {
         BoundStatement bStmt = readPstmt.bind();
         bStmt.setString("key", key);
         bStmt.setConsistencyLevel(this.ReadConsistencyLevel);
-        ResultSet rs = session.execute(bStmt);
+        return bStmt;
+    }
+
+    @Override
+    String processReadResult(String key, ResultSet rs) throws Exception {
+        int nCols = 0;
+
         List<Row> result=rs.all();
 
         if (!result.isEmpty())
@@ -51,7 +53,7 @@ public class CassJavaDriverGeneric extends CJavaDriverBasePlugin {
     }
 
     @Override
-    public String writeSingle(String key) throws Exception {
+    Statement buildWriteStatement(String key) {
         BatchStatement batch = new BatchStatement(BatchStatement.Type.UNLOGGED);
         for (int i = 0; i < this.MaxColCount; i++) {
             BoundStatement bStmt = writePstmt.bind();
@@ -60,10 +62,8 @@ public class CassJavaDriverGeneric extends CJavaDriverBasePlugin {
             bStmt.setString("value", this.dataGenerator.getRandomValue());
             batch.add(bStmt);
         }
-	batch.setConsistencyLevel(this.WriteConsistencyLevel);
-        session.execute(batch);
-        batch.clear();
-        return ResultOK;
+        batch.setConsistencyLevel(this.WriteConsistencyLevel);
+        return batch;
     }
 
     @Override
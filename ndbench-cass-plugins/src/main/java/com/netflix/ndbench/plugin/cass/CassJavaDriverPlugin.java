@@ -27,6 +27,7 @@ import com.netflix.ndbench.api.plugin.common.NdBenchConstants;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static com.netflix.ndbench.api.plugin.common.NdBenchConstants.PROP_NAMESPACE;
@@ -51,6 +52,8 @@ public class CassJavaDriverPlugin implements NdBenchClient{
 
     private PreparedStatement readPstmt;
     private PreparedStatement writePstmt;
+    private PreparedStatement deletePstmt;
+    private PreparedStatement scanPstmt;
 
     private static final String ResultOK = "Ok";
     private static final String CacheMiss = null;
@@ -92,6 +95,8 @@ public class CassJavaDriverPlugin implements NdBenchClient{
 
         writePstmt = session.prepare("INSERT INTO "+ TableName +" (emp_uname, emp_first, emp_last, emp_dept ) VALUES (?, ?, ?, ? )");
         readPstmt = session.prepare("SELECT * From "+ TableName +" Where emp_uname = ?");
+        deletePstmt = session.prepare("DELETE From "+ TableName +" Where emp_uname = ?");
+        scanPstmt = session.prepare("SELECT emp_uname From "+ TableName +" Where token(emp_uname) >= token(?) LIMIT ?");
 
         Logger.info("Initialized CassJavaDriverPlugin");
     }
@@ -144,6 +149,42 @@ public class CassJavaDriverPlugin implements NdBenchClient{
         return ResultOK;
     }
 
+    @Override
+    public String deleteSingle(String key) throws Exception {
+        BoundStatement bStmt = deletePstmt.bind();
+        bStmt.setString("emp_uname", key);
+        bStmt.setConsistencyLevel(this.WriteConsistencyLevel);
+
+        session.execute(bStmt);
+        return ResultOK;
+    }
+
+    /**
+     * Reads the keys of up to 'limit' rows in token order, starting at the token of 'startKey'
+     */
+    @Override
+    public List<String> scan(String startKey, int limit) throws Exception {
+        BoundStatement bStmt = scanPstmt.bind(startKey, limit);
+        bStmt.setConsistencyLevel(this.ReadConsistencyLevel);
+        bStmt.setFetchSize(limit);
+
+        List<String> result = new ArrayList<>(limit);
+        for (Row row : session.execute(bStmt)) {
+            result.add(row.getString("emp_uname"));
+        }
+        return result;
+    }
+
+    @Override
+    public boolean supportsDeletes() {
+        return true;
+    }
+
+    @Override
+    public boolean supportsScans() {
+        return true;
+    }
+
     /**
      * shutdown the client
      */
@@ -0,0 +1,176 @@
+package com.netflix.ndbench.plugin.cass;
+
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.ResultSetFuture;
+import com.datastax.driver.core.Session;
+import com.datastax.driver.core.SimpleStatement;
+import com.datastax.driver.core.Statement;
+import com.datastax.driver.core.exceptions.NoHostAvailableException;
+import com.google.common.util.concurrent.AbstractFuture;
+import com.google.common.util.concurrent.Uninterruptibles;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Checks that the asynchronous reads and writes of the Cassandra plugins complete their stages according to the
+ * outcome of the driver's futures.
+ */
+public class CJavaDriverBasePluginTest {
+    private final StubResultSetFuture future = new StubResultSetFuture();
+
+    @Test
+    public void readCompletesOnceTheDriverHasTheResult() throws Exception {
+        CompletionStage<String> read = new StubPlugin(future).readAsync("key");
+        assertFalse(read.toCompletableFuture().isDone());
+
+        future.set(emptyResultSet());
+        assertEquals(CJavaDriverBasePlugin.ResultOK, read.toCompletableFuture().get());
+    }
+
+    @Test
+    public void readFailsOnDriverError() throws Exception {
+        CompletionStage<String> read = new StubPlugin(future).readAsync("key");
+
+        future.setException(new NoHostAvailableException(Collections.emptyMap()));
+        assertFailed(read, NoHostAvailableException.class);
+    }
+
+    @Test
+    public void writeCompletesOnceTheDriverHasTheResult() throws Exception {
+        CompletionStage<String> write = new StubPlugin(future).writeAsync("key");
+        assertFalse(write.toCompletableFuture().isDone());
+
+        future.set(emptyResultSet());
+        assertEquals(CJavaDriverBasePlugin.ResultOK, write.toCompletableFuture().get());
+    }
+
+    @Test
+    public void writeFailsOnDriverError() throws Exception {
+        CompletionStage<String> write = new StubPlugin(future).writeAsync("key");
+
+        future.setException(new NoHostAvailableException(Collections.emptyMap()));
+        assertFailed(write, NoHostAvailableException.class);
+    }
+
+    @Test
+    public void writeFailsWhenTheRequestCannotBeIssued() throws Exception {
+        assertFailed(new StubPlugin(null).writeAsync("key"), IllegalStateException.class);
+    }
+
+    private static void assertFailed(CompletionStage<?> stage, Class<? extends Exception> expected) throws Exception {
+        CompletableFuture<?> future = stage.toCompletableFuture();
+        assertTrue(future.isCompletedExceptionally());
+        try {
+            future.get();
+            fail("expected " + expected.getSimpleName());
+        } catch (ExecutionException e) {
+            assertTrue(expected.isInstance(e.getCause()));
+        }
+    }
+
+    private static ResultSet emptyResultSet() {
+        return (ResultSet) Proxy.newProxyInstance(CJavaDriverBasePluginTest.class.getClassLoader(),
+                new Class<?>[]{ResultSet.class},
+                (proxy, method, args) -> null);
+    }
+
+    /**
+     * Like the driver's own futures, rethrows the driver's exception rather than wrap it on getUninterruptibly
+     */
+    private static class StubResultSetFuture extends AbstractFuture<ResultSet> implements ResultSetFuture {
+        @Override
+        public boolean set(ResultSet value) {
+            return super.set(value);
+        }
+
+        @Override
+        public boolean setException(Throwable throwable) {
+            return super.setException(throwable);
+        }
+
+        @Override
+        public ResultSet getUninterruptibly() {
+            try {
+                return Uninterruptibles.getUninterruptibly(this);
+            } catch (ExecutionException e) {
+                throw (RuntimeException) e.getCause();
+            }
+        }
+
+        @Override
+        public ResultSet getUninterruptibly(long timeout, TimeUnit unit) throws TimeoutException {
+            try {
+                return Uninterruptibles.getUninterruptibly(this, timeout, unit);
+            } catch (ExecutionException e) {
+                throw (RuntimeException) e.getCause();
+            }
+        }
+    }
+
+    /**
+     * A plugin whose session hands out 'future' for every asynchronous request, or fails to issue them if it is null
+     */
+    private static class StubPlugin extends CJavaDriverBasePlugin {
+        StubPlugin(ResultSetFuture future) {
+            super(null, null);
+            session = (Session) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[]{Session.class},
+                    (proxy, method, args) -> {
+                        if (!method.getName().equals("executeAsync")) {
+                            throw new UnsupportedOperationException(method.getName());
+                        }
+                        if (future == null) {
+                            throw new IllegalStateException("Session is closed");
+                        }
+                        return future;
+                    });
+        }
+
+        @Override
+        Statement buildReadStatement(String key) {
+            return new SimpleStatement("SELECT value FROM test WHERE key = ?", key);
+        }
+
+        @Override
+        String processReadResult(String key, ResultSet rs) {
+            return ResultOK;
+        }
+
+        @Override
+        Statement buildWriteStatement(String key) {
+            return new SimpleStatement("INSERT INTO test (key, value) VALUES (?, ?)", key, "value");
+        }
+
+        @Override
+        void prepStatements(Session session) {
+        }
+
+        @Override
+        void upsertKeyspace(Session session) {
+        }
+
+        @Override
+        void upsertCF(Session session) {
+        }
+
+        @Override
+        void preInit() {
+        }
+
+        @Override
+        void postInit() {
+        }
+    }
+}
@@ -26,16 +26,37 @@ import com.netflix.ndbench.api.plugin.DataGenerator;
 import com.netflix.ndbench.api.plugin.NdBenchAbstractClient;
 import com.netflix.ndbench.api.plugin.NdBenchMonitor;
 import com.netflix.ndbench.api.plugin.common.NdBenchConstants;
+import com.netflix.ndbench.core.autotune.AutoTuneController;
 import com.netflix.ndbench.core.config.IConfiguration;
 import com.netflix.ndbench.core.generators.KeyGenerator;
 import com.netflix.ndbench.core.generators.KeyGeneratorFactory;
+import com.netflix.ndbench.core.generators.RandomSource;
+import com.netflix.ndbench.core.operations.DeleteOperation;
+import com.netflix.ndbench.core.operations.MixedOperation;
+import com.netflix.ndbench.core.operations.MultiGetOperation;
+import com.netflix.ndbench.core.operations.ReadModifyWriteOperation;
 import com.netflix.ndbench.core.operations.ReadOperation;
+import com.netflix.ndbench.core.operations.ScanOperation;
 import com.netflix.ndbench.core.operations.WriteOperation;
+import com.netflix.ndbench.core.operations.WriteVersions;
+import com.netflix.ndbench.core.rateprofile.RateProfileController;
+import com.netflix.ndbench.core.recording.RunRecorder;
 import com.netflix.ndbench.core.util.LoadPattern;
+import com.netflix.ndbench.core.util.OpenLoopScheduler;
+import com.netflix.ndbench.core.util.ParkingPermitScheduler;
+import com.netflix.ndbench.core.util.PermitScheduler;
+import com.netflix.ndbench.core.util.SpinningPermitScheduler;
+import com.netflix.ndbench.core.util.WorkerExecutors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
@@ -53,18 +74,22 @@ public class NdBenchDriver {
 
     private final AtomicInteger readWorkers = new AtomicInteger(0);
     private final AtomicInteger writeWorkers = new AtomicInteger(0);
+    private final AtomicInteger mixWorkers = new AtomicInteger(0);
 
     private final AtomicReference<ExecutorService> tpReadRef = new AtomicReference<ExecutorService>(null);
     private final AtomicReference<ExecutorService> tpWriteRef = new AtomicReference<ExecutorService>(null);
+    private final AtomicReference<ExecutorService> tpMixRef = new AtomicReference<ExecutorService>(null);
 
     private final AtomicBoolean readsStarted = new AtomicBoolean(false);
     private final AtomicBoolean writesStarted = new AtomicBoolean(false);
+    private final AtomicBoolean mixStarted = new AtomicBoolean(false);
     private final AtomicBoolean clientInited = new AtomicBoolean(false);
 
 
 
     private final AtomicReference<RateLimiter> readLimiter;
     private final AtomicReference<RateLimiter> writeLimiter;
+    private final AtomicReference<RateLimiter> mixLimiter = new AtomicReference<>();
 
     private final AtomicReference<ExecutorService> timerRef = new AtomicReference<ExecutorService>(null);
     private final RPSCount rpsCount;
@@ -72,20 +97,36 @@ public class NdBenchDriver {
     private final AtomicReference<NdBenchAbstractClient<?>> clientRef =
             new AtomicReference<NdBenchAbstractClient<?>>(null);
 
+    // latest successful write of each key, shared by all writes and reads that verify values; created on demand
+    private final AtomicReference<WriteVersions> writeVersionsRef = new AtomicReference<>(null);
+
     private final AtomicReference<KeyGenerator> keyGeneratorWriteRef = new AtomicReference<>(null);
     private final AtomicReference<KeyGenerator> keyGeneratorReadRef = new AtomicReference<>(null);
+    private final AtomicReference<KeyGenerator> keyGeneratorMixRef = new AtomicReference<>(null);
+
+    // shared by reads and writes, so that load patterns can coordinate the keys they pick for both
+    private final KeyGeneratorFactory keyGeneratorFactory;
+
+    private final AtomicReference<PermitScheduler> writeSchedulerRef = new AtomicReference<>(null);
+    private final AtomicReference<PermitScheduler> readSchedulerRef = new AtomicReference<>(null);
+    private final AtomicReference<PermitScheduler> mixSchedulerRef = new AtomicReference<>(null);
+    private final AtomicReference<String> workerExecutorMode = new AtomicReference<>(WorkerExecutors.PLATFORM);
 
 
     private final IConfiguration config;
     private final NdBenchMonitor ndBenchMonitor;
     private final DataGenerator dataGenerator;
     private final SettableConfig settableConfig;
+    private final RunRecorder runRecorder;
+    private final AutoTuneController autoTuneController;
+    private final RateProfileController rateProfileController;
 
     @Inject
     NdBenchDriver(IConfiguration config,
                   NdBenchMonitor ndBenchMonitor,
                   DataGenerator dataGenerator,
-                  @RuntimeLayer SettableConfig settableConfig) {
+                  @RuntimeLayer SettableConfig settableConfig,
+                  RunRecorder runRecorder) {
 
         this.config = config;
 
@@ -95,6 +136,10 @@ public class NdBenchDriver {
 
         this.dataGenerator = dataGenerator;
         this.settableConfig = settableConfig;
+        this.runRecorder = runRecorder;
+        this.autoTuneController = new AutoTuneController(this, config, ndBenchMonitor);
+        this.rateProfileController = new RateProfileController(this, config);
+        this.keyGeneratorFactory = new KeyGeneratorFactory(config);
         this.rpsCount = new RPSCount(readsStarted, writesStarted, readLimiter, writeLimiter, config, ndBenchMonitor);
 
         Runtime.getRuntime().addShutdownHook(new Thread() {
@@ -113,13 +158,13 @@ public class NdBenchDriver {
     }
 
 
-    public void start(LoadPattern loadPattern, int windowSize, long windowDurationInSec) {
+    public void start(LoadPattern loadPattern, long windowSize, long windowDurationInSec) {
         Logger.info("Starting Load Test Driver...");
         startWrites(loadPattern, windowSize, windowDurationInSec);
         startReads(loadPattern, windowSize, windowDurationInSec);
     }
 
-    public void startReads(LoadPattern loadPattern, int windowSize, long windowDurationInSec) {
+    public void startReads(LoadPattern loadPattern, long windowSize, long windowDurationInSec) {
         if (readsStarted.get()) {
             Logger.info("Reads already started ... ignoring");
             return;
@@ -128,16 +173,14 @@ public class NdBenchDriver {
     }
 
 
-    private void startReadsInternal(LoadPattern loadPattern, int windowSize, long windowDurationInSec) {
+    private void startReadsInternal(LoadPattern loadPattern, long windowSize, long windowDurationInSec) {
         Logger.info("Starting NdBenchDriver reads...");
         NdBenchOperation operation;
 
-        operation = new ReadOperation(clientRef.get());
-
-        KeyGeneratorFactory keyGeneratorFactory = new KeyGeneratorFactory();
+        operation = new ReadOperation(clientRef.get(), writeVersions());
 
         KeyGenerator<String> keyGenerator = keyGeneratorFactory.getKeyGenerator(loadPattern,
-                config.getNumKeys(), windowSize, windowDurationInSec, config.isPreloadKeys());
+                config.getNumKeys(), windowSize, windowDurationInSec, config.isPreloadKeys(), false);
 
         keyGeneratorReadRef.set(keyGenerator);
 
@@ -149,11 +192,15 @@ public class NdBenchDriver {
                 readLimiter,
                 operation,
                 keyGenerator,
-                config.isAutoTuneEnabled());
+                readSchedulerRef,
+                readsStarted,
+                this::stopReads);
         readsStarted.set(true);
+        autoTuneController.start();
+        rateProfileController.start();
     }
 
-    public void startWrites(LoadPattern loadPattern, int windowSize, long windowDurationInSec) {
+    public void startWrites(LoadPattern loadPattern, long windowSize, long windowDurationInSec) {
         if (writesStarted.get()) {
             Logger.info("Writes already started ... ignoring");
             return;
@@ -162,16 +209,14 @@ public class NdBenchDriver {
         startWritesInternal(loadPattern, windowSize, windowDurationInSec);
     }
 
-    private void startWritesInternal(LoadPattern loadPattern, int windowSize, long windowDurationInSec) {
+    private void startWritesInternal(LoadPattern loadPattern, long windowSize, long windowDurationInSec) {
         Logger.info("Starting NdBenchDriver writes...");
         NdBenchOperation operation;
 
-        operation = new WriteOperation(clientRef.get());
-
-        KeyGeneratorFactory keyGeneratorFactory = new KeyGeneratorFactory();
+        operation = new WriteOperation(clientRef.get(), writeVersions());
 
         KeyGenerator<String> keyGenerator = keyGeneratorFactory.getKeyGenerator(loadPattern,
-                config.getNumKeys(), windowSize, windowDurationInSec, config.isPreloadKeys());
+                config.getNumKeys(), windowSize, windowDurationInSec, config.isPreloadKeys(), true);
 
         keyGeneratorWriteRef.set(keyGenerator);
 
@@ -182,9 +227,82 @@ public class NdBenchDriver {
                 writeLimiter,
                 operation,
                 keyGenerator,
-                config.isAutoTuneEnabled());
+                writeSchedulerRef,
+                writesStarted,
+                this::stopWrites);
 
         writesStarted.set(true);
+        autoTuneController.start();
+        rateProfileController.start();
+    }
+
+    /**
+     * Starts a workload mix: a single pool of workers that performs the operations of
+     * {@link IConfiguration#getWorkloadMix()} in proportion to their weights, at one shared rate limit.
+     */
+    public void startMix(LoadPattern loadPattern, long windowSize, long windowDurationInSec) {
+        if (mixStarted.get()) {
+            Logger.info("Workload mix already started ... ignoring");
+            return;
+        }
+        Logger.info("Starting NdBenchDriver workload mix " + config.getWorkloadMix() + "...");
+
+        KeyGenerator<String> keyGenerator = keyGeneratorFactory.getKeyGenerator(loadPattern,
+                config.getNumKeys(), windowSize, windowDurationInSec, config.isPreloadKeys(), false);
+        NdBenchOperation operation = new MixedOperation(
+                MixedOperation.parseWeights(config.getWorkloadMix()),
+                name -> createMixOperation(name, keyGenerator),
+                new RandomSource(config.getRandomSeed(), RandomSource.MIX_STREAM));
+
+        keyGeneratorMixRef.set(keyGenerator);
+        checkAndInitRateLimit(mixLimiter, config.getMixRateLimit(), "mixLimiter");
+
+        startOperation(true,
+                config.getNumMixWorkers(),
+                mixWorkers,
+                tpMixRef,
+                mixLimiter,
+                operation,
+                keyGenerator,
+                mixSchedulerRef,
+                mixStarted,
+                this::stopMix);
+        mixStarted.set(true);
+    }
+
+    private NdBenchOperation createMixOperation(String name, KeyGenerator<String> keyGenerator) {
+        switch (name) {
+            case "read":
+                return new ReadOperation(clientRef.get(), writeVersions());
+            case "write":
+                return new WriteOperation(clientRef.get(), writeVersions());
+            case "rmw":
+                return new ReadModifyWriteOperation(clientRef.get(), writeVersions());
+            case "delete":
+                if (!clientRef.get().supportsDeletes()) {
+                    throw new IllegalArgumentException("Workload mix contains delete, which the client plugin " +
+                            clientRef.get().getClass().getSimpleName() + " does not support");
+                }
+                return new DeleteOperation(clientRef.get());
+            case "scan":
+                if (!clientRef.get().supportsScans()) {
+                    throw new IllegalArgumentException("Workload mix contains scan, which the client plugin " +
+                            clientRef.get().getClass().getSimpleName() + " does not support");
+                }
+                return new ScanOperation(clientRef.get(), config.getScanLimit());
+            case "multiget":
+                return new MultiGetOperation(clientRef.get(), keyGenerator, config.getMultiGetSize());
+            default:
+                throw new IllegalArgumentException("Unknown operation in workload mix: " + name +
+                        ", expected one of read, write, rmw, delete, scan, multiget");
+        }
+    }
+
+    /**
+     * @return the executor mode of the most recently started read or write workers
+     */
+    public String getWorkerExecutorMode() {
+        return workerExecutorMode.get();
     }
 
     public boolean getIsWriteRunning() {
@@ -200,6 +318,10 @@ public class NdBenchDriver {
         return tp != null;
     }
 
+    public boolean getIsMixRunning() {
+        return tpMixRef.get() != null;
+    }
+
     private void startOperation(boolean operationEnabled,
                                 int numWorkersConfig,
                                 AtomicInteger numWorkers,
@@ -207,56 +329,77 @@ public class NdBenchDriver {
                                 final AtomicReference<RateLimiter> rateLimiter,
                                 final NdBenchOperation operation,
                                 final KeyGenerator<String> keyGenerator,
-                                Boolean isAutoTuneEnabled) {
+                                AtomicReference<PermitScheduler> schedulerRef,
+                                AtomicBoolean started,
+                                Runnable stop) {
 
         if (!operationEnabled) {
             Logger.info("Operation : " + operation.getClass().getSimpleName() + " not enabled, ignoring");
             return;
         }
         keyGenerator.init();
-        ExecutorService threadPool = Executors.newFixedThreadPool(numWorkersConfig);
+        String executorMode = WorkerExecutors.effectiveMode(config.getWorkerExecutorMode());
+        ExecutorService threadPool = WorkerExecutors.newWorkerPool(executorMode, numWorkersConfig);
+        workerExecutorMode.set(executorMode);
 
         boolean success = tpRef.compareAndSet(null, threadPool);
         if (!success) {
             throw new RuntimeException("Unknown threadpool when performing tpRef CAS operation");
         }
 
-        System.out.println("\n\nWorker threads: " + numWorkersConfig + ", Num Keys: " + config.getNumKeys() + "\n\n");
+        System.out.println("\n\nWorker threads: " + numWorkersConfig + " (" + executorMode + "), Num Keys: " +
+                config.getNumKeys() + "\n\n");
+
+        // all workers of this operation share one scheduler, so they jointly adhere to the operation's rate limit
+        final PermitScheduler permitScheduler = createPermitScheduler(rateLimiter);
+        schedulerRef.set(permitScheduler);
+        Logger.info("Operation : " + operation.getClass().getSimpleName() +
+                " using permit scheduler " + permitScheduler.getClass().getSimpleName());
+        if (config.isOpenLoopEnabled()) {
+            Logger.info("Operation : " + operation.getClass().getSimpleName() +
+                    " running open-loop, latencies are measured from intended start times");
+        }
+        final boolean isAsync = config.isAsyncEnabled();
+        final int maxInFlightPerWorker = config.getMaxInFlightPerWorker();
+        if (isAsync) {
+            Logger.info("Operation : " + operation.getClass().getSimpleName() +
+                    " running async with up to " + maxInFlightPerWorker + " operations in flight per worker");
+        }
+        final int batchSize = config.getBatchSize();
+        final boolean isBatch = batchSize > 1 && !isAsync;
+        if (batchSize > 1 && isAsync) {
+            Logger.warn("Operation : " + operation.getClass().getSimpleName() +
+                    " ignoring the batch size, batches are not supported in async mode");
+        } else if (isBatch) {
+            Logger.info("Operation : " + operation.getClass().getSimpleName() +
+                    " issuing batches of " + batchSize + " keys per request");
+        }
+        final boolean fitsBinary = keyGenerator.getMaxKeyLength() <= NdBenchWorker.MAX_BINARY_KEY_LENGTH;
+        final boolean isBinary = config.isBinaryPathEnabled() && !isAsync && !isBatch && fitsBinary;
+        if (config.isBinaryPathEnabled() && !fitsBinary) {
+            Logger.warn("Operation : " + operation.getClass().getSimpleName() +
+                    " ignoring the binary data path, keys of " + keyGenerator.getClass().getSimpleName() +
+                    " may be longer than the " + NdBenchWorker.MAX_BINARY_KEY_LENGTH + " bytes of its key buffer");
+        } else if (config.isBinaryPathEnabled() && !isBinary) {
+            Logger.warn("Operation : " + operation.getClass().getSimpleName() +
+                    " ignoring the binary data path, which is not supported in async or batch mode");
+        } else if (isBinary) {
+            Logger.info("Operation : " + operation.getClass().getSimpleName() + " passing keys to the plugin as bytes");
+        }
 
         for (int i = 0; i < numWorkersConfig; i++) {
 
-            threadPool.submit(new Callable<Void>() {
-                @Override
-                public Void call() throws Exception {
-
-                    while (!Thread.currentThread().isInterrupted()) {
-                        if ((operation.isReadType() && readsStarted.get()) ||
-                                (operation.isWriteType() && writesStarted.get())) {
-                            if (rateLimiter.get().tryAcquire()) {
-                                //Logger.info("operating at rate {} at {}", rateLimiter.get().getRate(), new Date().getTime());
-                                operation.process(
-                                        NdBenchDriver.this,
-                                        ndBenchMonitor,
-                                        keyGenerator.getNextKey(),
-                                        rateLimiter,
-                                        isAutoTuneEnabled);
-                            }
-                        }
-                        if (!keyGenerator.hasNextKey()) {
-                            Logger.info("No more keys to process, hence stopping the process.");
-                            if (operation.isReadType()) {
-                                stopReads();
-                            } else if (operation.isWriteType()) {
-                                stopWrites();
-                            }
-                            Thread.currentThread().interrupt();
-                            break;
-                        }
-                    }
-                    Logger.info("NdBenchWorker shutting down");
-                    return null;
-                }
-            });
+            threadPool.submit(new NdBenchWorker(this,
+                    ndBenchMonitor,
+                    operation,
+                    keyGenerator,
+                    rateLimiter,
+                    permitScheduler,
+                    started,
+                    stop,
+                    isAsync ? maxInFlightPerWorker : 0,
+                    isBatch ? batchSize : 1,
+                    isBinary));
             numWorkers.incrementAndGet();
         }
     }
@@ -267,6 +410,11 @@ public class NdBenchDriver {
     public void stop() {
         stopWrites();
         stopReads();
+        stopMix();
+        autoTuneController.stop();
+        rateProfileController.stop();
+        // the timer won't see the end of the run, so its final interval is recorded here, before stats are reset
+        runRecorder.onInterval(false);
         if (timerRef != null && timerRef.get() != null) {
             timerRef.get().shutdownNow();
             timerRef.set(null);
@@ -278,12 +426,23 @@ public class NdBenchDriver {
         readsStarted.set(false);
         keyGeneratorReadRef.set(null);
         stopOperation(tpReadRef);
+        readSchedulerRef.set(null);
     }
 
     public void stopWrites() {
         writesStarted.set(false);
         keyGeneratorWriteRef.set(null);
         stopOperation(tpWriteRef);
+        writeSchedulerRef.set(null);
+    }
+
+    public void stopMix() {
+        mixStarted.set(false);
+        keyGeneratorMixRef.set(null);
+        if (tpMixRef.get() != null) {
+            stopOperation(tpMixRef);
+        }
+        mixSchedulerRef.set(null);
     }
 
     public void stopOperation(AtomicReference<ExecutorService> tpRef) {
@@ -324,8 +483,92 @@ public class NdBenchDriver {
         boolean process(NdBenchDriver driver,
                         NdBenchMonitor monitor,
                         String key,
-                        AtomicReference<RateLimiter> rateLimiter,
-                        boolean isAutoTuneEnabled);
+                        AtomicReference<RateLimiter> rateLimiter);
+
+        /**
+         * Same as {@link #process(NdBenchDriver, NdBenchMonitor, String, AtomicReference)}, but the
+         * latency of the operation is measured from 'intendedStartNanos' (in terms of {@link System#nanoTime()})
+         * rather than from the time the operation was actually issued. Used by the open-loop scheduling mode.
+         * <p>
+         * Operations which do not override this method measure latency from their actual start time.
+         */
+        default boolean process(NdBenchDriver driver,
+                                NdBenchMonitor monitor,
+                                String key,
+                                AtomicReference<RateLimiter> rateLimiter,
+                                long intendedStartNanos) {
+            return process(driver, monitor, key, rateLimiter);
+        }
+
+        /**
+         * Asynchronous counterpart of {@link #process(NdBenchDriver, NdBenchMonitor, String, AtomicReference, long)},
+         * used when async mode is enabled. The returned stage completes once the operation has finished and its
+         * outcome has been recorded in 'monitor'.
+         * <p>
+         * Operations which do not override this method are performed synchronously on the calling worker.
+         */
+        default CompletionStage<Boolean> processAsync(NdBenchDriver driver,
+                                                      NdBenchMonitor monitor,
+                                                      String key,
+                                                      AtomicReference<RateLimiter> rateLimiter,
+                                                      long intendedStartNanos) {
+            return CompletableFuture.completedFuture(
+                    process(driver, monitor, key, rateLimiter, intendedStartNanos));
+        }
+
+        /**
+         * Binary counterpart of {@link #process(NdBenchDriver, NdBenchMonitor, String, AtomicReference, long)},
+         * used when the binary data path is enabled. 'key' holds the UTF-8 encoded key between its position and limit,
+         * and is reused by the calling worker once this method returns.
+         * <p>
+         * Operations which do not override this method decode the key and process it as a string.
+         */
+        default boolean processBinary(NdBenchDriver driver,
+                                      NdBenchMonitor monitor,
+                                      ByteBuffer key,
+                                      AtomicReference<RateLimiter> rateLimiter,
+                                      long intendedStartNanos) {
+            return process(driver, monitor, StandardCharsets.UTF_8.decode(key.duplicate()).toString(),
+                    rateLimiter, intendedStartNanos);
+        }
+
+        /**
+         * Batch counterpart of {@link #process(NdBenchDriver, NdBenchMonitor, String, AtomicReference, long)},
+         * used when the driver's batch size is larger than 1. 'keys' holds all keys drawn for one permit of the rate
+         * limiter, and is not used by the calling worker afterwards.
+         * <p>
+         * Operations which do not override this method process the keys one at a time.
+         *
+         * @return whether all of the keys were processed successfully
+         */
+        default boolean processBatch(NdBenchDriver driver,
+                                     NdBenchMonitor monitor,
+                                     List<String> keys,
+                                     AtomicReference<RateLimiter> rateLimiter,
+                                     long intendedStartNanos) {
+            boolean success = true;
+            for (String key : keys) {
+                success &= process(driver, monitor, key, rateLimiter, intendedStartNanos);
+            }
+            return success;
+        }
+
+        /**
+         * @return the name under which this operation records its outcome itself, via
+         * {@link NdBenchMonitor#recordOperation}, rather than as a read or write; null for reads and writes. Workload
+         * mixes only record the outcome of operations which return null.
+         */
+        default String getRecordedName() {
+            return null;
+        }
+
+        /**
+         * Called by a worker before it waits for the permit of its next call of this operation, i.e. outside of the
+         * latency window, so that the operation can prepare whatever that call needs, such as further keys. The next
+         * call is made on the same thread.
+         */
+        default void prepareNext() {
+        }
 
         boolean isReadType();
 
@@ -338,6 +581,11 @@ public class NdBenchDriver {
                 if (clientInited.compareAndSet(false, true)) {
                     client.init(this.dataGenerator); // Exceptions from init method will be caught and clientInited will be reset
                     clientRef.set(client);
+                    if (config.isVerifyValuesEnabled() && !client.supportsValueVerification()) {
+                        Logger.warn("Value verification is enabled, but plugin {} does not write and read back the " +
+                                "values of DataGenerator.getValue(key); values read will not be verified",
+                                client.getClass().getSimpleName());
+                    }
                 }
             } catch (Exception e) {
                 clientInited.compareAndSet(true, false);
@@ -352,6 +600,17 @@ public class NdBenchDriver {
         }
     }
 
+    /**
+     * @return the write versions that reads and writes should verify values against, or null if values are not
+     * verified, either since it is disabled or since the plugin does not support it
+     */
+    private WriteVersions writeVersions() {
+        if (!config.isVerifyValuesEnabled() || !clientRef.get().supportsValueVerification()) {
+            return null;
+        }
+        return writeVersionsRef.updateAndGet(versions -> versions != null ? versions : new WriteVersions());
+    }
+
     public void onWriteRateLimitChange() {
         checkAndInitRateLimit(writeLimiter, config.getWriteRateLimit(), "writeLimiter");
     }
@@ -360,11 +619,35 @@ public class NdBenchDriver {
         checkAndInitRateLimit(readLimiter, config.getReadRateLimit(), "readLimiter");
     }
 
+    public void onMixRateLimitChange() {
+        if (mixLimiter.get() != null) {
+            checkAndInitRateLimit(mixLimiter, config.getMixRateLimit(), "mixLimiter");
+        }
+    }
+
     public void updateWriteRateLimit(double newLimit) {
         settableConfig.setProperty(NdBenchConstants.WRITE_RATE_LIMIT_FULL_NAME, (int) Math.ceil(newLimit));
         onWriteRateLimitChange();
     }
 
+    public void updateReadRateLimit(double newLimit) {
+        settableConfig.setProperty(NdBenchConstants.READ_RATE_LIMIT_FULL_NAME, (int) Math.ceil(newLimit));
+        onReadRateLimitChange();
+    }
+
+    /**
+     * @return the state of auto-tuning, see {@link AutoTuneController#getStatus()}
+     */
+    public Map<String, Object> getAutoTuneStatus() {
+        return autoTuneController.getStatus();
+    }
+
+    /**
+     * @return the state of the rate profiles, see {@link RateProfileController#getStatus()}
+     */
+    public Map<String, Object> getRateProfileStatus() {
+        return rateProfileController.getStatus();
+    }
 
     private void setWriteRateLimit(int prop) {
         checkAndInitRateLimit(writeLimiter, prop, "writeLimiter");
@@ -402,6 +685,8 @@ public class NdBenchDriver {
                 public Void call() throws Exception {
                     while (!Thread.currentThread().isInterrupted()) {
                         rpsCount.updateRPS();
+                        updateSchedulerLag();
+                        runRecorder.onInterval(getIsReadRunning() || getIsWriteRunning() || getIsMixRunning());
                         Thread.sleep(config.getStatsUpdateFreqSeconds() * 1000);
                     }
                     return null;
@@ -411,11 +696,37 @@ public class NdBenchDriver {
         }
     }
 
+    private PermitScheduler createPermitScheduler(AtomicReference<RateLimiter> rateLimiter) {
+        long spinThresholdNanos = TimeUnit.MICROSECONDS.toNanos(config.getSchedulerSpinThresholdMicros());
+        if (config.isOpenLoopEnabled()) {
+            return new OpenLoopScheduler(rateLimiter, spinThresholdNanos);
+        }
+        if ("spinning".equalsIgnoreCase(config.getPermitScheduler())) {
+            return new SpinningPermitScheduler(rateLimiter);
+        }
+        return new ParkingPermitScheduler(rateLimiter, spinThresholdNanos);
+    }
+
+    private void updateSchedulerLag() {
+        // a mix performs reads and writes alike, so its lag is folded into both figures
+        long mixLagNanos = getAndResetMaxLagNanos(mixSchedulerRef);
+        ndBenchMonitor.setReadSchedulerLagMicros(
+                TimeUnit.NANOSECONDS.toMicros(Math.max(getAndResetMaxLagNanos(readSchedulerRef), mixLagNanos)));
+        ndBenchMonitor.setWriteSchedulerLagMicros(
+                TimeUnit.NANOSECONDS.toMicros(Math.max(getAndResetMaxLagNanos(writeSchedulerRef), mixLagNanos)));
+    }
+
+    private static long getAndResetMaxLagNanos(AtomicReference<PermitScheduler> schedulerRef) {
+        PermitScheduler scheduler = schedulerRef.get();
+        return scheduler == null ? 0L : scheduler.getAndResetMaxLagNanos();
+    }
+
     public void shutdownClient() throws Exception {
         if (clientInited.get()) {
             clientRef.get().shutdown();
             if (clientInited.compareAndSet(true, false)) {
                 clientRef.set(null);
+                writeVersionsRef.set(null);
             }
         }
     }
@@ -450,6 +761,8 @@ public class NdBenchDriver {
     static class RPSCount {
         private final AtomicLong reads = new AtomicLong(0L);
         private final AtomicLong writes = new AtomicLong(0L);
+        private final AtomicLong readItems = new AtomicLong(0L);
+        private final AtomicLong writeItems = new AtomicLong(0L);
         private final IConfiguration config;
         private final NdBenchMonitor ndBenchMonitor;
         private final AtomicReference<RateLimiter> readLimiter;
@@ -494,6 +807,19 @@ public class NdBenchDriver {
 
             Logger.info("Read RPS: " + readRps + ", Write RPS: " + writeRps +
                     ", total RPS: " + (readRps + writeRps) + ", Success Ratio: " + sRatio + "%");
+
+            // items of batch requests, so that batch sizes don't skew the throughput the data store actually sees
+            long totalReadItems = ndBenchMonitor.getReadItems();
+            long totalWriteItems = ndBenchMonitor.getWriteItems();
+            long readItemRps = (totalReadItems - readItems.get()) / secondsFreq;
+            long writeItemRps = (totalWriteItems - writeItems.get()) / secondsFreq;
+            readItems.set(totalReadItems);
+            writeItems.set(totalWriteItems);
+            ndBenchMonitor.setReadItemRPS(readItemRps);
+            ndBenchMonitor.setWriteItemRPS(writeItemRps);
+            if (readItemRps > 0 || writeItemRps > 0) {
+                Logger.info("Read items/s: " + readItemRps + ", Write items/s: " + writeItemRps);
+            }
             long expectedReadRate = (long) this.readLimiter.get().getRate();
             long expectedwriteRate = (long) this.writeLimiter.get().getRate();
             String bottleneckMsg = "If this occurs consistently the benchmark client could be the bottleneck.";
@@ -0,0 +1,189 @@
+/*
+ *  Copyright 2016 Netflix, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package com.netflix.ndbench.core;
+
+import com.google.common.util.concurrent.RateLimiter;
+import com.netflix.ndbench.api.plugin.NdBenchMonitor;
+import com.netflix.ndbench.core.generators.KeyGenerator;
+import com.netflix.ndbench.core.util.PermitScheduler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * One worker of an operation: issues the operation on the keys of its key generator whenever the operation's permit
+ * scheduler lets it, until it is interrupted or the key generator has run out of keys.
+ * <p>
+ * Depending on the driver's configuration, each permit is used for a single key, a batch of keys, a single key
+ * passed as bytes, or a single asynchronous operation. In async mode the worker keeps up to maxInFlight operations
+ * outstanding, and waits for one of them to complete before it issues another one.
+ * <p>
+ * The keys of an operation are taken before its permit, so that the time key generators take to hand out keys,
+ * such as the wait of {@link com.netflix.ndbench.core.generators.TraceReplayKeyGenerator} for a key's time in its
+ * trace, is not part of the operation's latency.
+ */
+class NdBenchWorker implements Callable<Void> {
+    private static final Logger Logger = LoggerFactory.getLogger(NdBenchWorker.class);
+
+    // largest per-worker key buffer of the binary data path; keys of generators with longer keys are passed as strings
+    static final int MAX_BINARY_KEY_LENGTH = 64 * 1024;
+
+    private final NdBenchDriver driver;
+    private final NdBenchMonitor monitor;
+    private final NdBenchDriver.NdBenchOperation operation;
+    private final KeyGenerator<String> keyGenerator;
+    private final AtomicReference<RateLimiter> rateLimiter;
+    private final PermitScheduler permitScheduler;
+    private final AtomicBoolean started;
+    private final Runnable stop;
+    private final int maxInFlight;
+    private final int batchSize;
+    private final boolean isBinary;
+
+    /**
+     * @param maxInFlight the number of asynchronous operations the worker may have outstanding; 0 to issue operations
+     *                    synchronously
+     * @param batchSize   the number of keys issued per permit; 1 to issue single keys
+     * @param isBinary    whether single keys are passed to the operation as bytes, which requires the key generator's
+     *                    keys to be at most {@link #MAX_BINARY_KEY_LENGTH} bytes long
+     */
+    NdBenchWorker(NdBenchDriver driver,
+                  NdBenchMonitor monitor,
+                  NdBenchDriver.NdBenchOperation operation,
+                  KeyGenerator<String> keyGenerator,
+                  AtomicReference<RateLimiter> rateLimiter,
+                  PermitScheduler permitScheduler,
+                  AtomicBoolean started,
+                  Runnable stop,
+                  int maxInFlight,
+                  int batchSize,
+                  boolean isBinary) {
+        this.driver = driver;
+        this.monitor = monitor;
+        this.operation = operation;
+        this.keyGenerator = keyGenerator;
+        this.rateLimiter = rateLimiter;
+        this.permitScheduler = permitScheduler;
+        this.started = started;
+        this.stop = stop;
+        this.maxInFlight = maxInFlight;
+        this.batchSize = batchSize;
+        this.isBinary = isBinary;
+    }
+
+    @Override
+    public Void call() throws Exception {
+        try {
+            run();
+        } catch (RuntimeException | Error e) {
+            // the driver never looks at the worker's future, so this is the only trace of the worker's end
+            Logger.error("NdBenchWorker failed", e);
+            throw e;
+        }
+        Logger.info("NdBenchWorker shutting down");
+        return null;
+    }
+
+    private void run() {
+        // bounds the number of async operations this worker may have outstanding at any one time
+        final Semaphore inFlight = maxInFlight > 0 ? new Semaphore(maxInFlight) : null;
+        // reused for the key of every operation of this worker, in binary mode
+        final byte[] keyBytes = isBinary ? new byte[keyGenerator.getMaxKeyLength()] : null;
+        final ByteBuffer keyBuffer = isBinary ? ByteBuffer.wrap(keyBytes) : null;
+
+        while (!Thread.currentThread().isInterrupted()) {
+            if (started.get()) {
+                String key = null;
+                List<String> keys = null;
+                if (inFlight == null && batchSize > 1) {
+                    // one permit covers a whole batch, so rate limits count requests rather than keys
+                    keys = new ArrayList<>(batchSize);
+                    keys.add(keyGenerator.getNextKey());
+                    while (keys.size() < batchSize && keyGenerator.hasNextKey()) {
+                        keys.add(keyGenerator.getNextKey());
+                    }
+                } else if (inFlight == null && keyBuffer != null) {
+                    keyBuffer.clear();
+                    keyBuffer.limit(keyGenerator.encodeNextKey(keyBytes, 0));
+                } else {
+                    key = keyGenerator.getNextKey();
+                }
+
+                operation.prepareNext();
+
+                long intendedStartNanos;
+                try {
+                    intendedStartNanos = permitScheduler.acquire();
+                    if (inFlight != null) {
+                        inFlight.acquire();
+                        if (!permitScheduler.isOpenLoop()) {
+                            // waiting for an in-flight slot is only part of the latency in open-loop mode
+                            intendedStartNanos = System.nanoTime();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+
+                if (inFlight != null) {
+                    operation.processAsync(
+                            driver,
+                            monitor,
+                            key,
+                            rateLimiter,
+                            intendedStartNanos)
+                            .whenComplete((success, error) -> inFlight.release());
+                } else if (keys != null) {
+                    operation.processBatch(
+                            driver,
+                            monitor,
+                            keys,
+                            rateLimiter,
+                            intendedStartNanos);
+                } else if (keyBuffer != null) {
+                    operation.processBinary(
+                            driver,
+                            monitor,
+                            keyBuffer,
+                            rateLimiter,
+                            intendedStartNanos);
+                } else {
+                    operation.process(
+                            driver,
+                            monitor,
+                            key,
+                            rateLimiter,
+                            intendedStartNanos);
+                }
+            }
+            if (!keyGenerator.hasNextKey()) {
+                Logger.info("No more keys to process, hence stopping the process.");
+                stop.run();
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package com.netflix.ndbench.core.autotune;
+
+import com.netflix.ndbench.api.plugin.NdBenchAbstractClient;
+import com.netflix.ndbench.api.plugin.NdBenchMonitor;
+import com.netflix.ndbench.core.NdBenchDriver;
+import com.netflix.ndbench.core.config.IConfiguration;
+import com.netflix.ndbench.core.monitoring.HistogramSource;
+import com.netflix.ndbench.core.rateprofile.RateProfileController;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tunes the driver's read and write rate limits once per stats interval, on a thread of its own, so that workers
+ * never spend time on tuning. Depending on the configuration, the new rates come from an {@link SloAutoTuner} per
+ * direction (sloAutoTuneEnabled), or from the plugin's autoTune[Read/Write]RateLimit methods (autoTuneEnabled).
+ * <p>
+ * Since the controller is the only one to change rate limits for tuning, each change is applied exactly once, as
+ * a single update of the runtime config. Directions whose rate limit is driven by a rate profile are not tuned.
+ */
+public class AutoTuneController {
+    private static final Logger Logger = LoggerFactory.getLogger(AutoTuneController.class);
+
+    private final NdBenchDriver driver;
+    private final IConfiguration config;
+    private final NdBenchMonitor monitor;
+
+    private ScheduledExecutorService executor;  // guarded by this
+    private SloAutoTuner readTuner;             // guarded by this
+    private SloAutoTuner writeTuner;            // guarded by this
+    private long lastTickNanos;                 // guarded by this
+
+    public AutoTuneController(NdBenchDriver driver, IConfiguration config, NdBenchMonitor monitor) {
+        this.driver = driver;
+        this.config = config;
+        this.monitor = monitor;
+    }
+
+    /**
+     * Starts tuning once per statsUpdateFreqSeconds, unless tuning is disabled or already running
+     */
+    public synchronized void start() {
+        if (executor != null || !(config.isSloAutoTuneEnabled() || config.isAutoTuneEnabled())) {
+            return;
+        }
+        if (config.isSloAutoTuneEnabled() && !(monitor instanceof HistogramSource)) {
+            Logger.warn("SLO auto-tuning needs a monitor that keeps latency histograms, {} doesn't",
+                    monitor.getClass().getSimpleName());
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ndbench-autotune");
+            thread.setDaemon(true);
+            return thread;
+        });
+        lastTickNanos = System.nanoTime();
+        int interval = config.getStatsUpdateFreqSeconds();
+        executor.scheduleAtFixedRate(this::safeTick, interval, interval, TimeUnit.SECONDS);
+        Logger.info("Auto-tuning rate limits every {} seconds", interval);
+    }
+
+    public synchronized void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+        readTuner = null;
+        writeTuner = null;
+    }
+
+    /**
+     * Tunes the rate limits of the reads and writes that are running, based on the stats of the interval since the
+     * previous tick
+     */
+    public synchronized void tick() {
+        long now = System.nanoTime();
+        double intervalSeconds = Math.max(1L, now - lastTickNanos) / 1e9;
+        lastTickNanos = now;
+
+        NdBenchAbstractClient<?> client = driver.getClient();
+        if (driver.getIsReadRunning() && client != null && !RateProfileController.hasProfile(config.getReadRateProfile())) {
+            double rate;
+            if (config.isSloAutoTuneEnabled()) {
+                if (readTuner == null) {
+                    readTuner = createTuner("reads", config.getReadRateLimit());
+                }
+                rate = readTuner.onStats(monitor.getReadSuccess(), monitor.getReadFailure(),
+                        ((HistogramSource) monitor).histograms().get("read"), intervalSeconds);
+            } else {
+                rate = client.autoTuneReadRateLimit(config.getReadRateLimit(), null, monitor);
+            }
+            if (rate > 0 && (int) Math.ceil(rate) != config.getReadRateLimit()) {
+                driver.updateReadRateLimit(rate);
+            }
+        } else {
+            readTuner = null;
+        }
+
+        if (driver.getIsWriteRunning() && client != null && !RateProfileController.hasProfile(config.getWriteRateProfile())) {
+            double rate;
+            if (config.isSloAutoTuneEnabled()) {
+                if (writeTuner == null) {
+                    writeTuner = createTuner("writes", config.getWriteRateLimit());
+                }
+                rate = writeTuner.onStats(monitor.getWriteSuccess(), monitor.getWriteFailure(),
+                        ((HistogramSource) monitor).histograms().get("write"), intervalSeconds);
+            } else {
+                rate = client.autoTuneWriteRateLimit((double) config.getWriteRateLimit(), null, monitor);
+            }
+            if (rate > 0 && (int) Math.ceil(rate) != config.getWriteRateLimit()) {
+                driver.updateWriteRateLimit(rate);
+            }
+        } else {
+            writeTuner = null;
+        }
+    }
+
+    /**
+     * @return the state of the SLO auto-tuners of reads and writes, including the capacity discovered so far
+     */
+    public synchronized Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("mode", config.isSloAutoTuneEnabled() ? "slo" : config.isAutoTuneEnabled() ? "plugin" : "off");
+        status.put("running", executor != null);
+        if (readTuner != null) {
+            status.put("reads", readTuner.getStatus());
+        }
+        if (writeTuner != null) {
+            status.put("writes", writeTuner.getStatus());
+        }
+        return status;
+    }
+
+    private void safeTick() {
+        try {
+            tick();
+        } catch (Exception e) {
+            // an exception would cancel all further ticks
+            Logger.error("Auto-tuning failed", e);
+        }
+    }
+
+    private SloAutoTuner createTuner(String name, int initialRate) {
+        return new SloAutoTuner(name,
+                initialRate,
+                config.getAutoTuneTargetP99Micros(),
+                config.getAutoTuneMaxFailureRatio(),
+                config.getAutoTuneRateIncrement(),
+                config.getAutoTuneBackoffFactor(),
+                config.getAutoTuneMaxRate());
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package com.netflix.ndbench.core.autotune;
+
+import com.netflix.ndbench.core.monitoring.HistogramDeltaTracker;
+import com.netflix.ndbench.core.util.EstimatedHistogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Searches for the highest rate at which the target data store keeps within a latency and failure SLO, based on
+ * the stats of consecutive intervals run at the rates it recommends.
+ * <p>
+ * The search is AIMD, as in TCP congestion control: starting from the initial rate, the rate doubles with every
+ * interval that meets the SLO, until the first interval that doesn't ("slow start"). From then on, it grows by a
+ * fixed increment per compliant interval and is cut by the backoff factor on every violation, so it keeps probing
+ * around the highest sustainable rate. Intervals in which the client failed to issue operations at the recommended
+ * rate don't count as compliant, since they say nothing about whether the data store could have taken that rate.
+ */
+public class SloAutoTuner {
+    private static final Logger Logger = LoggerFactory.getLogger(SloAutoTuner.class);
+
+    // fraction of the recommended rate the client must achieve for an interval to tell us anything about that rate
+    static final double MIN_ACHIEVED_FRACTION = 0.9;
+    static final double MIN_RATE = 1.0;
+
+    public enum Phase {SLOW_START, CONGESTION_AVOIDANCE}
+
+    private final String name;
+    private final long targetP99Micros;
+    private final double maxFailureRatio;
+    private final double rateIncrement;
+    private final double backoffFactor;
+    private final double maxRate;
+
+    private double rate;                    // guarded by this
+    private Phase phase = Phase.SLOW_START; // guarded by this
+    private double capacity = 0.0;          // guarded by this
+    private double lastViolationRate = 0.0; // guarded by this
+    private long lastP99Micros = 0L;        // guarded by this
+    private double lastFailureRatio = 0.0;  // guarded by this
+
+    private final HistogramDeltaTracker latencyDeltas = new HistogramDeltaTracker();
+    private long previousSuccesses = 0L;    // guarded by this
+    private long previousFailures = 0L;     // guarded by this
+
+    /**
+     * @param name          what is being tuned, for logging
+     * @param initialRate   the rate the first interval runs at
+     * @param backoffFactor the rate is multiplied by this on an SLO violation; must be > 0 and < 1
+     */
+    public SloAutoTuner(String name,
+                        double initialRate,
+                        long targetP99Micros,
+                        double maxFailureRatio,
+                        double rateIncrement,
+                        double backoffFactor,
+                        double maxRate) {
+        if (backoffFactor <= 0.0 || backoffFactor >= 1.0) {
+            throw new IllegalArgumentException("backoffFactor must be > 0 and < 1.0. Actual was " + backoffFactor);
+        }
+        if (targetP99Micros <= 0 || rateIncrement <= 0.0 || maxRate < MIN_RATE) {
+            throw new IllegalArgumentException("targetP99Micros and rateIncrement must be > 0, and maxRate >= " + MIN_RATE);
+        }
+        this.name = name;
+        this.targetP99Micros = targetP99Micros;
+        this.maxFailureRatio = maxFailureRatio;
+        this.rateIncrement = rateIncrement;
+        this.backoffFactor = backoffFactor;
+        this.maxRate = maxRate;
+        this.rate = Math.min(maxRate, Math.max(MIN_RATE, initialRate));
+    }
+
+    /**
+     * Takes the stats of an interval run at the most recently recommended rate into account
+     *
+     * @param successes   operations that succeeded during the interval
+     * @param failures    operations that failed during the interval
+     * @param p99Micros   p99 latency of the interval's operations
+     * @param achievedRps rate at which operations were actually issued during the interval
+     * @return the rate the next interval should run at
+     */
+    public synchronized double onInterval(long successes, long failures, long p99Micros, double achievedRps) {
+        long total = successes + failures;
+        if (total == 0) {
+            return rate;
+        }
+        lastP99Micros = p99Micros;
+        lastFailureRatio = failures / (double) total;
+
+        if (p99Micros > targetP99Micros || lastFailureRatio > maxFailureRatio) {
+            lastViolationRate = rate;
+            phase = Phase.CONGESTION_AVOIDANCE;
+            rate = Math.max(MIN_RATE, rate * backoffFactor);
+            Logger.info("{}: SLO violated at {}/s (p99 {}us, failure ratio {}), backing off to {}/s",
+                    name, (long) lastViolationRate, p99Micros, lastFailureRatio, (long) rate);
+        } else if (achievedRps < rate * MIN_ACHIEVED_FRACTION) {
+            Logger.info("{}: only {}/s of {}/s achieved, the client may be the bottleneck; holding rate",
+                    name, (long) achievedRps, (long) rate);
+        } else {
+            if (rate > capacity) {
+                capacity = rate;
+                Logger.info("{}: SLO met at {}/s (p99 {}us), capacity is at least {}/s", name, (long) rate, p99Micros, (long) capacity);
+            }
+            rate = Math.min(maxRate, phase == Phase.SLOW_START ? rate * 2 : rate + rateIncrement);
+        }
+        return rate;
+    }
+
+    /**
+     * Like {@link #onInterval}, but takes the monitor's cumulative counters and latency histogram, and derives the
+     * interval's stats from their change since the previous call
+     *
+     * @param intervalSeconds time since the previous call
+     */
+    public synchronized double onStats(long totalSuccesses, long totalFailures, EstimatedHistogram latencies, double intervalSeconds) {
+        // counters only go backwards when the monitor's stats have been reset
+        long successes = totalSuccesses >= previousSuccesses ? totalSuccesses - previousSuccesses : totalSuccesses;
+        long failures = totalFailures >= previousFailures ? totalFailures - previousFailures : totalFailures;
+        previousSuccesses = totalSuccesses;
+        previousFailures = totalFailures;
+
+        EstimatedHistogram interval = latencyDeltas.delta(name, latencies).toHistogram();
+        long p99Micros;
+        if (interval.isOverflowed()) {
+            p99Micros = Long.MAX_VALUE;
+        } else {
+            p99Micros = interval.count() > 0 ? interval.percentile(0.99) : 0L;
+        }
+        return onInterval(successes, failures, p99Micros, (successes + failures) / intervalSeconds);
+    }
+
+    public synchronized double getRate() {
+        return rate;
+    }
+
+    /**
+     * @return the highest rate at which an interval met the SLO, i.e. the discovered capacity; 0 if none has yet
+     */
+    public synchronized double getCapacity() {
+        return capacity;
+    }
+
+    public synchronized Phase getPhase() {
+        return phase;
+    }
+
+    public synchronized Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("phase", phase.name());
+        status.put("rate", (long) rate);
+        status.put("capacity", (long) capacity);
+        status.put("lastViolationRate", (long) lastViolationRate);
+        status.put("lastP99Micros", lastP99Micros);
+        status.put("lastFailureRatio", lastFailureRatio);
+        status.put("targetP99Micros", targetP99Micros);
+        status.put("maxFailureRatio", maxFailureRatio);
+        return status;
+    }
+}
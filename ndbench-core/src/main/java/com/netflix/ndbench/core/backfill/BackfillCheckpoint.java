@@ -0,0 +1,176 @@
+/*
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package com.netflix.ndbench.core.backfill;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+
+/**
+ * The chunks of a backfill that have been completed, persisted so that a stopped or crashed backfill can resume
+ * where it left off rather than start over.
+ * <p>
+ * A checkpoint file holds the backfill's key range, chunk size and mode, followed by a bitmap of completed chunks
+ * (a billion keys in chunks of 10000 take 12.5KB), and is replaced atomically on every save. A checkpoint is only
+ * resumed by a backfill of the same range, chunk size and mode; it is deleted once its backfill has completed.
+ */
+public class BackfillCheckpoint {
+    private static final Logger Logger = LoggerFactory.getLogger(BackfillCheckpoint.class);
+
+    private static final int MAGIC = 0x4E444243;   // "NDBC"
+    private static final int VERSION = 1;
+
+    private final Path file;        // null if not persisted
+    private final BackfillMode mode;
+    private final long firstKey;
+    private final long endKey;
+    private final int chunkSize;
+    private final BitSet completed;     // guarded by this
+    private long changes;               // guarded by this; number of chunks marked done
+    private long savedChanges;          // guarded by this; number of those persisted by the last successful save
+
+    private BackfillCheckpoint(Path file, BackfillMode mode, long firstKey, long endKey, int chunkSize,
+                               BitSet completed) {
+        this.file = file;
+        this.mode = mode;
+        this.firstKey = firstKey;
+        this.endKey = endKey;
+        this.chunkSize = chunkSize;
+        this.completed = completed;
+    }
+
+    /**
+     * @return a checkpoint that is kept in memory only
+     */
+    public static BackfillCheckpoint inMemory(BackfillMode mode, long firstKey, long endKey, int chunkSize) {
+        return new BackfillCheckpoint(null, mode, firstKey, endKey, chunkSize, new BitSet());
+    }
+
+    /**
+     * Resumes the checkpoint of the given backfill in 'dir', or starts a new one if there is none (or if it can't
+     * be read)
+     */
+    public static BackfillCheckpoint open(Path dir, BackfillMode mode, long firstKey, long endKey, int chunkSize)
+            throws IOException {
+        Files.createDirectories(dir);
+        Path file = dir.resolve("backfill-" + mode.name().toLowerCase() + "-" + firstKey + "-" + endKey + "-"
+                + chunkSize + ".ckpt");
+        BitSet completed = new BitSet();
+        if (Files.exists(file)) {
+            try (InputStream in = Files.newInputStream(file)) {
+                completed = read(new DataInputStream(in), mode, firstKey, endKey, chunkSize);
+                Logger.info("Resuming backfill from checkpoint {}: {} chunks already done", file,
+                        completed.cardinality());
+            } catch (IOException e) {
+                Logger.warn("Ignoring unreadable backfill checkpoint " + file, e);
+                completed = new BitSet();
+            }
+        }
+        return new BackfillCheckpoint(file, mode, firstKey, endKey, chunkSize, completed);
+    }
+
+    public synchronized boolean isDone(long chunk) {
+        return completed.get(Math.toIntExact(chunk));
+    }
+
+    public synchronized void markDone(long chunk) {
+        completed.set(Math.toIntExact(chunk));
+        changes++;
+    }
+
+    public synchronized long getNumDone() {
+        return completed.cardinality();
+    }
+
+    /**
+     * Persists the completed chunks, if any were completed since the last successful save. The file is synced before
+     * it replaces the previous checkpoint, so that a crash never leaves an empty or partial checkpoint behind.
+     */
+    public void save() throws IOException {
+        long[] bits;
+        long saving;
+        synchronized (this) {
+            if (file == null || changes == savedChanges) {
+                return;
+            }
+            bits = completed.toLongArray();
+            saving = changes;
+        }
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            DataOutputStream out = new DataOutputStream(Channels.newOutputStream(channel));
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeUTF(mode.name());
+            out.writeLong(firstKey);
+            out.writeLong(endKey);
+            out.writeInt(chunkSize);
+            out.writeInt(bits.length);
+            for (long word : bits) {
+                out.writeLong(word);
+            }
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        synchronized (this) {
+            // a failed save leaves the changes unsaved, so the next save retries them
+            savedChanges = Math.max(savedChanges, saving);
+        }
+    }
+
+    /**
+     * Deletes the persisted checkpoint, once its backfill has completed
+     */
+    public void delete() throws IOException {
+        if (file != null) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    private static BitSet read(DataInputStream in, BackfillMode mode, long firstKey, long endKey, int chunkSize)
+            throws IOException {
+        if (in.readInt() != MAGIC || in.readByte() != VERSION) {
+            throw new IOException("Not a backfill checkpoint");
+        }
+        if (!mode.name().equals(in.readUTF()) || in.readLong() != firstKey || in.readLong() != endKey
+                || in.readInt() != chunkSize) {
+            throw new IOException("Checkpoint of a different backfill");
+        }
+        long[] bits = new long[in.readInt()];
+        for (int i = 0; i < bits.length; i++) {
+            bits[i] = in.readLong();
+        }
+        return BitSet.valueOf(bits);
+    }
+}
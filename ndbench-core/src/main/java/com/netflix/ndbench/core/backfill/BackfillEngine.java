@@ -0,0 +1,405 @@
+/*
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package com.netflix.ndbench.core.backfill;
+
+import com.google.common.util.concurrent.RateLimiter;
+import com.netflix.ndbench.api.plugin.NdBenchAbstractClient;
+import com.netflix.ndbench.core.config.IConfiguration;
+import com.netflix.ndbench.core.generators.KeyPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Loads the keys T[firstKey] .. T[endKey - 1] into the plugin's data store once. Keys are numbered like those of the
+ * benchmark's key generators, so that the configured range is offset by this node's share of the key space.
+ * <p>
+ * The key range is cut into fixed size chunks that workers claim one at a time from a shared cursor, so that fast
+ * workers take over the chunks slow ones would otherwise have been left with. Within a chunk, keys are written in
+ * batches through the plugin's batch operations, or, for plain writes of single keys, kept in flight through its
+ * asynchronous ones. A batch that keeps failing after a bounded number of retries abandons its chunk rather than
+ * stall the backfill.
+ * <p>
+ * Completed chunks are recorded in a {@link BackfillCheckpoint}, which is persisted every few seconds if a
+ * checkpoint directory is configured: starting the same backfill again then skips the chunks that were completed
+ * before it was stopped or crashed, and retries the ones it abandoned.
+ */
+public class BackfillEngine {
+    private static final Logger Logger = LoggerFactory.getLogger(BackfillEngine.class);
+
+    private static final long PROGRESS_INTERVAL_MILLIS = 5000L;
+    private static final long MAX_BACKOFF_MILLIS = 5000L;
+
+    private final NdBenchAbstractClient<?> client;
+    private final BackfillMode mode;
+    private final long firstKey;
+    private final long endKey;
+    private final KeyPool keyPool;
+    private final int numThreads;
+    private final int chunkSize;
+    private final int batchSize;
+    private final int maxInFlight;
+    private final RateLimiter rateLimiter;  // null if unlimited
+    private final int maxRetries;
+    private final BackfillCheckpoint checkpoint;
+
+    private final long numChunks;
+    private final AtomicLong nextChunk = new AtomicLong(0);
+    private final AtomicBoolean stop = new AtomicBoolean(false);
+    private final AtomicLong keysDone = new AtomicLong(0);
+    private final AtomicLong missCount = new AtomicLong(0);
+    private final AtomicLong chunksFailed = new AtomicLong(0);
+
+    private volatile long keysResumed;
+    private volatile long startNanos;
+    private volatile long endNanos;
+    private volatile ExecutorService threadPool;
+    private volatile Future<?> monitor;
+
+    /**
+     * A backfill of the configured key range within this node's share of the key space, i.e. of the keys
+     * [backfillStartKey, numKeys) offset by keyRangeStart, resuming the configured checkpoint directory's checkpoint
+     * if there is one
+     */
+    public BackfillEngine(NdBenchAbstractClient<?> client, BackfillMode mode, IConfiguration config)
+            throws IOException {
+        this(client, mode, firstKey(config), endKey(config), config.getNumBackfill(),
+                config.getBackfillChunkSize(), config.getBackfillBatchSize(), config.getBackfillMaxInFlight(),
+                config.getBackfillRateLimit(), config.getBackfillMaxRetries(),
+                checkpoint(config, mode, firstKey(config), endKey(config)));
+    }
+
+    BackfillEngine(NdBenchAbstractClient<?> client, BackfillMode mode, long firstKey, long endKey, int numThreads,
+                   int chunkSize, int batchSize, int maxInFlight, double rateLimit, int maxRetries,
+                   BackfillCheckpoint checkpoint) {
+        if (numThreads < 1 || chunkSize < 1 || batchSize < 1 || maxInFlight < 1 || maxRetries < 0) {
+            throw new IllegalArgumentException("Backfill threads, chunk size, batch size and max in flight must be " +
+                    "positive, max retries must not be negative");
+        }
+        this.client = client;
+        this.mode = mode;
+        this.firstKey = firstKey;
+        this.endKey = Math.max(firstKey, endKey);
+        this.keyPool = new KeyPool(firstKey, this.endKey - firstKey, false);
+        this.numThreads = numThreads;
+        this.chunkSize = chunkSize;
+        this.batchSize = batchSize;
+        this.maxInFlight = maxInFlight;
+        this.rateLimiter = rateLimit > 0 ? RateLimiter.create(rateLimit) : null;
+        this.maxRetries = maxRetries;
+        this.checkpoint = checkpoint;
+        this.numChunks = (this.endKey - firstKey + chunkSize - 1) / chunkSize;
+        if (numChunks > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Backfill of " + (this.endKey - firstKey) + " keys needs a chunk size " +
+                    "above " + chunkSize);
+        }
+    }
+
+    private static long firstKey(IConfiguration config) {
+        return config.getKeyRangeStart() + config.getBackfillStartKey();
+    }
+
+    private static long endKey(IConfiguration config) {
+        return config.getKeyRangeStart() + config.getNumKeys();
+    }
+
+    private static BackfillCheckpoint checkpoint(IConfiguration config, BackfillMode mode, long firstKey,
+                                                 long endKey) throws IOException {
+        String dir = config.getBackfillCheckpointDir();
+        int chunkSize = config.getBackfillChunkSize();
+        if (dir == null || dir.trim().isEmpty()) {
+            return BackfillCheckpoint.inMemory(mode, firstKey, endKey, chunkSize);
+        }
+        return BackfillCheckpoint.open(Paths.get(dir.trim()), mode, firstKey, endKey, chunkSize);
+    }
+
+    public synchronized void start() {
+        if (threadPool != null) {
+            throw new IllegalStateException("Backfill already started");
+        }
+        long resumed = 0;
+        for (long chunk = 0; chunk < numChunks; chunk++) {
+            if (checkpoint.isDone(chunk)) {
+                resumed += chunkEnd(chunk) - chunkStart(chunk);
+            }
+        }
+        keysResumed = resumed;
+
+        Logger.info("Starting {} backfill of keys [{}, {}) with {} threads: {} chunks of {} keys, {} already done",
+                mode, firstKey, endKey, numThreads, numChunks, chunkSize, checkpoint.getNumDone());
+
+        startNanos = System.nanoTime();
+        threadPool = Executors.newFixedThreadPool(numThreads + 1);
+        CountDownLatch latch = new CountDownLatch(numThreads);
+        for (int i = 0; i < numThreads; i++) {
+            threadPool.submit(() -> {
+                try {
+                    work();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (Exception e) {
+                    Logger.error("Backfill worker failed", e);
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        monitor = threadPool.submit(() -> monitor(latch));
+        threadPool.shutdown();
+    }
+
+    /**
+     * Stops claiming chunks; chunks in progress are abandoned after their current batch and remain to be done by a
+     * resumed backfill
+     */
+    public void stop() {
+        stop.set(true);
+    }
+
+    /**
+     * Stops the backfill and interrupts its workers
+     */
+    public void shutdown() {
+        stop();
+        ExecutorService pool = threadPool;
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Blocks until the backfill has completed or been stopped
+     */
+    public void awaitTermination() throws Exception {
+        Future<?> future = monitor;
+        if (future != null) {
+            future.get();
+        }
+    }
+
+    public boolean isRunning() {
+        Future<?> future = monitor;
+        return future != null && !future.isDone();
+    }
+
+    /**
+     * @return whether all chunks have been completed, in this or a previous run
+     */
+    public boolean isComplete() {
+        return checkpoint.getNumDone() == numChunks;
+    }
+
+    public Map<String, Object> getStatus() {
+        long done = keysDone.get();
+        long elapsedNanos = startNanos == 0 ? 0 : (endNanos != 0 ? endNanos : System.nanoTime()) - startNanos;
+        double keysPerSecond = elapsedNanos > 0 ? done * 1e9 / elapsedNanos : 0;
+        long remaining = endKey - firstKey - keysResumed - done;
+
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("mode", mode.name());
+        status.put("running", isRunning());
+        status.put("firstKey", firstKey);
+        status.put("endKey", endKey);
+        status.put("keysTotal", endKey - firstKey);
+        status.put("keysDone", keysResumed + done);
+        status.put("keysResumed", keysResumed);
+        status.put("keysPerSecond", Math.round(keysPerSecond));
+        status.put("chunksTotal", numChunks);
+        status.put("chunksDone", checkpoint.getNumDone());
+        status.put("chunksFailed", chunksFailed.get());
+        status.put("missCount", missCount.get());
+        status.put("elapsedSeconds", TimeUnit.NANOSECONDS.toSeconds(elapsedNanos));
+        status.put("etaSeconds", keysPerSecond > 0 && isRunning() ? Math.round(remaining / keysPerSecond) : -1L);
+        if (checkpoint.getFile() != null) {
+            status.put("checkpoint", checkpoint.getFile().toString());
+        }
+        return status;
+    }
+
+    private void work() throws Exception {
+        boolean async = mode == BackfillMode.NORMAL && batchSize == 1 && maxInFlight > 1;
+        long chunk;
+        while (!stop.get() && (chunk = nextChunk.getAndIncrement()) < numChunks) {
+            if (checkpoint.isDone(chunk)) {
+                continue;
+            }
+            boolean completed = async ? fillChunkAsync(chunkStart(chunk), chunkEnd(chunk))
+                                      : fillChunk(chunkStart(chunk), chunkEnd(chunk));
+            if (completed) {
+                checkpoint.markDone(chunk);
+            } else if (!stop.get()) {
+                chunksFailed.incrementAndGet();
+            }
+        }
+    }
+
+    private boolean fillChunk(long start, long end) throws InterruptedException {
+        long k = start;
+        while (k < end && !stop.get()) {
+            int n = (int) Math.min(batchSize, end - k);
+            List<String> keys = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                keys.add(key(k + i));
+            }
+            acquire(n);
+            if (!fillBatch(keys)) {
+                return false;
+            }
+            k += n;
+        }
+        return k == end;
+    }
+
+    /**
+     * Writes the chunk's keys asynchronously, keeping up to maxInFlight writes in flight. Failed writes are retried
+     * synchronously once the chunk's writes have completed.
+     */
+    private boolean fillChunkAsync(long start, long end) throws InterruptedException {
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        Queue<String> failed = new ConcurrentLinkedQueue<>();
+        long k = start;
+        for (; k < end && !stop.get(); k++) {
+            String key = key(k);
+            acquire(1);
+            inFlight.acquire();
+            try {
+                CompletionStage<?> write = client.writeAsync(key);
+                write.whenComplete((result, e) -> {
+                    if (e == null) {
+                        keysDone.incrementAndGet();
+                    } else {
+                        failed.add(key);
+                    }
+                    inFlight.release();
+                });
+            } catch (Exception e) {
+                failed.add(key);
+                inFlight.release();
+            }
+        }
+        inFlight.acquire(maxInFlight);    // wait for the chunk's writes to complete
+
+        String key;
+        while ((key = failed.poll()) != null) {
+            if (stop.get() || !fillBatch(Collections.singletonList(key))) {
+                return false;
+            }
+        }
+        return k == end;
+    }
+
+    private boolean fillBatch(List<String> keys) throws InterruptedException {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                missCount.addAndGet(mode.fill(client, keys));
+                keysDone.addAndGet(keys.size());
+                return true;
+            } catch (InterruptedException e) {
+                throw e;
+            } catch (Exception e) {
+                if (attempt >= maxRetries || stop.get()) {
+                    Logger.error("Backfill of keys " + keys.get(0) + " to " + keys.get(keys.size() - 1) +
+                            " failed after " + (attempt + 1) + " attempts, abandoning their chunk", e);
+                    return false;
+                }
+                Logger.warn("Retrying backfill of keys {} to {} after failure: {}", keys.get(0),
+                        keys.get(keys.size() - 1), e.toString());
+                Thread.sleep(Math.min(MAX_BACKOFF_MILLIS, 100L << Math.min(attempt, 6)));
+            }
+        }
+    }
+
+    private void acquire(int keys) {
+        if (rateLimiter != null) {
+            rateLimiter.acquire(keys);
+        }
+    }
+
+    private void monitor(CountDownLatch latch) {
+        long lastDone = 0;
+        long lastNanos = startNanos;
+        boolean done = false;
+        while (!done) {
+            try {
+                done = latch.await(PROGRESS_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                done = true;
+            }
+            long now = System.nanoTime();
+            long keys = keysDone.get();
+            Logger.info("Backfill so far: {}/{} keys, {} keys/sec, {} chunks failed, miss count: {}",
+                    keysResumed + keys, endKey - firstKey,
+                    Math.round((keys - lastDone) * 1e9 / Math.max(1, now - lastNanos)),
+                    chunksFailed.get(), missCount.get());
+            lastDone = keys;
+            lastNanos = now;
+            saveCheckpoint();
+        }
+        endNanos = System.nanoTime();
+
+        if (isComplete()) {
+            Logger.info("Backfill of keys [{}, {}) completed in {} s", firstKey, endKey,
+                    TimeUnit.NANOSECONDS.toSeconds(endNanos - startNanos));
+            try {
+                checkpoint.delete();
+            } catch (IOException e) {
+                Logger.warn("Failed to delete backfill checkpoint " + checkpoint.getFile(), e);
+            }
+        } else {
+            Logger.info("Backfill stopped with {} of {} chunks done{}", checkpoint.getNumDone(), numChunks,
+                    checkpoint.getFile() != null ? ", resume from " + checkpoint.getFile() : "");
+        }
+    }
+
+    private void saveCheckpoint() {
+        try {
+            checkpoint.save();
+        } catch (IOException e) {
+            Logger.warn("Failed to save backfill checkpoint " + checkpoint.getFile(), e);
+        }
+    }
+
+    private long chunkStart(long chunk) {
+        return firstKey + chunk * chunkSize;
+    }
+
+    private long chunkEnd(long chunk) {
+        return Math.min(chunkStart(chunk) + chunkSize, endKey);
+    }
+
+    private String key(long k) {
+        return keyPool.getKey(k - firstKey);
+    }
+}
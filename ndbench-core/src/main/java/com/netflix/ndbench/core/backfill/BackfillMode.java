@@ -0,0 +1,98 @@
+/*
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package com.netflix.ndbench.core.backfill;
+
+import com.netflix.ndbench.api.plugin.NdBenchAbstractClient;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * What a backfill does with each batch of keys. Batches of a single key use the plugin's single key operations,
+ * larger ones its batch operations (which plugins without batch support implement one key at a time.)
+ */
+public enum BackfillMode {
+    /**
+     * Writes every key
+     */
+    NORMAL {
+        @Override
+        long fill(NdBenchAbstractClient<?> client, List<String> keys) throws Exception {
+            write(client, keys);
+            return 0L;
+        }
+    },
+
+    /**
+     * Reads every key, and only writes those that are missing
+     */
+    CONDITIONAL {
+        @Override
+        long fill(NdBenchAbstractClient<?> client, List<String> keys) throws Exception {
+            List<String> values = read(client, keys);
+            List<String> missing = new ArrayList<>();
+            for (int i = 0; i < keys.size(); i++) {
+                if (values.get(i) == null) {
+                    missing.add(keys.get(i));
+                }
+            }
+            if (!missing.isEmpty()) {
+                write(client, missing);
+            }
+            return missing.size();
+        }
+    },
+
+    /**
+     * Writes every key, and reads it back to verify it was written
+     */
+    VERIFY {
+        @Override
+        long fill(NdBenchAbstractClient<?> client, List<String> keys) throws Exception {
+            write(client, keys);
+            long misses = 0L;
+            for (String value : read(client, keys)) {
+                if (value == null) {
+                    misses++;
+                }
+            }
+            return misses;
+        }
+    };
+
+    /**
+     * @return the number of keys that were missing: before the write for {@link #CONDITIONAL}, after it for
+     * {@link #VERIFY}
+     */
+    abstract long fill(NdBenchAbstractClient<?> client, List<String> keys) throws Exception;
+
+    private static void write(NdBenchAbstractClient<?> client, List<String> keys) throws Exception {
+        if (keys.size() == 1) {
+            client.writeSingle(keys.get(0));
+        } else {
+            client.writeBatch(keys);
+        }
+    }
+
+    private static List<String> read(NdBenchAbstractClient<?> client, List<String> keys) throws Exception {
+        if (keys.size() == 1) {
+            return Collections.singletonList(client.readSingle(keys.get(0)));
+        }
+        return client.readBatch(keys);
+    }
+}
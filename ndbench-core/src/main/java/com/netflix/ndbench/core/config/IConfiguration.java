@@ -30,8 +30,11 @@ public interface IConfiguration {
     void initialize();
 
     // SAMPLE DATA CONFIG
+    /**
+     * Size of the key space; keys are numbered with longs, so key spaces beyond 2^31 keys are fine
+     */
     @DefaultValue("1000")
-    int getNumKeys();
+    long getNumKeys();
 
     @DefaultValue("100")
     int getNumValues();
@@ -42,6 +45,79 @@ public interface IConfiguration {
     @DefaultValue("false")
     boolean isPreloadKeys();
 
+    /**
+     * Seed of the random streams that keys and values are generated from, which makes the keys and values of a run
+     * reproducible. 0 picks a different seed for every run.
+     */
+    @DefaultValue("0")
+    long getRandomSeed();
+
+    /**
+     * Key spaces of up to this many keys cache each key once it has been built, so that steady state key generation
+     * does not allocate. Larger key spaces only cache their keys if they are preloaded.
+     */
+    @DefaultValue("5000000")
+    int getMaxCachedKeys();
+
+    /**
+     * Number of the first key used by this node, which then uses the keys T[keyRangeStart] ..
+     * T[keyRangeStart + numKeys - 1]. Set by the fleet coordinator to give each node its own share of the key space.
+     */
+    @DefaultValue("0")
+    long getKeyRangeStart();
+
+    /**
+     * Skew of the ZIPFIAN, SCRAMBLED_ZIPFIAN and LATEST load patterns, in (0, 1). Higher values are more skewed.
+     */
+    @DefaultValue("0.99")
+    double getZipfianConstant();
+
+    /**
+     * Fraction of the key space that is hot, for the HOTSPOT load pattern
+     */
+    @DefaultValue("0.2")
+    double getHotspotKeyFraction();
+
+    /**
+     * Fraction of operations that go to the hot keys, for the HOTSPOT load pattern
+     */
+    @DefaultValue("0.8")
+    double getHotspotOpFraction();
+
+    /**
+     * Keys by which the SLIDING_WINDOW_FLIP window moves every window duration; less than the window size makes
+     * consecutive windows overlap. 0 moves the window by its whole size.
+     */
+    @DefaultValue("0")
+    long getWindowStepKeys();
+
+    /**
+     * Whether the SLIDING_WINDOW_FLIP window drifts a key at a time over each window duration, rather than jump
+     */
+    @DefaultValue("false")
+    boolean isWindowDriftGradual();
+
+    /**
+     * Key trace replayed by the TRACE load pattern, written by KeyTraceConverter from a text log of captured traffic
+     */
+    @DefaultValue("")
+    String getKeyTraceFile();
+
+    /**
+     * How many times faster than captured the TRACE load pattern replays its trace; 1 keeps the trace's inter-arrival
+     * times, 0 ignores them and replays as fast as the rate limits allow. Since keys are held back until their time
+     * has come, timed replays are best combined with rate limits above the trace's rate and closed-loop scheduling,
+     * as open-loop latencies would include the wait.
+     */
+    @DefaultValue("0")
+    double getKeyTraceSpeedup();
+
+    /**
+     * Whether the TRACE load pattern starts over at the end of its trace, rather than stop
+     */
+    @DefaultValue("true")
+    boolean isKeyTraceLoop();
+
     // NUM WORKERS
     default int getNumWriters() {
         return Runtime.getRuntime().availableProcessors() * 4;
@@ -51,11 +127,58 @@ public interface IConfiguration {
         return Runtime.getRuntime().availableProcessors() * 4;
     }
 
+    default int getNumMixWorkers() {
+        return Runtime.getRuntime().availableProcessors() * 4;
+    }
+
     @DefaultValue("1")
     int getNumBackfill();
 
+    /**
+     * Number of the first key backfilled, counted from keyRangeStart like the keys of the benchmark itself
+     */
     @DefaultValue("1")
-    int getBackfillStartKey();
+    long getBackfillStartKey();
+
+    /**
+     * Number of consecutive keys backfill workers claim at a time, and the unit in which backfill progress is
+     * checkpointed
+     */
+    @DefaultValue("10000")
+    int getBackfillChunkSize();
+
+    /**
+     * Number of keys a backfill worker reads or writes per call to the plugin; above 1 uses the plugin's batch
+     * operations
+     */
+    @DefaultValue("1")
+    int getBackfillBatchSize();
+
+    /**
+     * Number of asynchronous writes each backfill worker keeps in flight; above 1 (with a batch size of 1) uses the
+     * plugin's asynchronous writes for plain backfills
+     */
+    @DefaultValue("1")
+    int getBackfillMaxInFlight();
+
+    /**
+     * Cap on the number of keys backfilled per second across all backfill workers; 0 for no cap
+     */
+    @DefaultValue("0")
+    double getBackfillRateLimit();
+
+    /**
+     * How many times a failed backfill batch is retried before its chunk is abandoned, to be retried on resume
+     */
+    @DefaultValue("5")
+    int getBackfillMaxRetries();
+
+    /**
+     * Directory in which backfill progress is checkpointed, so that a restarted backfill of the same key range
+     * resumes where it left off; blank to not checkpoint
+     */
+    @DefaultValue("")
+    String getBackfillCheckpointDir();
 
 
     // TEST CASE CONFIG
@@ -86,6 +209,83 @@ public interface IConfiguration {
     @DefaultValue("false")
     boolean isUseStaticData();
 
+    /**
+     * Generate values that are a function of their key and write time, with an embedded checksum, and verify the
+     * values returned by reads, both for corruption and for being older than the key's last successful write.
+     * Requires a plugin that writes {@link com.netflix.ndbench.api.plugin.DataGenerator#getValue(String)} and returns
+     * the value it read from readSingle, i.e. whose supportsValueVerification() returns true; it is ignored, with a
+     * warning, for other plugins.
+     */
+    @DefaultValue("false")
+    boolean isVerifyValuesEnabled();
+
+    /**
+     * Pass keys to plugins as bytes, via {@link com.netflix.ndbench.api.plugin.NdBenchAbstractClient#readSingleBinary}
+     * and writeSingleBinary, encoding them into a buffer that each worker reuses. Not supported in async mode.
+     */
+    @DefaultValue("false")
+    boolean isBinaryPathEnabled();
+
+    /**
+     * Size of the off-heap arena that values of variable size are cut from. It is grown to the data size upper bound
+     * if that is larger.
+     */
+    @DefaultValue("64")
+    int getValueArenaSizeMB();
+
+    /**
+     * Number of keys per read / write request. When larger than 1, workers draw this many keys per permit of the
+     * rate limiter and pass them to the plugin's readBatch / writeBatch, so rate limits count requests rather than
+     * keys. Not supported in async mode.
+     */
+    @DefaultValue("1")
+    int getBatchSize();
+
+    //Workload mix configs
+    /**
+     * Weighted operations performed by /startMix, as comma separated name:weight pairs. Supported operations are
+     * read, write, rmw (read-modify-write), delete, scan and multiget; delete and scan need plugin support.
+     */
+    @DefaultValue("read:70,write:25,rmw:5")
+    String getWorkloadMix();
+
+    /**
+     * Number of records asked for by each scan of the workload mix.
+     */
+    @DefaultValue("100")
+    int getScanLimit();
+
+    /**
+     * Number of keys fetched by each multiget of the workload mix.
+     */
+    @DefaultValue("10")
+    int getMultiGetSize();
+
+    //Fleet configs
+    /**
+     * How far in the future the fleet coordinator schedules the start of a run, so that all nodes have received
+     * their assignment by then. Nodes start at the same wall clock time, so their clocks should be synchronized.
+     */
+    @DefaultValue("5000")
+    int getFleetStartDelayMillis();
+
+    /**
+     * How often the fleet coordinator checks for nodes that joined or left, and if so, re-partitions the key space
+     * and rate across the current nodes.
+     */
+    @DefaultValue("30")
+    int getFleetRebalanceIntervalSeconds();
+
+    /**
+     * When enabled, every run (from the time any load is started until all of it is stopped) is recorded to a run
+     * log in runRecordingDir, one stats interval per statsUpdateFreqSeconds. See RunRecorder.
+     */
+    @DefaultValue("false")
+    boolean isRunRecordingEnabled();
+
+    @DefaultValue("/tmp/ndbench/runs")
+    String getRunRecordingDir();
+
 
     //Tunable configs
     @DefaultValue("100")
@@ -96,10 +296,64 @@ public interface IConfiguration {
     @PropertyName(name= NdBenchConstants.WRITE_RATE_LIMIT)
     int getWriteRateLimit();
 
+    /**
+     * Operations per second performed by the workload mix, across all of its operation types.
+     */
+    @DefaultValue("100")
+    @PropertyName(name= NdBenchConstants.MIX_RATE_LIMIT)
+    int getMixRateLimit();
+
 
     @DefaultValue("false")
     boolean isAutoTuneEnabled();
 
+    /**
+     * When enabled, workers issue operations on a fixed schedule derived from the read / write rate limits
+     * (open-loop), and latency is measured from each operation's intended start time rather than from the time
+     * the worker actually got around to issuing it. This keeps stalls of the target data store from being hidden
+     * by workers that were blocked waiting on earlier operations (a.k.a. coordinated omission).
+     */
+    @DefaultValue("false")
+    boolean isOpenLoopEnabled();
+
+    /**
+     * When enabled, workers issue operations via the non-blocking readAsync / writeAsync methods of the client
+     * plugin, keeping up to {@link #getMaxInFlightPerWorker()} operations outstanding per worker.
+     */
+    @DefaultValue("false")
+    boolean isAsyncEnabled();
+
+    @DefaultValue("32")
+    int getMaxInFlightPerWorker();
+
+    /**
+     * How workers wait for their next permit when open-loop is disabled: "parking" (workers are parked until their
+     * next slot) or "spinning" (legacy behavior: workers spin on the rate limiter's tryAcquire.)
+     */
+    @DefaultValue("parking")
+    String getPermitScheduler();
+
+    /**
+     * Parked workers are woken this many microseconds ahead of their slot and yield until it arrives, which bounds
+     * the jitter caused by coarse OS timer resolution.
+     */
+    @DefaultValue("50")
+    int getSchedulerSpinThresholdMicros();
+
+    /**
+     * Executor backing the read and write workers: "platform" (a fixed pool of platform threads) or "virtual"
+     * (one virtual thread per worker, requires JDK 21+; falls back to "platform" on older JVMs.)
+     */
+    @DefaultValue("platform")
+    String getWorkerExecutorMode();
+
+    /**
+     * When enabled, the monitor's operation counters are kept in striped adders rather than single
+     * atomic longs, which scales better on load generators with many cores. Takes effect on restart.
+     */
+    @DefaultValue("false")
+    boolean isStripedCountersEnabled();
+
 
     @DefaultValue("60")
     Integer getAutoTuneRampPeriodMillisecs();
@@ -119,4 +373,54 @@ public interface IConfiguration {
     @DefaultValue("0.01")
     Float getAutoTuneWriteFailureRatioThreshold();
 
+    /**
+     * When enabled, the read and write rate limits are tuned independently, once per stats interval, to find the
+     * highest rate at which the interval's p99 latency and failure ratio stay within autoTuneTargetP99Micros and
+     * autoTuneMaxFailureRatio (see SloAutoTuner). Works with any plugin, and takes precedence over autoTuneEnabled.
+     */
+    @DefaultValue("false")
+    boolean isSloAutoTuneEnabled();
+
+    @DefaultValue("10000")
+    long getAutoTuneTargetP99Micros();
+
+    @DefaultValue("0.01")
+    float getAutoTuneMaxFailureRatio();
+
+    /**
+     * Requests per second added to a rate limit after each interval that met the SLO, once the first violation
+     * has ended the doubling of the initial "slow start" phase
+     */
+    @DefaultValue("100")
+    int getAutoTuneRateIncrement();
+
+    /**
+     * Factor by which a rate limit is cut after an interval that violated the SLO
+     */
+    @DefaultValue("0.7")
+    float getAutoTuneBackoffFactor();
+
+    @DefaultValue("1000000")
+    int getAutoTuneMaxRate();
+
+    /**
+     * Rate profile that drives the read rate limit over the course of a run, e.g. a ramp, a step ladder, a diurnal
+     * sine, periodic bursts or the replay of a recorded trace; see RateProfiles for the syntax. Blank keeps the read
+     * rate limit constant. Directions driven by a profile are not auto-tuned.
+     */
+    @DefaultValue("")
+    String getReadRateProfile();
+
+    /**
+     * Rate profile that drives the write rate limit, see readRateProfile
+     */
+    @DefaultValue("")
+    String getWriteRateProfile();
+
+    /**
+     * How often rate profiles update the rate limits
+     */
+    @DefaultValue("1000")
+    int getRateProfileUpdateMillis();
+
 }
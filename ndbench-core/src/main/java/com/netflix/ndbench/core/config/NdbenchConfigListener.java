@@ -40,6 +40,17 @@ public class NdbenchConfigListener {
             @Override
             public void onParseError(Throwable error) {
 
+            }
+        });
+        factory.getProperty(PROP_NAMESPACE + "mixRateLimit").asInteger(100).addListener(new PropertyListener<Integer>() {
+            @Override
+            public void onChange(Integer value) {
+                ndBenchDriver.onMixRateLimitChange();
+            }
+
+            @Override
+            public void onParseError(Throwable error) {
+
             }
         });
     }
@@ -0,0 +1,164 @@
+/*
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package com.netflix.ndbench.core.fleet;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * One node's share of a fleet run: the part of the key space and of the read / write rates it is responsible for,
+ * and when it is to start. Sent by the coordinator to each node as a flat map of strings, like other config updates.
+ */
+public class FleetAssignment {
+    static final String KEY_RANGE_START = "keyRangeStart";
+    static final String NUM_KEYS = "numKeys";
+    static final String READ_RATE_LIMIT = "readRateLimit";
+    static final String WRITE_RATE_LIMIT = "writeRateLimit";
+    static final String LOAD_PATTERN = "loadPattern";
+    static final String WINDOW_SIZE = "windowSize";
+    static final String DURATION_IN_SEC = "durationInSec";
+    static final String READS = "reads";
+    static final String WRITES = "writes";
+    static final String START_AT_MILLIS = "startAtMillis";
+
+    private final long keyRangeStart;
+    private final long numKeys;
+    private final int readRateLimit;
+    private final int writeRateLimit;
+    private final String loadPattern;
+    private final long windowSize;
+    private final long durationInSec;
+    private final boolean reads;
+    private final boolean writes;
+    private final long startAtMillis;
+
+    public FleetAssignment(long keyRangeStart,
+                           long numKeys,
+                           int readRateLimit,
+                           int writeRateLimit,
+                           String loadPattern,
+                           long windowSize,
+                           long durationInSec,
+                           boolean reads,
+                           boolean writes,
+                           long startAtMillis) {
+        this.keyRangeStart = keyRangeStart;
+        this.numKeys = numKeys;
+        this.readRateLimit = readRateLimit;
+        this.writeRateLimit = writeRateLimit;
+        this.loadPattern = loadPattern;
+        this.windowSize = windowSize;
+        this.durationInSec = durationInSec;
+        this.reads = reads;
+        this.writes = writes;
+        this.startAtMillis = startAtMillis;
+    }
+
+    public static FleetAssignment fromMap(Map<String, String> map) {
+        return new FleetAssignment(
+                Long.parseLong(require(map, KEY_RANGE_START)),
+                Long.parseLong(require(map, NUM_KEYS)),
+                Integer.parseInt(require(map, READ_RATE_LIMIT)),
+                Integer.parseInt(require(map, WRITE_RATE_LIMIT)),
+                require(map, LOAD_PATTERN),
+                Long.parseLong(require(map, WINDOW_SIZE)),
+                Long.parseLong(require(map, DURATION_IN_SEC)),
+                Boolean.parseBoolean(require(map, READS)),
+                Boolean.parseBoolean(require(map, WRITES)),
+                Long.parseLong(require(map, START_AT_MILLIS)));
+    }
+
+    public Map<String, String> toMap() {
+        Map<String, String> map = new HashMap<>();
+        map.put(KEY_RANGE_START, String.valueOf(keyRangeStart));
+        map.put(NUM_KEYS, String.valueOf(numKeys));
+        map.put(READ_RATE_LIMIT, String.valueOf(readRateLimit));
+        map.put(WRITE_RATE_LIMIT, String.valueOf(writeRateLimit));
+        map.put(LOAD_PATTERN, loadPattern);
+        map.put(WINDOW_SIZE, String.valueOf(windowSize));
+        map.put(DURATION_IN_SEC, String.valueOf(durationInSec));
+        map.put(READS, String.valueOf(reads));
+        map.put(WRITES, String.valueOf(writes));
+        map.put(START_AT_MILLIS, String.valueOf(startAtMillis));
+        return map;
+    }
+
+    /**
+     * @return the configuration properties (without namespace) a node has to apply before starting its share; rate
+     * limits are only included for the operations the node is to perform
+     */
+    public Map<String, String> getConfig() {
+        Map<String, String> config = new HashMap<>();
+        config.put(KEY_RANGE_START, String.valueOf(keyRangeStart));
+        config.put(NUM_KEYS, String.valueOf(numKeys));
+        if (reads) {
+            config.put(READ_RATE_LIMIT, String.valueOf(readRateLimit));
+        }
+        if (writes) {
+            config.put(WRITE_RATE_LIMIT, String.valueOf(writeRateLimit));
+        }
+        return config;
+    }
+
+    private static String require(Map<String, String> map, String name) {
+        String value = map.get(name);
+        if (value == null || value.isEmpty()) {
+            throw new IllegalArgumentException("Fleet assignment is missing " + name);
+        }
+        return value;
+    }
+
+    public long getKeyRangeStart() {
+        return keyRangeStart;
+    }
+
+    public long getNumKeys() {
+        return numKeys;
+    }
+
+    public int getReadRateLimit() {
+        return readRateLimit;
+    }
+
+    public int getWriteRateLimit() {
+        return writeRateLimit;
+    }
+
+    public String getLoadPattern() {
+        return loadPattern;
+    }
+
+    public long getWindowSize() {
+        return windowSize;
+    }
+
+    public long getDurationInSec() {
+        return durationInSec;
+    }
+
+    public boolean isReads() {
+        return reads;
+    }
+
+    public boolean isWrites() {
+        return writes;
+    }
+
+    public long getStartAtMillis() {
+        return startAtMillis;
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package com.netflix.ndbench.core.fleet;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Map;
+
+/**
+ * Calls the REST API of other ndbench nodes, given endpoints of the form host[:port] as returned by
+ * {@link com.netflix.ndbench.core.discovery.IClusterDiscovery#getEndpoints}.
+ */
+class FleetClient {
+    static final String REST_PREFIX = "/REST/ndbench";
+
+    private static final int CONNECT_TIMEOUT_MILLIS = 2000;
+    private static final int READ_TIMEOUT_MILLIS = 10000;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    /**
+     * Performs a GET of 'path' (relative to /REST/ndbench) and returns the JSON response body as a map
+     *
+     * @throws IOException if the node could not be reached or did not respond with 200
+     */
+    Map<String, Object> get(String endpoint, String path) throws IOException {
+        return get(endpoint, path, new TypeReference<Map<String, Object>>() {});
+    }
+
+    /**
+     * Performs a GET of 'path' (relative to /REST/ndbench) and returns the JSON response body as an instance of 'type'
+     *
+     * @throws IOException if the node could not be reached, did not respond with 200 or the body could not be mapped
+     */
+    <T> T get(String endpoint, String path, TypeReference<T> type) throws IOException {
+        HttpURLConnection connection = open(endpoint, path, "GET");
+        try {
+            checkStatus(endpoint, path, connection);
+            try (InputStream in = connection.getInputStream()) {
+                return mapper.readValue(in, type);
+            }
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    /**
+     * Performs a POST of 'body', serialized as JSON, to 'path' (relative to /REST/ndbench)
+     *
+     * @throws IOException if the node could not be reached or did not respond with 200
+     */
+    void post(String endpoint, String path, Object body) throws IOException {
+        HttpURLConnection connection = open(endpoint, path, "POST");
+        try {
+            connection.setDoOutput(true);
+            connection.setRequestProperty("Content-Type", "application/json");
+            try (OutputStream out = connection.getOutputStream()) {
+                mapper.writeValue(out, body);
+            }
+            checkStatus(endpoint, path, connection);
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    private static HttpURLConnection open(String endpoint, String path, String method) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://" + endpoint + REST_PREFIX + path).openConnection();
+        connection.setRequestMethod(method);
+        connection.setConnectTimeout(CONNECT_TIMEOUT_MILLIS);
+        connection.setReadTimeout(READ_TIMEOUT_MILLIS);
+        connection.setRequestProperty("Accept", "application/json");
+        return connection;
+    }
+
+    private static void checkStatus(String endpoint, String path, HttpURLConnection connection) throws IOException {
+        int status = connection.getResponseCode();
+        if (status != HttpURLConnection.HTTP_OK) {
+            throw new IOException("Request to " + endpoint + REST_PREFIX + path + " failed with status " + status);
+        }
+    }
+}
@@ -0,0 +1,331 @@
+/*
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package com.netflix.ndbench.core.fleet;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.netflix.ndbench.core.config.IConfiguration;
+import com.netflix.ndbench.core.discovery.IClusterDiscovery;
+import com.netflix.ndbench.core.monitoring.HistogramAggregator;
+import com.netflix.ndbench.core.monitoring.HistogramSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a benchmark across all nodes of an application, as found by {@link IClusterDiscovery}: partitions the key
+ * space and the target rates of a {@link FleetRun} across the nodes, has them all start at the same time, and
+ * re-partitions the run whenever nodes join or leave. Any node can act as the coordinator, including one that is
+ * itself part of the fleet.
+ */
+@Singleton
+public class FleetCoordinator {
+    private static final Logger Logger = LoggerFactory.getLogger(FleetCoordinator.class);
+
+    static final String ASSIGN_PATH = "/fleet/assign";
+    static final String STOP_PATH = "/fleet/stop";
+    static final String STATS_PATH = "/driver/stats";
+    static final String HISTOGRAMS_PATH = "/driver/histograms";
+
+    private static final TypeReference<Map<String, HistogramSnapshot>> HISTOGRAMS_TYPE =
+            new TypeReference<Map<String, HistogramSnapshot>>() {};
+
+    // counters and rates of the nodes' stats, which add up across the fleet
+    static final List<String> SUMMED_STATS = Collections.unmodifiableList(Arrays.asList(
+            "readSuccess", "readFailure", "writeSuccess", "writeFailure", "cacheHits", "cacheMiss",
+            "readRPS", "writeRPS", "readItems", "writeItems", "readItemRPS", "writeItemRPS",
+            "readVerificationFailures", "readStaleValues"));
+
+    private static final int NUM_REQUEST_THREADS = 16;
+
+    private final IClusterDiscovery discovery;
+    private final IConfiguration config;
+    private final FleetClient client;
+    private final ScheduledExecutorService executor = Executors.newScheduledThreadPool(NUM_REQUEST_THREADS, runnable -> {
+        Thread thread = new Thread(runnable, "ndbench-fleet-coordinator");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // serializes start, stop and rebalance, which make requests to the nodes; the fields below are guarded by this
+    // instead, and only updated once the requests are done, so that readers never wait for the nodes
+    private final Object coordination = new Object();
+
+    private String appName;
+    private int defaultPort;
+    private FleetRun run;
+    private Map<String, FleetAssignment> assignments = Collections.emptyMap();
+    private List<String> attempted = Collections.emptyList();  // the nodes the run was last partitioned across
+    private long endAtMillis;                                   // when the run ends, or -1 if it runs until stopped
+    private ScheduledFuture<?> rebalancer;
+
+    @Inject
+    public FleetCoordinator(IClusterDiscovery discovery, IConfiguration config) {
+        this(discovery, config, new FleetClient());
+    }
+
+    FleetCoordinator(IClusterDiscovery discovery, IConfiguration config, FleetClient client) {
+        this.discovery = discovery;
+        this.config = config;
+        this.client = client;
+    }
+
+    /**
+     * Starts 'run' on the nodes of 'appName', replacing the run currently coordinated by this node, if any
+     *
+     * @param defaultPort port of nodes whose endpoints do not specify one
+     * @return the assignment of each node that accepted one
+     */
+    public Map<String, FleetAssignment> start(String appName, int defaultPort, FleetRun run) {
+        synchronized (coordination) {
+            List<String> endpoints = new ArrayList<>(new TreeSet<>(discovery.getEndpoints(appName, defaultPort)));
+            Map<String, FleetAssignment> started = assign(appName, run, endpoints, -1L);
+
+            synchronized (this) {
+                stopRebalancing();
+                this.appName = appName;
+                this.defaultPort = defaultPort;
+                this.run = run;
+                assignments = started;
+                attempted = endpoints;
+                endAtMillis = run.getDurationInSec() < 1 ? -1L
+                        : started.values().iterator().next().getStartAtMillis() + run.getDurationInSec() * 1000L;
+                int interval = config.getFleetRebalanceIntervalSeconds();
+                rebalancer = executor.scheduleWithFixedDelay(this::rebalance, interval, interval, TimeUnit.SECONDS);
+            }
+            return started;
+        }
+    }
+
+    /**
+     * Stops the run on all nodes it was assigned to
+     */
+    public void stop() {
+        synchronized (coordination) {
+            List<String> endpoints;
+            synchronized (this) {
+                stopRebalancing();
+                endpoints = new ArrayList<>(assignments.keySet());
+            }
+            forEachNode(endpoints, endpoint -> client.get(endpoint, STOP_PATH));
+            synchronized (this) {
+                clearRun();
+            }
+        }
+    }
+
+    public synchronized boolean isRunning() {
+        return run != null;
+    }
+
+    public synchronized String getAppName() {
+        return appName;
+    }
+
+    public synchronized Map<String, FleetAssignment> getAssignments() {
+        return assignments;
+    }
+
+    /**
+     * Collects the stats of all nodes of the current run and combines them: counts and rates are summed, and
+     * latencies are computed from the merged latency histograms of all nodes, so that e.g. the reported p99 is the
+     * p99 of all operations issued by the fleet.
+     */
+    public Map<String, Object> getStats() {
+        List<String> endpoints;
+        synchronized (this) {
+            endpoints = new ArrayList<>(assignments.keySet());
+        }
+        Map<String, Map<String, Object>> nodeStats = new TreeMap<>();
+        Map<String, Map<String, HistogramSnapshot>> nodeHistograms = new TreeMap<>();
+        List<String> failed = forEachNode(endpoints, endpoint -> {
+            Map<String, Object> stats = client.get(endpoint, STATS_PATH);
+            Map<String, HistogramSnapshot> histograms = client.get(endpoint, HISTOGRAMS_PATH, HISTOGRAMS_TYPE);
+            synchronized (nodeStats) {
+                nodeStats.put(endpoint, stats);
+                nodeHistograms.put(endpoint, histograms);
+            }
+        });
+
+        Map<String, Long> summed = new LinkedHashMap<>();
+        HistogramAggregator latencies = new HistogramAggregator();
+        for (Map.Entry<String, Map<String, Object>> entry : nodeStats.entrySet()) {
+            try {
+                latencies.addAll(nodeHistograms.get(entry.getKey()));
+            } catch (IllegalArgumentException e) {
+                // a node running a different ndbench version may use other buckets; its stats would skew the totals
+                Logger.warn("Can't merge histograms of {}: {}", entry.getKey(), e.getMessage());
+                failed.add(entry.getKey());
+                continue;
+            }
+            for (String name : SUMMED_STATS) {
+                summed.merge(name, asLong(entry.getValue().get(name)), Long::sum);
+            }
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("nodes", endpoints.size());
+        result.put("unreachableNodes", failed);
+        result.putAll(summed);
+        result.put("latencies", latencies.summary());
+        return result;
+    }
+
+    /**
+     * Re-partitions the run for its remaining duration if the set of nodes has changed since it was last partitioned,
+     * and forgets the run once its duration has passed. Nodes that refused their assignment are only retried once the
+     * set of nodes changes again, rather than restarting the whole fleet on every check.
+     */
+    void rebalance() {
+        synchronized (coordination) {
+            String currentAppName;
+            int currentDefaultPort;
+            FleetRun currentRun;
+            List<String> assigned;
+            List<String> lastAttempted;
+            long currentEndAtMillis;
+            synchronized (this) {
+                if (run == null) {
+                    return;
+                }
+                if (endAtMillis > 0 && System.currentTimeMillis() >= endAtMillis) {
+                    Logger.info("Fleet run of {} has ended", appName);
+                    stopRebalancing();
+                    clearRun();
+                    return;
+                }
+                currentAppName = appName;
+                currentDefaultPort = defaultPort;
+                currentRun = run;
+                assigned = new ArrayList<>(assignments.keySet());
+                lastAttempted = attempted;
+                currentEndAtMillis = endAtMillis;
+            }
+            try {
+                List<String> endpoints = new ArrayList<>(new TreeSet<>(
+                        discovery.getEndpoints(currentAppName, currentDefaultPort)));
+                if (endpoints.equals(lastAttempted)) {
+                    return;
+                }
+                Logger.info("Fleet of {} changed from {} to {}, rebalancing", currentAppName, lastAttempted, endpoints);
+                List<String> departed = new ArrayList<>(assigned);
+                departed.removeAll(endpoints);
+                // nodes that left may well be gone for good, so they're stopped on a best effort basis
+                forEachNode(departed, endpoint -> client.get(endpoint, STOP_PATH));
+                Map<String, FleetAssignment> rebalanced = assign(currentAppName, currentRun, endpoints, currentEndAtMillis);
+                synchronized (this) {
+                    assignments = rebalanced;
+                    attempted = endpoints;
+                }
+            } catch (Exception e) {
+                Logger.error("Failed to rebalance fleet of " + currentAppName, e);
+            }
+        }
+    }
+
+    /**
+     * Sends each of 'endpoints' its share of the run. Nodes that can't be reached are left out, and the run is then
+     * re-partitioned across the remaining nodes, so that the fleet as a whole still meets the run's target rates.
+     *
+     * @param endAtMillis when the run ends, for a run that is re-partitioned part way through, or -1 to assign the
+     *                    run's full duration
+     */
+    private Map<String, FleetAssignment> assign(String appName, FleetRun run, List<String> endpoints, long endAtMillis) {
+        List<String> candidates = new ArrayList<>(new TreeSet<>(endpoints));
+        while (!candidates.isEmpty()) {
+            long startAtMillis = System.currentTimeMillis() + config.getFleetStartDelayMillis();
+            long durationInSec = endAtMillis > 0
+                    ? Math.max(1L, (endAtMillis - startAtMillis + 999) / 1000)
+                    : run.getDurationInSec();
+            Map<String, FleetAssignment> candidateAssignments = run.partition(candidates, startAtMillis, durationInSec);
+            List<String> failed = forEachNode(candidates,
+                    endpoint -> client.post(endpoint, ASSIGN_PATH, candidateAssignments.get(endpoint).toMap()));
+            if (failed.isEmpty()) {
+                Logger.info("Fleet run of {} assigned to {} nodes, starting at {}", appName, candidates.size(), startAtMillis);
+                return candidateAssignments;
+            }
+            candidates.removeAll(failed);
+        }
+        throw new IllegalStateException("None of the nodes of " + appName + " accepted a fleet assignment");
+    }
+
+    /**
+     * Performs 'request' for each endpoint concurrently
+     *
+     * @return the endpoints for which the request failed
+     */
+    private List<String> forEachNode(List<String> endpoints, NodeRequest request) {
+        Map<String, Future<Void>> futures = new LinkedHashMap<>();
+        for (String endpoint : endpoints) {
+            futures.put(endpoint, executor.submit((Callable<Void>) () -> {
+                request.perform(endpoint);
+                return null;
+            }));
+        }
+        List<String> failed = new ArrayList<>();
+        for (Map.Entry<String, Future<Void>> entry : futures.entrySet()) {
+            try {
+                entry.getValue().get();
+            } catch (ExecutionException e) {
+                Logger.warn("Fleet request to {} failed: {}", entry.getKey(), e.getCause().toString());
+                failed.add(entry.getKey());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failed.add(entry.getKey());
+            }
+        }
+        return failed;
+    }
+
+    private void clearRun() {
+        assignments = Collections.emptyMap();
+        attempted = Collections.emptyList();
+        run = null;
+    }
+
+    private void stopRebalancing() {
+        if (rebalancer != null) {
+            rebalancer.cancel(false);
+            rebalancer = null;
+        }
+    }
+
+    private static long asLong(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : 0L;
+    }
+
+    private interface NodeRequest {
+        void perform(String endpoint) throws IOException;
+    }
+}
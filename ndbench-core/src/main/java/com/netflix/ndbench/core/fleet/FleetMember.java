@@ -0,0 +1,124 @@
+/*
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package com.netflix.ndbench.core.fleet;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.netflix.archaius.api.config.SettableConfig;
+import com.netflix.archaius.api.inject.RuntimeLayer;
+import com.netflix.ndbench.api.plugin.common.NdBenchConstants;
+import com.netflix.ndbench.core.NdBenchDriver;
+import com.netflix.ndbench.core.util.LoadPattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The part of a fleet run that happens on each node: applies the node's {@link FleetAssignment} and starts its
+ * reads and / or writes at the assignment's start time, so that all nodes of the fleet start together.
+ */
+@Singleton
+public class FleetMember {
+    private static final Logger Logger = LoggerFactory.getLogger(FleetMember.class);
+
+    private final NdBenchDriver ndBenchDriver;
+    private final SettableConfig settableConfig;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ndbench-fleet-member");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private ScheduledFuture<?> pendingStart;
+
+    @Inject
+    public FleetMember(NdBenchDriver ndBenchDriver, @RuntimeLayer SettableConfig settableConfig) {
+        this.ndBenchDriver = ndBenchDriver;
+        this.settableConfig = settableConfig;
+    }
+
+    /**
+     * Stops whatever this node is running, applies 'assignment' and schedules its start. A node that receives a new
+     * assignment (e.g. because the fleet was rebalanced) replaces its current one.
+     */
+    public synchronized void apply(FleetAssignment assignment) {
+        LoadPattern loadPattern = LoadPattern.fromString(assignment.getLoadPattern());
+        if (loadPattern == null) {
+            throw new IllegalArgumentException("Unknown load pattern: " + assignment.getLoadPattern());
+        }
+        stop();
+
+        for (Map.Entry<String, String> entry : assignment.getConfig().entrySet()) {
+            settableConfig.setProperty(NdBenchConstants.PROP_NAMESPACE + entry.getKey(), entry.getValue());
+        }
+        if (assignment.isReads()) {
+            ndBenchDriver.onReadRateLimitChange();
+        }
+        if (assignment.isWrites()) {
+            ndBenchDriver.onWriteRateLimitChange();
+        }
+
+        long delayMillis = Math.max(0L, assignment.getStartAtMillis() - System.currentTimeMillis());
+        Logger.info("Fleet assignment of keys [{}, {}) at {} reads/s and {} writes/s starts in {} ms",
+                assignment.getKeyRangeStart(), assignment.getKeyRangeStart() + assignment.getNumKeys(),
+                assignment.isReads() ? assignment.getReadRateLimit() : 0,
+                assignment.isWrites() ? assignment.getWriteRateLimit() : 0,
+                delayMillis);
+        pendingStart = scheduler.schedule(() -> start(assignment, loadPattern), delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Cancels the start of the current assignment, if it has not happened yet
+     */
+    public synchronized void cancel() {
+        if (pendingStart != null) {
+            pendingStart.cancel(false);
+            pendingStart = null;
+        }
+    }
+
+    /**
+     * Cancels the pending start of the current assignment, and stops its reads and writes if they have started
+     */
+    public synchronized void stop() {
+        cancel();
+        if (ndBenchDriver.getIsReadRunning()) {
+            ndBenchDriver.stopReads();
+        }
+        if (ndBenchDriver.getIsWriteRunning()) {
+            ndBenchDriver.stopWrites();
+        }
+    }
+
+    private void start(FleetAssignment assignment, LoadPattern loadPattern) {
+        try {
+            if (assignment.isReads()) {
+                ndBenchDriver.startReads(loadPattern, assignment.getWindowSize(), assignment.getDurationInSec());
+            }
+            if (assignment.isWrites()) {
+                ndBenchDriver.startWrites(loadPattern, assignment.getWindowSize(), assignment.getDurationInSec());
+            }
+        } catch (Exception e) {
+            Logger.error("Failed to start fleet assignment", e);
+        }
+    }
+}
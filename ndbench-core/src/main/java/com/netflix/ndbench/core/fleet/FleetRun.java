@@ -0,0 +1,143 @@
+/*
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package com.netflix.ndbench.core.fleet;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * A run spread across a fleet of nodes: the key space and the read / write rates of the whole fleet, which are
+ * partitioned into contiguous, disjoint key ranges and equal shares of the rates, one per node.
+ */
+public class FleetRun {
+    private final long numKeys;
+    private final int readRateLimit;
+    private final int writeRateLimit;
+    private final String loadPattern;
+    private final long windowSize;
+    private final long durationInSec;
+    private final boolean reads;
+    private final boolean writes;
+
+    public FleetRun(long numKeys,
+                    int readRateLimit,
+                    int writeRateLimit,
+                    String loadPattern,
+                    long windowSize,
+                    long durationInSec,
+                    boolean reads,
+                    boolean writes) {
+        if (numKeys < 1) {
+            throw new IllegalArgumentException("A fleet run needs at least one key, but got: " + numKeys);
+        }
+        if (!reads && !writes) {
+            throw new IllegalArgumentException("A fleet run needs reads, writes or both");
+        }
+        this.numKeys = numKeys;
+        this.readRateLimit = readRateLimit;
+        this.writeRateLimit = writeRateLimit;
+        this.loadPattern = loadPattern;
+        this.windowSize = windowSize;
+        this.durationInSec = durationInSec;
+        this.reads = reads;
+        this.writes = writes;
+    }
+
+    /**
+     * Splits this run across 'endpoints'. The endpoints are sorted first, so every coordinator computes the same
+     * partitioning for the same nodes. Shares differ by at most one key and one operation per second, and add up to
+     * exactly the run's totals.
+     *
+     * @return the assignment of each endpoint, in endpoint order
+     */
+    public Map<String, FleetAssignment> partition(List<String> endpoints, long startAtMillis) {
+        return partition(endpoints, startAtMillis, durationInSec);
+    }
+
+    /**
+     * Splits this run across 'endpoints' like {@link #partition(List, long)}, but for the given duration rather than
+     * the run's, as needed by a run that is re-partitioned part way through.
+     */
+    public Map<String, FleetAssignment> partition(List<String> endpoints, long startAtMillis, long durationInSec) {
+        List<String> nodes = new ArrayList<>(new TreeSet<>(endpoints));
+        if (nodes.isEmpty()) {
+            throw new IllegalArgumentException("Cannot partition a fleet run across zero nodes");
+        }
+        if (nodes.size() > numKeys) {
+            throw new IllegalArgumentException("Cannot partition " + numKeys + " keys across " + nodes.size() + " nodes");
+        }
+        if ((reads && readRateLimit < nodes.size()) || (writes && writeRateLimit < nodes.size())) {
+            throw new IllegalArgumentException("Rate limits must be at least 1 per node, but got " + readRateLimit +
+                    " reads/s and " + writeRateLimit + " writes/s for " + nodes.size() + " nodes");
+        }
+        Map<String, FleetAssignment> assignments = new LinkedHashMap<>();
+        for (int i = 0; i < nodes.size(); i++) {
+            long keyRangeStart = shareStart(numKeys, i, nodes.size());
+            assignments.put(nodes.get(i), new FleetAssignment(
+                    keyRangeStart,
+                    shareStart(numKeys, i + 1, nodes.size()) - keyRangeStart,
+                    (int) (shareStart(readRateLimit, i + 1, nodes.size()) - shareStart(readRateLimit, i, nodes.size())),
+                    (int) (shareStart(writeRateLimit, i + 1, nodes.size()) - shareStart(writeRateLimit, i, nodes.size())),
+                    loadPattern,
+                    windowSize,
+                    durationInSec,
+                    reads,
+                    writes,
+                    startAtMillis));
+        }
+        return assignments;
+    }
+
+    private static long shareStart(long total, int node, int numNodes) {
+        // total * node / numNodes, without overflowing for totals close to Long.MAX_VALUE
+        return total / numNodes * node + total % numNodes * node / numNodes;
+    }
+
+    public long getNumKeys() {
+        return numKeys;
+    }
+
+    public int getReadRateLimit() {
+        return readRateLimit;
+    }
+
+    public int getWriteRateLimit() {
+        return writeRateLimit;
+    }
+
+    public String getLoadPattern() {
+        return loadPattern;
+    }
+
+    /**
+     * @return how long the run lasts, or a value less than 1 if it lasts until stopped
+     */
+    public long getDurationInSec() {
+        return durationInSec;
+    }
+
+    public boolean isReads() {
+        return reads;
+    }
+
+    public boolean isWrites() {
+        return writes;
+    }
+}
@@ -20,14 +20,14 @@ import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import com.netflix.ndbench.api.plugin.DataGenerator;
 import com.netflix.ndbench.core.config.IConfiguration;
-import org.apache.commons.lang.RandomStringUtils;
-import org.joda.time.DateTime;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
 
 /**
  * @author vchella
@@ -40,9 +40,14 @@ public class DefaultDataGenerator implements DataGenerator {
 
 
     private final List<String> values = new ArrayList<String>();
+    private final List<ByteBuffer> valueBuffers = new ArrayList<ByteBuffer>();     // read-only encodings of 'values'
 
-    private final Random vRandom = new Random();
-    private final Random vvRandom = new Random(DateTime.now().getMillis()); // variable value random
+    private static final char[] ALPHANUMERIC =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789".toCharArray();
+
+    private final RandomSource vRandom;
+
+    private final ValueArena valueArena;        // null unless values of variable size are used
 
     private final String StaticValue;
 
@@ -51,24 +56,52 @@ public class DefaultDataGenerator implements DataGenerator {
     @Inject
     public DefaultDataGenerator(IConfiguration config) {
         this.config = config;
+        this.vRandom = new RandomSource(config.getRandomSeed(), RandomSource.VALUE_STREAM);
         StaticValue = getRandomString();
 
         if (config.isUseVariableDataSize()) {
-            initialize(config.getDataSizeLowerBound(), config.getDataSizeUpperBound());
+            valueArena = createValueArena(config.getDataSizeUpperBound());
         } else {
+            valueArena = null;
             initialize();
         }
     }
 
     @Override
     public String getRandomValue() {
+        if (valueArena != null) {
+            return valueArena.randomString(randomValueSize(config.getDataSizeLowerBound(), config.getDataSizeUpperBound()));
+        }
         int randomValueIndex = vRandom.nextInt(config.getNumValues());
         return values.get(randomValueIndex);
     }
 
+    @Override
+    public String getValue(String key) {
+        if (!config.isVerifyValuesEnabled()) {
+            return getRandomValue();
+        }
+        int length = config.isUseVariableDataSize()
+                ? randomValueSize(config.getDataSizeLowerBound(), config.getDataSizeUpperBound())
+                : config.getDataSize();
+        return VerifiableValues.create(key, System.currentTimeMillis(), length);
+    }
+
+    @Override
+    public ByteBuffer getValueBytes(ByteBuffer key) {
+        if (config.isVerifyValuesEnabled()) {
+            String value = getValue(StandardCharsets.UTF_8.decode(key.duplicate()).toString());
+            return ByteBuffer.wrap(value.getBytes(StandardCharsets.US_ASCII));
+        }
+        if (valueArena != null) {
+            return valueArena.randomSlice(randomValueSize(config.getDataSizeLowerBound(), config.getDataSizeUpperBound()));
+        }
+        return valueBuffers.get(vRandom.nextInt(config.getNumValues())).duplicate();
+    }
+
     @Override
     public Integer getRandomInteger() {
-        return vRandom.nextInt();
+        return vRandom.current().nextInt();
     }
     @Override
     public Integer getRandomIntegerValue() {
@@ -79,26 +112,30 @@ public class DefaultDataGenerator implements DataGenerator {
     @Override
     public String getRandomString()
     {
-        return RandomStringUtils.randomAlphanumeric(config.getDataSize());
+        return randomAlphanumeric(config.getDataSize());
     }
 
+    private String randomAlphanumeric(int length) {
+        SplittableRandom random = vRandom.current();
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = ALPHANUMERIC[random.nextInt(ALPHANUMERIC.length)];
+        }
+        return new String(chars);
+    }
 
-    private void initialize(int lowerBound, int upperBound) {
-        if (config.isUseVariableDataSize()) {
-            for (int i = 0; i < config.getNumKeys(); i++) {
-                if(i%1000==0) {
-                    logger.info("Still initializing sample data for variable data size values. So far: "+ i+" /"+config.getNumKeys());
-                }
-                int valueSize = upperBound;
-                if (upperBound > lowerBound) {
-                    valueSize = vvRandom.nextInt(upperBound - lowerBound) + lowerBound;
-                }
-
-                String value = RandomStringUtils.randomAlphanumeric(valueSize);
-
-                values.add(value);
-            }
+
+    private ValueArena createValueArena(int upperBound) {
+        long arenaSize = Math.max((long) config.getValueArenaSizeMB() << 20, upperBound);
+        logger.info("Initializing off-heap value arena of {} bytes for variable data size values", arenaSize);
+        return new ValueArena((int) Math.min(arenaSize, Integer.MAX_VALUE), vRandom);
+    }
+
+    private int randomValueSize(int lowerBound, int upperBound) {
+        if (upperBound > lowerBound) {
+            return vRandom.nextInt(upperBound - lowerBound) + lowerBound;
         }
+        return upperBound;
     }
 
     private void initialize() {
@@ -106,7 +143,9 @@ public class DefaultDataGenerator implements DataGenerator {
             if(i%1000==0) {
                 logger.info("Still initializing sample data for values. So far: "+ i+" /"+config.getNumValues());
             }
-            values.add(constructRandomValue());
+            String value = constructRandomValue();
+            values.add(value);
+            valueBuffers.add(ByteBuffer.wrap(value.getBytes(StandardCharsets.US_ASCII)).asReadOnlyBuffer());
         }
 
     }
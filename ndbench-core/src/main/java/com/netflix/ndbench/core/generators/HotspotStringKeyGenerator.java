@@ -0,0 +1,53 @@
+/*
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package com.netflix.ndbench.core.generators;
+
+import java.util.SplittableRandom;
+
+/**
+ * Sends a fixed fraction of operations to a fixed fraction of the key space (e.g. 80% of operations to 20% of the keys),
+ * picking keys uniformly within the hot set and within the cold set. The hot set is the start of the key space.
+ */
+public class HotspotStringKeyGenerator extends IndexedStringKeyGenerator {
+    private final double hotOpFraction;
+    private final long hotKeys;
+
+    /**
+     * @param hotKeyFraction fraction of the keys that are hot, in (0, 1]
+     * @param hotOpFraction  fraction of the operations that go to the hot keys, in [0, 1]
+     */
+    public HotspotStringKeyGenerator(boolean preLoadKeys, KeyPool keyPool, RandomSource random, double hotKeyFraction, double hotOpFraction) {
+        super(preLoadKeys, keyPool, random);
+        if (hotKeyFraction <= 0 || hotKeyFraction > 1) {
+            throw new IllegalArgumentException("Hot key fraction must be in (0, 1], but was: " + hotKeyFraction);
+        }
+        if (hotOpFraction < 0 || hotOpFraction > 1) {
+            throw new IllegalArgumentException("Hot op fraction must be in [0, 1], but was: " + hotOpFraction);
+        }
+        this.hotOpFraction = hotOpFraction;
+        this.hotKeys = Math.max(1, (long) (keyPool.getNumKeys() * hotKeyFraction));
+    }
+
+    @Override
+    protected long nextKeyIndex() {
+        SplittableRandom stream = random.current();
+        if (hotKeys >= getNumKeys() || stream.nextDouble() < hotOpFraction) {
+            return stream.nextLong(hotKeys);
+        }
+        return hotKeys + stream.nextLong(getNumKeys() - hotKeys);
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package com.netflix.ndbench.core.generators;
+
+/**
+ * Base class of generators which pick the index of the next key from the key space "T0" .. "T[numKeys - 1]"
+ * according to some distribution, and leave it to this class to turn the index into a key.
+ */
+public abstract class IndexedStringKeyGenerator implements KeyGenerator<String> {
+    private final KeyPool keyPool;
+    private final boolean preLoadKeys;
+    protected final RandomSource random;
+
+    protected IndexedStringKeyGenerator(boolean preLoadKeys, long numKeys) {
+        this(preLoadKeys, KeyPool.forKeys(numKeys, preLoadKeys), new RandomSource());
+    }
+
+    /**
+     * @param keyPool the pool to take keys from, which may be shared with other generators for the same key space
+     * @param random  the source of the per-thread random streams that keys are picked with
+     */
+    protected IndexedStringKeyGenerator(boolean preLoadKeys, KeyPool keyPool, RandomSource random) {
+        this.preLoadKeys = preLoadKeys;
+        this.keyPool = keyPool;
+        this.random = random;
+    }
+
+    @Override
+    public void init() {
+        if (this.isPreLoadKeys()) {
+            keyPool.preload();
+        }
+    }
+
+    @Override
+    public String getNextKey() {
+        return keyPool.getKey(nextKeyIndex());
+    }
+
+    @Override
+    public int encodeNextKey(byte[] buffer, int offset) {
+        return keyPool.encode(nextKeyIndex(), buffer, offset);
+    }
+
+    @Override
+    public int getMaxKeyLength() {
+        return KeyPool.MAX_KEY_LENGTH;
+    }
+
+    /**
+     * @return the index of the next key, in [0, numKeys)
+     */
+    protected abstract long nextKeyIndex();
+
+    @Override
+    public boolean hasNextKey() {
+        return true;
+    }
+
+    @Override
+    public boolean isPreLoadKeys() {
+        return preLoadKeys;
+    }
+
+    @Override
+    public long getNumKeys() {
+        return keyPool.getNumKeys();
+    }
+}
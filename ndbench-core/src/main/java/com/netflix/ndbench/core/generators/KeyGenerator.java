@@ -16,6 +16,8 @@
  */
 package com.netflix.ndbench.core.generators;
 
+import java.nio.charset.StandardCharsets;
+
 /**
  * @author vchella
  */
@@ -25,5 +27,26 @@ public interface KeyGenerator<T> {
     T getNextKey();
     boolean hasNextKey();
     boolean isPreLoadKeys();
-    int getNumKeys();
+    long getNumKeys();
+
+    /**
+     * Writes the UTF-8 encoding of the next key to 'buffer', starting at 'offset'. Used by the binary data path;
+     * generators that can encode keys without building them first override this method to avoid allocating.
+     *
+     * @return the number of bytes written
+     * @throws ArrayIndexOutOfBoundsException if the buffer is too small, see {@link #getMaxKeyLength()}
+     */
+    default int encodeNextKey(byte[] buffer, int offset) {
+        byte[] key = String.valueOf(getNextKey()).getBytes(StandardCharsets.UTF_8);
+        System.arraycopy(key, 0, buffer, offset, key.length);
+        return key.length;
+    }
+
+    /**
+     * @return the most bytes {@link #encodeNextKey} writes for a key, which the binary data path sizes its buffers
+     * with; {@link Integer#MAX_VALUE} if unknown, in which case keys are passed as strings instead
+     */
+    default int getMaxKeyLength() {
+        return Integer.MAX_VALUE;
+    }
 }
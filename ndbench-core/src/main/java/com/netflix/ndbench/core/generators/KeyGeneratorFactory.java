@@ -16,26 +16,110 @@
  */
 package com.netflix.ndbench.core.generators;
 
+import com.netflix.ndbench.core.config.IConfiguration;
 import com.netflix.ndbench.core.util.LoadPattern;
 import org.slf4j.LoggerFactory;
 
+import java.nio.file.Paths;
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * @author vchella
  */
 public class KeyGeneratorFactory {
     private static final org.slf4j.Logger Logger = LoggerFactory.getLogger(KeyGeneratorFactory.class);
 
-    public KeyGenerator<String> getKeyGenerator(LoadPattern loadPattern, int numKeys, int windowSize, long durationInSec, boolean preLoadKeys) {
+    private static final double DEFAULT_HOTSPOT_KEY_FRACTION = 0.2;
+    private static final double DEFAULT_HOTSPOT_OP_FRACTION = 0.8;
+
+    private final IConfiguration config;        // null if default settings should be used
+
+    // index of the most recently written key, shared by the write and read generators of the LATEST load pattern
+    private final AtomicLong latestKeyIndex = new AtomicLong(-1L);
+
+    // keys of the most recently requested key space, shared by all generators of this factory
+    private KeyPool keyPool;
+
+    // each generator gets its own source, split off this one
+    private final RandomSource randomSource;
+
+    /**
+     * Returns a factory whose generators use default settings for the skewed load patterns
+     */
+    public KeyGeneratorFactory() {
+        this(null);
+    }
+
+    /**
+     * Returns a factory whose generators take the settings for the skewed load patterns from 'config'. Generators
+     * for reads and writes should be obtained from the same factory, so that the LATEST load pattern can read
+     * what was written most recently.
+     */
+    public KeyGeneratorFactory(IConfiguration config) {
+        this.config = config;
+        this.randomSource = new RandomSource(config == null ? 0L : config.getRandomSeed(), RandomSource.KEY_STREAM);
+    }
+
+    public KeyGenerator<String> getKeyGenerator(LoadPattern loadPattern, long numKeys, long windowSize, long durationInSec, boolean preLoadKeys) {
+        return getKeyGenerator(loadPattern, numKeys, windowSize, durationInSec, preLoadKeys, false);
+    }
+
+    /**
+     * @param forWrites whether the generator is for writes or for reads -- only the LATEST load pattern behaves
+     *                  differently for the two
+     */
+    public KeyGenerator<String> getKeyGenerator(LoadPattern loadPattern, long numKeys, long windowSize, long durationInSec, boolean preLoadKeys, boolean forWrites) {
         Logger.info("Loading "+loadPattern.toString()+" KeyGenerator");
+        if (loadPattern.equals(LoadPattern.TRACE)) {
+            // traces bring their own keys, so there's no key pool to set up
+            if (config == null || config.getKeyTraceFile().isEmpty()) {
+                throw new IllegalArgumentException("The trace load pattern needs a keyTraceFile");
+            }
+            return new TraceReplayKeyGenerator(Paths.get(config.getKeyTraceFile()), forWrites,
+                    config.getKeyTraceSpeedup(), config.isKeyTraceLoop());
+        }
+        KeyPool keyPool = getKeyPool(numKeys, preLoadKeys);
+        RandomSource random = randomSource.split();
 
         if (loadPattern.equals(LoadPattern.SLIDING_WINDOW)) {
-            return new SlidingWindowStringKeyGenerator(windowSize, durationInSec, preLoadKeys, numKeys);
+            return new SlidingWindowStringKeyGenerator(windowSize, durationInSec, preLoadKeys, keyPool, random);
         }
         else if (loadPattern.equals(LoadPattern.SLIDING_WINDOW_FLIP)) {
-            return new SlidingWindowFlipStringKeyGenerator(windowSize, durationInSec, preLoadKeys, numKeys);
+            return new SlidingWindowFlipStringKeyGenerator(windowSize, durationInSec * 1000L,
+                    config == null ? 0L : config.getWindowStepKeys(),
+                    config != null && config.isWindowDriftGradual(),
+                    preLoadKeys, keyPool, random);
+        }
+        else if (loadPattern.equals(LoadPattern.ZIPFIAN)) {
+            return new ZipfianStringKeyGenerator(preLoadKeys, keyPool, random, getZipfianConstant(), false);
+        }
+        else if (loadPattern.equals(LoadPattern.SCRAMBLED_ZIPFIAN)) {
+            return new ZipfianStringKeyGenerator(preLoadKeys, keyPool, random, getZipfianConstant(), true);
+        }
+        else if (loadPattern.equals(LoadPattern.LATEST)) {
+            return new LatestStringKeyGenerator(preLoadKeys, keyPool, random, getZipfianConstant(), latestKeyIndex, forWrites);
+        }
+        else if (loadPattern.equals(LoadPattern.HOTSPOT)) {
+            return new HotspotStringKeyGenerator(preLoadKeys, keyPool, random,
+                    config == null ? DEFAULT_HOTSPOT_KEY_FRACTION : config.getHotspotKeyFraction(),
+                    config == null ? DEFAULT_HOTSPOT_OP_FRACTION : config.getHotspotOpFraction());
         }
         else
-            return new RandomStringKeyGenrator(preLoadKeys,numKeys);
+            return new RandomStringKeyGenrator(preLoadKeys, keyPool, random);
     }
 
+    private synchronized KeyPool getKeyPool(long numKeys, boolean preLoadKeys) {
+        long firstKey = config == null ? 0 : config.getKeyRangeStart();
+        int maxCachedKeys = config == null ? KeyPool.DEFAULT_MAX_CACHED_KEYS : config.getMaxCachedKeys();
+        boolean cacheKeys = preLoadKeys || numKeys <= maxCachedKeys;
+        if (keyPool == null || keyPool.getFirstKey() != firstKey || keyPool.getNumKeys() != numKeys
+                || keyPool.isCaching() != cacheKeys) {
+            keyPool = new KeyPool(firstKey, numKeys, cacheKeys);
+        }
+        return keyPool;
+    }
+
+    private double getZipfianConstant() {
+        return config == null ? ZipfianSampler.DEFAULT_ZIPFIAN_CONSTANT : config.getZipfianConstant();
+    }
 }
@@ -0,0 +1,188 @@
+/*
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package com.netflix.ndbench.core.generators;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Turns key indexes into the keys "T[firstKey]" .. "T[firstKey + numKeys - 1]", caching each key once it has been built so that handing
+ * out keys does not allocate once the cache is warm. For plugins that can accept keys as bytes, keys can also be
+ * encoded into a caller supplied buffer, which never allocates.
+ * <p>
+ * The cache is filled lazily (or eagerly, via {@link #preload()}), and concurrent fills of the same slot are benign:
+ * both threads store equal, immutable strings.
+ */
+public class KeyPool {
+    private static final Logger logger = LoggerFactory.getLogger(KeyPool.class);
+
+    public static final int DEFAULT_MAX_CACHED_KEYS = 5_000_000;
+
+    // the largest array a JVM reliably allocates; larger key spaces are never cached
+    private static final long MAX_CACHEABLE_KEYS = Integer.MAX_VALUE - 8;
+
+    private static final byte KEY_PREFIX = 'T';
+
+    /**
+     * Length of the longest encoded key: the prefix, a minus sign and the 19 digits of a long
+     */
+    public static final int MAX_KEY_LENGTH = 21;
+
+    // the two ASCII digits of each number in [0, 100), so that keys are encoded two digits per division
+    private static final byte[] DIGIT_PAIRS = new byte[200];
+
+    static {
+        for (int i = 0; i < 100; i++) {
+            DIGIT_PAIRS[2 * i] = (byte) ('0' + i / 10);
+            DIGIT_PAIRS[2 * i + 1] = (byte) ('0' + i % 10);
+        }
+    }
+
+    private final long firstKey;
+    private final long numKeys;
+    private final String[] keys;                // null if caching is disabled
+
+    /**
+     * @param cacheKeys whether to cache built keys -- the cache holds one reference per key up front, and up to
+     *                  numKeys strings once warm. Key spaces too large for an array are never cached.
+     */
+    public KeyPool(long numKeys, boolean cacheKeys) {
+        this(0, numKeys, cacheKeys);
+    }
+
+    /**
+     * @param firstKey number of the key with index 0, so that a node can be limited to its share of a larger key
+     *                 space (see {@link com.netflix.ndbench.core.config.IConfiguration#getKeyRangeStart()})
+     */
+    public KeyPool(long firstKey, long numKeys, boolean cacheKeys) {
+        if (firstKey < 0 || numKeys < 0 || firstKey > Long.MAX_VALUE - numKeys) {
+            throw new IllegalArgumentException("Key range [" + firstKey + ", " + firstKey + " + " + numKeys +
+                    ") must lie within [0, " + Long.MAX_VALUE + "]");
+        }
+        if (cacheKeys && numKeys > MAX_CACHEABLE_KEYS) {
+            logger.warn("Not caching the keys of a key space of {} keys, which is too large for a cache", numKeys);
+            cacheKeys = false;
+        }
+        this.firstKey = firstKey;
+        this.numKeys = numKeys;
+        this.keys = cacheKeys ? new String[(int) numKeys] : null;
+    }
+
+    /**
+     * Returns a pool that caches keys if they are to be preloaded, or if there are few enough of them to cache
+     * without a noticeable memory cost
+     */
+    public static KeyPool forKeys(long numKeys, boolean preLoadKeys) {
+        return new KeyPool(numKeys, preLoadKeys || numKeys <= DEFAULT_MAX_CACHED_KEYS);
+    }
+
+    public long getFirstKey() {
+        return firstKey;
+    }
+
+    public long getNumKeys() {
+        return numKeys;
+    }
+
+    public boolean isCaching() {
+        return keys != null;
+    }
+
+    /**
+     * Builds and caches all keys up front
+     */
+    public void preload() {
+        if (keys == null) {
+            return;
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (i % 10000 == 0)
+                logger.info("Still initializing sample data for Keys. So far: {} /{}", i, numKeys);
+            if (keys[i] == null)
+                keys[i] = buildKey(firstKey + i);
+        }
+    }
+
+    public String getKey(long index) {
+        if (keys == null || index < 0 || index >= numKeys) {
+            return buildKey(firstKey + index);
+        }
+        String key = keys[(int) index];
+        if (key == null) {
+            key = buildKey(firstKey + index);
+            keys[(int) index] = key;
+        }
+        return key;
+    }
+
+    /**
+     * Writes the US-ASCII encoding of the key with the given index of this pool to 'buffer', starting at 'offset'.
+     *
+     * @return the number of bytes written
+     */
+    public int encode(long index, byte[] buffer, int offset) {
+        return encodeKey(firstKey + index, buffer, offset);
+    }
+
+    /**
+     * Writes the US-ASCII encoding of the key with the given number to 'buffer', starting at 'offset'. Takes one
+     * division per two digits, so that keys of large key spaces cost little more to encode than those of small ones.
+     *
+     * @return the number of bytes written, see {@link #encodedLength(long)}
+     * @throws ArrayIndexOutOfBoundsException if the buffer is too small
+     */
+    public static int encodeKey(long index, byte[] buffer, int offset) {
+        int length = encodedLength(index);
+        buffer[offset] = KEY_PREFIX;
+        int position = offset + length;
+        // digits are taken off a non-positive value, so that Long.MIN_VALUE needs no special case
+        long remaining = index < 0 ? index : -index;
+        while (remaining <= -100) {
+            long quotient = remaining / 100;
+            int pair = (int) (quotient * 100 - remaining);
+            remaining = quotient;
+            buffer[--position] = DIGIT_PAIRS[2 * pair + 1];
+            buffer[--position] = DIGIT_PAIRS[2 * pair];
+        }
+        int last = (int) -remaining;
+        buffer[--position] = DIGIT_PAIRS[2 * last + 1];
+        if (last >= 10) {
+            buffer[--position] = DIGIT_PAIRS[2 * last];
+        }
+        if (index < 0) {
+            buffer[--position] = '-';
+        }
+        return length;
+    }
+
+    /**
+     * @return the length of the key with the given index, in bytes
+     */
+    public static int encodedLength(long index) {
+        int length = index < 0 ? 2 : 1;
+        long remaining = index < 0 ? index : -index;
+        do {
+            length++;
+            remaining /= 10;
+        } while (remaining != 0);
+        return length;
+    }
+
+    private static String buildKey(long index) {
+        return "T" + index;
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package com.netflix.ndbench.core.generators;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Locale;
+
+/**
+ * Converts text logs of captured operations into key traces for {@link TraceReplayKeyGenerator}.
+ * <p>
+ * Each line holds one operation as whitespace separated fields, in one of three layouts:
+ * <ul>
+ * <li>key</li>
+ * <li>op key</li>
+ * <li>timestamp op key</li>
+ * </ul>
+ * where timestamps are in (possibly fractional) milliseconds on any clock, and op is one of read / get, write / put /
+ * set, or any. Lines of other operation types are skipped, as are blank lines and lines starting with #. Operations
+ * without a timestamp are recorded as happening at once. Run with the text log and the trace to write as arguments.
+ */
+public class KeyTraceConverter {
+
+    /**
+     * @return the number of operations written and skipped, as {written, skipped}
+     * @throws IllegalArgumentException if a line is malformed
+     */
+    public static long[] convert(Reader text, KeyTraceWriter trace) throws IOException {
+        BufferedReader reader = new BufferedReader(text);
+        long written = 0L;
+        long skipped = 0L;
+        long lineNumber = 0L;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split("\\s+");
+            if (fields.length > 3) {
+                throw new IllegalArgumentException("Expected at most 3 fields on line " + lineNumber + ": " + line);
+            }
+            long timeMicros = 0L;
+            if (fields.length == 3) {
+                try {
+                    timeMicros = Math.round(Double.parseDouble(fields[0]) * 1000);
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid timestamp on line " + lineNumber + ": " + line, e);
+                }
+            }
+            byte op = fields.length == 1 ? KeyTraceWriter.ANY : parseOp(fields[fields.length - 2]);
+            if (op < 0) {
+                skipped++;
+                continue;
+            }
+            trace.write(timeMicros, op, fields[fields.length - 1].getBytes(StandardCharsets.UTF_8));
+            written++;
+        }
+        return new long[]{written, skipped};
+    }
+
+    /**
+     * @return the operation type for the given name, or -1 if it is neither a read nor a write
+     */
+    static byte parseOp(String name) {
+        switch (name.toLowerCase(Locale.ROOT)) {
+            case "read":
+            case "get":
+                return KeyTraceWriter.READ;
+            case "write":
+            case "put":
+            case "set":
+                return KeyTraceWriter.WRITE;
+            case "any":
+                return KeyTraceWriter.ANY;
+            default:
+                return -1;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: KeyTraceConverter <text log> <key trace>");
+            System.exit(1);
+        }
+        try (Reader text = Files.newBufferedReader(Paths.get(args[0]), StandardCharsets.UTF_8);
+             OutputStream out = Files.newOutputStream(Paths.get(args[1]));
+             KeyTraceWriter trace = new KeyTraceWriter(out)) {
+            long[] counts = convert(text, trace);
+            System.out.println("Wrote " + counts[0] + " operations to " + args[1] + ", skipped " + counts[1]);
+        }
+    }
+}
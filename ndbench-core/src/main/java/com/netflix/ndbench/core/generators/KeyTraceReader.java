@@ -0,0 +1,179 @@
+/*
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package com.netflix.ndbench.core.generators;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads a key trace written by a {@link KeyTraceWriter}, one record at a time, through a memory mapped window that
+ * slides over the file. Traces can be far larger than the heap (and than the 2GB a single mapping can cover), since
+ * only the pages of the window are mapped, and the OS reads them ahead sequentially.
+ * <p>
+ * Not thread safe.
+ */
+public class KeyTraceReader implements Closeable {
+    static final int DEFAULT_WINDOW_BYTES = 64 * 1024 * 1024;
+
+    // the largest record: two 10 byte variable-length integers, the operation type and the key
+    private static final int MAX_RECORD_BYTES = 21 + KeyTraceWriter.MAX_KEY_BYTES;
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private final int windowBytes;
+
+    private MappedByteBuffer window;
+    private long windowStart;
+
+    private long timeMicros;
+    private byte op;
+    private int keyOffset;
+    private int keyLength;
+
+    public KeyTraceReader(Path file) throws IOException {
+        this(file, DEFAULT_WINDOW_BYTES);
+    }
+
+    KeyTraceReader(Path file, int windowBytes) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.windowBytes = Math.max(windowBytes, MAX_RECORD_BYTES);
+        try {
+            this.fileSize = channel.size();
+            map(0L);
+            if (fileSize < KeyTraceWriter.HEADER_BYTES || window.getInt() != KeyTraceWriter.MAGIC) {
+                throw new IOException(file + " is not a key trace");
+            }
+            int version = window.get();
+            if (version != KeyTraceWriter.VERSION) {
+                throw new IOException("Unsupported key trace version " + version + " in " + file);
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Moves to the next record of the trace
+     *
+     * @return false at the end of the trace, or if the last record is truncated
+     * @throws IOException if the record's key is longer than {@link KeyTraceWriter#MAX_KEY_BYTES}, which only
+     *                     corrupted traces have
+     */
+    public boolean next() throws IOException {
+        if (window.remaining() < MAX_RECORD_BYTES && windowStart + window.limit() < fileSize) {
+            map(windowStart + window.position());
+        }
+        int start = window.position();
+        try {
+            long delta = readVarLong();
+            byte recordOp = window.get();
+            long length = readVarLong();
+            if (length < 0 || length > KeyTraceWriter.MAX_KEY_BYTES) {
+                throw new IOException("Record at offset " + (windowStart + start) + " has a key of " + length
+                        + " bytes, over the maximum of " + KeyTraceWriter.MAX_KEY_BYTES);
+            }
+            if (length > window.remaining()) {
+                window.position(start);
+                return false;
+            }
+            timeMicros += delta;
+            op = recordOp;
+            keyOffset = window.position();
+            keyLength = (int) length;
+            window.position(keyOffset + keyLength);
+            return true;
+        } catch (BufferUnderflowException e) {
+            window.position(start);
+            return false;
+        }
+    }
+
+    /**
+     * Moves back to the start of the trace
+     */
+    public void rewind() throws IOException {
+        map(0L);
+        window.position(KeyTraceWriter.HEADER_BYTES);
+        timeMicros = 0L;
+    }
+
+    /**
+     * @return the time of the current record, in microseconds since the first record of the trace
+     */
+    public long getTimeMicros() {
+        return timeMicros;
+    }
+
+    /**
+     * @return the operation type of the current record, see {@link KeyTraceWriter#ANY}
+     */
+    public byte getOp() {
+        return op;
+    }
+
+    public int getKeyLength() {
+        return keyLength;
+    }
+
+    public String getKey() {
+        byte[] key = new byte[keyLength];
+        copyKey(key, 0);
+        return new String(key, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Copies the UTF-8 bytes of the current record's key to 'buffer', starting at 'offset'
+     *
+     * @return the number of bytes copied
+     */
+    public int copyKey(byte[] buffer, int offset) {
+        for (int i = 0; i < keyLength; i++) {
+            buffer[offset + i] = window.get(keyOffset + i);
+        }
+        return keyLength;
+    }
+
+    @Override
+    public void close() throws IOException {
+        window = null;
+        channel.close();
+    }
+
+    private void map(long position) throws IOException {
+        windowStart = position;
+        window = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(windowBytes, fileSize - position));
+    }
+
+    private long readVarLong() throws IOException {
+        long value = 0L;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = window.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed variable-length integer at offset " + (windowStart + window.position()));
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package com.netflix.ndbench.core.generators;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes key traces, the compact binary format replayed by {@link TraceReplayKeyGenerator} through a
+ * {@link KeyTraceReader}.
+ * <p>
+ * A trace starts with a header (magic number, format version) followed by one record per captured operation: the
+ * microseconds since the previous operation as a variable-length integer, the operation type as a byte (see
+ * {@link #ANY}, {@link #READ}, {@link #WRITE}), the length of the key as a variable-length integer and the key's
+ * UTF-8 bytes. A typical record takes only a few bytes more than its key.
+ */
+public class KeyTraceWriter implements Closeable {
+    static final int MAGIC = 0x4E444254;   // "NDBT"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 5;
+
+    /**
+     * Operation types: ANY records are replayed by both reads and writes
+     */
+    public static final byte ANY = 0;
+    public static final byte READ = 1;
+    public static final byte WRITE = 2;
+
+    /**
+     * Upper bound for the length of a key, which bounds the size of a record
+     */
+    public static final int MAX_KEY_BYTES = 64 * 1024;
+
+    private final DataOutputStream out;
+    private long previousMicros;
+    private long numRecords;
+
+    public KeyTraceWriter(OutputStream out) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(out, 64 * 1024));
+        this.out.writeInt(MAGIC);
+        this.out.writeByte(VERSION);
+    }
+
+    /**
+     * @param timeMicros time of the operation, on any clock that starts before the first operation; an operation
+     *                   that is out of order is recorded at the time of the operation before it
+     * @param op         one of {@link #ANY}, {@link #READ} or {@link #WRITE}
+     * @throws IllegalArgumentException if the key is longer than {@link #MAX_KEY_BYTES} or the type is unknown
+     */
+    public void write(long timeMicros, byte op, byte[] key) throws IOException {
+        if (key.length > MAX_KEY_BYTES) {
+            throw new IllegalArgumentException("Key of " + key.length + " bytes exceeds the maximum of " + MAX_KEY_BYTES);
+        }
+        if (op != ANY && op != READ && op != WRITE) {
+            throw new IllegalArgumentException("Unknown operation type " + op);
+        }
+        long delta = numRecords == 0 ? 0L : Math.max(0L, timeMicros - previousMicros);
+        previousMicros = numRecords == 0 ? timeMicros : previousMicros + delta;
+        writeVarLong(delta);
+        out.writeByte(op);
+        writeVarLong(key.length);
+        out.write(key);
+        numRecords++;
+    }
+
+    public long getNumRecords() {
+        return numRecords;
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    /**
+     * Writes a non-negative value in 7-bit groups, least significant group first
+     */
+    private void writeVarLong(long value) throws IOException {
+        while ((value & ~0x7FL) != 0L) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package com.netflix.ndbench.core.generators;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Models workloads where recently inserted data is the most popular (e.g. timelines.)
+ * <p>
+ * The write side hands out keys in insertion order, wrapping around at the end of the key space, and advances a
+ * cursor shared with the read side. The read side picks keys at a Zipfian distributed distance behind that cursor,
+ * so the most recently written keys are the hottest.
+ */
+public class LatestStringKeyGenerator extends IndexedStringKeyGenerator {
+    private final AtomicLong latestKeyIndex;
+    private final boolean forWrites;
+    private final double zipfianConstant;
+    private ZipfianSampler sampler;
+
+    /**
+     * @param latestKeyIndex index of the most recently written key, shared by the write and read generators
+     * @param forWrites      true for the write side, false for the read side
+     */
+    public LatestStringKeyGenerator(boolean preLoadKeys,
+                                    KeyPool keyPool,
+                                    RandomSource random,
+                                    double zipfianConstant,
+                                    AtomicLong latestKeyIndex,
+                                    boolean forWrites) {
+        super(preLoadKeys, keyPool, random);
+        this.zipfianConstant = zipfianConstant;
+        this.latestKeyIndex = latestKeyIndex;
+        this.forWrites = forWrites;
+    }
+
+    @Override
+    public void init() {
+        super.init();
+        sampler = new ZipfianSampler(getNumKeys(), zipfianConstant);
+    }
+
+    @Override
+    protected long nextKeyIndex() {
+        if (forWrites) {
+            return Math.floorMod(latestKeyIndex.incrementAndGet(), getNumKeys());
+        }
+        long distance = sampler.sample(random.nextDouble());
+        return Math.floorMod(latestKeyIndex.get() - distance, getNumKeys());
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package com.netflix.ndbench.core.generators;
+
+import java.util.SplittableRandom;
+
+/**
+ * Hands each thread its own random stream, so that generators shared by all workers don't contend on a single
+ * seed. Streams are split off a root generator the first time a thread draws from this source; if the root is
+ * seeded, each worker thread sees the same sequence from run to run (given that threads first draw in the same order.)
+ */
+public class RandomSource {
+    public static final long KEY_STREAM = 1L;
+    public static final long VALUE_STREAM = 2L;
+    public static final long MIX_STREAM = 3L;
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final SplittableRandom root;        // guarded by this
+    private final ThreadLocal<SplittableRandom> streams = ThreadLocal.withInitial(this::splitRoot);
+
+    /**
+     * Returns an unseeded source
+     */
+    public RandomSource() {
+        this(new SplittableRandom());
+    }
+
+    /**
+     * @param seed   seed of the run, or 0 for an unseeded source
+     * @param stream identifies what the source is used for (e.g. {@link #KEY_STREAM}), so that sources created from
+     *               the same seed for different purposes are independent of each other
+     */
+    public RandomSource(long seed, long stream) {
+        this(seed == 0L ? new SplittableRandom() : new SplittableRandom(seed ^ (stream * GOLDEN_GAMMA)));
+    }
+
+    private RandomSource(SplittableRandom root) {
+        this.root = root;
+    }
+
+    /**
+     * Returns a new source whose streams are independent of this source's streams
+     */
+    public synchronized RandomSource split() {
+        return new RandomSource(root.split());
+    }
+
+    /**
+     * Returns the calling thread's stream, which must not be handed to other threads
+     */
+    public SplittableRandom current() {
+        return streams.get();
+    }
+
+    public int nextInt(int bound) {
+        return current().nextInt(bound);
+    }
+
+    public long nextLong(long bound) {
+        return current().nextLong(bound);
+    }
+
+    public double nextDouble() {
+        return current().nextDouble();
+    }
+
+    private synchronized SplittableRandom splitRoot() {
+        return root.split();
+    }
+}
@@ -16,65 +16,23 @@
  */
 package com.netflix.ndbench.core.generators;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Random;
-
-
 /**
  * @author vchella
  */
-public class RandomStringKeyGenrator implements KeyGenerator<String> {
-    private static Logger logger = LoggerFactory.getLogger(RandomStringKeyGenrator.class);
-
-    private final Random kRandom = new Random();
+public class RandomStringKeyGenrator extends IndexedStringKeyGenerator {
 
-    private final List<String> keys = new ArrayList<String>();
-
-    private final int numKeys;
-    private final boolean preLoadKeys;
-
-    public RandomStringKeyGenrator(boolean preLoadKeys, int numKeys)
+    public RandomStringKeyGenrator(boolean preLoadKeys, long numKeys)
     {
-        this.preLoadKeys = preLoadKeys;
-        this.numKeys = numKeys;
-    }
-    @Override
-    public void init() {
-        if (this.isPreLoadKeys()) {
-            for (int i = 0; i < getNumKeys(); i++) {
-                if (i % 10000 == 0)
-                    logger.info("Still initializing sample data for Keys. So far: "+ i+" /"+numKeys);
-                keys.add("T" + i);
-            }
-        }
+        super(preLoadKeys, numKeys);
     }
 
-    @Override
-    public String getNextKey() {
-        int randomKeyIndex = kRandom.nextInt(getNumKeys());
-        if (isPreLoadKeys()) {
-            return keys.get(randomKeyIndex);
-        } else {
-            return "T" + randomKeyIndex;
-        }
-    }
-
-    @Override
-    public boolean hasNextKey() {
-        return true;
-    }
-
-    @Override
-    public boolean isPreLoadKeys() {
-        return preLoadKeys;
+    public RandomStringKeyGenrator(boolean preLoadKeys, KeyPool keyPool, RandomSource random)
+    {
+        super(preLoadKeys, keyPool, random);
     }
 
     @Override
-    public int getNumKeys() {
-        return this.numKeys;
+    protected long nextKeyIndex() {
+        return random.nextLong(getNumKeys());
     }
 }
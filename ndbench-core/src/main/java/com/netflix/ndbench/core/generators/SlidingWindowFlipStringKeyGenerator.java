@@ -1,5 +1,5 @@
 /*
- *  Copyright 2016 Netflix, Inc.
+ *  Copyright 2018 Netflix, Inc.
  *
  *  Licensed under the Apache License, Version 2.0 (the "License");
  *  you may not use this file except in compliance with the License.
@@ -16,94 +16,69 @@
  */
 package com.netflix.ndbench.core.generators;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import com.netflix.ndbench.core.util.CoarseClock;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Random;
+import java.util.function.LongSupplier;
 
 /**
+ * Moves a window of keys through the key space by a step of keys every window duration, starting over at the start
+ * of the key space once the window reaches its end. By default the window jumps to the next, disjoint set of keys;
+ * smaller steps make consecutive windows overlap, and gradual drift moves the window a key at a time over each
+ * window duration rather than all at once.
+ *
  * @author vchella
  */
-public class SlidingWindowFlipStringKeyGenerator implements KeyGenerator<String> {
-
-    private static Logger logger = LoggerFactory.getLogger(SlidingWindowFlipStringKeyGenerator.class);
+public class SlidingWindowFlipStringKeyGenerator extends WindowedKeyGenerator {
 
-    private final int windowSize;
     private final long windowDurationInMs;
-    private final int numKeys;
-    private final boolean preLoadKeys;
-
-    private final Random kRandom = new Random();
-
-    private long startTime;
+    private final long stepKeys;
+    private final boolean gradual;
+    private final long numSteps;        // distinct window positions when jumping
+    private final long numPositions;    // distinct window positions when drifting
 
-    private final List<String> keys = new ArrayList<String>();
-
-    public SlidingWindowFlipStringKeyGenerator(int windowSize, long windowDurationInMs, boolean preLoadKeys, int numKeys)
+    public SlidingWindowFlipStringKeyGenerator(long windowSize, long windowDurationInMs, boolean preLoadKeys, long numKeys)
     {
-        this.windowSize = windowSize;
-        this.windowDurationInMs = windowDurationInMs;
-        this.numKeys = numKeys;
-        this.preLoadKeys = preLoadKeys;
+        this(windowSize, windowDurationInMs, preLoadKeys, KeyPool.forKeys(numKeys, preLoadKeys), new RandomSource());
     }
 
-    @Override
-    public void init() {
-        if (this.isPreLoadKeys()) {
-            for (int i = 0; i < getNumKeys(); i++) {
-                if (i % 10000 == 0)
-                    logger.info("Still initializing sample data for Keys. So far: "+ i+" /"+numKeys);
-
-                keys.add("T" + i);
-            }
-        }
-        startTime = System.currentTimeMillis();
-    }
-
-    @Override
-    public String getNextKey() {
-
-        //Algo:
-        // 1) Calculate my CurrentKeySet[min-max]
-        // 1.1) CurrentKeySet calculation: min=currentWindow*windowSize, max=min+windowSize
-        // 2) Get the Random number in my CurrentKeySet
-        int currentWindow = getCurrentWindowIndex();
-        int min = currentWindow * this.windowSize;
-        int max = min + this.windowSize;
-
-        int nextKey = randomnum(min, max);
-        logger.debug("Current Window: "+currentWindow+"" + "| CurrentKeySet: [" +min +" - " +max+"] | getNextKey(): "+nextKey);
-        return "T"+nextKey;
+    public SlidingWindowFlipStringKeyGenerator(long windowSize, long windowDurationInMs, boolean preLoadKeys, KeyPool keyPool, RandomSource random)
+    {
+        this(windowSize, windowDurationInMs, 0L, false, preLoadKeys, keyPool, random);
     }
 
-    @Override
-    public boolean hasNextKey() {
-        return true;
+    /**
+     * @param stepKeys keys by which the window moves every window duration; 0 to move by a whole window
+     * @param gradual  whether the window drifts a key at a time, rather than jumps once per window duration
+     */
+    public SlidingWindowFlipStringKeyGenerator(long windowSize, long windowDurationInMs, long stepKeys, boolean gradual,
+                                               boolean preLoadKeys, KeyPool keyPool, RandomSource random)
+    {
+        this(windowSize, windowDurationInMs, stepKeys, gradual, preLoadKeys, keyPool, random,
+                CoarseClock.shared()::currentTimeMillis);
     }
 
-    @Override
-    public boolean isPreLoadKeys() {
-        return this.preLoadKeys;
+    SlidingWindowFlipStringKeyGenerator(long windowSize, long windowDurationInMs, long stepKeys, boolean gradual,
+                                        boolean preLoadKeys, KeyPool keyPool, RandomSource random,
+                                        LongSupplier clockMillis)
+    {
+        super(windowSize, preLoadKeys, keyPool, random, clockMillis);
+        if (windowDurationInMs < 1) {
+            throw new IllegalArgumentException("Window duration must be positive, got " + windowDurationInMs + " ms");
+        }
+        this.windowDurationInMs = windowDurationInMs;
+        this.stepKeys = stepKeys > 0 ? stepKeys : windowSize;
+        this.gradual = gradual;
+        this.numPositions = numKeys - windowSize + 1;
+        this.numSteps = (numKeys - windowSize) / this.stepKeys + 1;
     }
 
     @Override
-    public int getNumKeys() {
-        return this.numKeys;
-    }
-
-    private int randomnum(int minNum, int maxNum) {
-        return kRandom.nextInt(maxNum - minNum) + minNum;
-    }
-
-    /*
-        Gets the currentWindow, Window number starts from 0.
-     */
-    private int getCurrentWindowIndex()
-    {
-        long currentTime = System.currentTimeMillis();
-        long currentWindow =((currentTime - startTime) / windowDurationInMs);
-        return (int) currentWindow%(numKeys/windowSize);
+    protected long windowStart(long elapsedMillis) {
+        long step = elapsedMillis / windowDurationInMs;
+        if (!gradual) {
+            return step % numSteps * stepKeys;
+        }
+        long drift = (elapsedMillis % windowDurationInMs) * stepKeys / windowDurationInMs;
+        return (step * stepKeys + drift) % numPositions;
     }
 }
@@ -1,5 +1,5 @@
 /*
- *  Copyright 2016 Netflix, Inc.
+ *  Copyright 2018 Netflix, Inc.
  *
  *  Licensed under the Apache License, Version 2.0 (the "License");
  *  you may not use this file except in compliance with the License.
@@ -16,111 +16,70 @@
  */
 package com.netflix.ndbench.core.generators;
 
+import com.netflix.ndbench.core.util.CoarseClock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Random;
+import java.math.BigInteger;
+import java.util.function.LongSupplier;
 
 /**
+ * Moves a window of keys gradually from the start to the end of the key space over the duration of the test, and
+ * ends the test once the duration has passed.
+ *
  * @author vchella
  */
-public class SlidingWindowStringKeyGenerator implements KeyGenerator<String> {
-
-    private static Logger logger = LoggerFactory.getLogger(SlidingWindowStringKeyGenerator.class);
-
-    private final int windowSize;
-    private final long testDurationInSeconds;
-    private final int numKeys;
-    private final boolean preLoadKeys;
-
-    private final Random kRandom = new Random();
+public class SlidingWindowStringKeyGenerator extends WindowedKeyGenerator {
 
-    private long startTime;
-    private long endTime;
+    private static final Logger logger = LoggerFactory.getLogger(SlidingWindowStringKeyGenerator.class);
 
-    private final List<String> keys = new ArrayList<String>();
+    private final long testDurationInMillis;
 
-    public SlidingWindowStringKeyGenerator(int windowSize, long testDurationInSeconds, boolean preLoadKeys, int numKeys)
+    public SlidingWindowStringKeyGenerator(long windowSize, long testDurationInSeconds, boolean preLoadKeys, long numKeys)
     {
-        logger.info("Initialized SlidingWindowKeyGenerator with WindowSize: "+windowSize+", Test Duration (Secs): "+testDurationInSeconds+", NumKeys: "+numKeys);
-        this.windowSize = windowSize;
-        this.testDurationInSeconds = testDurationInSeconds;
-        this.numKeys = numKeys;
-        this.preLoadKeys = preLoadKeys;
+        this(windowSize, testDurationInSeconds, preLoadKeys, KeyPool.forKeys(numKeys, preLoadKeys), new RandomSource());
     }
 
-    @Override
-    public void init() {
-        if (this.isPreLoadKeys()) {
-            for (int i = 0; i < getNumKeys(); i++) {
-                if (i % 10000 == 0)
-                    logger.info("Still initializing sample data for Keys. So far: "+ i+" /"+numKeys);
-
-                keys.add("T" + i);
-            }
-        }
-        startTime = System.currentTimeMillis();
-        endTime = startTime + (testDurationInSeconds*1000);
+    public SlidingWindowStringKeyGenerator(long windowSize, long testDurationInSeconds, boolean preLoadKeys, KeyPool keyPool, RandomSource random)
+    {
+        this(windowSize, testDurationInSeconds * 1000L, preLoadKeys, keyPool, random, CoarseClock.shared()::currentTimeMillis);
     }
 
-
-
-    @Override
-    public String getNextKey() {
-
-
-        int min = getCurrentRecord();
-//        int max = Math.max(min + this.windowSize,numKeys);
-        int max = min + this.windowSize;
-        int nextKey = randomnum(min, max);
-        logger.debug("NumKeys: "+numKeys+" | CurrentKeySet: [" +min +" - " +max+"] | getNextKey(): "+nextKey);
-        return "T"+nextKey;
+    SlidingWindowStringKeyGenerator(long windowSize, long testDurationInMillis, boolean preLoadKeys, KeyPool keyPool,
+                                    RandomSource random, LongSupplier clockMillis)
+    {
+        super(windowSize, preLoadKeys, keyPool, random, clockMillis);
+        if (testDurationInMillis < 1) {
+            throw new IllegalArgumentException("Test duration must be positive, got " + testDurationInMillis + " ms");
+        }
+        this.testDurationInMillis = testDurationInMillis;
+        logger.info("Initialized SlidingWindowKeyGenerator with WindowSize: " + windowSize + ", Test Duration (ms): "
+                + testDurationInMillis + ", NumKeys: " + numKeys);
     }
 
     @Override
     public boolean hasNextKey() {
-        long currentTime = System.currentTimeMillis();
-        if ( endTime < currentTime ) {
-            logger.info("No more keys to process since endtime :"+endTime+" < currentTime: "+currentTime);
+        if (elapsedMillis() > testDurationInMillis) {
+            logger.info("No more keys to process since the test duration of {} ms has passed", testDurationInMillis);
             return false;
         }
         return true;
     }
 
     @Override
-    public boolean isPreLoadKeys() {
-        return this.preLoadKeys;
-    }
-
-    @Override
-    public int getNumKeys() {
-        return this.numKeys;
-    }
-
-    private int randomnum(int minNum, int maxNum) {
-        return kRandom.nextInt(maxNum - minNum) + minNum;
-    }
-
-    /*
-        Gets the currentWindow, Window number starts from 0.
-     */
-    private int getCurrentRecord()
-    {
-        //Get the current time
-        long currentTime = System.currentTimeMillis();
-
-        //How far along has the test run?
-        long currentDuration=currentTime-startTime;
-        //How far along the test are we?
-        double currentRelativePosition=(currentDuration/1000d)/testDurationInSeconds;
-        //determine the position of the test window
-        double currentRecordRaw=currentRelativePosition*(numKeys-windowSize);
-
-        Long currentRecord=Math.round(currentRecordRaw);
-
-        return currentRecord.intValue();
+    protected long windowStart(long elapsedMillis) {
+        if (elapsedMillis >= testDurationInMillis) {
+            return numKeys - windowSize;
+        }
+        // floor(elapsed * span / duration), exactly: split the span into whole durations and a remainder, whose
+        // product with elapsed < duration only overflows for durations of more than a month
+        long span = numKeys - windowSize;
+        long quotient = span / testDurationInMillis;
+        long remainder = span % testDurationInMillis;
+        if (remainder == 0 || elapsedMillis <= Long.MAX_VALUE / remainder) {
+            return elapsedMillis * quotient + elapsedMillis * remainder / testDurationInMillis;
+        }
+        return elapsedMillis * quotient + BigInteger.valueOf(elapsedMillis).multiply(BigInteger.valueOf(remainder))
+                .divide(BigInteger.valueOf(testDurationInMillis)).longValue();
     }
-
 }
@@ -0,0 +1,176 @@
+/*
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package com.netflix.ndbench.core.generators;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Replays the keys of a captured key trace (see {@link KeyTraceWriter} and {@link KeyTraceConverter}), so that the
+ * load has the temporal locality of real traffic. Keys are streamed from the memory mapped trace, so traces of any
+ * size can be replayed without loading them into the heap.
+ * <p>
+ * Reads only replay records of type READ or ANY, and writes those of type WRITE or ANY. With a positive speedup,
+ * each key is handed out no earlier than the time of its record in the trace divided by the speedup (1 replays in
+ * real time), so the trace's inter-arrival times are kept as long as the rate limit is above the trace's rate.
+ * Otherwise keys are handed out as fast as the rate limit allows. Workers take their keys before they wait for the
+ * rate limit, so the wait for a key's time is not counted as latency. At the end of the trace, the replay starts
+ * over if looping, or ends the run.
+ */
+public class TraceReplayKeyGenerator implements KeyGenerator<String> {
+    private static final Logger Logger = LoggerFactory.getLogger(TraceReplayKeyGenerator.class);
+
+    private final Path file;
+    private final boolean forWrites;
+    private final double speedup;
+    private final boolean loop;
+
+    private KeyTraceReader reader;      // guarded by this
+    private long loopOffsetMicros;      // guarded by this
+    private long startNanos;            // guarded by this
+    private volatile boolean finished;
+
+    /**
+     * @param forWrites whether to replay the trace's writes or its reads
+     * @param speedup   how many times faster than the trace to replay it; 0 to ignore the trace's timing
+     * @param loop      whether to start over at the end of the trace, rather than end the run
+     */
+    public TraceReplayKeyGenerator(Path file, boolean forWrites, double speedup, boolean loop) {
+        this.file = file;
+        this.forWrites = forWrites;
+        this.speedup = speedup;
+        this.loop = loop;
+    }
+
+    @Override
+    public synchronized void init() {
+        try {
+            if (reader != null) {
+                reader.close();
+            }
+            reader = new KeyTraceReader(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to open key trace " + file, e);
+        }
+        loopOffsetMicros = 0L;
+        startNanos = System.nanoTime();
+        finished = false;
+        Logger.info("Replaying the {} of key trace {}", forWrites ? "writes" : "reads", file);
+    }
+
+    @Override
+    public String getNextKey() {
+        long dueNanos;
+        String key;
+        synchronized (this) {
+            dueNanos = advance();
+            key = reader.getKey();
+        }
+        awaitDue(dueNanos);
+        return key;
+    }
+
+    @Override
+    public int encodeNextKey(byte[] buffer, int offset) {
+        long dueNanos;
+        int length;
+        synchronized (this) {
+            dueNanos = advance();
+            length = reader.copyKey(buffer, offset);
+        }
+        awaitDue(dueNanos);
+        return length;
+    }
+
+    @Override
+    public int getMaxKeyLength() {
+        return KeyTraceWriter.MAX_KEY_BYTES;
+    }
+
+    @Override
+    public boolean hasNextKey() {
+        return !finished;
+    }
+
+    @Override
+    public boolean isPreLoadKeys() {
+        return false;
+    }
+
+    /**
+     * @return 0, since the number of distinct keys of a trace isn't known without reading all of it
+     */
+    @Override
+    public long getNumKeys() {
+        return 0;
+    }
+
+    /**
+     * Moves the reader to the next record to replay, starting over at the end of the trace
+     *
+     * @return when to hand out the record's key, in terms of {@link System#nanoTime()}
+     */
+    private long advance() {
+        try {
+            boolean rewound = false;
+            while (true) {
+                if (!reader.next()) {
+                    if (rewound) {
+                        throw new IllegalStateException("Key trace " + file + " has no "
+                                + (forWrites ? "writes" : "reads"));
+                    }
+                    // the next pass of the trace starts a millisecond after the end of this one
+                    loopOffsetMicros += reader.getTimeMicros() + 1000L;
+                    reader.rewind();
+                    rewound = true;
+                    if (!loop) {
+                        // workers that raced past hasNextKey get keys from the start of the trace
+                        finished = true;
+                    }
+                    continue;
+                }
+                byte op = reader.getOp();
+                if (op == KeyTraceWriter.ANY || op == (forWrites ? KeyTraceWriter.WRITE : KeyTraceWriter.READ)) {
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read key trace " + file, e);
+        }
+        if (speedup <= 0) {
+            return 0L;
+        }
+        long traceMicros = loopOffsetMicros + reader.getTimeMicros();
+        return startNanos + (long) (TimeUnit.MICROSECONDS.toNanos(traceMicros) / speedup);
+    }
+
+    private void awaitDue(long dueNanos) {
+        if (dueNanos == 0L) {
+            return;
+        }
+        long waitNanos;
+        while ((waitNanos = dueNanos - System.nanoTime()) > 0 && !Thread.currentThread().isInterrupted()) {
+            LockSupport.parkNanos(waitNanos);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package com.netflix.ndbench.core.generators;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+
+/**
+ * A fixed size, off-heap block of random alphanumeric bytes that values are cut from. Values are slices at random
+ * offsets of the arena, so memory use and startup time depend on the arena size only, not on how many distinct values
+ * a run needs.
+ */
+public class ValueArena {
+    private static final byte[] ALPHANUMERIC =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789".getBytes(StandardCharsets.US_ASCII);
+
+    private final ByteBuffer arena;
+    private final RandomSource random;
+
+    // per-thread view of the arena and scratch space, so that materializing a value only allocates the value
+    private final ThreadLocal<ByteBuffer> views;
+    private final ThreadLocal<byte[]> scratch;
+
+    /**
+     * @param sizeBytes size of the arena, which bounds the size of the values cut from it
+     * @param random    source of the arena's contents and of the offsets that values are cut at
+     */
+    public ValueArena(int sizeBytes, RandomSource random) {
+        if (sizeBytes <= 0) {
+            throw new IllegalArgumentException("Arena size must be positive, but was: " + sizeBytes);
+        }
+        this.random = random;
+        this.arena = ByteBuffer.allocateDirect(sizeBytes);
+        SplittableRandom stream = random.current();
+        for (int i = 0; i < sizeBytes; i++) {
+            arena.put(i, ALPHANUMERIC[stream.nextInt(ALPHANUMERIC.length)]);
+        }
+        this.views = ThreadLocal.withInitial(arena::duplicate);
+        this.scratch = ThreadLocal.withInitial(() -> new byte[0]);
+    }
+
+    public int size() {
+        return arena.capacity();
+    }
+
+    /**
+     * Returns a read-only view of 'length' bytes of the arena, starting at a random offset
+     */
+    public ByteBuffer randomSlice(int length) {
+        ByteBuffer slice = arena.duplicate();
+        int offset = randomOffset(length);
+        slice.position(offset);
+        slice.limit(offset + length);
+        return slice.slice().asReadOnlyBuffer();
+    }
+
+    /**
+     * Returns a string of 'length' characters of the arena, starting at a random offset
+     */
+    public String randomString(int length) {
+        int offset = randomOffset(length);
+        byte[] bytes = scratch.get();
+        if (bytes.length < length) {
+            bytes = new byte[length];
+            scratch.set(bytes);
+        }
+        ByteBuffer view = views.get();
+        view.clear();
+        view.position(offset);
+        view.get(bytes, 0, length);
+        return new String(bytes, 0, length, StandardCharsets.US_ASCII);
+    }
+
+    private int randomOffset(int length) {
+        if (length < 0 || length > arena.capacity()) {
+            throw new IllegalArgumentException("Value length must be in [0, " + arena.capacity() + "], but was: " + length);
+        }
+        return random.nextInt(arena.capacity() - length + 1);
+    }
+}
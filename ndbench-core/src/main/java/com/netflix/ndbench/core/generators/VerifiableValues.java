@@ -0,0 +1,114 @@
+/*
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package com.netflix.ndbench.core.generators;
+
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+import java.util.zip.CRC32;
+
+/**
+ * Values that are a deterministic function of the key they are written under and a write version, laid out as
+ * <pre>
+ *     [version: 16 hex digits][payload: alphanumeric][checksum: 8 hex digits]
+ * </pre>
+ * The payload is generated from (key, version), and the checksum is the CRC32 of the key, version and payload. A read
+ * can thus tell whether the value it got is intact and was written under the key it read, without any bookkeeping on
+ * the client or extra round trips.
+ */
+public final class VerifiableValues {
+    public static final int MIN_LENGTH = 24;
+
+    private static final int VERSION_LENGTH = 16;
+    private static final int CHECKSUM_LENGTH = 8;
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    private static final char[] ALPHANUMERIC =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789".toCharArray();
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private VerifiableValues() {
+    }
+
+    /**
+     * @param length length of the value; raised to {@link #MIN_LENGTH} if smaller
+     */
+    public static String create(String key, long version, int length) {
+        char[] value = new char[Math.max(length, MIN_LENGTH)];
+        writeHex(version, value, 0, VERSION_LENGTH);
+        int payloadEnd = value.length - CHECKSUM_LENGTH;
+        SplittableRandom payload = new SplittableRandom(ZipfianStringKeyGenerator.fnvHash64(key.hashCode()) ^ (version * GOLDEN_GAMMA));
+        for (int i = VERSION_LENGTH; i < payloadEnd; i++) {
+            value[i] = ALPHANUMERIC[payload.nextInt(ALPHANUMERIC.length)];
+        }
+        writeHex(checksum(key, value, payloadEnd), value, payloadEnd, CHECKSUM_LENGTH);
+        return new String(value);
+    }
+
+    /**
+     * @return whether 'value' is intact and was created for 'key'
+     */
+    public static boolean verify(String key, String value) {
+        if (value == null || value.length() < MIN_LENGTH) {
+            return false;
+        }
+        char[] chars = value.toCharArray();
+        int payloadEnd = chars.length - CHECKSUM_LENGTH;
+        long expected = checksum(key, chars, payloadEnd);
+        long actual = parseHex(chars, payloadEnd, CHECKSUM_LENGTH);
+        return actual == expected && parseHex(chars, 0, VERSION_LENGTH) != -1L;
+    }
+
+    /**
+     * @return the version 'value' was created with, or -1 if it is not a well-formed value
+     */
+    public static long versionOf(String value) {
+        if (value == null || value.length() < MIN_LENGTH) {
+            return -1L;
+        }
+        return parseHex(value.toCharArray(), 0, VERSION_LENGTH);
+    }
+
+    private static long checksum(String key, char[] value, int end) {
+        CRC32 crc = new CRC32();
+        crc.update(key.getBytes(StandardCharsets.UTF_8));
+        for (int i = 0; i < end; i++) {
+            crc.update(value[i]);
+        }
+        return crc.getValue();
+    }
+
+    private static void writeHex(long number, char[] dst, int offset, int digits) {
+        for (int i = offset + digits - 1; i >= offset; i--) {
+            dst[i] = HEX_DIGITS[(int) (number & 0xF)];
+            number >>>= 4;
+        }
+    }
+
+    /**
+     * @return the number, or -1 if the chars are not hex digits (a version of -1 is thus reported as malformed)
+     */
+    private static long parseHex(char[] src, int offset, int digits) {
+        long number = 0L;
+        for (int i = offset; i < offset + digits; i++) {
+            int digit = Character.digit(src[i], 16);
+            if (digit < 0) {
+                return -1L;
+            }
+            number = (number << 4) | digit;
+        }
+        return number;
+    }
+}
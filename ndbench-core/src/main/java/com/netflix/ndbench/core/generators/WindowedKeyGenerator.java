@@ -0,0 +1,112 @@
+/*
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package com.netflix.ndbench.core.generators;
+
+import com.netflix.ndbench.core.util.CoarseClock;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Base class of generators which pick keys uniformly from a window of consecutive keys that moves through the key
+ * space over time, as subclasses define. Useful to exercise TTL heavy workloads, where old keys go cold as new ones
+ * are written.
+ * <p>
+ * Window boundaries are computed from a coarse, shared clock (see {@link CoarseClock}) in long arithmetic, and keys
+ * are handed out from a {@link KeyPool}, so picking a key doesn't allocate, whatever the size of the key space.
+ */
+public abstract class WindowedKeyGenerator implements KeyGenerator<String> {
+    private final KeyPool keyPool;
+    private final boolean preLoadKeys;
+    private final RandomSource random;
+    private final LongSupplier clockMillis;
+
+    protected final long windowSize;
+    protected final long numKeys;
+
+    private volatile long startMillis;
+
+    /**
+     * @param clockMillis the clock that moves the window, usually {@link CoarseClock#currentTimeMillis()}
+     * @throws IllegalArgumentException if the window is empty or larger than the key space
+     */
+    protected WindowedKeyGenerator(long windowSize, boolean preLoadKeys, KeyPool keyPool, RandomSource random,
+                                   LongSupplier clockMillis) {
+        this.numKeys = keyPool.getNumKeys();
+        if (windowSize < 1 || windowSize > numKeys) {
+            throw new IllegalArgumentException("Window size " + windowSize + " must be in [1, " + numKeys + "]");
+        }
+        this.windowSize = windowSize;
+        this.preLoadKeys = preLoadKeys;
+        this.keyPool = keyPool;
+        this.random = random;
+        this.clockMillis = clockMillis;
+    }
+
+    @Override
+    public void init() {
+        if (this.isPreLoadKeys()) {
+            keyPool.preload();
+        }
+        startMillis = clockMillis.getAsLong();
+    }
+
+    @Override
+    public String getNextKey() {
+        return keyPool.getKey(nextKeyIndex());
+    }
+
+    @Override
+    public int encodeNextKey(byte[] buffer, int offset) {
+        return keyPool.encode(nextKeyIndex(), buffer, offset);
+    }
+
+    @Override
+    public int getMaxKeyLength() {
+        return KeyPool.MAX_KEY_LENGTH;
+    }
+
+    @Override
+    public boolean hasNextKey() {
+        return true;
+    }
+
+    @Override
+    public boolean isPreLoadKeys() {
+        return preLoadKeys;
+    }
+
+    @Override
+    public long getNumKeys() {
+        return keyPool.getNumKeys();
+    }
+
+    /**
+     * @return the index of the first key of the window at the given time, in [0, numKeys - windowSize]
+     */
+    protected abstract long windowStart(long elapsedMillis);
+
+    /**
+     * @return milliseconds since {@link #init()}
+     */
+    protected long elapsedMillis() {
+        return Math.max(0L, clockMillis.getAsLong() - startMillis);
+    }
+
+    private long nextKeyIndex() {
+        return windowStart(elapsedMillis()) + random.nextLong(windowSize);
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package com.netflix.ndbench.core.generators;
+
+/**
+ * Maps uniformly distributed doubles to ranks in [0, items) that follow a Zipfian distribution, where rank 0 is the
+ * most popular item. Uses the algorithm from Gray et al, "Quickly Generating Billion-Record Synthetic Databases"
+ * (the same one YCSB uses), which samples in O(1) time and without allocating, once the zeta constant for the
+ * number of items has been computed up front.
+ */
+public class ZipfianSampler {
+    public static final double DEFAULT_ZIPFIAN_CONSTANT = 0.99;
+
+    // zeta(n) is summed exactly up to this many terms, and approximated beyond that
+    private static final long EXACT_ZETA_TERMS = 10_000_000L;
+
+    private final long items;
+    private final double theta;
+    private final double zetan;
+    private final double alpha;
+    private final double eta;
+    private final double halfPowTheta;
+
+    public ZipfianSampler(long items, double zipfianConstant) {
+        if (items < 1) {
+            throw new IllegalArgumentException("Number of items must be positive, but was: " + items);
+        }
+        if (zipfianConstant <= 0 || zipfianConstant >= 1) {
+            throw new IllegalArgumentException("Zipfian constant must be in (0, 1), but was: " + zipfianConstant);
+        }
+        this.items = items;
+        this.theta = zipfianConstant;
+        this.zetan = zeta(items, theta);
+        this.alpha = 1.0 / (1.0 - theta);
+        this.eta = (1 - Math.pow(2.0 / items, 1 - theta)) / (1 - zeta(2, theta) / zetan);
+        this.halfPowTheta = Math.pow(0.5, theta);
+    }
+
+    /**
+     * @param uniform a uniformly distributed value in [0, 1)
+     * @return a rank in [0, items)
+     */
+    public long sample(double uniform) {
+        double uz = uniform * zetan;
+        if (uz < 1.0) {
+            return 0;
+        }
+        if (uz < 1.0 + halfPowTheta) {
+            return Math.min(1, items - 1);
+        }
+        long rank = (long) (items * Math.pow(eta * uniform - eta + 1, alpha));
+        return Math.min(rank, items - 1);
+    }
+
+    public long getItems() {
+        return items;
+    }
+
+    /**
+     * @return sum(1 / i^theta) for i in [1, n]. Terms beyond {@link #EXACT_ZETA_TERMS} are approximated by the
+     * Euler-Maclaurin formula, which is accurate to many digits at that point, and keeps start up fast for huge n.
+     */
+    static double zeta(long n, double theta) {
+        long exactTerms = Math.min(n, EXACT_ZETA_TERMS);
+        double sum = 0;
+        for (long i = 1; i <= exactTerms; i++) {
+            sum += 1 / Math.pow(i, theta);
+        }
+        if (n > exactTerms) {
+            sum += (Math.pow(n, 1 - theta) - Math.pow(exactTerms, 1 - theta)) / (1 - theta)
+                    + (Math.pow(n, -theta) - Math.pow(exactTerms, -theta)) / 2;
+        }
+        return sum;
+    }
+}
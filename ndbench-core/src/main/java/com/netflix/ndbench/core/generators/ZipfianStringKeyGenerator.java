@@ -0,0 +1,68 @@
+/*
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package com.netflix.ndbench.core.generators;
+
+/**
+ * Picks keys following a Zipfian distribution, optionally scrambled.
+ * <p>
+ * Unscrambled, popularity decreases with the key index ("T0" is the hottest key, "T1" the next hottest, etc.), so all
+ * hot keys are clustered at the start of the key space. Scrambled, the popularity ranks are hashed across the whole
+ * key space, so hot keys are spread over many partitions (as with real world hot keys), while the distribution of
+ * popularity stays Zipfian (modulo hash collisions.)
+ */
+public class ZipfianStringKeyGenerator extends IndexedStringKeyGenerator {
+    private static final long FNV_OFFSET_BASIS_64 = 0xCBF29CE484222325L;
+    private static final long FNV_PRIME_64 = 1099511628211L;
+
+    private final double zipfianConstant;
+    private final boolean scrambled;
+    private ZipfianSampler sampler;
+
+    public ZipfianStringKeyGenerator(boolean preLoadKeys, KeyPool keyPool, RandomSource random, double zipfianConstant, boolean scrambled) {
+        super(preLoadKeys, keyPool, random);
+        this.zipfianConstant = zipfianConstant;
+        this.scrambled = scrambled;
+    }
+
+    @Override
+    public void init() {
+        super.init();
+        sampler = new ZipfianSampler(getNumKeys(), zipfianConstant);
+    }
+
+    @Override
+    protected long nextKeyIndex() {
+        long rank = sampler.sample(random.nextDouble());
+        if (scrambled) {
+            return Long.remainderUnsigned(fnvHash64(rank), getNumKeys());
+        }
+        return rank;
+    }
+
+    /**
+     * 64 bit FNV-1a hash of the bytes of 'value'
+     */
+    static long fnvHash64(long value) {
+        long hash = FNV_OFFSET_BASIS_64;
+        for (int i = 0; i < 8; i++) {
+            hash ^= value & 0xFF;
+            hash *= FNV_PRIME_64;
+            value >>>= 8;
+        }
+        return hash;
+    }
+}
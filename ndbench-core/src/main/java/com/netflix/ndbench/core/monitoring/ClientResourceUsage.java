@@ -0,0 +1,54 @@
+/*
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package com.netflix.ndbench.core.monitoring;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+
+/**
+ * Samples the CPU, heap and thread usage of the benchmark client's own JVM, so results of runs using different
+ * worker executor modes can be compared in terms of their cost to the client.
+ */
+public final class ClientResourceUsage {
+    private static final long BYTES_PER_MB = 1024L * 1024L;
+
+    private ClientResourceUsage() {
+    }
+
+    /**
+     * @return the recent CPU usage of the client process across all cores (0 - 100), or -1 if not available
+     */
+    public static int getProcessCpuPercent() {
+        OperatingSystemMXBean osBean = ManagementFactory.getOperatingSystemMXBean();
+        if (osBean instanceof com.sun.management.OperatingSystemMXBean) {
+            double load = ((com.sun.management.OperatingSystemMXBean) osBean).getProcessCpuLoad();
+            return load < 0 ? -1 : (int) Math.round(load * 100);
+        }
+        return -1;
+    }
+
+    public static long getHeapUsedMB() {
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed() / BYTES_PER_MB;
+    }
+
+    /**
+     * @return the number of live platform threads (virtual threads are not included)
+     */
+    public static int getLiveThreadCount() {
+        return ManagementFactory.getThreadMXBean().getThreadCount();
+    }
+}
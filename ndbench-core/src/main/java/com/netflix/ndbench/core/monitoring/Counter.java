@@ -0,0 +1,90 @@
+/*
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package com.netflix.ndbench.core.monitoring;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A count updated by workers on every operation, and read when stats are published.
+ * <p>
+ * Striped counters keep their count in a {@link LongAdder}, so that workers on many-core load generators don't all
+ * contend on the same cache line for every operation, at the price of more expensive reads. Plain counters keep it
+ * in a single {@link AtomicLong}.
+ */
+interface Counter {
+
+    void increment();
+
+    void add(long delta);
+
+    long get();
+
+    void reset();
+
+    static Counter create(boolean striped) {
+        return striped ? new Striped() : new Plain();
+    }
+
+    final class Plain implements Counter {
+        private final AtomicLong count = new AtomicLong(0L);
+
+        @Override
+        public void increment() {
+            count.incrementAndGet();
+        }
+
+        @Override
+        public void add(long delta) {
+            count.addAndGet(delta);
+        }
+
+        @Override
+        public long get() {
+            return count.get();
+        }
+
+        @Override
+        public void reset() {
+            count.set(0L);
+        }
+    }
+
+    final class Striped implements Counter {
+        private final LongAdder count = new LongAdder();
+
+        @Override
+        public void increment() {
+            count.increment();
+        }
+
+        @Override
+        public void add(long delta) {
+            count.add(delta);
+        }
+
+        @Override
+        public long get() {
+            return count.sum();
+        }
+
+        @Override
+        public void reset() {
+            count.reset();
+        }
+    }
+}
@@ -21,8 +21,14 @@ import com.google.inject.Singleton;
 import com.netflix.ndbench.api.plugin.NdBenchMonitor;
 import com.netflix.ndbench.core.config.IConfiguration;
 import com.netflix.ndbench.core.util.EstimatedHistogram;
+import com.netflix.ndbench.core.util.IntervalHistogramRecorder;
 import org.slf4j.LoggerFactory;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -33,7 +39,7 @@ import java.util.concurrent.atomic.AtomicReference;
  * @author vchella
  */
 @Singleton
-public class FakeMonitor implements NdBenchMonitor {
+public class FakeMonitor implements NdBenchMonitor, HistogramSource {
 
     private static final org.slf4j.Logger Logger = LoggerFactory.getLogger(FakeMonitor.class);
 
@@ -41,24 +47,61 @@ public class FakeMonitor implements NdBenchMonitor {
 
     private final IConfiguration config;
 
-    private final AtomicLong readSuccess = new AtomicLong(0L);
-    private final AtomicLong readFailure = new AtomicLong(0L);
-    private final AtomicLong writeSuccess = new AtomicLong(0L);
-    private final AtomicLong writeFailure = new AtomicLong(0L);
-    private final AtomicLong cacheHits = new AtomicLong(0L);
-    private final AtomicLong cacheMiss = new AtomicLong(0L);
-
-    private EstimatedHistogram readHistogram = new EstimatedHistogram(180);
-    private EstimatedHistogram writeHistogram = new EstimatedHistogram(180);
+    // counters updated by workers on every operation; striped if stripedCountersEnabled (see Counter)
+    private final boolean stripedCounters;
+    private final Counter readSuccess;
+    private final Counter readFailure;
+    private final Counter writeSuccess;
+    private final Counter writeFailure;
+    private final Counter cacheHits;
+    private final Counter cacheMiss;
+    private final Counter readVerificationFailures;
+    private final Counter readStaleValues;
+
+    // per-thread recording, so workers don't contend on shared buckets and no samples are lost on reset
+    private final IntervalHistogramRecorder readHistogram = new IntervalHistogramRecorder(180);
+    private final IntervalHistogramRecorder writeHistogram = new IntervalHistogramRecorder(180);
 
     private final AtomicLong readRPS = new AtomicLong(0L);
     private final AtomicLong writeRPS = new AtomicLong(0L);
+    private final AtomicLong readSchedulerLagMicros = new AtomicLong(0L);
+    private final AtomicLong writeSchedulerLagMicros = new AtomicLong(0L);
+
+    // items (keys) of batch reads / writes, and latencies of batches amortized over their items
+    private final Counter readItems;
+    private final Counter writeItems;
+    private final AtomicLong readItemRPS = new AtomicLong(0L);
+    private final AtomicLong writeItemRPS = new AtomicLong(0L);
+    private final IntervalHistogramRecorder readItemHistogram = new IntervalHistogramRecorder(180);
+    private final IntervalHistogramRecorder writeItemHistogram = new IntervalHistogramRecorder(180);
+
+    // per operation stats of workload mixes, by operation name
+    private final ConcurrentMap<String, OperationStats> operationStats = new ConcurrentHashMap<>();
 
 
     @Inject
     public FakeMonitor(IConfiguration config)
+    {
+        this(config, config.isStripedCountersEnabled());
+    }
+
+    /**
+     * @param stripedCounters whether operation counters are striped, regardless of the configuration
+     */
+    public FakeMonitor(IConfiguration config, boolean stripedCounters)
     {
         this.config = config;
+        this.stripedCounters = stripedCounters;
+        this.readSuccess = Counter.create(stripedCounters);
+        this.readFailure = Counter.create(stripedCounters);
+        this.writeSuccess = Counter.create(stripedCounters);
+        this.writeFailure = Counter.create(stripedCounters);
+        this.cacheHits = Counter.create(stripedCounters);
+        this.cacheMiss = Counter.create(stripedCounters);
+        this.readVerificationFailures = Counter.create(stripedCounters);
+        this.readStaleValues = Counter.create(stripedCounters);
+        this.readItems = Counter.create(stripedCounters);
+        this.writeItems = Counter.create(stripedCounters);
         checkAndInitTimer();
     }
     @Override
@@ -75,15 +118,22 @@ public class FakeMonitor implements NdBenchMonitor {
             timer.scheduleAtFixedRate(new Runnable() {
                 @Override
                 public void run() {
-                    readHistogram.getBuckets(true);
-                    writeHistogram.getBuckets(true);
+                    // the completed intervals are final from here on; HistogramDeltaTracker carries their last
+                    // values into the deltas of the new ones
+                    readHistogram.reset();
+                    writeHistogram.reset();
+                    readItemHistogram.reset();
+                    writeItemHistogram.reset();
+                    for (OperationStats stats : operationStats.values()) {
+                        stats.histogram.reset();
+                    }
                 }
             }, 1, config.getStatsResetFreqSeconds(), TimeUnit.SECONDS);
         }
     }
     @Override
     public void incReadSuccess() {
-        readSuccess.incrementAndGet();
+        readSuccess.increment();
     }
 
     @Override
@@ -93,7 +143,7 @@ public class FakeMonitor implements NdBenchMonitor {
 
     @Override
     public void incReadFailure() {
-        readFailure.incrementAndGet();
+        readFailure.increment();
     }
 
     @Override
@@ -103,7 +153,7 @@ public class FakeMonitor implements NdBenchMonitor {
 
     @Override
     public void incWriteSuccess() {
-        writeSuccess.incrementAndGet();
+        writeSuccess.increment();
     }
 
     @Override
@@ -113,7 +163,7 @@ public class FakeMonitor implements NdBenchMonitor {
 
     @Override
     public void incWriteFailure() {
-        writeFailure.incrementAndGet();
+        writeFailure.increment();
     }
 
     @Override
@@ -123,7 +173,7 @@ public class FakeMonitor implements NdBenchMonitor {
 
     @Override
     public void incCacheHit() {
-        cacheHits.incrementAndGet();
+        cacheHits.increment();
     }
 
     @Override
@@ -133,7 +183,7 @@ public class FakeMonitor implements NdBenchMonitor {
 
     @Override
     public void incCacheMiss() {
-        cacheMiss.incrementAndGet();
+        cacheMiss.increment();
     }
 
     @Override
@@ -143,67 +193,67 @@ public class FakeMonitor implements NdBenchMonitor {
 
     @Override
     public void recordReadLatency(long duration) {
-        readHistogram.add(duration);
+        readHistogram.record(duration);
     }
 
     @Override
     public long getReadLatAvg() {
-        return readHistogram.mean();
+        return readHistogram.current().mean();
     }
 
     @Override
     public long getReadLatP50() {
-        return readHistogram.percentile(0.5);
+        return readHistogram.current().percentile(0.5);
     }
 
     @Override
     public long getReadLatP95() {
-        return readHistogram.percentile(0.95);
+        return readHistogram.current().percentile(0.95);
     }
 
     @Override
     public long getReadLatP99() {
-        return readHistogram.percentile(0.99);
+        return readHistogram.current().percentile(0.99);
     }
 
     @Override
     public long getReadLatP995() {
-        return readHistogram.percentile(0.995);
+        return readHistogram.current().percentile(0.995);
     }
 
     @Override
     public long getReadLatP999() {
-        return readHistogram.percentile(0.999);
+        return readHistogram.current().percentile(0.999);
     }
 
     @Override
     public long getWriteLatAvg() {
-            return writeHistogram.mean();
+            return writeHistogram.current().mean();
     }
 
     @Override
     public long getWriteLatP50() {
-            return writeHistogram.percentile(0.5);
+            return writeHistogram.current().percentile(0.5);
     }
 
     @Override
     public long getWriteLatP95() {
-        return writeHistogram.percentile(0.95);
+        return writeHistogram.current().percentile(0.95);
     }
 
     @Override
     public long getWriteLatP99() {
-        return writeHistogram.percentile(0.99);
+        return writeHistogram.current().percentile(0.99);
     }
 
     @Override
     public long getWriteLatP995() {
-        return writeHistogram.percentile(0.995);
+        return writeHistogram.current().percentile(0.995);
     }
 
     @Override
     public long getWriteLatP999() {
-        return writeHistogram.percentile(0.999);
+        return writeHistogram.current().percentile(0.999);
     }
 
     @Override
@@ -228,7 +278,168 @@ public class FakeMonitor implements NdBenchMonitor {
 
     @Override
     public void recordWriteLatency(long duration) {
-        writeHistogram.add(duration);
+        writeHistogram.record(duration);
+    }
+
+    @Override
+    public void setReadSchedulerLagMicros(long lagMicros) {
+        readSchedulerLagMicros.set(lagMicros);
+    }
+
+    @Override
+    public long getReadSchedulerLagMicros() {
+        return readSchedulerLagMicros.get();
+    }
+
+    @Override
+    public void setWriteSchedulerLagMicros(long lagMicros) {
+        writeSchedulerLagMicros.set(lagMicros);
+    }
+
+    @Override
+    public long getWriteSchedulerLagMicros() {
+        return writeSchedulerLagMicros.get();
+    }
+
+    @Override
+    public void incReadVerificationFailure() {
+        readVerificationFailures.increment();
+    }
+
+    @Override
+    public long getReadVerificationFailures() {
+        return readVerificationFailures.get();
+    }
+
+    @Override
+    public void incReadStaleValue() {
+        readStaleValues.increment();
+    }
+
+    @Override
+    public long getReadStaleValues() {
+        return readStaleValues.get();
+    }
+
+    @Override
+    public void recordReadBatch(int items, long duration) {
+        readItems.add(items);
+        readItemHistogram.record(duration / Math.max(1, items));
+    }
+
+    @Override
+    public long getReadItems() {
+        return readItems.get();
+    }
+
+    @Override
+    public void setReadItemRPS(long readItemRPS) {
+        this.readItemRPS.set(readItemRPS);
+    }
+
+    @Override
+    public long getReadItemRPS() {
+        return readItemRPS.get();
+    }
+
+    @Override
+    public void recordWriteBatch(int items, long duration) {
+        writeItems.add(items);
+        writeItemHistogram.record(duration / Math.max(1, items));
+    }
+
+    @Override
+    public long getWriteItems() {
+        return writeItems.get();
+    }
+
+    @Override
+    public void setWriteItemRPS(long writeItemRPS) {
+        this.writeItemRPS.set(writeItemRPS);
+    }
+
+    @Override
+    public long getWriteItemRPS() {
+        return writeItemRPS.get();
+    }
+
+    /**
+     * Latencies of batch reads / writes divided by the number of items in the batch, in microseconds
+     */
+    public long getReadItemLatAvg() {
+        return readItemHistogram.current().mean();
+    }
+
+    public long getReadItemLatP99() {
+        return readItemHistogram.current().percentile(0.99);
+    }
+
+    public long getWriteItemLatAvg() {
+        return writeItemHistogram.current().mean();
+    }
+
+    public long getWriteItemLatP99() {
+        return writeItemHistogram.current().percentile(0.99);
+    }
+
+    @Override
+    public void recordOperation(String operation, long duration, boolean success) {
+        OperationStats stats = operationStats.computeIfAbsent(operation, name -> new OperationStats(stripedCounters));
+        if (success) {
+            stats.success.increment();
+            stats.histogram.record(duration);
+        } else {
+            stats.failure.increment();
+        }
+    }
+
+    /**
+     * Counts and latencies (in microseconds) of each operation of the running workload mix, by operation name
+     */
+    public Map<String, Map<String, Long>> getOperationStats() {
+        Map<String, Map<String, Long>> result = new TreeMap<>();
+        for (Map.Entry<String, OperationStats> entry : operationStats.entrySet()) {
+            OperationStats stats = entry.getValue();
+            EstimatedHistogram histogram = stats.histogram.current();
+            Map<String, Long> values = new LinkedHashMap<>();
+            values.put("success", stats.success.get());
+            values.put("failure", stats.failure.get());
+            values.put("latAvg", histogram.mean());
+            values.put("latP50", histogram.percentile(0.5));
+            values.put("latP95", histogram.percentile(0.95));
+            values.put("latP99", histogram.percentile(0.99));
+            values.put("latP999", histogram.percentile(0.999));
+            result.put(entry.getKey(), values);
+        }
+        return result;
+    }
+
+    @Override
+    public Map<String, EstimatedHistogram> histograms() {
+        Map<String, EstimatedHistogram> result = new LinkedHashMap<>();
+        result.put("read", readHistogram.current());
+        result.put("write", writeHistogram.current());
+        result.put("readItem", readItemHistogram.current());
+        result.put("writeItem", writeItemHistogram.current());
+        for (Map.Entry<String, OperationStats> entry : operationStats.entrySet()) {
+            result.put("operation." + entry.getKey(), entry.getValue().histogram.current());
+        }
+        return result;
+    }
+
+    /**
+     * Resource usage of the client JVM itself; see {@link ClientResourceUsage}
+     */
+    public int getClientCpuPercent() {
+        return ClientResourceUsage.getProcessCpuPercent();
+    }
+
+    public long getClientHeapUsedMB() {
+        return ClientResourceUsage.getHeapUsedMB();
+    }
+
+    public int getClientThreadCount() {
+        return ClientResourceUsage.getLiveThreadCount();
     }
 
     @Override
@@ -238,21 +449,32 @@ public class FakeMonitor implements NdBenchMonitor {
 
     @Override
     public void resetStats() {
-        readSuccess.set(0L);
-        readFailure.set(0L);
-        writeSuccess.set(0L);
-        writeFailure.set(0L);
-        cacheHits.set(0L);
-        cacheMiss.set(0L);
+        readSuccess.reset();
+        readFailure.reset();
+        writeSuccess.reset();
+        writeFailure.reset();
+        cacheHits.reset();
+        cacheMiss.reset();
         readRPS.set(0L);
         writeRPS.set(0L);
-        readHistogram = new EstimatedHistogram();
-        writeHistogram = new EstimatedHistogram();
+        readSchedulerLagMicros.set(0L);
+        writeSchedulerLagMicros.set(0L);
+        readVerificationFailures.reset();
+        readStaleValues.reset();
+        readItems.reset();
+        writeItems.reset();
+        readItemRPS.set(0L);
+        writeItemRPS.set(0L);
+        readItemHistogram.reset();
+        writeItemHistogram.reset();
+        operationStats.clear();
+        readHistogram.reset();
+        writeHistogram.reset();
 
     }
     private float getCacheHitRatio() {
-        long hits = cacheHits.get();
-        long miss = cacheMiss.get();
+        long hits = getCacheHits();
+        long miss = getCacheMiss();
 
         if (hits + miss == 0) {
             return 0;
@@ -260,4 +482,15 @@ public class FakeMonitor implements NdBenchMonitor {
 
         return (float) ((float) (hits * 100L) / (float) (hits + miss));
     }
+
+    private static class OperationStats {
+        private final Counter success;
+        private final Counter failure;
+        private final IntervalHistogramRecorder histogram = new IntervalHistogramRecorder(180);
+
+        OperationStats(boolean stripedCounters) {
+            this.success = Counter.create(stripedCounters);
+            this.failure = Counter.create(stripedCounters);
+        }
+    }
 }
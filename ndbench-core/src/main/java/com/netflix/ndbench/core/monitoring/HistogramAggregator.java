@@ -0,0 +1,94 @@
+/*
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package com.netflix.ndbench.core.monitoring;
+
+import com.netflix.ndbench.core.util.EstimatedHistogram;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Merges histograms of the same name from several sources (e.g. the nodes of a fleet) by adding up their buckets.
+ * Percentiles computed from the merged histograms are those of all values recorded by all sources, unlike, say,
+ * averages of the sources' own percentiles.
+ */
+public class HistogramAggregator {
+    private final Map<String, HistogramSnapshot> layouts = new TreeMap<>();
+    private final Map<String, EstimatedHistogram> merged = new TreeMap<>();
+
+    /**
+     * @throws IllegalArgumentException if histograms named 'name' with different bucket offsets have been added
+     */
+    public synchronized void add(String name, HistogramSnapshot snapshot) {
+        HistogramSnapshot layout = layouts.putIfAbsent(name, snapshot);
+        if (layout == null) {
+            merged.put(name, snapshot.toHistogram());
+        } else if (!layout.hasSameBucketsAs(snapshot)) {
+            throw new IllegalArgumentException("Histograms named " + name + " have different bucket offsets");
+        } else {
+            merged.get(name).addBuckets(snapshot.toBuckets());
+        }
+    }
+
+    /**
+     * Adds all of 'snapshots', or none of them if any has bucket offsets that differ from those added before
+     *
+     * @throws IllegalArgumentException if any of the snapshots can't be merged
+     */
+    public synchronized void addAll(Map<String, HistogramSnapshot> snapshots) {
+        for (Map.Entry<String, HistogramSnapshot> entry : snapshots.entrySet()) {
+            HistogramSnapshot layout = layouts.get(entry.getKey());
+            if (layout != null && !layout.hasSameBucketsAs(entry.getValue())) {
+                throw new IllegalArgumentException("Histograms named " + entry.getKey() + " have different bucket offsets");
+            }
+        }
+        for (Map.Entry<String, HistogramSnapshot> entry : snapshots.entrySet()) {
+            add(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * @return the merged histogram of the given name, or null if none was added
+     */
+    public synchronized EstimatedHistogram get(String name) {
+        return merged.get(name);
+    }
+
+    /**
+     * @return count, mean and percentiles of each merged histogram, by name. Latencies are in microseconds; mean and
+     * percentiles are -1 if the histogram overflowed.
+     */
+    public synchronized Map<String, Map<String, Long>> summary() {
+        Map<String, Map<String, Long>> summary = new TreeMap<>();
+        for (Map.Entry<String, EstimatedHistogram> entry : merged.entrySet()) {
+            EstimatedHistogram histogram = entry.getValue();
+            boolean valid = !histogram.isOverflowed() && histogram.count() > 0;
+            Map<String, Long> values = new LinkedHashMap<>();
+            values.put("count", histogram.count());
+            values.put("latAvg", valid ? histogram.mean() : -1L);
+            values.put("latP50", valid ? histogram.percentile(0.5) : -1L);
+            values.put("latP95", valid ? histogram.percentile(0.95) : -1L);
+            values.put("latP99", valid ? histogram.percentile(0.99) : -1L);
+            values.put("latP995", valid ? histogram.percentile(0.995) : -1L);
+            values.put("latP999", valid ? histogram.percentile(0.999) : -1L);
+            values.put("latMax", histogram.max());
+            summary.put(entry.getKey(), values);
+        }
+        return summary;
+    }
+}
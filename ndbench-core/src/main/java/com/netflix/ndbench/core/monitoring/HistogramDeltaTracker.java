@@ -0,0 +1,89 @@
+/*
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package com.netflix.ndbench.core.monitoring;
+
+import com.netflix.ndbench.core.util.EstimatedHistogram;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Turns the histograms of a {@link HistogramSource}, which accumulate values until the monitor resets them, into
+ * histograms of just the values recorded since the previous call, for consumers that work in shorter intervals.
+ * <p>
+ * When the monitor resets, it starts a new histogram and stops adding to the old one. The values recorded into the old
+ * one after the previous call are then carried into the next delta, so that none are lost, provided the monitor resets
+ * at most once between two calls (i.e. its reset period is no shorter than the callers' interval).
+ */
+public class HistogramDeltaTracker {
+    private final Map<String, EstimatedHistogram> previousHistograms = new HashMap<>();
+    private final Map<String, long[]> previousBuckets = new HashMap<>();
+
+    /**
+     * @return the values added to 'current' since the previous call for 'name'; all of 'current' on the first call.
+     * If the monitor has started a new histogram in the meantime, all of 'current' plus the values added to the
+     * completed histogram since the previous call.
+     */
+    public synchronized HistogramSnapshot delta(String name, EstimatedHistogram current) {
+        long[] buckets = current.getBuckets(false);
+        long[] previous = previousBuckets.put(name, buckets);
+        EstimatedHistogram previousHistogram = previousHistograms.put(name, current);
+        long[] delta;
+        if (previousHistogram == current) {
+            delta = delta(buckets, previous);
+        } else if (previousHistogram != null) {
+            delta = plus(buckets, delta(previousHistogram.getBuckets(false), previous));
+        } else {
+            delta = buckets;
+        }
+        return HistogramSnapshot.of(current.getBucketOffsets().clone(), delta);
+    }
+
+    public synchronized void clear() {
+        previousHistograms.clear();
+        previousBuckets.clear();
+    }
+
+    /**
+     * @return the counts added to 'current' since 'previous' was taken; 'current' itself if there's no previous
+     * snapshot or the histogram has been reset in the meantime
+     */
+    static long[] delta(long[] current, long[] previous) {
+        if (previous == null || previous.length != current.length) {
+            return current;
+        }
+        long[] delta = new long[current.length];
+        for (int i = 0; i < current.length; i++) {
+            delta[i] = current[i] - previous[i];
+            if (delta[i] < 0) {
+                return current;
+            }
+        }
+        return delta;
+    }
+
+    private static long[] plus(long[] current, long[] remainder) {
+        if (remainder.length != current.length) {
+            return current;
+        }
+        long[] sum = new long[current.length];
+        for (int i = 0; i < current.length; i++) {
+            sum[i] = current[i] + remainder[i];
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package com.netflix.ndbench.core.monitoring;
+
+import com.netflix.ndbench.core.util.EstimatedHistogram;
+
+import java.util.Arrays;
+
+/**
+ * The bucket data of an {@link EstimatedHistogram} in a form that can be sent as JSON. Only non-empty buckets are
+ * included, as pairs of bucket index and count, since latencies of a run typically fall into a handful of buckets.
+ */
+public class HistogramSnapshot {
+    private long[] bucketOffsets;
+    private int[] indexes;
+    private long[] counts;
+
+    public HistogramSnapshot() {
+    }
+
+    public HistogramSnapshot(long[] bucketOffsets, int[] indexes, long[] counts) {
+        if (indexes.length != counts.length) {
+            throw new IllegalArgumentException("Got " + indexes.length + " bucket indexes, but " + counts.length + " counts");
+        }
+        this.bucketOffsets = bucketOffsets;
+        this.indexes = indexes;
+        this.counts = counts;
+    }
+
+    public static HistogramSnapshot of(EstimatedHistogram histogram) {
+        return of(histogram.getBucketOffsets().clone(), histogram.getBuckets(false));
+    }
+
+    /**
+     * @param buckets bucket counts as returned by {@link EstimatedHistogram#getBuckets}
+     */
+    public static HistogramSnapshot of(long[] bucketOffsets, long[] buckets) {
+        int nonEmpty = 0;
+        for (long count : buckets) {
+            if (count != 0) {
+                nonEmpty++;
+            }
+        }
+        int[] indexes = new int[nonEmpty];
+        long[] counts = new long[nonEmpty];
+        for (int i = 0, j = 0; i < buckets.length; i++) {
+            if (buckets[i] != 0) {
+                indexes[j] = i;
+                counts[j++] = buckets[i];
+            }
+        }
+        return new HistogramSnapshot(bucketOffsets, indexes, counts);
+    }
+
+    /**
+     * @return the full bucket counts of the histogram, with one more element than there are bucket offsets
+     * @throws IllegalArgumentException if a bucket index lies outside of the histogram
+     */
+    public long[] toBuckets() {
+        long[] buckets = new long[bucketOffsets.length + 1];
+        for (int i = 0; i < indexes.length; i++) {
+            if (indexes[i] < 0 || indexes[i] >= buckets.length) {
+                throw new IllegalArgumentException("Bucket index " + indexes[i] + " out of range [0, " + buckets.length + ")");
+            }
+            buckets[indexes[i]] += counts[i];
+        }
+        return buckets;
+    }
+
+    public EstimatedHistogram toHistogram() {
+        return new EstimatedHistogram(bucketOffsets.clone(), toBuckets());
+    }
+
+    public boolean hasSameBucketsAs(HistogramSnapshot other) {
+        return Arrays.equals(bucketOffsets, other.bucketOffsets);
+    }
+
+    public long[] getBucketOffsets() {
+        return bucketOffsets;
+    }
+
+    public void setBucketOffsets(long[] bucketOffsets) {
+        this.bucketOffsets = bucketOffsets;
+    }
+
+    public int[] getIndexes() {
+        return indexes;
+    }
+
+    public void setIndexes(int[] indexes) {
+        this.indexes = indexes;
+    }
+
+    public long[] getCounts() {
+        return counts;
+    }
+
+    public void setCounts(long[] counts) {
+        this.counts = counts;
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package com.netflix.ndbench.core.monitoring;
+
+import com.netflix.ndbench.core.util.EstimatedHistogram;
+
+import java.util.Map;
+
+/**
+ * A monitor that can hand out its latency histograms themselves, rather than just percentiles computed from them,
+ * so that histograms of several nodes can be merged (see {@link HistogramAggregator}).
+ */
+public interface HistogramSource {
+    /**
+     * @return the histograms of the current stats interval by name, e.g. "read" or "write". The histograms may still
+     * be updated concurrently, callers should take a {@link HistogramSnapshot} of them.
+     */
+    Map<String, EstimatedHistogram> histograms();
+}
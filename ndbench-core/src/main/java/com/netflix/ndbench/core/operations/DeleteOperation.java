@@ -0,0 +1,82 @@
+/*
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package com.netflix.ndbench.core.operations;
+
+import com.google.common.util.concurrent.RateLimiter;
+import com.netflix.ndbench.api.plugin.NdBenchAbstractClient;
+import com.netflix.ndbench.api.plugin.NdBenchMonitor;
+import com.netflix.ndbench.core.NdBenchDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Deletes a key, via {@link NdBenchAbstractClient#deleteSingle}. Deletes are only recorded under their own name (see
+ * {@link NdBenchMonitor#recordOperation}), and kept out of the write counts and latencies.
+ */
+public class DeleteOperation implements NdBenchDriver.NdBenchOperation {
+    private static final Logger Logger = LoggerFactory.getLogger(DeleteOperation.class);
+
+    public static final String NAME = "delete";
+
+    private final NdBenchAbstractClient<?> client;
+
+    public DeleteOperation(NdBenchAbstractClient<?> pClient) {
+        client = pClient;
+    }
+
+    @Override
+    public boolean process(NdBenchDriver driver,
+                           NdBenchMonitor stats,
+                           String key,
+                           AtomicReference<RateLimiter> ignoredForNow) {
+        return process(driver, stats, key, ignoredForNow, System.nanoTime());
+    }
+
+    @Override
+    public boolean process(NdBenchDriver driver,
+                           NdBenchMonitor stats,
+                           String key,
+                           AtomicReference<RateLimiter> ignoredForNow,
+                           long intendedStartNanos) {
+        try {
+            client.deleteSingle(key);
+        } catch (Exception e) {
+            stats.recordOperation(NAME, (System.nanoTime() - intendedStartNanos)/1000, false);
+            Logger.error("Failed to process NdBench delete operation", e);
+            return false;
+        }
+        stats.recordOperation(NAME, (System.nanoTime() - intendedStartNanos)/1000, true);
+        return true;
+    }
+
+    @Override
+    public String getRecordedName() {
+        return NAME;
+    }
+
+    @Override
+    public boolean isReadType() {
+        return false;
+    }
+
+    @Override
+    public boolean isWriteType() {
+        return true;
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package com.netflix.ndbench.core.operations;
+
+import com.google.common.util.concurrent.RateLimiter;
+import com.netflix.ndbench.api.plugin.NdBenchMonitor;
+import com.netflix.ndbench.core.NdBenchDriver;
+import com.netflix.ndbench.core.generators.RandomSource;
+
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * A workload mix: performs one of several operations per call, picked at random according to the operations'
+ * weights, so that all of them share the caller's schedule and rate limit. The outcome of each call is additionally
+ * recorded under the picked operation's name (see {@link NdBenchMonitor#recordOperation}), which gives every operation
+ * of the mix its own counts and latency histogram.
+ */
+public class MixedOperation implements NdBenchDriver.NdBenchOperation {
+    private final String[] names;
+    private final NdBenchDriver.NdBenchOperation[] operations;
+    private final double[] cumulativeWeights;
+    private final RandomSource random;
+    // the operation picked ahead of each thread's next call, so that it can prepare the call, or -1
+    private final ThreadLocal<int[]> nextPick = ThreadLocal.withInitial(() -> new int[]{-1});
+
+    /**
+     * @param weights          relative weight of each operation, by operation name
+     * @param operationFactory creates the operation for a name; may throw IllegalArgumentException for unknown names
+     * @param random           source of the operation picks
+     */
+    public MixedOperation(Map<String, Double> weights,
+                          Function<String, NdBenchDriver.NdBenchOperation> operationFactory,
+                          RandomSource random) {
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("A workload mix needs at least one operation");
+        }
+        this.names = new String[weights.size()];
+        this.operations = new NdBenchDriver.NdBenchOperation[weights.size()];
+        this.cumulativeWeights = new double[weights.size()];
+        this.random = random;
+
+        double total = 0;
+        int i = 0;
+        for (Map.Entry<String, Double> entry : weights.entrySet()) {
+            if (entry.getValue() <= 0) {
+                throw new IllegalArgumentException("Weight of operation " + entry.getKey() + " must be positive");
+            }
+            total += entry.getValue();
+            names[i] = entry.getKey();
+            operations[i] = operationFactory.apply(entry.getKey());
+            cumulativeWeights[i] = total;
+            i++;
+        }
+        for (i = 0; i < cumulativeWeights.length; i++) {
+            cumulativeWeights[i] /= total;
+        }
+    }
+
+    /**
+     * Parses a workload mix of the form "read:70,write:25,rmw:5" into weights by operation name
+     */
+    public static Map<String, Double> parseWeights(String mix) {
+        Map<String, Double> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            if (entry.trim().isEmpty()) {
+                continue;
+            }
+            String[] parts = entry.split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Workload mix entries must be of the form operation:weight, but got: " + entry);
+            }
+            try {
+                weights.merge(parts[0].trim().toLowerCase(), Double.parseDouble(parts[1].trim()), Double::sum);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid weight in workload mix entry: " + entry, e);
+            }
+        }
+        return weights;
+    }
+
+    @Override
+    public boolean process(NdBenchDriver driver,
+                           NdBenchMonitor monitor,
+                           String key,
+                           AtomicReference<RateLimiter> rateLimiter) {
+        return process(driver, monitor, key, rateLimiter, System.nanoTime());
+    }
+
+    @Override
+    public boolean process(NdBenchDriver driver,
+                           NdBenchMonitor monitor,
+                           String key,
+                           AtomicReference<RateLimiter> rateLimiter,
+                           long intendedStartNanos) {
+        int i = takePick();
+        boolean success = operations[i].process(driver, monitor, key, rateLimiter, intendedStartNanos);
+        record(monitor, i, intendedStartNanos, success);
+        return success;
+    }
+
+    @Override
+    public CompletionStage<Boolean> processAsync(NdBenchDriver driver,
+                                                 NdBenchMonitor monitor,
+                                                 String key,
+                                                 AtomicReference<RateLimiter> rateLimiter,
+                                                 long intendedStartNanos) {
+        int i = takePick();
+        return operations[i].processAsync(driver, monitor, key, rateLimiter, intendedStartNanos)
+                .thenApply(success -> {
+                    record(monitor, i, intendedStartNanos, success);
+                    return success;
+                });
+    }
+
+    @Override
+    public boolean processBinary(NdBenchDriver driver,
+                                 NdBenchMonitor monitor,
+                                 ByteBuffer key,
+                                 AtomicReference<RateLimiter> rateLimiter,
+                                 long intendedStartNanos) {
+        int i = takePick();
+        boolean success = operations[i].processBinary(driver, monitor, key, rateLimiter, intendedStartNanos);
+        record(monitor, i, intendedStartNanos, success);
+        return success;
+    }
+
+    @Override
+    public boolean processBatch(NdBenchDriver driver,
+                                NdBenchMonitor monitor,
+                                List<String> keys,
+                                AtomicReference<RateLimiter> rateLimiter,
+                                long intendedStartNanos) {
+        int i = takePick();
+        boolean success = operations[i].processBatch(driver, monitor, keys, rateLimiter, intendedStartNanos);
+        record(monitor, i, intendedStartNanos, success);
+        return success;
+    }
+
+    private void record(NdBenchMonitor monitor, int i, long intendedStartNanos, boolean success) {
+        if (operations[i].getRecordedName() == null) {
+            monitor.recordOperation(names[i], (System.nanoTime() - intendedStartNanos)/1000, success);
+        }
+    }
+
+    @Override
+    public void prepareNext() {
+        int i = pick();
+        nextPick.get()[0] = i;
+        operations[i].prepareNext();
+    }
+
+    /**
+     * @return the operation picked by the calling thread's last {@link #prepareNext}, or a new pick if there is none
+     */
+    private int takePick() {
+        int[] next = nextPick.get();
+        int i = next[0];
+        next[0] = -1;
+        return i >= 0 ? i : pick();
+    }
+
+    private int pick() {
+        double draw = random.nextDouble();
+        for (int i = 0; i < cumulativeWeights.length - 1; i++) {
+            if (draw < cumulativeWeights[i]) {
+                return i;
+            }
+        }
+        return cumulativeWeights.length - 1;
+    }
+
+    @Override
+    public boolean isReadType() {
+        return true;
+    }
+
+    @Override
+    public boolean isWriteType() {
+        return true;
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package com.netflix.ndbench.core.operations;
+
+import com.google.common.util.concurrent.RateLimiter;
+import com.netflix.ndbench.api.plugin.NdBenchAbstractClient;
+import com.netflix.ndbench.api.plugin.NdBenchMonitor;
+import com.netflix.ndbench.core.NdBenchDriver;
+import com.netflix.ndbench.core.generators.KeyGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Reads several keys in one request, via {@link NdBenchAbstractClient#readBatch}: the key the operation was issued
+ * for, plus further keys drawn from the same key generator before the request's permit is taken. Counted as a batch
+ * read, with one item and a cache hit or miss per key.
+ */
+public class MultiGetOperation implements NdBenchDriver.NdBenchOperation {
+    private static final Logger Logger = LoggerFactory.getLogger(MultiGetOperation.class);
+
+    private final NdBenchAbstractClient<?> client;
+    private final KeyGenerator<String> keyGenerator;
+    private final int keysPerRequest;
+    // the further keys of each thread's next request, drawn by prepareNext ahead of its latency window
+    private final ThreadLocal<List<String>> nextKeys = new ThreadLocal<>();
+
+    public MultiGetOperation(NdBenchAbstractClient<?> pClient, KeyGenerator<String> keyGenerator, int keysPerRequest) {
+        if (keysPerRequest < 1) {
+            throw new IllegalArgumentException("Keys per multi-get must be at least 1, but was: " + keysPerRequest);
+        }
+        client = pClient;
+        this.keyGenerator = keyGenerator;
+        this.keysPerRequest = keysPerRequest;
+    }
+
+    @Override
+    public boolean process(NdBenchDriver driver,
+                           NdBenchMonitor monitor,
+                           String key,
+                           AtomicReference<RateLimiter> ignoredForNow) {
+        return process(driver, monitor, key, ignoredForNow, System.nanoTime());
+    }
+
+    @Override
+    public boolean process(NdBenchDriver driver,
+                           NdBenchMonitor monitor,
+                           String key,
+                           AtomicReference<RateLimiter> ignoredForNow,
+                           long intendedStartNanos) {
+        List<String> keys = nextKeys.get();
+        nextKeys.remove();
+        if (keys == null) {
+            keys = drawKeys();
+        }
+        keys.set(0, key);
+        try {
+            List<String> values = client.readBatch(keys);
+            long latency = (System.nanoTime() - intendedStartNanos)/1000;
+            monitor.recordReadLatency(latency);
+            monitor.recordReadBatch(keys.size(), latency);
+            for (String value : values) {
+                if (value != null) {
+                    monitor.incCacheHit();
+                } else {
+                    monitor.incCacheMiss();
+                }
+            }
+            monitor.incReadSuccess();
+            return true;
+        } catch (Exception e) {
+            monitor.incReadFailure();
+            Logger.error("Failed to process NdBench multi-get operation", e);
+            return false;
+        }
+    }
+
+    @Override
+    public void prepareNext() {
+        nextKeys.set(drawKeys());
+    }
+
+    /**
+     * @return a list whose first element is left for the key the operation is issued for, followed by further keys
+     */
+    private List<String> drawKeys() {
+        List<String> keys = new ArrayList<>(keysPerRequest);
+        keys.add(null);
+        while (keys.size() < keysPerRequest) {
+            keys.add(keyGenerator.getNextKey());
+        }
+        return keys;
+    }
+
+    @Override
+    public boolean isReadType() {
+        return true;
+    }
+
+    @Override
+    public boolean isWriteType() {
+        return false;
+    }
+}
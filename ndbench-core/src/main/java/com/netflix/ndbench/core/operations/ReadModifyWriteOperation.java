@@ -0,0 +1,101 @@
+/*
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package com.netflix.ndbench.core.operations;
+
+import com.google.common.util.concurrent.RateLimiter;
+import com.netflix.ndbench.api.plugin.NdBenchAbstractClient;
+import com.netflix.ndbench.api.plugin.NdBenchMonitor;
+import com.netflix.ndbench.core.NdBenchDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Reads a key and writes it back, via {@link NdBenchAbstractClient#readModifyWrite}. Read-modify-writes are only
+ * recorded under their own name (see {@link NdBenchMonitor#recordOperation}), so that their latencies, which include
+ * a read, are kept out of the write latencies.
+ */
+public class ReadModifyWriteOperation<W> implements NdBenchDriver.NdBenchOperation {
+    private static final Logger Logger = LoggerFactory.getLogger(ReadModifyWriteOperation.class);
+
+    public static final String NAME = "rmw";
+
+    private final NdBenchAbstractClient<W> client;
+    private final WriteVersions writeVersions;      // null if values are not verified
+
+    /**
+     * @param writeVersions if not null, the writes are tracked there like those of {@link WriteOperation}, so that
+     *                      reads don't take values they overwrite for stale ones
+     */
+    public ReadModifyWriteOperation(NdBenchAbstractClient<W> pClient, WriteVersions writeVersions) {
+        client = pClient;
+        this.writeVersions = writeVersions;
+    }
+
+    @Override
+    public boolean process(NdBenchDriver driver,
+                           NdBenchMonitor stats,
+                           String key,
+                           AtomicReference<RateLimiter> rateLimiter) {
+        return process(driver, stats, key, rateLimiter, System.nanoTime());
+    }
+
+    @Override
+    public boolean process(NdBenchDriver driver,
+                           NdBenchMonitor stats,
+                           String key,
+                           AtomicReference<RateLimiter> rateLimiter,
+                           long intendedStartNanos) {
+        long issuedMillis = System.currentTimeMillis();
+        if (writeVersions != null) {
+            writeVersions.beginWrite(key, issuedMillis);
+        }
+        try {
+            client.readModifyWrite(key);
+        } catch (Exception e) {
+            endWrite(key, issuedMillis, false);
+            stats.recordOperation(NAME, (System.nanoTime() - intendedStartNanos)/1000, false);
+            Logger.error("Failed to process NdBench read-modify-write operation", e);
+            return false;
+        }
+        endWrite(key, issuedMillis, true);
+        stats.recordOperation(NAME, (System.nanoTime() - intendedStartNanos)/1000, true);
+        return true;
+    }
+
+    @Override
+    public String getRecordedName() {
+        return NAME;
+    }
+
+    private void endWrite(String key, long issuedMillis, boolean succeeded) {
+        if (writeVersions != null) {
+            writeVersions.endWrite(key, issuedMillis, succeeded);
+        }
+    }
+
+    @Override
+    public boolean isReadType() {
+        return false;
+    }
+
+    @Override
+    public boolean isWriteType() {
+        return true;
+    }
+}
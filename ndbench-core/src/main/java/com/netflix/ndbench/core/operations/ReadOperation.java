@@ -21,9 +21,15 @@ import com.google.common.util.concurrent.RateLimiter;
 import com.netflix.ndbench.api.plugin.NdBenchAbstractClient;
 import com.netflix.ndbench.api.plugin.NdBenchMonitor;
 import com.netflix.ndbench.core.NdBenchDriver;
+import com.netflix.ndbench.core.generators.VerifiableValues;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
@@ -33,9 +39,28 @@ public class ReadOperation implements NdBenchDriver.NdBenchOperation {
     private static final Logger Logger = LoggerFactory.getLogger(ReadOperation.class);
 
     private final NdBenchAbstractClient<?> client;
+    private final WriteVersions writeVersions;      // null if values are not verified
 
     public ReadOperation(NdBenchAbstractClient<?> pClient) {
+        this(pClient, null);
+    }
+
+    /**
+     * @param writeVersions if not null, values read are checked to be intact {@link VerifiableValues} of their keys,
+     *                      and to be no older than the latest write of their key that had succeeded when the read
+     *                      started
+     */
+    public ReadOperation(NdBenchAbstractClient<?> pClient, WriteVersions writeVersions) {
         client = pClient;
+        this.writeVersions = writeVersions;
+    }
+
+    @Override
+    public boolean process(NdBenchDriver driver,
+                           NdBenchMonitor monitor,
+                           String key,
+                           AtomicReference<RateLimiter> ignoredForNow) {
+        return process(driver, monitor, key, ignoredForNow, System.nanoTime());
     }
 
     @Override
@@ -43,29 +68,132 @@ public class ReadOperation implements NdBenchDriver.NdBenchOperation {
                            NdBenchMonitor monitor,
                            String key,
                            AtomicReference<RateLimiter> ignoredForNow,
-                           boolean isAutoTuneEnabled) {
+                           long intendedStartNanos) {
         try {
-            Long startTime = System.nanoTime();
+            long minimumVersion = minimumVersion(key);
             String value = client.readSingle(key);
-            monitor.recordReadLatency((System.nanoTime() - startTime)/1000);
-            if (value != null) {
-                monitor.incCacheHit();
-            } else {
-                Logger.debug("Miss for key: " + key);
-                monitor.incCacheMiss();
+            recordSuccess(monitor, key, value, minimumVersion, intendedStartNanos);
+            return true;
+        } catch (Exception e) {
+            recordFailure(monitor, e);
+            return false;
+        }
+    }
+
+    @Override
+    public boolean processBinary(NdBenchDriver driver,
+                                 NdBenchMonitor monitor,
+                                 ByteBuffer key,
+                                 AtomicReference<RateLimiter> ignoredForNow,
+                                 long intendedStartNanos) {
+        try {
+            // keys are only decoded if they are needed, for logging a miss or verifying the value
+            String decodedKey = writeVersions != null ? decode(key) : null;
+            long minimumVersion = minimumVersion(decodedKey);
+            String value = client.readSingleBinary(key);
+            if (value == null && decodedKey == null) {
+                decodedKey = decode(key);
+            }
+            recordSuccess(monitor, decodedKey, value, minimumVersion, intendedStartNanos);
+            return true;
+        } catch (Exception e) {
+            recordFailure(monitor, e);
+            return false;
+        }
+    }
+
+    @Override
+    public boolean processBatch(NdBenchDriver driver,
+                                NdBenchMonitor monitor,
+                                List<String> keys,
+                                AtomicReference<RateLimiter> ignoredForNow,
+                                long intendedStartNanos) {
+        try {
+            long[] minimumVersions = new long[keys.size()];
+            for (int i = 0; i < keys.size(); i++) {
+                minimumVersions[i] = minimumVersion(keys.get(i));
+            }
+            List<String> values = client.readBatch(keys);
+            long latency = (System.nanoTime() - intendedStartNanos)/1000;
+            monitor.recordReadLatency(latency);
+            monitor.recordReadBatch(keys.size(), latency);
+            for (int i = 0; i < keys.size(); i++) {
+                recordValue(monitor, keys.get(i), values.get(i), minimumVersions[i]);
             }
             monitor.incReadSuccess();
             return true;
         } catch (Exception e) {
-            monitor.incReadFailure();
-            Logger.error("Failed to process NdBench read operation", e);
+            recordFailure(monitor, e);
             return false;
-        } finally {
+        }
+    }
+
+    @Override
+    public CompletionStage<Boolean> processAsync(NdBenchDriver driver,
+                                                 NdBenchMonitor monitor,
+                                                 String key,
+                                                 AtomicReference<RateLimiter> ignoredForNow,
+                                                 long intendedStartNanos) {
+        long minimumVersion = minimumVersion(key);
+        CompletionStage<String> stage;
+        try {
+            stage = client.readAsync(key);
+        } catch (Exception e) {
+            recordFailure(monitor, e);
+            return CompletableFuture.completedFuture(false);
+        }
+        return stage.handle((value, error) -> {
+            if (error != null) {
+                recordFailure(monitor, error);
+                return false;
+            }
+            recordSuccess(monitor, key, value, minimumVersion, intendedStartNanos);
+            return true;
+        });
+    }
 
+    private void recordSuccess(NdBenchMonitor monitor, String key, String value, long minimumVersion,
+                               long intendedStartNanos) {
+        monitor.recordReadLatency((System.nanoTime() - intendedStartNanos)/1000);
+        recordValue(monitor, key, value, minimumVersion);
+        monitor.incReadSuccess();
+    }
+
+    private void recordValue(NdBenchMonitor monitor, String key, String value, long minimumVersion) {
+        if (value != null) {
+            monitor.incCacheHit();
+            if (writeVersions == null) {
+                return;
+            }
+            if (!VerifiableValues.verify(key, value)) {
+                Logger.warn("Value read for key {} failed verification", key);
+                monitor.incReadVerificationFailure();
+            } else if (VerifiableValues.versionOf(value) < minimumVersion) {
+                Logger.warn("Value read for key {} is stale: version {} predates the write issued at {}",
+                        key, VerifiableValues.versionOf(value), minimumVersion);
+                monitor.incReadStaleValue();
+            }
+        } else {
+            Logger.debug("Miss for key: {}", key);
+            monitor.incCacheMiss();
         }
     }
 
+    /**
+     * @return the oldest version a read of 'key' that starts now may return, or -1 if there is none
+     */
+    private long minimumVersion(String key) {
+        return writeVersions != null ? writeVersions.minimumVersion(key) : -1L;
+    }
 
+    private static String decode(ByteBuffer key) {
+        return StandardCharsets.UTF_8.decode(key.duplicate()).toString();
+    }
+
+    private void recordFailure(NdBenchMonitor monitor, Throwable error) {
+        monitor.incReadFailure();
+        Logger.error("Failed to process NdBench read operation", error);
+    }
 
     @Override
     public boolean isReadType() {
@@ -0,0 +1,77 @@
+/*
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package com.netflix.ndbench.core.operations;
+
+import com.google.common.util.concurrent.RateLimiter;
+import com.netflix.ndbench.api.plugin.NdBenchAbstractClient;
+import com.netflix.ndbench.api.plugin.NdBenchMonitor;
+import com.netflix.ndbench.core.NdBenchDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Reads a range of entries starting at a key, via {@link NdBenchAbstractClient#scan}. Counted as a read.
+ */
+public class ScanOperation implements NdBenchDriver.NdBenchOperation {
+    private static final Logger Logger = LoggerFactory.getLogger(ScanOperation.class);
+
+    private final NdBenchAbstractClient<?> client;
+    private final int limit;
+
+    public ScanOperation(NdBenchAbstractClient<?> pClient, int limit) {
+        client = pClient;
+        this.limit = limit;
+    }
+
+    @Override
+    public boolean process(NdBenchDriver driver,
+                           NdBenchMonitor monitor,
+                           String key,
+                           AtomicReference<RateLimiter> ignoredForNow) {
+        return process(driver, monitor, key, ignoredForNow, System.nanoTime());
+    }
+
+    @Override
+    public boolean process(NdBenchDriver driver,
+                           NdBenchMonitor monitor,
+                           String key,
+                           AtomicReference<RateLimiter> ignoredForNow,
+                           long intendedStartNanos) {
+        try {
+            client.scan(key, limit);
+            monitor.recordReadLatency((System.nanoTime() - intendedStartNanos)/1000);
+            monitor.incReadSuccess();
+            return true;
+        } catch (Exception e) {
+            monitor.incReadFailure();
+            Logger.error("Failed to process NdBench scan operation", e);
+            return false;
+        }
+    }
+
+    @Override
+    public boolean isReadType() {
+        return true;
+    }
+
+    @Override
+    public boolean isWriteType() {
+        return false;
+    }
+}
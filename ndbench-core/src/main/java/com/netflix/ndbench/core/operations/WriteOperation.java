@@ -24,6 +24,11 @@ import com.netflix.ndbench.core.NdBenchDriver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
@@ -33,9 +38,26 @@ public class WriteOperation<W> implements NdBenchDriver.NdBenchOperation {
     private static final Logger Logger = LoggerFactory.getLogger(WriteOperation.class);
 
     private final NdBenchAbstractClient<W> client;
+    private final WriteVersions writeVersions;      // null if values are not verified
 
     public WriteOperation(NdBenchAbstractClient<W> pClient) {
+        this(pClient, null);
+    }
+
+    /**
+     * @param writeVersions if not null, successful writes are recorded there for reads to detect stale values
+     */
+    public WriteOperation(NdBenchAbstractClient<W> pClient, WriteVersions writeVersions) {
         client = pClient;
+        this.writeVersions = writeVersions;
+    }
+
+    @Override
+    public boolean process(NdBenchDriver driver,
+                           NdBenchMonitor stats,
+                           String key,
+                           AtomicReference<RateLimiter> rateLimiter) {
+        return process(driver, stats, key, rateLimiter, System.nanoTime());
     }
 
     @Override
@@ -43,31 +65,129 @@ public class WriteOperation<W> implements NdBenchDriver.NdBenchOperation {
                            NdBenchMonitor stats,
                            String key,
                            AtomicReference<RateLimiter> rateLimiter,
-                           boolean isAutoTuneEnabled) {
+                           long intendedStartNanos) {
+        long issuedMillis = beginWrite(key);
         try {
-            Long startTime = System.nanoTime();
-            W result = client.writeSingle(key);
-            stats.recordWriteLatency((System.nanoTime() - startTime)/1000);
-
-            if (isAutoTuneEnabled) {
-                Double newRateLimit;
-                double currentRate = rateLimiter.get().getRate();
-                if ((newRateLimit = client.autoTuneWriteRateLimit(currentRate, result, stats)) > 0
-                        && newRateLimit != currentRate) {
-                    driver.updateWriteRateLimit(newRateLimit);
-                }
-            }
-            stats.incWriteSuccess();
-            return true;
+            client.writeSingle(key);
+        } catch (Exception e) {
+            endWrite(key, issuedMillis, false);
+            recordFailure(stats, e);
+            return false;
+        }
+        endWrite(key, issuedMillis, true);
+        recordSuccess(stats, intendedStartNanos);
+        return true;
+    }
+
+    @Override
+    public boolean processBinary(NdBenchDriver driver,
+                                 NdBenchMonitor stats,
+                                 ByteBuffer key,
+                                 AtomicReference<RateLimiter> rateLimiter,
+                                 long intendedStartNanos) {
+        String decodedKey = writeVersions != null ? StandardCharsets.UTF_8.decode(key.duplicate()).toString() : null;
+        long issuedMillis = beginWrite(decodedKey);
+        try {
+            client.writeSingleBinary(key);
+        } catch (Exception e) {
+            endWrite(decodedKey, issuedMillis, false);
+            recordFailure(stats, e);
+            return false;
+        }
+        endWrite(decodedKey, issuedMillis, true);
+        recordSuccess(stats, intendedStartNanos);
+        return true;
+    }
+
+    @Override
+    public boolean processBatch(NdBenchDriver driver,
+                                NdBenchMonitor stats,
+                                List<String> keys,
+                                AtomicReference<RateLimiter> rateLimiter,
+                                long intendedStartNanos) {
+        long issuedMillis = System.currentTimeMillis();
+        for (String key : keys) {
+            beginWrite(key, issuedMillis);
+        }
+        try {
+            client.writeBatch(keys);
         } catch (Exception e) {
-            stats.incWriteFailure();
-            Logger.error("Failed to process NdBench write operation", e);
+            for (String key : keys) {
+                endWrite(key, issuedMillis, false);
+            }
+            recordFailure(stats, e);
             return false;
-        } finally {
+        }
+        for (String key : keys) {
+            endWrite(key, issuedMillis, true);
+        }
+        stats.recordWriteBatch(keys.size(), (System.nanoTime() - intendedStartNanos)/1000);
+        recordSuccess(stats, intendedStartNanos);
+        return true;
+    }
+
+    @Override
+    public CompletionStage<Boolean> processAsync(NdBenchDriver driver,
+                                                 NdBenchMonitor stats,
+                                                 String key,
+                                                 AtomicReference<RateLimiter> rateLimiter,
+                                                 long intendedStartNanos) {
+        long issuedMillis = beginWrite(key);
+        CompletionStage<W> stage;
+        try {
+            stage = client.writeAsync(key);
+        } catch (Exception e) {
+            endWrite(key, issuedMillis, false);
+            recordFailure(stats, e);
+            return CompletableFuture.completedFuture(false);
+        }
+        return stage.handle((result, error) -> {
+            endWrite(key, issuedMillis, error == null);
+            if (error != null) {
+                recordFailure(stats, error);
+                return false;
+            }
+            try {
+                recordSuccess(stats, intendedStartNanos);
+                return true;
+            } catch (Exception e) {
+                recordFailure(stats, e);
+                return false;
+            }
+        });
+    }
+
+    /**
+     * @return the time at which the write of 'key' is issued
+     */
+    private long beginWrite(String key) {
+        long issuedMillis = System.currentTimeMillis();
+        beginWrite(key, issuedMillis);
+        return issuedMillis;
+    }
+
+    private void beginWrite(String key, long issuedMillis) {
+        if (writeVersions != null) {
+            writeVersions.beginWrite(key, issuedMillis);
+        }
+    }
 
+    private void endWrite(String key, long issuedMillis, boolean succeeded) {
+        if (writeVersions != null) {
+            writeVersions.endWrite(key, issuedMillis, succeeded);
         }
     }
 
+    private void recordSuccess(NdBenchMonitor stats, long intendedStartNanos) {
+        stats.recordWriteLatency((System.nanoTime() - intendedStartNanos)/1000);
+        stats.incWriteSuccess();
+    }
+
+    private void recordFailure(NdBenchMonitor stats, Throwable error) {
+        stats.incWriteFailure();
+        Logger.error("Failed to process NdBench write operation", error);
+    }
+
     @Override
     public boolean isReadType() {
         return false;
@@ -0,0 +1,127 @@
+/*
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package com.netflix.ndbench.core.operations;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The acknowledged writes of recently written keys, which reads use to tell stale values from current ones.
+ * <p>
+ * Verifiable values are versioned with the time (in millis) they were generated at, which is after their write was
+ * issued. Writes of the same key may overlap though, and the store may apply them in any order: once a write has
+ * succeeded, a read may still return the value of any write that was in flight at that time, but nothing older.
+ * So each key tracks its writes in flight, and a successful write raises the key's minimum version to the issue
+ * time of the oldest write in flight when it succeeded (which is its own issue time unless writes overlapped). A
+ * read that starts after the write has succeeded and returns a value older than that has read stale data.
+ * <p>
+ * Keys are tracked in a fixed size table indexed by a hash of the key, where a write of a key evicts the entry of
+ * any other key sharing its slot. Evicted keys are merely no longer checked, so a full table never causes reads to
+ * be reported stale that aren't.
+ */
+public class WriteVersions {
+    static final int DEFAULT_SLOTS = 1 << 20;
+
+    private final AtomicReferenceArray<Entry> slots;
+    private final int mask;
+
+    public WriteVersions() {
+        this(DEFAULT_SLOTS);
+    }
+
+    /**
+     * @param slots number of keys tracked at most; rounded up to a power of two
+     */
+    WriteVersions(int slots) {
+        int size = Integer.highestOneBit(Math.max(1, slots - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * Records that a write of 'key' is issued at 'issuedMillis'. Must be followed by {@link #endWrite} once the write
+     * has completed, whether it succeeded or not.
+     */
+    public void beginWrite(String key, long issuedMillis) {
+        long hash = hash(key);
+        int slot = (int) hash & mask;
+        while (true) {
+            Entry current = slots.get(slot);
+            Entry update = current != null && current.hash == hash
+                    ? new Entry(hash, current.version, current.inFlight + 1, Math.min(current.oldestInFlight, issuedMillis))
+                    : new Entry(hash, -1L, 1, issuedMillis);
+            if (slots.compareAndSet(slot, current, update)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Records that the write of 'key' issued at 'issuedMillis' has completed
+     */
+    public void endWrite(String key, long issuedMillis, boolean succeeded) {
+        long hash = hash(key);
+        int slot = (int) hash & mask;
+        while (true) {
+            Entry current = slots.get(slot);
+            if (current == null || current.hash != hash) {
+                return;  // evicted while in flight
+            }
+            int inFlight = Math.max(0, current.inFlight - 1);
+            // the oldest write in flight is only forgotten once none are, which errs on the side of older versions
+            long oldestInFlight = inFlight == 0 ? Long.MAX_VALUE : current.oldestInFlight;
+            long version = succeeded
+                    ? Math.max(current.version, Math.min(current.oldestInFlight, issuedMillis))
+                    : current.version;
+            if (slots.compareAndSet(slot, current, new Entry(hash, version, inFlight, oldestInFlight))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return the oldest version a read of 'key' that starts now may return, or -1 if the key's writes are not known
+     */
+    public long minimumVersion(String key) {
+        long hash = hash(key);
+        Entry entry = slots.get((int) hash & mask);
+        return entry != null && entry.hash == hash ? entry.version : -1L;
+    }
+
+    // 64 bit FNV-1a, so that entries of different keys are practically never mistaken for each other
+    private static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash ^ (hash >>> 32);
+    }
+
+    private static final class Entry {
+        private final long hash;
+        private final long version;         // -1 until a write has succeeded
+        private final int inFlight;
+        private final long oldestInFlight;  // Long.MAX_VALUE while no write is in flight
+
+        Entry(long hash, long version, int inFlight, long oldestInFlight) {
+            this.hash = hash;
+            this.version = version;
+            this.inFlight = inFlight;
+            this.oldestInFlight = oldestInFlight;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package com.netflix.ndbench.core.rateprofile;
+
+/**
+ * Periodic bursts on top of a base rate: every periodMillis, the rate jumps to the peak rate for burstMillis. Each
+ * period starts at the base rate, so that the first burst comes after the target system has warmed up.
+ */
+public class BurstProfile implements RateProfile {
+    private final double base;
+    private final double peak;
+    private final long periodMillis;
+    private final long burstMillis;
+
+    public BurstProfile(double base, double peak, long periodMillis, long burstMillis) {
+        this.base = base;
+        this.peak = peak;
+        this.periodMillis = periodMillis;
+        this.burstMillis = burstMillis;
+    }
+
+    @Override
+    public double rateAt(long elapsedMillis) {
+        return elapsedMillis % periodMillis >= periodMillis - burstMillis ? peak : base;
+    }
+}
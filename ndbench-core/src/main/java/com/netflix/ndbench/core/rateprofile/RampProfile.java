@@ -0,0 +1,41 @@
+/*
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package com.netflix.ndbench.core.rateprofile;
+
+/**
+ * Changes the rate linearly from one value to another over a given duration, and holds the final rate afterwards.
+ * A ramp of duration 0 is a constant rate.
+ */
+public class RampProfile implements RateProfile {
+    private final double from;
+    private final double to;
+    private final long durationMillis;
+
+    public RampProfile(double from, double to, long durationMillis) {
+        this.from = from;
+        this.to = to;
+        this.durationMillis = durationMillis;
+    }
+
+    @Override
+    public double rateAt(long elapsedMillis) {
+        if (elapsedMillis >= durationMillis) {
+            return to;
+        }
+        return from + (to - from) * elapsedMillis / durationMillis;
+    }
+}
@@ -0,0 +1,31 @@
+/*
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package com.netflix.ndbench.core.rateprofile;
+
+/**
+ * The target rate of a direction (reads or writes) as a function of the time since the direction was started.
+ * Profiles are created from a declarative spec by {@link RateProfiles#parse(String)}, and applied to the driver's
+ * rate limits by the {@link RateProfileController}.
+ */
+public interface RateProfile {
+
+    /**
+     * @param elapsedMillis milliseconds since the start of the run, never negative
+     * @return the target rate in operations per second at that point of the run
+     */
+    double rateAt(long elapsedMillis);
+}
@@ -0,0 +1,202 @@
+/*
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package com.netflix.ndbench.core.rateprofile;
+
+import com.netflix.ndbench.core.NdBenchDriver;
+import com.netflix.ndbench.core.config.IConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleConsumer;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Drives the driver's read and write rate limits from the rate profiles of readRateProfile and writeRateProfile,
+ * once every rateProfileUpdateMillis, on a thread of its own.
+ * <p>
+ * Each direction's profile clock starts when the direction is first seen running, and restarts whenever its profile
+ * spec is changed at runtime. When a direction stops (or the profile is removed), its rate limit is restored to the
+ * value it had before the profile took over. Directions driven by a profile are left alone by auto-tuning.
+ */
+public class RateProfileController {
+    private static final Logger Logger = LoggerFactory.getLogger(RateProfileController.class);
+
+    private final NdBenchDriver driver;
+    private final IConfiguration config;
+    private final ProfiledDirection reads;
+    private final ProfiledDirection writes;
+
+    private ScheduledExecutorService executor;  // guarded by this
+
+    public RateProfileController(NdBenchDriver driver, IConfiguration config) {
+        this.driver = driver;
+        this.config = config;
+        this.reads = new ProfiledDirection("reads", config::getReadRateProfile, config::getReadRateLimit,
+                driver::updateReadRateLimit);
+        this.writes = new ProfiledDirection("writes", config::getWriteRateProfile, config::getWriteRateLimit,
+                driver::updateWriteRateLimit);
+    }
+
+    /**
+     * Starts applying rate profiles, unless they are applied already. The ticker runs even while no profile is
+     * configured, so that a profile set at runtime takes effect without restarting the load.
+     */
+    public synchronized void start() {
+        if (executor != null) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ndbench-rateprofile");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Math.max(1, config.getRateProfileUpdateMillis());
+        executor.scheduleAtFixedRate(this::safeTick, 0, interval, TimeUnit.MILLISECONDS);
+        Logger.info("Checking for rate profiles to apply every {} ms", interval);
+    }
+
+    public synchronized void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+        reads.release();
+        writes.release();
+    }
+
+    /**
+     * Sets the rate limits of the reads and writes that are running to the current rates of their profiles
+     */
+    public synchronized void tick() {
+        long now = System.nanoTime();
+        reads.tick(driver.getIsReadRunning(), now);
+        writes.tick(driver.getIsWriteRunning(), now);
+    }
+
+    /**
+     * @return the profile and current rate of each direction driven by a profile
+     */
+    public synchronized Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("running", executor != null);
+        long now = System.nanoTime();
+        reads.addStatus(status, now);
+        writes.addStatus(status, now);
+        return status;
+    }
+
+    /**
+     * @return whether the given profile spec drives a rate limit, i.e. is not blank
+     */
+    public static boolean hasProfile(String spec) {
+        return spec != null && !spec.trim().isEmpty();
+    }
+
+    private void safeTick() {
+        try {
+            tick();
+        } catch (Exception e) {
+            // an exception would cancel all further ticks
+            Logger.error("Applying rate profiles failed", e);
+        }
+    }
+
+    /**
+     * The profile of one direction, and the clock it runs on
+     */
+    private static class ProfiledDirection {
+        private final String name;
+        private final Supplier<String> spec;
+        private final IntSupplier rateLimit;
+        private final DoubleConsumer updateRateLimit;
+
+        private String activeSpec;      // the spec of the profile below, or of the last spec that failed to parse
+        private RateProfile profile;
+        private String error;
+        private long startNanos;
+        private int originalRateLimit;
+        private double currentRate;
+
+        ProfiledDirection(String name, Supplier<String> spec, IntSupplier rateLimit, DoubleConsumer updateRateLimit) {
+            this.name = name;
+            this.spec = spec;
+            this.rateLimit = rateLimit;
+            this.updateRateLimit = updateRateLimit;
+        }
+
+        void tick(boolean running, long nowNanos) {
+            String currentSpec = spec.get();
+            if (!running || !hasProfile(currentSpec)) {
+                release();
+                return;
+            }
+            if (!currentSpec.equals(activeSpec)) {
+                release();
+                activeSpec = currentSpec;
+                try {
+                    profile = RateProfiles.parse(currentSpec);
+                } catch (IllegalArgumentException e) {
+                    // logged once per spec rather than once per tick
+                    error = e.getMessage();
+                    Logger.error("Invalid rate profile for {}: {}", name, error);
+                    return;
+                }
+                startNanos = nowNanos;
+                originalRateLimit = rateLimit.getAsInt();
+                Logger.info("Driving the rate limit of {} by rate profile {}", name, currentSpec);
+            }
+            if (profile == null) {
+                return;
+            }
+            // rate limiters can't go down to 0, and a rate of 1 is as close to idle as it gets
+            currentRate = Math.max(1.0, profile.rateAt(TimeUnit.NANOSECONDS.toMillis(nowNanos - startNanos)));
+            if ((int) Math.ceil(currentRate) != rateLimit.getAsInt()) {
+                updateRateLimit.accept(currentRate);
+            }
+        }
+
+        void release() {
+            if (profile != null && originalRateLimit != rateLimit.getAsInt()) {
+                updateRateLimit.accept(originalRateLimit);
+            }
+            activeSpec = null;
+            profile = null;
+            error = null;
+        }
+
+        void addStatus(Map<String, Object> status, long nowNanos) {
+            if (activeSpec == null) {
+                return;
+            }
+            Map<String, Object> direction = new LinkedHashMap<>();
+            direction.put("profile", activeSpec);
+            if (profile != null) {
+                direction.put("elapsedSeconds", TimeUnit.NANOSECONDS.toSeconds(nowNanos - startNanos));
+                direction.put("rate", currentRate);
+            } else {
+                direction.put("error", error);
+            }
+            status.put(name, direction);
+        }
+    }
+}
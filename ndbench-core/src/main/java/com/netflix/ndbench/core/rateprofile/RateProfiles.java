@@ -0,0 +1,211 @@
+/*
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package com.netflix.ndbench.core.rateprofile;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Creates rate profiles from declarative specs. A spec is a sequence of segments separated by ';', each of the form
+ * type:key=value,key=value,... The segment types and their keys are:
+ * <ul>
+ * <li>constant:rate=R</li>
+ * <li>ramp:from=R,to=R,duration=D</li>
+ * <li>steps:start=R,step=R,every=D[,count=N] (count defaults to an endless ladder)</li>
+ * <li>sine:mean=R,amplitude=R,period=D</li>
+ * <li>burst:base=R,peak=R,every=D,for=D</li>
+ * <li>trace:file=PATH[,speedup=X][,loop=true|false] (see {@link TraceProfile#readTrace})</li>
+ * </ul>
+ * Rates are in operations per second. Durations are numbers of seconds, or numbers suffixed with ms, s, m or h. Each
+ * segment but the last needs a duration key telling how long it runs (ramps default to the length of the ramp.) For
+ * example, ramp:from=100,to=2000,duration=5m;sine:mean=2000,amplitude=1500,period=20m warms up for five minutes, then
+ * runs a diurnal pattern compressed into 20 minutes.
+ */
+public final class RateProfiles {
+    private RateProfiles() {
+    }
+
+    /**
+     * @return the profile described by the spec, or null if the spec is blank
+     * @throws IllegalArgumentException if the spec is malformed, or refers to a trace that can't be read
+     */
+    public static RateProfile parse(String spec) {
+        if (spec == null || spec.trim().isEmpty()) {
+            return null;
+        }
+        List<RateProfile> profiles = new ArrayList<>();
+        List<Long> durations = new ArrayList<>();
+        String[] segments = spec.split(";");
+        for (int i = 0; i < segments.length; i++) {
+            String segment = segments[i].trim();
+            if (segment.isEmpty()) {
+                continue;
+            }
+            Map<String, String> params = new HashMap<>();
+            profiles.add(parseSegment(segment, params));
+            durations.add(params.containsKey("duration") ? parseDuration(segment, params.get("duration")) : null);
+        }
+        for (int i = 0; i < profiles.size() - 1; i++) {
+            if (durations.get(i) == null) {
+                throw new IllegalArgumentException("Rate profile segments followed by another segment need a duration, "
+                        + "but segment " + (i + 1) + " of '" + spec + "' has none");
+            }
+        }
+        return profiles.size() == 1 ? profiles.get(0) : new SequenceProfile(profiles, durations);
+    }
+
+    private static RateProfile parseSegment(String segment, Map<String, String> params) {
+        int colon = segment.indexOf(':');
+        if (colon < 0) {
+            throw new IllegalArgumentException("Rate profile segments must be of the form type:key=value,..., but got: "
+                    + segment);
+        }
+        String type = segment.substring(0, colon).trim().toLowerCase();
+        for (String entry : segment.substring(colon + 1).split(",")) {
+            if (entry.trim().isEmpty()) {
+                continue;
+            }
+            String[] parts = entry.split("=", 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Rate profile parameters must be of the form key=value, but got '"
+                        + entry + "' in: " + segment);
+            }
+            params.put(parts[0].trim().toLowerCase(), parts[1].trim());
+        }
+
+        switch (type) {
+            case "constant":
+                checkKeys(segment, params, "rate", "duration");
+                double rate = rate(segment, params, "rate");
+                return new RampProfile(rate, rate, 0);
+            case "ramp":
+                checkKeys(segment, params, "from", "to", "duration");
+                return new RampProfile(rate(segment, params, "from"),
+                        rate(segment, params, "to"),
+                        duration(segment, params, "duration"));
+            case "steps":
+                checkKeys(segment, params, "start", "step", "every", "count", "duration");
+                return new StepProfile(rate(segment, params, "start"),
+                        number(segment, params, "step"),
+                        duration(segment, params, "every"),
+                        params.containsKey("count") ? (long) number(segment, params, "count") : Long.MAX_VALUE);
+            case "sine":
+                checkKeys(segment, params, "mean", "amplitude", "period", "duration");
+                return new SineProfile(rate(segment, params, "mean"),
+                        number(segment, params, "amplitude"),
+                        duration(segment, params, "period"));
+            case "burst":
+                checkKeys(segment, params, "base", "peak", "every", "for", "duration");
+                long period = duration(segment, params, "every");
+                long burst = duration(segment, params, "for");
+                if (burst > period) {
+                    throw new IllegalArgumentException("Bursts can't last longer than their period in: " + segment);
+                }
+                return new BurstProfile(rate(segment, params, "base"), rate(segment, params, "peak"), period, burst);
+            case "trace":
+                checkKeys(segment, params, "file", "speedup", "loop", "duration");
+                String file = required(segment, params, "file");
+                try {
+                    return new TraceProfile(TraceProfile.readTrace(Paths.get(file)),
+                            params.containsKey("speedup") ? number(segment, params, "speedup") : 1.0,
+                            Boolean.parseBoolean(params.get("loop")));
+                } catch (IOException e) {
+                    throw new IllegalArgumentException("Unable to read rate trace " + file + ": " + e.getMessage(), e);
+                }
+            default:
+                throw new IllegalArgumentException("Unknown rate profile type '" + type + "' in: " + segment);
+        }
+    }
+
+    /**
+     * Parses a duration in milliseconds: a number of seconds, or a number suffixed with ms, s, m or h
+     */
+    static long parseDuration(String segment, String value) {
+        String number = value;
+        double unitMillis = 1000;
+        if (value.endsWith("ms")) {
+            number = value.substring(0, value.length() - 2);
+            unitMillis = 1;
+        } else if (value.endsWith("s")) {
+            number = value.substring(0, value.length() - 1);
+        } else if (value.endsWith("m")) {
+            number = value.substring(0, value.length() - 1);
+            unitMillis = 60_000;
+        } else if (value.endsWith("h")) {
+            number = value.substring(0, value.length() - 1);
+            unitMillis = 3_600_000;
+        }
+        try {
+            long millis = Math.round(Double.parseDouble(number.trim()) * unitMillis);
+            if (millis < 0) {
+                throw new IllegalArgumentException("Negative duration '" + value + "' in: " + segment);
+            }
+            return millis;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid duration '" + value + "' in: " + segment, e);
+        }
+    }
+
+    private static void checkKeys(String segment, Map<String, String> params, String... allowed) {
+        Set<String> unknown = new HashSet<>(params.keySet());
+        for (String key : allowed) {
+            unknown.remove(key);
+        }
+        if (!unknown.isEmpty()) {
+            throw new IllegalArgumentException("Unknown rate profile parameters " + unknown + " in: " + segment);
+        }
+    }
+
+    private static String required(String segment, Map<String, String> params, String key) {
+        String value = params.get(key);
+        if (value == null || value.isEmpty()) {
+            throw new IllegalArgumentException("Missing rate profile parameter '" + key + "' in: " + segment);
+        }
+        return value;
+    }
+
+    private static double number(String segment, Map<String, String> params, String key) {
+        String value = required(segment, params, key);
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value '" + value + "' for " + key + " in: " + segment, e);
+        }
+    }
+
+    private static double rate(String segment, Map<String, String> params, String key) {
+        double rate = number(segment, params, key);
+        if (rate < 0) {
+            throw new IllegalArgumentException("Negative rate for " + key + " in: " + segment);
+        }
+        return rate;
+    }
+
+    private static long duration(String segment, Map<String, String> params, String key) {
+        long millis = parseDuration(segment, required(segment, params, key));
+        if (millis == 0 && !"duration".equals(key)) {
+            throw new IllegalArgumentException("The " + key + " of a rate profile must be positive in: " + segment);
+        }
+        return millis;
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package com.netflix.ndbench.core.rateprofile;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs several profiles one after the other, each for its own duration, except for the last one which runs until
+ * the end of the run. Each profile sees the time elapsed since the start of its own segment.
+ */
+public class SequenceProfile implements RateProfile {
+    private final List<RateProfile> profiles;
+    private final long[] segmentStartMillis;
+
+    /**
+     * @param profiles        the profiles to run, in order
+     * @param durationsMillis how long each profile runs; the duration of the last profile is ignored
+     */
+    public SequenceProfile(List<RateProfile> profiles, List<Long> durationsMillis) {
+        if (profiles.isEmpty() || profiles.size() != durationsMillis.size()) {
+            throw new IllegalArgumentException("Expected one duration per profile, got " + durationsMillis.size()
+                    + " for " + profiles.size() + " profiles");
+        }
+        this.profiles = new ArrayList<>(profiles);
+        this.segmentStartMillis = new long[profiles.size()];
+        for (int i = 1; i < segmentStartMillis.length; i++) {
+            segmentStartMillis[i] = segmentStartMillis[i - 1] + durationsMillis.get(i - 1);
+        }
+    }
+
+    @Override
+    public double rateAt(long elapsedMillis) {
+        int segment = segmentStartMillis.length - 1;
+        while (segment > 0 && elapsedMillis < segmentStartMillis[segment]) {
+            segment--;
+        }
+        return profiles.get(segment).rateAt(elapsedMillis - segmentStartMillis[segment]);
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package com.netflix.ndbench.core.rateprofile;
+
+/**
+ * A diurnal pattern: the rate oscillates around a mean with the given amplitude and period, starting from its
+ * trough (mean - amplitude) and peaking half a period into the run. Compressing a day of traffic into a shorter run
+ * is a matter of choosing a shorter period.
+ */
+public class SineProfile implements RateProfile {
+    private final double mean;
+    private final double amplitude;
+    private final long periodMillis;
+
+    public SineProfile(double mean, double amplitude, long periodMillis) {
+        this.mean = mean;
+        this.amplitude = amplitude;
+        this.periodMillis = periodMillis;
+    }
+
+    @Override
+    public double rateAt(long elapsedMillis) {
+        double phase = 2 * Math.PI * (elapsedMillis % periodMillis) / periodMillis;
+        return mean - amplitude * Math.cos(phase);
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package com.netflix.ndbench.core.rateprofile;
+
+/**
+ * A ladder of constant rates: starts at a given rate, and adds a fixed step every stepMillis until the given number
+ * of steps has been taken. Steps may be negative, for a descending ladder.
+ */
+public class StepProfile implements RateProfile {
+    private final double start;
+    private final double step;
+    private final long stepMillis;
+    private final long steps;
+
+    public StepProfile(double start, double step, long stepMillis, long steps) {
+        this.start = start;
+        this.step = step;
+        this.stepMillis = stepMillis;
+        this.steps = steps;
+    }
+
+    @Override
+    public double rateAt(long elapsedMillis) {
+        return start + step * Math.min(steps, elapsedMillis / stepMillis);
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package com.netflix.ndbench.core.rateprofile;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Replays a recorded trace of requests per second, optionally sped up so that, say, a day of production traffic
+ * fits in a 20 minute run (speedup 72.)
+ * <p>
+ * When sped up, each second of the run covers several seconds of the trace, and the rate of that second is the mean
+ * of the trace over those seconds, so that short spikes in the trace still add their share of operations rather than
+ * being skipped. At the end of the trace, the replay either starts over or holds the trace's last rate.
+ */
+public class TraceProfile implements RateProfile {
+    private final double[] cumulative;  // cumulative[i] = sum of the first i samples of the trace
+    private final double speedup;
+    private final boolean loop;
+
+    public TraceProfile(double[] ratesPerSecond, double speedup, boolean loop) {
+        if (ratesPerSecond.length == 0) {
+            throw new IllegalArgumentException("Trace is empty");
+        }
+        if (speedup <= 0) {
+            throw new IllegalArgumentException("Trace speedup must be positive, got " + speedup);
+        }
+        this.cumulative = new double[ratesPerSecond.length + 1];
+        for (int i = 0; i < ratesPerSecond.length; i++) {
+            cumulative[i + 1] = cumulative[i] + ratesPerSecond[i];
+        }
+        this.speedup = speedup;
+        this.loop = loop;
+    }
+
+    @Override
+    public double rateAt(long elapsedMillis) {
+        long second = elapsedMillis / 1000;
+        double from = second * speedup;
+        double to = from + Math.max(1.0, speedup);
+        return (traceSum(to) - traceSum(from)) / (to - from);
+    }
+
+    /**
+     * @return the number of operations in the trace up to the given (fractional) second, past the end of the trace
+     * either looping over the trace or holding its last rate
+     */
+    private double traceSum(double second) {
+        int length = cumulative.length - 1;
+        double total = cumulative[length];
+        if (second >= length) {
+            if (loop) {
+                long rounds = (long) (second / length);
+                return rounds * total + traceSum(second - rounds * (double) length);
+            }
+            return total + (second - length) * (cumulative[length] - cumulative[length - 1]);
+        }
+        int whole = (int) second;
+        return cumulative[whole] + (second - whole) * (cumulative[whole + 1] - cumulative[whole]);
+    }
+
+    /**
+     * Reads a trace of one rate per line. Lines may also hold several comma separated fields, such as a timestamp
+     * followed by the rate, in which case the last field is the rate. Blank lines and lines starting with # are skipped.
+     */
+    public static double[] readTrace(Path file) throws IOException {
+        double[] rates = new double[1024];
+        int count = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String field = line.substring(line.lastIndexOf(',') + 1).trim();
+                double rate;
+                try {
+                    rate = Double.parseDouble(field);
+                } catch (NumberFormatException e) {
+                    throw new IOException("Invalid rate '" + field + "' on line " + lineNumber + " of " + file);
+                }
+                if (rate < 0) {
+                    throw new IOException("Negative rate on line " + lineNumber + " of " + file);
+                }
+                if (count == rates.length) {
+                    rates = Arrays.copyOf(rates, count * 2);
+                }
+                rates[count++] = rate;
+            }
+        }
+        return Arrays.copyOf(rates, count);
+    }
+}
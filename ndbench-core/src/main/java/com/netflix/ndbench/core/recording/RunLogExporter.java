@@ -0,0 +1,91 @@
+/*
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package com.netflix.ndbench.core.recording;
+
+import com.netflix.ndbench.core.monitoring.HistogramAggregator;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Turns recorded {@link RunInterval}s into summaries that are easy to chart or compare: counters as recorded, and
+ * count, mean and percentiles (in microseconds) of each interval's latency histograms.
+ */
+public class RunLogExporter {
+    private RunLogExporter() {
+    }
+
+    /**
+     * @return for each interval, its timestamp, counters and latency summaries by histogram name
+     */
+    public static List<Map<String, Object>> summarize(List<RunInterval> intervals) {
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (RunInterval interval : intervals) {
+            HistogramAggregator latencies = new HistogramAggregator();
+            latencies.addAll(interval.getHistograms());
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("timestampMillis", interval.getTimestampMillis());
+            summary.put("counters", interval.getCounters());
+            summary.put("latencies", latencies.summary());
+            result.add(summary);
+        }
+        return result;
+    }
+
+    /**
+     * Writes one line per interval, with one column per counter and one per latency statistic of each histogram,
+     * e.g. read.latP99. Columns of counters or histograms that are missing from an interval are left empty.
+     */
+    @SuppressWarnings("unchecked")
+    public static void writeCsv(List<RunInterval> intervals, Writer out) throws IOException {
+        List<Map<String, Object>> summaries = summarize(intervals);
+        Set<String> columns = new LinkedHashSet<>();
+        List<Map<String, Long>> rows = new ArrayList<>();
+        for (Map<String, Object> summary : summaries) {
+            Map<String, Long> row = new LinkedHashMap<>();
+            row.put("timestampMillis", (Long) summary.get("timestampMillis"));
+            row.putAll((Map<String, Long>) summary.get("counters"));
+            Map<String, Map<String, Long>> latencies = (Map<String, Map<String, Long>>) summary.get("latencies");
+            for (Map.Entry<String, Map<String, Long>> histogram : latencies.entrySet()) {
+                for (Map.Entry<String, Long> value : histogram.getValue().entrySet()) {
+                    row.put(histogram.getKey() + "." + value.getKey(), value.getValue());
+                }
+            }
+            columns.addAll(row.keySet());
+            rows.add(row);
+        }
+
+        out.write(String.join(",", columns));
+        out.write('\n');
+        for (Map<String, Long> row : rows) {
+            List<String> values = new ArrayList<>();
+            for (String column : columns) {
+                Long value = row.get(column);
+                values.add(value == null ? "" : value.toString());
+            }
+            out.write(String.join(",", values));
+            out.write('\n');
+        }
+        out.flush();
+    }
+}
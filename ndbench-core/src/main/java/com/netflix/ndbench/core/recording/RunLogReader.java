@@ -0,0 +1,176 @@
+/*
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package com.netflix.ndbench.core.recording;
+
+import com.netflix.ndbench.core.monitoring.HistogramSnapshot;
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads back the {@link RunInterval}s of a run log written by {@link RunLogWriter}, in the order they were recorded.
+ * A log that ends in the middle of a record, as it does if the recording process died while writing it, is read up
+ * to the last complete interval.
+ */
+public class RunLogReader implements Closeable {
+    private final DataInputStream in;
+    private final long startMillis;
+    private final Map<Integer, String> names = new HashMap<>();
+    private final Map<Integer, long[]> layouts = new HashMap<>();
+    private final Map<String, Long> counters = new HashMap<>();
+    private long previousMillis;
+
+    /**
+     * @throws IOException if 'in' doesn't start with the header of a run log of a supported version
+     */
+    public RunLogReader(InputStream in) throws IOException {
+        this.in = new DataInputStream(in);
+        if (this.in.readInt() != RunLogWriter.MAGIC) {
+            throw new IOException("Not a run log");
+        }
+        int version = this.in.readUnsignedByte();
+        if (version != RunLogWriter.VERSION) {
+            throw new IOException("Unsupported run log version " + version);
+        }
+        this.startMillis = this.in.readLong();
+        this.previousMillis = startMillis;
+    }
+
+    public long getStartMillis() {
+        return startMillis;
+    }
+
+    /**
+     * @return the next interval of the run, or null if there is none
+     * @throws IOException if the log is corrupt
+     */
+    public RunInterval next() throws IOException {
+        try {
+            while (true) {
+                int type = in.read();
+                switch (type) {
+                    case -1:
+                        return null;
+                    case RunLogWriter.NAME:
+                        names.put((int) readVarLong(in), in.readUTF());
+                        break;
+                    case RunLogWriter.LAYOUT:
+                        readLayout();
+                        break;
+                    case RunLogWriter.INTERVAL:
+                        return readInterval();
+                    default:
+                        throw new IOException("Unknown record type " + type);
+                }
+            }
+        } catch (EOFException e) {
+            return null;
+        }
+    }
+
+    public List<RunInterval> readAll() throws IOException {
+        List<RunInterval> intervals = new ArrayList<>();
+        for (RunInterval interval = next(); interval != null; interval = next()) {
+            intervals.add(interval);
+        }
+        return intervals;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private void readLayout() throws IOException {
+        int id = (int) readVarLong(in);
+        long[] offsets = new long[(int) readVarLong(in)];
+        long previous = 0L;
+        for (int i = 0; i < offsets.length; i++) {
+            offsets[i] = previous + readVarLong(in);
+            previous = offsets[i];
+        }
+        layouts.put(id, offsets);
+    }
+
+    private RunInterval readInterval() throws IOException {
+        long timestampMillis = previousMillis + readVarLong(in);
+
+        // counters are only updated once the whole record has been read, in case it is truncated
+        Map<String, Long> intervalCounters = new LinkedHashMap<>();
+        long numCounters = readVarLong(in);
+        for (long i = 0; i < numCounters; i++) {
+            String name = name((int) readVarLong(in));
+            long delta = unZigZag(readVarLong(in));
+            intervalCounters.put(name, counters.getOrDefault(name, 0L) + delta);
+        }
+
+        Map<String, HistogramSnapshot> histograms = new LinkedHashMap<>();
+        long numHistograms = readVarLong(in);
+        for (long i = 0; i < numHistograms; i++) {
+            int id = (int) readVarLong(in);
+            long[] offsets = layouts.get(id);
+            if (offsets == null) {
+                throw new IOException("No bucket offsets for histogram " + name(id));
+            }
+            int[] indexes = new int[(int) readVarLong(in)];
+            long[] counts = new long[indexes.length];
+            int previousIndex = 0;
+            for (int j = 0; j < indexes.length; j++) {
+                indexes[j] = previousIndex + (int) unZigZag(readVarLong(in));
+                counts[j] = readVarLong(in);
+                previousIndex = indexes[j];
+            }
+            histograms.put(name(id), new HistogramSnapshot(offsets, indexes, counts));
+        }
+
+        previousMillis = timestampMillis;
+        counters.putAll(intervalCounters);
+        return new RunInterval(timestampMillis, intervalCounters, histograms);
+    }
+
+    private String name(int id) throws IOException {
+        String name = names.get(id);
+        if (name == null) {
+            throw new IOException("Undefined name id " + id);
+        }
+        return name;
+    }
+
+    static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0L;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed variable-length integer");
+    }
+
+    static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package com.netflix.ndbench.core.recording;
+
+import com.netflix.ndbench.core.monitoring.HistogramSnapshot;
+
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Appends {@link RunInterval}s to a run log, a compact binary format that a {@link RunLogReader} reads back.
+ * <p>
+ * A log starts with a header (magic number, format version, start time of the run) followed by records, each
+ * introduced by a type byte. Counter and histogram names are written once, as NAME records that assign them a
+ * numeric id, as are the bucket offsets of each histogram (LAYOUT records). INTERVAL records then only hold ids and
+ * variable-length integers: the time since the previous interval, each counter's change since the previous interval,
+ * and the non-empty buckets of each histogram. A typical interval takes a few hundred bytes.
+ * <p>
+ * Each interval is flushed as it is written, so if the process dies, at most the interval being written is lost.
+ */
+public class RunLogWriter implements Closeable {
+    static final int MAGIC = 0x4E444252;   // "NDBR"
+    static final int VERSION = 1;
+
+    static final int NAME = 1;
+    static final int LAYOUT = 2;
+    static final int INTERVAL = 3;
+
+    private final DataOutputStream out;
+    private final Map<String, Integer> nameIds = new HashMap<>();
+    private final Map<String, long[]> layouts = new HashMap<>();
+    private final Map<String, Long> previousCounters = new HashMap<>();
+    private long previousMillis;
+
+    public RunLogWriter(OutputStream out, long startMillis) throws IOException {
+        this.out = new DataOutputStream(out);
+        this.out.writeInt(MAGIC);
+        this.out.writeByte(VERSION);
+        this.out.writeLong(startMillis);
+        this.out.flush();
+        this.previousMillis = startMillis;
+    }
+
+    /**
+     * @throws IllegalArgumentException if a histogram's bucket offsets differ from those of a previous interval
+     */
+    public synchronized void write(RunInterval interval) throws IOException {
+        // ids and layouts are defined ahead of the interval, so that the interval record itself is written in one go
+        for (String name : interval.getCounters().keySet()) {
+            nameId(name);
+        }
+        for (Map.Entry<String, HistogramSnapshot> entry : interval.getHistograms().entrySet()) {
+            layout(entry.getKey(), entry.getValue().getBucketOffsets());
+        }
+
+        out.writeByte(INTERVAL);
+        writeVarLong(out, interval.getTimestampMillis() - previousMillis);
+        previousMillis = interval.getTimestampMillis();
+
+        writeVarLong(out, interval.getCounters().size());
+        for (Map.Entry<String, Long> entry : interval.getCounters().entrySet()) {
+            Long previous = previousCounters.put(entry.getKey(), entry.getValue());
+            writeVarLong(out, nameIds.get(entry.getKey()));
+            writeVarLong(out, zigZag(entry.getValue() - (previous == null ? 0L : previous)));
+        }
+
+        writeVarLong(out, interval.getHistograms().size());
+        for (Map.Entry<String, HistogramSnapshot> entry : interval.getHistograms().entrySet()) {
+            int[] indexes = entry.getValue().getIndexes();
+            long[] counts = entry.getValue().getCounts();
+            writeVarLong(out, nameIds.get(entry.getKey()));
+            writeVarLong(out, indexes.length);
+            int previousIndex = 0;
+            for (int i = 0; i < indexes.length; i++) {
+                writeVarLong(out, zigZag(indexes[i] - previousIndex));
+                writeVarLong(out, counts[i]);
+                previousIndex = indexes[i];
+            }
+        }
+        out.flush();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        out.close();
+    }
+
+    private int nameId(String name) throws IOException {
+        Integer id = nameIds.get(name);
+        if (id == null) {
+            id = nameIds.size();
+            nameIds.put(name, id);
+            out.writeByte(NAME);
+            writeVarLong(out, id);
+            out.writeUTF(name);
+        }
+        return id;
+    }
+
+    private void layout(String name, long[] offsets) throws IOException {
+        int id = nameId(name);
+        long[] layout = layouts.get(name);
+        if (layout == null) {
+            layouts.put(name, offsets.clone());
+            out.writeByte(LAYOUT);
+            writeVarLong(out, id);
+            writeVarLong(out, offsets.length);
+            long previous = 0L;
+            for (long offset : offsets) {
+                writeVarLong(out, offset - previous);
+                previous = offset;
+            }
+        } else if (!Arrays.equals(layout, offsets)) {
+            throw new IllegalArgumentException("Bucket offsets of histogram " + name + " changed during the run");
+        }
+    }
+
+    /**
+     * Writes a non-negative value in 7-bit groups, least significant group first
+     */
+    static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0L) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package com.netflix.ndbench.core.recording;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.netflix.ndbench.api.plugin.NdBenchMonitor;
+import com.netflix.ndbench.core.config.IConfiguration;
+import com.netflix.ndbench.core.monitoring.HistogramDeltaTracker;
+import com.netflix.ndbench.core.monitoring.HistogramSnapshot;
+import com.netflix.ndbench.core.monitoring.HistogramSource;
+import com.netflix.ndbench.core.util.EstimatedHistogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records benchmark runs to run logs in {@link IConfiguration#getRunRecordingDir()}, one file per run, if
+ * {@link IConfiguration#isRunRecordingEnabled()} is set. The driver calls {@link #onInterval} on every stats update;
+ * a run starts with the first update at which any load is running, and ends with the first one at which none is.
+ * <p>
+ * Histograms are recorded as deltas to the previous interval, see {@link HistogramDeltaTracker}.
+ */
+@Singleton
+public class RunRecorder {
+    private static final Logger Logger = LoggerFactory.getLogger(RunRecorder.class);
+
+    public static final String FILE_SUFFIX = ".ndbr";
+
+    private final IConfiguration config;
+    private final NdBenchMonitor monitor;
+
+    private RunLogWriter writer;                                    // guarded by this
+    private String currentRun;                                      // guarded by this
+    private final HistogramDeltaTracker deltas = new HistogramDeltaTracker();
+
+    @Inject
+    public RunRecorder(IConfiguration config, NdBenchMonitor monitor) {
+        this.config = config;
+        this.monitor = monitor;
+    }
+
+    /**
+     * Records the interval that just ended, starting or ending a run as needed
+     *
+     * @param loadRunning whether any reads, writes or workload mix are running
+     */
+    public synchronized void onInterval(boolean loadRunning) {
+        long now = System.currentTimeMillis();
+        try {
+            if (writer == null) {
+                if (!loadRunning || !config.isRunRecordingEnabled()) {
+                    return;
+                }
+                open(now);
+            }
+            writer.write(snapshot(now));
+            if (!loadRunning) {
+                Logger.info("Finished recording run {}", currentRun);
+                close();
+            }
+        } catch (Exception e) {
+            // recording is a side show, it mustn't stop the benchmark
+            Logger.error("Failed to record run " + currentRun + ", recording stopped", e);
+            close();
+        }
+    }
+
+    /**
+     * Ends the current recording, if any, without waiting for the load to stop
+     */
+    public synchronized void stop() {
+        if (writer != null) {
+            Logger.info("Stopped recording run {}", currentRun);
+            close();
+        }
+    }
+
+    public synchronized String getCurrentRun() {
+        return currentRun;
+    }
+
+    /**
+     * @return the names of the recorded runs, oldest first
+     */
+    public List<String> listRuns() {
+        List<String> runs = new ArrayList<>();
+        File[] files = new File(config.getRunRecordingDir()).listFiles((dir, name) -> name.endsWith(FILE_SUFFIX));
+        if (files != null) {
+            Arrays.sort(files);
+            for (File file : files) {
+                runs.add(file.getName().substring(0, file.getName().length() - FILE_SUFFIX.length()));
+            }
+        }
+        return runs;
+    }
+
+    /**
+     * @throws IllegalArgumentException if 'run' isn't the name of a recorded run
+     */
+    public File getRunFile(String run) {
+        if (!listRuns().contains(run)) {
+            throw new IllegalArgumentException("No recorded run named " + run);
+        }
+        return new File(config.getRunRecordingDir(), run + FILE_SUFFIX);
+    }
+
+    private void open(long now) throws IOException {
+        File dir = new File(config.getRunRecordingDir());
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Can't create run recording directory " + dir);
+        }
+        // never reuses the log of another run, e.g. of another driver that shares the directory and started as well
+        String name = "run-" + new SimpleDateFormat("yyyyMMdd-HHmmss-SSS").format(new Date(now));
+        String run = name;
+        File file = new File(dir, run + FILE_SUFFIX);
+        OutputStream out = null;
+        for (int attempt = 1; out == null; attempt++) {
+            try {
+                out = Files.newOutputStream(file.toPath(), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            } catch (FileAlreadyExistsException e) {
+                run = name + "-" + attempt;
+                file = new File(dir, run + FILE_SUFFIX);
+            }
+        }
+        writer = new RunLogWriter(new BufferedOutputStream(out), now);
+        currentRun = run;
+        deltas.clear();
+        Logger.info("Recording run {} to {}", run, file);
+    }
+
+    private void close() {
+        try {
+            if (writer != null) {
+                writer.close();
+            }
+        } catch (IOException e) {
+            Logger.warn("Failed to close log of run {}", currentRun, e);
+        }
+        writer = null;
+        currentRun = null;
+    }
+
+    private RunInterval snapshot(long now) {
+        Map<String, Long> counters = new LinkedHashMap<>();
+        counters.put("readSuccess", monitor.getReadSuccess());
+        counters.put("readFailure", monitor.getReadFailure());
+        counters.put("writeSuccess", monitor.getWriteSuccess());
+        counters.put("writeFailure", monitor.getWriteFailure());
+        counters.put("readRPS", monitor.getReadRPS());
+        counters.put("writeRPS", monitor.getWriteRPS());
+        counters.put("readItems", monitor.getReadItems());
+        counters.put("writeItems", monitor.getWriteItems());
+        counters.put("cacheHits", monitor.getCacheHits());
+        counters.put("cacheMiss", monitor.getCacheMiss());
+        counters.put("readVerificationFailures", monitor.getReadVerificationFailures());
+        counters.put("readStaleValues", monitor.getReadStaleValues());
+        counters.put("readSchedulerLagMicros", monitor.getReadSchedulerLagMicros());
+        counters.put("writeSchedulerLagMicros", monitor.getWriteSchedulerLagMicros());
+
+        Map<String, HistogramSnapshot> histograms = new LinkedHashMap<>();
+        if (monitor instanceof HistogramSource) {
+            for (Map.Entry<String, EstimatedHistogram> entry : ((HistogramSource) monitor).histograms().entrySet()) {
+                histograms.put(entry.getKey(), deltas.delta(entry.getKey(), entry.getValue()));
+            }
+        }
+        return new RunInterval(now, counters, histograms);
+    }
+}
@@ -137,6 +137,9 @@ public class NDBenchConfigResource {
                         case NdBenchConstants.WRITE_RATE_LIMIT:
                             ndBenchDriver.onWriteRateLimitChange();
                             break;
+                        case NdBenchConstants.MIX_RATE_LIMIT:
+                            ndBenchDriver.onMixRateLimitChange();
+                            break;
                     }
                 }
             }
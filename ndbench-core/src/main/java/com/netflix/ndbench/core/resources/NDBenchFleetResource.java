@@ -0,0 +1,188 @@
+/*
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package com.netflix.ndbench.core.resources;
+
+import com.google.inject.Inject;
+import com.netflix.ndbench.core.config.IConfiguration;
+import com.netflix.ndbench.core.fleet.FleetAssignment;
+import com.netflix.ndbench.core.fleet.FleetCoordinator;
+import com.netflix.ndbench.core.fleet.FleetMember;
+import com.netflix.ndbench.core.fleet.FleetRun;
+import com.netflix.ndbench.core.util.LoadPattern;
+import org.slf4j.LoggerFactory;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.ws.rs.*;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static com.netflix.ndbench.core.util.RestUtil.*;
+
+/**
+ * Coordinated runs across all nodes of an application. The /run endpoints are called on the coordinating node;
+ * /assign and /stop are called by the coordinator on each node of the fleet.
+ */
+@Path("/ndbench/fleet")
+public class NDBenchFleetResource {
+    private static final org.slf4j.Logger Logger = LoggerFactory.getLogger(NDBenchFleetResource.class);
+
+    private final FleetCoordinator coordinator;
+    private final FleetMember member;
+    private final IConfiguration config;
+
+    @Context
+    HttpServletRequest request;
+
+    @Inject
+    public NDBenchFleetResource(FleetCoordinator coordinator, FleetMember member, IConfiguration config) {
+        this.coordinator = coordinator;
+        this.member = member;
+        this.config = config;
+    }
+
+    /**
+     * Partitions the key space and rates across the nodes of 'appname' and starts them together. Totals default to
+     * this node's configuration; note that nodes of the fleet have their numKeys and rate limits overwritten with
+     * their share, so they should be passed explicitly if this node is part of the fleet.
+     */
+    @Path("/run/{appname}/start")
+    @GET
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response startRun(@PathParam("appname") String appname,
+                             @DefaultValue("-1") @QueryParam("numKeys") long numKeys,
+                             @DefaultValue("-1") @QueryParam("readRateLimit") int readRateLimit,
+                             @DefaultValue("-1") @QueryParam("writeRateLimit") int writeRateLimit,
+                             @DefaultValue("true") @QueryParam("reads") boolean reads,
+                             @DefaultValue("true") @QueryParam("writes") boolean writes,
+                             @DefaultValue("random") @QueryParam("loadPattern") String loadPattern,
+                             @DefaultValue("-1") @QueryParam("windowSize") long windowSize,
+                             @DefaultValue("-1") @QueryParam("durationInSec") long durationInSec) throws Exception {
+        try {
+            LoadPattern loadPatternType = LoadPattern.fromString(loadPattern);
+            if (loadPatternType == null) {
+                return sendErrorResponse("Input validation Failure: unknown loadPattern " + loadPattern);
+            }
+            if ((loadPatternType.equals(LoadPattern.SLIDING_WINDOW) || loadPatternType.equals(LoadPattern.SLIDING_WINDOW_FLIP))
+                    && (windowSize < 1 || durationInSec < 1)) {
+                return sendErrorResponse("Input validation Failure: WindowSize and DurationInSeconds can not be less than 1, provided: windowSize: "
+                        + windowSize + ", durationInSec: " + durationInSec);
+            }
+            FleetRun run = new FleetRun(
+                    numKeys > 0 ? numKeys : config.getNumKeys(),
+                    readRateLimit > 0 ? readRateLimit : config.getReadRateLimit(),
+                    writeRateLimit > 0 ? writeRateLimit : config.getWriteRateLimit(),
+                    loadPatternType.getText(),
+                    windowSize,
+                    durationInSec,
+                    reads,
+                    writes);
+            Map<String, FleetAssignment> assignments = coordinator.start(appname, request.getServerPort(), run);
+            Logger.info("Started fleet run of {} on {} nodes", appname, assignments.size());
+            return sendJson(describe(assignments));
+        } catch (Exception e) {
+            Logger.error("Error starting fleet run of " + appname, e);
+            return sendErrorResponse("NdBench fleet start failed! " + e.getMessage());
+        }
+    }
+
+    @Path("/run/stop")
+    @GET
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response stopRun() throws Exception {
+        try {
+            coordinator.stop();
+            return sendSuccessResponse("NdBench fleet run stopped!");
+        } catch (Exception e) {
+            Logger.error("Error stopping fleet run", e);
+            return sendErrorResponse("NdBench fleet stop failed! " + e.getMessage());
+        }
+    }
+
+    /**
+     * Stats of the whole fleet, see {@link FleetCoordinator#getStats()}
+     */
+    @Path("/run/stats")
+    @GET
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response runStats() throws Exception {
+        try {
+            return sendJson(coordinator.getStats());
+        } catch (Exception e) {
+            Logger.error("Error getting fleet stats", e);
+            return sendErrorResponse("NdBench fleet stats failed! " + e.getMessage());
+        }
+    }
+
+    @Path("/run/status")
+    @GET
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response runStatus() throws Exception {
+        try {
+            Map<String, Object> status = new LinkedHashMap<>();
+            status.put("IsRunning", coordinator.isRunning());
+            status.put("AppName", coordinator.getAppName());
+            status.put("Assignments", describe(coordinator.getAssignments()));
+            return sendJson(status);
+        } catch (Exception e) {
+            Logger.error("Error getting fleet status", e);
+            return sendErrorResponse("NdBench fleet status failed! " + e.getMessage());
+        }
+    }
+
+    @Path("/assign")
+    @POST
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response assign(Map<String, String> assignment) throws Exception {
+        try {
+            member.apply(FleetAssignment.fromMap(assignment));
+            return sendSuccessResponse("Fleet assignment applied");
+        } catch (Exception e) {
+            Logger.error("Error applying fleet assignment " + assignment, e);
+            return sendErrorResponse("NdBench fleet assign failed! " + e.getMessage());
+        }
+    }
+
+    @Path("/stop")
+    @GET
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response stop() throws Exception {
+        try {
+            member.stop();
+            return sendSuccessResponse("Fleet assignment stopped");
+        } catch (Exception e) {
+            Logger.error("Error stopping fleet assignment", e);
+            return sendErrorResponse("NdBench fleet member stop failed! " + e.getMessage());
+        }
+    }
+
+    private static Map<String, Map<String, String>> describe(Map<String, FleetAssignment> assignments) {
+        Map<String, Map<String, String>> description = new LinkedHashMap<>();
+        for (Map.Entry<String, FleetAssignment> entry : assignments.entrySet()) {
+            description.put(entry.getKey(), entry.getValue().toMap());
+        }
+        return description;
+    }
+}
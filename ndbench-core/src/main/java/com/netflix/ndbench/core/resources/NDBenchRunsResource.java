@@ -0,0 +1,115 @@
+/*
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package com.netflix.ndbench.core.resources;
+
+import com.google.inject.Inject;
+import com.netflix.ndbench.core.recording.RunInterval;
+import com.netflix.ndbench.core.recording.RunLogExporter;
+import com.netflix.ndbench.core.recording.RunLogReader;
+import com.netflix.ndbench.core.recording.RunRecorder;
+import org.slf4j.LoggerFactory;
+
+import javax.ws.rs.*;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import java.io.BufferedInputStream;
+import java.io.FileInputStream;
+import java.io.StringWriter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.netflix.ndbench.core.util.RestUtil.*;
+
+/**
+ * Runs recorded by {@link RunRecorder}, for comparing runs after the fact
+ */
+@Path("/ndbench/runs")
+public class NDBenchRunsResource {
+    private static final org.slf4j.Logger Logger = LoggerFactory.getLogger(NDBenchRunsResource.class);
+
+    private final RunRecorder recorder;
+
+    @Inject
+    public NDBenchRunsResource(RunRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    @Path("/list")
+    @GET
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response list() throws Exception {
+        try {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("runs", recorder.listRuns());
+            result.put("recording", recorder.getCurrentRun());
+            return sendJson(result);
+        } catch (Exception e) {
+            Logger.error("Error listing recorded runs", e);
+            return sendErrorResponse("NdBench run listing failed! " + e.getMessage());
+        }
+    }
+
+    /**
+     * Ends the current recording without stopping the load; the next run is recorded as usual
+     */
+    @Path("/stopRecording")
+    @GET
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response stopRecording() throws Exception {
+        try {
+            recorder.stop();
+            return sendSuccessResponse("NdBench run recording stopped!");
+        } catch (Exception e) {
+            Logger.error("Error stopping run recording", e);
+            return sendErrorResponse("NdBench run recording stop failed! " + e.getMessage());
+        }
+    }
+
+    /**
+     * Per-interval counters and latency percentiles of a recorded run, see {@link RunLogExporter}
+     *
+     * @param format json, or csv for one line per interval
+     */
+    @Path("/{run}/export")
+    @GET
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces({MediaType.APPLICATION_JSON, "text/csv"})
+    public Response export(@PathParam("run") String run,
+                           @DefaultValue("json") @QueryParam("format") String format) throws Exception {
+        try {
+            if (!"json".equalsIgnoreCase(format) && !"csv".equalsIgnoreCase(format)) {
+                return sendErrorResponse("Input validation Failure: unknown format " + format);
+            }
+            List<RunInterval> intervals;
+            try (RunLogReader reader = new RunLogReader(new BufferedInputStream(new FileInputStream(recorder.getRunFile(run))))) {
+                intervals = reader.readAll();
+            }
+            if ("csv".equalsIgnoreCase(format)) {
+                StringWriter csv = new StringWriter();
+                RunLogExporter.writeCsv(intervals, csv);
+                return Response.ok(csv.toString(), "text/csv").build();
+            }
+            return sendJson(RunLogExporter.summarize(intervals));
+        } catch (Exception e) {
+            Logger.error("Error exporting run " + run, e);
+            return sendErrorResponse("NdBench run export failed! " + e.getMessage());
+        }
+    }
+}
@@ -27,6 +27,9 @@ import com.netflix.ndbench.core.NdBenchClientFactory;
 import com.netflix.ndbench.core.NdBenchDriver;
 import com.netflix.ndbench.core.config.IConfiguration;
 import com.netflix.ndbench.core.generators.KeyGenerator;
+import com.netflix.ndbench.core.monitoring.HistogramSnapshot;
+import com.netflix.ndbench.core.monitoring.HistogramSource;
+import com.netflix.ndbench.core.util.EstimatedHistogram;
 import com.netflix.ndbench.core.util.LoadPattern;
 import com.sun.jersey.multipart.FormDataParam;
 import groovy.lang.GroovyClassLoader;
@@ -38,6 +41,7 @@ import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 import static com.netflix.ndbench.core.util.RestUtil.*;
@@ -178,6 +182,23 @@ public class NdBenchResource {
 
 
 
+    /**
+     * The progress of the current or last backfill: keys and chunks done, throughput and estimated time to go
+     */
+    @Path("/dataFillStatus")
+    @GET
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getDataFillStatus() throws Exception {
+
+        try {
+            return sendJson(dataBackfill.getStatus());
+        } catch (Exception e) {
+            Logger.error("Error getting datafill status", e);
+            return sendErrorResponse("dataFill status failed! " + e.getMessage());
+        }
+    }
+
     @Path("/shutdownDataFill")
     @GET
     @Consumes(MediaType.APPLICATION_JSON)
@@ -215,7 +236,7 @@ public class NdBenchResource {
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.APPLICATION_JSON)
     public Response start(@DefaultValue("random") @QueryParam("loadPattern") String loadPattern,
-                          @DefaultValue("-1")  @QueryParam("windowSize") int windowSize,
+                          @DefaultValue("-1")  @QueryParam("windowSize") long windowSize,
                           @DefaultValue("-1") @QueryParam("durationInSec") long durationInSec) throws Exception {
         try {
             LoadPattern loadPatternType = LoadPattern.fromString(loadPattern);
@@ -239,7 +260,7 @@ public class NdBenchResource {
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.APPLICATION_JSON)
     public Response startReads(@DefaultValue("random") @QueryParam("loadPattern") String loadPattern,
-                               @DefaultValue("-1")  @QueryParam("windowSize") int windowSize,
+                               @DefaultValue("-1")  @QueryParam("windowSize") long windowSize,
                                @DefaultValue("-1") @QueryParam("durationInSec") long durationInSec) throws Exception {
         try {
             LoadPattern loadPatternType = LoadPattern.fromString(loadPattern);
@@ -273,12 +294,52 @@ public class NdBenchResource {
         }
     }
 
+    @Path("/startMix")
+    @GET
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response startMix(@DefaultValue("random") @QueryParam("loadPattern") String loadPattern,
+                             @DefaultValue("-1")  @QueryParam("windowSize") long windowSize,
+                             @DefaultValue("-1") @QueryParam("durationInSec") long durationInSec) throws Exception {
+        try {
+            LoadPattern loadPatternType = LoadPattern.fromString(loadPattern);
+            Result validationResult = validateLoadPatternParams(loadPatternType, windowSize, durationInSec);
+            if (validationResult.isSuccess) {
+                ndBenchDriver.startMix(loadPatternType, windowSize, durationInSec);
+                Logger.info("Starting NdBench workload mix");
+                return sendSuccessResponse("NDBench workload mix started");
+            } else {
+                return sendResult(validationResult);
+            }
+
+        } catch (Exception e) {
+            Logger.error("Error starting NdBench workload mix", e);
+            return sendErrorResponse("NdBench startMix failed! " + e.getMessage());
+        }
+    }
+
+    @Path("/stopMix")
+    @GET
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response stopMix() throws Exception {
+
+        Logger.info("stopping NdBench workload mix");
+        try {
+            ndBenchDriver.stopMix();
+            return sendSuccessResponse("NdBench workload mix stopped!");
+        } catch (Exception e) {
+            Logger.error("Error stopping NdBench workload mix", e);
+            return sendErrorResponse("NdBench stopMix failed! " + e.getMessage());
+        }
+    }
+
     @Path("/startWrites")
     @GET
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.APPLICATION_JSON)
     public Response startWrites(@DefaultValue("random") @QueryParam("loadPattern") String loadPattern,
-                                @DefaultValue("-1")  @QueryParam("windowSize") int windowSize,
+                                @DefaultValue("-1")  @QueryParam("windowSize") long windowSize,
                                 @DefaultValue("-1") @QueryParam("durationInSec") long durationInSec) throws Exception {
 
         try {
@@ -375,6 +436,62 @@ public class NdBenchResource {
         }
     }
 
+    /**
+     * State of auto-tuning, including the capacity the SLO auto-tuners have discovered so far
+     */
+    @Path("/autotune")
+    @GET
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getAutoTuneStatus() throws Exception {
+
+        try {
+            return sendJson(ndBenchDriver.getAutoTuneStatus());
+        } catch (Exception e) {
+            Logger.error("Error getting NdBench auto-tune status", e);
+            return sendErrorResponse("NdBench auto-tune status failed! " + e.getMessage());
+        }
+    }
+
+    @Path("/rateprofile")
+    @GET
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getRateProfileStatus() throws Exception {
+
+        try {
+            return sendJson(ndBenchDriver.getRateProfileStatus());
+        } catch (Exception e) {
+            Logger.error("Error getting NdBench rate profile status", e);
+            return sendErrorResponse("NdBench rate profile status failed! " + e.getMessage());
+        }
+    }
+
+    /**
+     * The latency histograms of the current stats interval, which can be merged across nodes, unlike the percentiles
+     * reported by /stats
+     */
+    @Path("/histograms")
+    @GET
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getHistograms() throws Exception {
+
+        try {
+            if (!(ndBenchMonitor instanceof HistogramSource)) {
+                return sendErrorResponse("Monitor " + ndBenchMonitor.getClass().getSimpleName() + " does not keep histograms");
+            }
+            Map<String, HistogramSnapshot> snapshots = new LinkedHashMap<>();
+            for (Map.Entry<String, EstimatedHistogram> entry : ((HistogramSource) ndBenchMonitor).histograms().entrySet()) {
+                snapshots.put(entry.getKey(), HistogramSnapshot.of(entry.getValue()));
+            }
+            return sendJson(snapshots);
+        } catch (Exception e) {
+            Logger.error("Error getting NdBench histograms", e);
+            return sendErrorResponse("NdBench histograms failed! " + e.getMessage());
+        }
+    }
+
     @Path("/getReadStatus")
     @GET
     @Consumes(MediaType.APPLICATION_JSON)
@@ -483,6 +600,8 @@ public class NdBenchResource {
             serverStatusJson.put("ConnectionInfo",connectionInfo);
             serverStatusJson.put("IsReadsRunning", ndBenchDriver.getIsReadRunning());
             serverStatusJson.put("IsWritesRunning", ndBenchDriver.getIsWriteRunning());
+            serverStatusJson.put("IsMixRunning", ndBenchDriver.getIsMixRunning());
+            serverStatusJson.put("WorkerExecutorMode", ndBenchDriver.getWorkerExecutorMode());
             serverStatusJson.put("Stats",ndBenchMonitor);
             serverStatusJson.put("DriverConfig",config);
             serverStatusJson.put("IsBackfillRunning",dataBackfill.getIsBackfillRunning());
@@ -521,7 +640,7 @@ public class NdBenchResource {
             Logger.error(returnMsg);
             return new ErrorResponse(returnMsg);
         }
-        if(loadPattern.equals(LoadPattern.SLIDING_WINDOW)) {
+        if(loadPattern.equals(LoadPattern.SLIDING_WINDOW) || loadPattern.equals(LoadPattern.SLIDING_WINDOW_FLIP)) {
             if (windowSize < 1 || durationInSec < 1) {
                 returnMsg+="WindowSize and DurationInSeconds can not be less than 1, provided: windowSize: "+windowSize+", durationInSec: "+durationInSec;
                 Logger.error(returnMsg);
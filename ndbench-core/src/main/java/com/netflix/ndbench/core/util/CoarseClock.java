@@ -0,0 +1,59 @@
+/*
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package com.netflix.ndbench.core.util;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A wall clock that is advanced by a background thread every few milliseconds, so that code which needs the time for
+ * every operation (such as key generators whose key space moves over time) reads a volatile field rather than
+ * calling {@link System#currentTimeMillis()}.
+ */
+public final class CoarseClock {
+    public static final long RESOLUTION_MILLIS = 10L;
+
+    private static final CoarseClock SHARED = new CoarseClock();
+
+    private volatile long nowMillis = System.currentTimeMillis();
+
+    private CoarseClock() {
+        ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ndbench-coarse-clock");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(() -> nowMillis = System.currentTimeMillis(),
+                RESOLUTION_MILLIS, RESOLUTION_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return the clock shared by the whole process, started on first use
+     */
+    public static CoarseClock shared() {
+        return SHARED;
+    }
+
+    /**
+     * @return the current time in milliseconds, at most {@link #RESOLUTION_MILLIS} (plus scheduling delays) behind
+     * {@link System#currentTimeMillis()}
+     */
+    public long currentTimeMillis() {
+        return nowMillis;
+    }
+}
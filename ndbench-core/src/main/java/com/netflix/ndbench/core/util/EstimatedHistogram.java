@@ -92,6 +92,14 @@ public class EstimatedHistogram {
      * @param n
      */
     public void add(long n)
+    {
+        buckets.incrementAndGet(indexOf(n));
+    }
+
+    /**
+     * @return the index of the bucket closest to n, rounding UP
+     */
+    int indexOf(long n)
     {
         int index = Arrays.binarySearch(bucketOffsets, n);
         if (index < 0)
@@ -100,7 +108,21 @@ public class EstimatedHistogram {
             index = -index - 1;
         }
         // else exact match; we're good
-        buckets.incrementAndGet(index);
+        return index;
+    }
+
+    /**
+     * Adds the given counts to this histogram's buckets.
+     * @param counts bucket counts of a histogram with the same bucket offsets as this one
+     */
+    public void addBuckets(long[] counts)
+    {
+        assert counts.length == buckets.length();
+        for (int i = 0; i < counts.length; i++)
+        {
+            if (counts[i] != 0)
+                buckets.addAndGet(i, counts[i]);
+        }
     }
 
     /**
@@ -0,0 +1,129 @@
+/*
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package com.netflix.ndbench.core.util;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Records values into per-thread bucket arrays, and merges them into an {@link EstimatedHistogram} per interval
+ * on demand, in the spirit of HdrHistogram's Recorder.
+ * <p>
+ * Recording threads never write to shared memory: each one increments the buckets of its own array, bracketed by
+ * two writes to its own epoch counters. To take a snapshot, the reader swaps each thread's array for an empty one,
+ * then waits for the thread to finish any write that may still target the old array before merging it. Hence every
+ * recorded value ends up in exactly one interval, even if it is recorded while the interval is being reset.
+ */
+public class IntervalHistogramRecorder {
+    private final int bucketCount;
+    private final EstimatedHistogram layout;
+    private final List<Writer> writers = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<Writer> localWriter = ThreadLocal.withInitial(this::newWriter);
+
+    private EstimatedHistogram interval;    // guarded by this
+
+    public IntervalHistogramRecorder(int bucketCount) {
+        this.bucketCount = bucketCount;
+        this.layout = new EstimatedHistogram(bucketCount);
+        this.interval = new EstimatedHistogram(bucketCount);
+    }
+
+    public void record(long value) {
+        localWriter.get().record(layout.indexOf(value));
+    }
+
+    /**
+     * @return a histogram of the values recorded since the last call to {@link #reset()}. The returned histogram
+     * remains owned by this recorder, which will keep adding values to it until the next reset.
+     */
+    public synchronized EstimatedHistogram current() {
+        drain();
+        return interval;
+    }
+
+    /**
+     * Ends the current interval and starts a new, empty one.
+     *
+     * @return a histogram of the values recorded during the interval that just ended
+     */
+    public synchronized EstimatedHistogram reset() {
+        drain();
+        EstimatedHistogram completed = interval;
+        interval = new EstimatedHistogram(bucketCount);
+        return completed;
+    }
+
+    private void drain() {
+        for (Writer writer : writers) {
+            boolean ownerAlive = writer.owner.isAlive();
+            interval.addBuckets(writer.swap());
+            if (!ownerAlive) {
+                // the owner was dead before we swapped, so it can't have recorded into the array we just installed
+                writers.remove(writer);
+            }
+        }
+    }
+
+    private Writer newWriter() {
+        Writer writer = new Writer(Thread.currentThread(), bucketCount + 1);
+        writers.add(writer);
+        return writer;
+    }
+
+    private static final class Writer {
+        private final Thread owner;
+
+        // written by the owning thread only
+        private volatile long startedEpoch = 0L;
+        private volatile long finishedEpoch = 0L;
+
+        private volatile long[] active;
+        private long[] spare;                   // guarded by the recorder's lock
+
+        Writer(Thread owner, int length) {
+            this.owner = owner;
+            this.active = new long[length];
+            this.spare = new long[length];
+        }
+
+        void record(int index) {
+            long epoch = startedEpoch + 1;
+            startedEpoch = epoch;
+            active[index]++;
+            finishedEpoch = epoch;
+        }
+
+        /**
+         * Installs an empty array for the owner to record into, and returns the counts recorded into the previous
+         * one. The returned array is only valid until the next call to this method.
+         */
+        long[] swap() {
+            long[] previous = active;
+            Arrays.fill(spare, 0L);
+            active = spare;
+
+            // any write that started before the swap may still be incrementing 'previous'
+            long epoch = startedEpoch;
+            while (finishedEpoch < epoch) {
+                Thread.yield();
+            }
+            spare = previous;
+            return previous;
+        }
+    }
+}
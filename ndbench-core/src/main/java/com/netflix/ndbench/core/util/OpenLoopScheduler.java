@@ -0,0 +1,51 @@
+/*
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package com.netflix.ndbench.core.util;
+
+import com.google.common.util.concurrent.RateLimiter;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Hands out the intended start times of operations that are issued at a fixed rate, independently of how long
+ * previously issued operations took to complete.
+ * <p>
+ * Unlike its closed-loop parent, this scheduler never skips slots: if the target system stalls, slots keep accruing
+ * in the past and workers will issue the queued up operations back to back once they are free again. Since latency
+ * is measured from each slot's intended start time, the time those operations spent waiting for a worker is
+ * included in the recorded latency (and in the scheduler lag.)
+ */
+public class OpenLoopScheduler extends ParkingPermitScheduler {
+
+    public OpenLoopScheduler(AtomicReference<RateLimiter> rateLimiter, long spinThresholdNanos) {
+        super(rateLimiter, spinThresholdNanos);
+    }
+
+    OpenLoopScheduler(AtomicReference<RateLimiter> rateLimiter, long spinThresholdNanos, long scheduleStartNanos) {
+        super(rateLimiter, spinThresholdNanos, scheduleStartNanos);
+    }
+
+    @Override
+    public boolean isOpenLoop() {
+        return true;
+    }
+
+    @Override
+    long claimNextSlot() {
+        return nextSlotNanos.getAndAdd(currentIntervalNanos());
+    }
+}
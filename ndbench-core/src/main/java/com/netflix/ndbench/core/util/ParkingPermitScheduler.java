@@ -0,0 +1,115 @@
+/*
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package com.netflix.ndbench.core.util;
+
+import com.google.common.util.concurrent.RateLimiter;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Paces operations by handing out start times ("slots") spaced 1 / rate apart, and parking workers until their slot
+ * arrives, so waiting workers don't consume any CPU.
+ * <p>
+ * The rate is taken from the driver's current rate limiter, so rate limit changes take effect for all slots claimed
+ * after the change. Slots are never handed out in the past: if all workers are busy when a slot comes due, the
+ * schedule restarts from the time the next worker becomes free (i.e. the scheduler is closed-loop, and no burst of
+ * operations is issued to catch up.)
+ * <p>
+ * Since the OS may wake a parked thread late by up to a timer tick, workers are woken 'spinThresholdNanos' ahead of
+ * their slot and yield until it arrives, which bounds the jitter of the start times at the cost of a little CPU.
+ */
+public class ParkingPermitScheduler implements PermitScheduler {
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final AtomicReference<RateLimiter> rateLimiter;
+    private final long spinThresholdNanos;
+    private final AtomicLong maxLagNanos = new AtomicLong(0L);
+
+    final AtomicLong nextSlotNanos;
+
+    // cached so we don't contend on the rate limiter's internal mutex for every slot. Races between workers that
+    // notice a new limiter at the same time are benign, since they all compute the same interval.
+    private volatile RateLimiter lastSeenLimiter;
+    private volatile long intervalNanos;
+
+    public ParkingPermitScheduler(AtomicReference<RateLimiter> rateLimiter, long spinThresholdNanos) {
+        this(rateLimiter, spinThresholdNanos, System.nanoTime());
+    }
+
+    ParkingPermitScheduler(AtomicReference<RateLimiter> rateLimiter, long spinThresholdNanos, long scheduleStartNanos) {
+        this.rateLimiter = rateLimiter;
+        this.spinThresholdNanos = Math.max(0L, spinThresholdNanos);
+        this.nextSlotNanos = new AtomicLong(scheduleStartNanos);
+    }
+
+    @Override
+    public long acquire() throws InterruptedException {
+        long slotNanos = claimNextSlot();
+        awaitSlot(slotNanos);
+
+        long releasedNanos = System.nanoTime();
+        long lag = releasedNanos - slotNanos;
+        if (lag > maxLagNanos.get()) {
+            maxLagNanos.accumulateAndGet(lag, Math::max);
+        }
+        // closed-loop latencies are measured from the release, so that wake-up lag doesn't count as latency
+        return isOpenLoop() ? slotNanos : releasedNanos;
+    }
+
+    @Override
+    public long getAndResetMaxLagNanos() {
+        return maxLagNanos.getAndSet(0L);
+    }
+
+    /**
+     * @return the start time of the next free slot, without waiting for that time to arrive
+     */
+    long claimNextSlot() {
+        long interval = currentIntervalNanos();
+        while (true) {
+            long next = nextSlotNanos.get();
+            long slot = Math.max(next, System.nanoTime());
+            if (nextSlotNanos.compareAndSet(next, slot + interval)) {
+                return slot;
+            }
+        }
+    }
+
+    long currentIntervalNanos() {
+        RateLimiter limiter = rateLimiter.get();
+        if (limiter != lastSeenLimiter) {
+            intervalNanos = Math.max(1L, (long) (NANOS_PER_SECOND / limiter.getRate()));
+            lastSeenLimiter = limiter;
+        }
+        return intervalNanos;
+    }
+
+    private void awaitSlot(long slotNanos) throws InterruptedException {
+        long remaining;
+        while ((remaining = slotNanos - System.nanoTime()) > spinThresholdNanos) {
+            LockSupport.parkNanos(this, remaining - spinThresholdNanos);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+        while (slotNanos - System.nanoTime() > 0) {
+            Thread.yield();
+        }
+    }
+}
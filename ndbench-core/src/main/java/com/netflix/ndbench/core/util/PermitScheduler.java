@@ -0,0 +1,46 @@
+/*
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package com.netflix.ndbench.core.util;
+
+/**
+ * Decides when a worker may issue its next operation, given the rate limit of that operation.
+ */
+public interface PermitScheduler {
+
+    /**
+     * Blocks the calling worker until it may issue its next operation.
+     *
+     * @return the time from which the operation's latency is measured, in terms of {@link System#nanoTime()}: the
+     * time the worker was released, or for open-loop schedulers, the time the operation was scheduled to start
+     * @throws InterruptedException if the calling worker was interrupted while waiting
+     */
+    long acquire() throws InterruptedException;
+
+    /**
+     * @return whether {@link #acquire} returns scheduled start times, which latencies are measured from even if the
+     * operation is held up after its worker was released
+     */
+    default boolean isOpenLoop() {
+        return false;
+    }
+
+    /**
+     * @return the largest delay (in nanoseconds) between the scheduled start of an operation and the time its worker
+     * was actually released, over all operations since the last call to this method
+     */
+    long getAndResetMaxLagNanos();
+}
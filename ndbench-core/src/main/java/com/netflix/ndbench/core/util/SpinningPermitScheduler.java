@@ -0,0 +1,51 @@
+/*
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package com.netflix.ndbench.core.util;
+
+import com.google.common.util.concurrent.RateLimiter;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Legacy scheduler which spins on {@link RateLimiter#tryAcquire()} until a permit is available. This keeps a core
+ * busy per waiting worker, so it should only be used to compare results against older runs.
+ */
+public class SpinningPermitScheduler implements PermitScheduler {
+    private final AtomicReference<RateLimiter> rateLimiter;
+
+    public SpinningPermitScheduler(AtomicReference<RateLimiter> rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    public long acquire() throws InterruptedException {
+        while (!rateLimiter.get().tryAcquire()) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+        return System.nanoTime();
+    }
+
+    /**
+     * @return always 0, since permits are not tied to a schedule
+     */
+    @Override
+    public long getAndResetMaxLagNanos() {
+        return 0L;
+    }
+}
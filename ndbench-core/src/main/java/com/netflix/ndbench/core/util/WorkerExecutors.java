@@ -0,0 +1,86 @@
+/*
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package com.netflix.ndbench.core.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Creates the executors that back the driver's read and write workers.
+ * <p>
+ * Virtual threads are looked up reflectively, so that this class compiles against (and runs on) the Java 8 baseline,
+ * while JDK 21+ runtimes get to use them.
+ */
+public final class WorkerExecutors {
+    private static final Logger logger = LoggerFactory.getLogger(WorkerExecutors.class);
+
+    public static final String PLATFORM = "platform";
+    public static final String VIRTUAL = "virtual";
+
+    private static final Method NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR = findVirtualThreadFactoryMethod();
+
+    private WorkerExecutors() {
+    }
+
+    /**
+     * @return true if the running JVM supports virtual threads
+     */
+    public static boolean isVirtualThreadSupported() {
+        return NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR != null;
+    }
+
+    /**
+     * @return the mode that {@link #newWorkerPool} will actually use for 'requestedMode' on this JVM
+     */
+    public static String effectiveMode(String requestedMode) {
+        if (VIRTUAL.equalsIgnoreCase(requestedMode)) {
+            if (isVirtualThreadSupported()) {
+                return VIRTUAL;
+            }
+            logger.warn("Virtual threads are not supported by this JVM ({}), falling back to {} threads",
+                    System.getProperty("java.version"), PLATFORM);
+        }
+        return PLATFORM;
+    }
+
+    /**
+     * Returns an executor able to run 'numWorkers' long running workers at once: either a fixed pool of platform
+     * threads, or an executor that starts a new virtual thread per worker.
+     */
+    public static ExecutorService newWorkerPool(String mode, int numWorkers) {
+        if (VIRTUAL.equals(effectiveMode(mode))) {
+            try {
+                return (ExecutorService) NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                logger.warn("Failed to create virtual thread executor, falling back to " + PLATFORM + " threads", e);
+            }
+        }
+        return Executors.newFixedThreadPool(numWorkers);
+    }
+
+    private static Method findVirtualThreadFactoryMethod() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
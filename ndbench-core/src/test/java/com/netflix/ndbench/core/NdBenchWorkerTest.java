@@ -0,0 +1,237 @@
+package com.netflix.ndbench.core;
+
+import com.netflix.ndbench.api.plugin.DataGenerator;
+import com.netflix.ndbench.api.plugin.NdBenchClient;
+import com.netflix.ndbench.api.plugin.NdBenchMonitor;
+import com.netflix.ndbench.core.generators.KeyGenerator;
+import com.netflix.ndbench.core.generators.KeyTraceWriter;
+import com.netflix.ndbench.core.generators.TraceReplayKeyGenerator;
+import com.netflix.ndbench.core.operations.WriteOperation;
+import com.netflix.ndbench.core.util.PermitScheduler;
+import org.junit.After;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class NdBenchWorkerTest {
+    private final NdBenchMonitor monitor = mock(NdBenchMonitor.class);
+    private final StubClient client = new StubClient();
+    private Thread worker;
+
+    @After
+    public void stopWorker() throws Exception {
+        worker.interrupt();
+        worker.join(5000);
+    }
+
+    @Test
+    public void testAsyncOperationsInFlightAreCappedPerWorker() throws Exception {
+        startAsyncWorker(3);
+
+        CompletableFuture<String> first = client.nextWrite();
+        assertNotNull(client.nextWrite());
+        assertNotNull(client.nextWrite());
+        assertNull(client.writes.poll(200, TimeUnit.MILLISECONDS));      // blocked with 3 writes in flight
+
+        first.complete("Ok");
+        assertNotNull(client.nextWrite());
+        assertNull(client.writes.poll(200, TimeUnit.MILLISECONDS));
+        verify(monitor).incWriteSuccess();
+    }
+
+    @Test
+    public void testFailedAsyncOperationsAreCountedAndReleaseTheirPermit() throws Exception {
+        startAsyncWorker(1);
+
+        for (int i = 0; i < 5; i++) {
+            client.nextWrite().completeExceptionally(new RuntimeException("write failed"));
+        }
+        assertNotNull(client.nextWrite());      // each failure freed the worker's only permit
+        verify(monitor, times(5)).incWriteFailure();
+        verify(monitor, never()).incWriteSuccess();
+    }
+
+    @Test
+    public void testWaitsForTheTimesOfTracedKeysAreNotCountedAsLatency() throws Exception {
+        Path file = Files.createTempFile("keys", ".ndbt");
+        try {
+            try (OutputStream out = Files.newOutputStream(file); KeyTraceWriter writer = new KeyTraceWriter(out)) {
+                writer.write(0L, KeyTraceWriter.ANY, new byte[]{'a'});
+                writer.write(300_000L, KeyTraceWriter.ANY, new byte[]{'b'});
+            }
+            TraceReplayKeyGenerator keyGenerator = new TraceReplayKeyGenerator(file, true, 1.0, false);
+            keyGenerator.init();
+            long start = System.nanoTime();
+            startWorker(keyGenerator, 0, false);
+            worker.join(5000);
+
+            assertTrue(System.nanoTime() - start >= 300_000_000L);
+            assertThat(client.keys.subList(0, 2), is(equalTo(Arrays.asList("a", "b"))));
+            ArgumentCaptor<Long> latencies = ArgumentCaptor.forClass(Long.class);
+            verify(monitor, atLeastOnce()).recordWriteLatency(latencies.capture());
+            for (long latencyMicros : latencies.getAllValues()) {
+                assertTrue("latency of " + latencyMicros + "us includes the trace's gap", latencyMicros < 150_000L);
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testTracedKeysLongerThanTheDefaultKeyBufferArePassedAsBytes() throws Exception {
+        byte[] longKey = new byte[4096];
+        Arrays.fill(longKey, (byte) 'k');
+        Path file = Files.createTempFile("keys", ".ndbt");
+        try {
+            try (OutputStream out = Files.newOutputStream(file); KeyTraceWriter writer = new KeyTraceWriter(out)) {
+                writer.write(0L, KeyTraceWriter.ANY, longKey);
+            }
+            TraceReplayKeyGenerator keyGenerator = new TraceReplayKeyGenerator(file, true, 0.0, false);
+            keyGenerator.init();
+            startWorker(keyGenerator, 0, true);
+            worker.join(5000);
+
+            assertThat(client.keys.get(0), is(equalTo(new String(longKey, StandardCharsets.UTF_8))));
+            verify(monitor, times(client.keys.size())).incWriteSuccess();
+            verify(monitor, never()).incWriteFailure();
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private void startAsyncWorker(int maxInFlight) {
+        startWorker(new EndlessKeyGenerator(), maxInFlight, false);
+    }
+
+    private void startWorker(KeyGenerator<String> keyGenerator, int maxInFlight, boolean isBinary) {
+        NdBenchWorker ndBenchWorker = new NdBenchWorker(null, monitor, new WriteOperation<>(client),
+                keyGenerator, new AtomicReference<>(), new UnlimitedPermitScheduler(),
+                new AtomicBoolean(true), () -> {}, maxInFlight, 1, isBinary);
+        worker = new Thread(() -> {
+            try {
+                ndBenchWorker.call();
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        worker.start();
+    }
+
+    private static class StubClient implements NdBenchClient {
+        private final BlockingQueue<CompletableFuture<String>> writes = new LinkedBlockingQueue<>();
+        private final List<String> keys = new CopyOnWriteArrayList<>();
+
+        CompletableFuture<String> nextWrite() throws InterruptedException {
+            return writes.poll(5, TimeUnit.SECONDS);
+        }
+
+        @Override
+        public CompletionStage<String> writeAsync(String key) {
+            CompletableFuture<String> write = new CompletableFuture<>();
+            writes.add(write);
+            return write;
+        }
+
+        @Override
+        public void init(DataGenerator dataGenerator) {
+        }
+
+        @Override
+        public String readSingle(String key) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String writeSingle(String key) {
+            keys.add(key);
+            return "Ok";
+        }
+
+        @Override
+        public String writeSingleBinary(ByteBuffer key) {
+            keys.add(StandardCharsets.UTF_8.decode(key).toString());
+            return "Ok";
+        }
+
+        @Override
+        public void shutdown() {
+        }
+
+        @Override
+        public String getConnectionInfo() {
+            return null;
+        }
+
+        @Override
+        public String runWorkFlow() {
+            return null;
+        }
+    }
+
+    private static class EndlessKeyGenerator implements KeyGenerator<String> {
+        private long next;
+
+        @Override
+        public void init() {
+        }
+
+        @Override
+        public String getNextKey() {
+            return "T" + next++;
+        }
+
+        @Override
+        public boolean hasNextKey() {
+            return true;
+        }
+
+        @Override
+        public boolean isPreLoadKeys() {
+            return false;
+        }
+
+        @Override
+        public long getNumKeys() {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    private static class UnlimitedPermitScheduler implements PermitScheduler {
+        @Override
+        public long acquire() {
+            return System.nanoTime();
+        }
+
+        @Override
+        public long getAndResetMaxLagNanos() {
+            return 0L;
+        }
+    }
+}
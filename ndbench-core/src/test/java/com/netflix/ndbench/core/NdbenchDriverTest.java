@@ -1,6 +1,5 @@
 package com.netflix.ndbench.core;
 
-import com.google.common.util.concurrent.RateLimiter;
 import com.netflix.archaius.api.inject.RuntimeLayer;
 import com.netflix.archaius.guice.ArchaiusModule;
 import com.netflix.archaius.test.Archaius2TestConfig;
@@ -10,17 +9,20 @@ import com.netflix.ndbench.api.plugin.DataGenerator;
 import com.netflix.ndbench.api.plugin.NdBenchClient;
 import com.netflix.ndbench.api.plugin.NdBenchMonitor;
 import com.netflix.ndbench.api.plugin.common.NdBenchConstants;
+import com.netflix.ndbench.core.autotune.AutoTuneController;
 import com.netflix.ndbench.core.config.IConfiguration;
 import com.netflix.ndbench.core.defaultimpl.NdBenchGuiceModule;
-import com.netflix.ndbench.core.operations.WriteOperation;
+import com.netflix.ndbench.core.recording.RunRecorder;
+import com.netflix.ndbench.core.util.LoadPattern;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
 import javax.inject.Inject;
-import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -44,32 +46,43 @@ public class NdbenchDriverTest {
 
 
     @Test
-    public void testInvokingProcessMethodOnWriteOperationSetsNewRateLimit() throws Exception {
+    public void testAutoTuneControllerAppliesRateRecommendedByPlugin() throws Exception {
         NdBenchClient mockClientPlugin = mock(NdBenchClient.class);
-        when(mockClientPlugin.writeSingle(anyString())).thenReturn("foo");
         when(mockClientPlugin.
                 autoTuneWriteRateLimit(anyDouble(), anyString(), any(NdBenchMonitor.class))).
                 thenReturn(500D);
 
-        NdBenchMonitor  mockMonitor = mock(NdBenchMonitor .class);
-        doNothing().when(mockMonitor).recordReadLatency(anyLong());
-        doNothing().when(mockMonitor).incWriteSuccess();
+        NdBenchDriver driver = spy(new NdBenchDriver(config, ndBenchMonitor, dataGenerator, settableConfig,
+                new RunRecorder(config, ndBenchMonitor)));
+        doReturn(mockClientPlugin).when(driver).getClient();
+        doReturn(false).when(driver).getIsReadRunning();
+        doReturn(true).when(driver).getIsWriteRunning();
 
-        when(mockClientPlugin.writeSingle(anyString())).thenReturn("foo");
-
-        NdBenchDriver driver = new NdBenchDriver(config, ndBenchMonitor, dataGenerator, settableConfig);
-        WriteOperation writeOperation = new WriteOperation(mockClientPlugin);
-
-        writeOperation.
-                process(driver, mockMonitor, "some-key", new AtomicReference<>(RateLimiter.create(100)), true);
+        // tuning happens once per interval on the controller's thread, rather than after every write
+        new AutoTuneController(driver, config, ndBenchMonitor).tick();
 
         int rateFromSettableConfig = settableConfig.getInteger(NdBenchConstants.WRITE_RATE_LIMIT_FULL_NAME);
-
-
         assertEquals(rateFromSettableConfig , 500D, .001);
+        verify(mockClientPlugin, never()).autoTuneReadRateLimit(anyDouble(), anyString(), any(NdBenchMonitor.class));
+    }
 
-        // Next check won't work unless we figure out how to configure Property Listener to kick in during the test run
-        //double rateFromDriverRateLimiter = driver.getWriteLimiter().get().getRate();
-        //assertEquals(rateFromDriverRateLimiter, 500D, .001);
+    @Test
+    public void testMixWithOperationUnsupportedByPluginIsRejectedBeforeStarting() throws Exception {
+        settableConfig.setProperty(NdBenchConstants.PROP_NAMESPACE + "workloadMix", "read:70,delete:30");
+        NdBenchClient mockClientPlugin = mock(NdBenchClient.class);
+        when(mockClientPlugin.supportsDeletes()).thenReturn(false);
+
+        NdBenchDriver driver = new NdBenchDriver(config, ndBenchMonitor, dataGenerator, settableConfig,
+                new RunRecorder(config, ndBenchMonitor));
+        driver.init(mockClientPlugin);
+        try {
+            driver.startMix(LoadPattern.RANDOM, -1, -1);
+            fail("Expected the workload mix to be rejected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        } finally {
+            driver.shutdownClient();
+        }
+        assertFalse(driver.getIsMixRunning());
     }
 }
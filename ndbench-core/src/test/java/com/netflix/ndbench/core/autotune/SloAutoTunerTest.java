@@ -0,0 +1,62 @@
+package com.netflix.ndbench.core.autotune;
+
+import com.netflix.ndbench.core.util.EstimatedHistogram;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class SloAutoTunerTest {
+    private static final long TARGET_P99 = 10_000L;
+
+    @Test
+    public void testRateDoublesUntilFirstViolationThenGrowsAdditively() throws Exception {
+        SloAutoTuner tuner = new SloAutoTuner("writes", 100, TARGET_P99, 0.01, 50, 0.5, 1_000_000);
+
+        assertThat(tuner.onInterval(1000, 0, 2000, 100), is(equalTo(200.0)));
+        assertThat(tuner.onInterval(2000, 0, 3000, 200), is(equalTo(400.0)));
+        assertThat(tuner.onInterval(4000, 0, 20_000, 400), is(equalTo(200.0)));      // p99 over target
+        assertThat(tuner.getPhase(), is(equalTo(SloAutoTuner.Phase.CONGESTION_AVOIDANCE)));
+        assertThat(tuner.onInterval(2000, 0, 3000, 200), is(equalTo(250.0)));
+        assertThat(tuner.onInterval(2500, 0, 3000, 250), is(equalTo(300.0)));
+        assertThat(tuner.onInterval(2900, 100, 3000, 300), is(equalTo(150.0)));     // failure ratio over target
+        assertThat(tuner.getCapacity(), is(equalTo(250.0)));
+    }
+
+    @Test
+    public void testRateHoldsWhenClientFallsShortOfIt() throws Exception {
+        SloAutoTuner tuner = new SloAutoTuner("reads", 1000, TARGET_P99, 0.01, 50, 0.5, 1_000_000);
+
+        assertThat(tuner.onInterval(5000, 0, 2000, 500), is(equalTo(1000.0)));
+        assertThat(tuner.getCapacity(), is(equalTo(0.0)));
+        assertThat(tuner.onInterval(0, 0, 0, 0), is(equalTo(1000.0)));              // no operations, no information
+    }
+
+    @Test
+    public void testRateStaysWithinBounds() throws Exception {
+        SloAutoTuner tuner = new SloAutoTuner("reads", 600, TARGET_P99, 0.01, 50, 0.5, 1000);
+        assertThat(tuner.onInterval(600, 0, 100, 600), is(equalTo(1000.0)));
+        assertThat(tuner.onInterval(1000, 0, 100, 1000), is(equalTo(1000.0)));
+
+        SloAutoTuner slow = new SloAutoTuner("reads", 1, TARGET_P99, 0.01, 50, 0.5, 1000);
+        assertThat(slow.onInterval(1, 0, 50_000, 1), is(equalTo(SloAutoTuner.MIN_RATE)));
+    }
+
+    @Test
+    public void testIntervalStatsAreDerivedFromCumulativeStats() throws Exception {
+        SloAutoTuner tuner = new SloAutoTuner("reads", 100, TARGET_P99, 0.01, 50, 0.5, 1_000_000);
+        EstimatedHistogram latencies = new EstimatedHistogram(180);
+        for (int i = 0; i < 100; i++) {
+            latencies.add(1000);
+        }
+        assertThat(tuner.onStats(100, 0, latencies, 1.0), is(equalTo(200.0)));
+
+        // the first interval was fast, the second one is slow: only the second one's latencies count
+        for (int i = 0; i < 100; i++) {
+            latencies.add(50_000);
+        }
+        assertThat(tuner.onStats(200, 0, latencies, 1.0), is(equalTo(100.0)));
+        assertThat(tuner.getStatus().get("lastP99Micros"), is(equalTo((Object) latencies.percentile(0.99))));
+    }
+}
@@ -0,0 +1,208 @@
+package com.netflix.ndbench.core.backfill;
+
+import com.netflix.ndbench.api.plugin.DataGenerator;
+import com.netflix.ndbench.api.plugin.NdBenchClient;
+import com.netflix.ndbench.core.config.IConfiguration;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class BackfillEngineTest {
+    @Test
+    public void testEveryKeyIsWrittenOnce() throws Exception {
+        StubClient client = new StubClient();
+        BackfillEngine engine = new BackfillEngine(client, BackfillMode.NORMAL, 1, 1001, 4, 37, 10, 1, 0, 0,
+                BackfillCheckpoint.inMemory(BackfillMode.NORMAL, 1, 1001, 37));
+        engine.start();
+        engine.awaitTermination();
+
+        assertWrittenOnce(client, 1, 1001);
+        // 27 chunks of 37 keys in 4 batches each, and a last chunk of a single key written on its own
+        assertThat(client.batches.get(), is(equalTo(108)));
+        assertTrue(engine.isComplete());
+        assertThat(engine.getStatus().get("keysDone"), is(equalTo((Object) 1000L)));
+        assertThat(engine.getStatus().get("chunksDone"), is(equalTo((Object) 28L)));
+    }
+
+    @Test
+    public void testAsynchronousWrites() throws Exception {
+        StubClient client = new StubClient();
+        BackfillEngine engine = new BackfillEngine(client, BackfillMode.NORMAL, 0, 500, 2, 100, 1, 8, 0, 0,
+                BackfillCheckpoint.inMemory(BackfillMode.NORMAL, 0, 500, 100));
+        engine.start();
+        engine.awaitTermination();
+
+        assertWrittenOnce(client, 0, 500);
+        assertTrue(engine.isComplete());
+    }
+
+    @Test
+    public void testConditionalBackfillOnlyWritesMissingKeys() throws Exception {
+        StubClient client = new StubClient();
+        BackfillEngine engine = new BackfillEngine(client, BackfillMode.CONDITIONAL, 0, 100, 1, 10, 5, 1, 0, 0,
+                BackfillCheckpoint.inMemory(BackfillMode.CONDITIONAL, 0, 100, 10));
+        engine.start();
+        engine.awaitTermination();
+
+        assertThat(client.writes.size(), is(equalTo(50)));
+        assertTrue(client.writes.containsKey("T1"));
+        assertFalse(client.writes.containsKey("T2"));
+        assertThat(engine.getStatus().get("missCount"), is(equalTo((Object) 50L)));
+    }
+
+    @Test
+    public void testConfiguredRangeIsOffsetByTheNodesKeyRange() throws Exception {
+        IConfiguration config = mock(IConfiguration.class);
+        when(config.getKeyRangeStart()).thenReturn(1000L);
+        when(config.getBackfillStartKey()).thenReturn(1L);
+        when(config.getNumKeys()).thenReturn(100L);
+        when(config.getNumBackfill()).thenReturn(2);
+        when(config.getBackfillChunkSize()).thenReturn(10);
+        when(config.getBackfillBatchSize()).thenReturn(5);
+        when(config.getBackfillMaxInFlight()).thenReturn(1);
+
+        StubClient client = new StubClient();
+        BackfillEngine engine = new BackfillEngine(client, BackfillMode.NORMAL, config);
+        engine.start();
+        engine.awaitTermination();
+
+        // the node's keys T1000 .. T1099, less those before the backfill's start key
+        assertWrittenOnce(client, 1001, 1100);
+        assertTrue(engine.isComplete());
+    }
+
+    @Test
+    public void testAbandonedChunkIsRetriedOnResume() throws Exception {
+        Path dir = Files.createTempDirectory("backfill");
+        StubClient failing = new StubClient();
+        failing.failingKey = "T55";
+        BackfillEngine first = new BackfillEngine(failing, BackfillMode.NORMAL, 0, 100, 2, 10, 1, 1, 0, 1,
+                BackfillCheckpoint.open(dir, BackfillMode.NORMAL, 0, 100, 10));
+        first.start();
+        first.awaitTermination();
+
+        assertFalse(first.isComplete());
+        assertThat(first.getStatus().get("chunksFailed"), is(equalTo((Object) 1L)));
+        assertThat(fileCount(dir), is(equalTo(1L)));
+
+        StubClient resumed = new StubClient();
+        BackfillEngine second = new BackfillEngine(resumed, BackfillMode.NORMAL, 0, 100, 2, 10, 1, 1, 0, 1,
+                BackfillCheckpoint.open(dir, BackfillMode.NORMAL, 0, 100, 10));
+        second.start();
+        second.awaitTermination();
+
+        assertWrittenOnce(resumed, 50, 60);
+        assertTrue(second.isComplete());
+        assertThat(second.getStatus().get("keysResumed"), is(equalTo((Object) 90L)));
+        assertThat(fileCount(dir), is(equalTo(0L)));      // deleted once complete
+    }
+
+    @Test
+    public void testCheckpointOfAnotherBackfillIsNotResumed() throws Exception {
+        Path dir = Files.createTempDirectory("backfill");
+        BackfillCheckpoint checkpoint = BackfillCheckpoint.open(dir, BackfillMode.NORMAL, 0, 100, 10);
+        checkpoint.markDone(3);
+        checkpoint.save();
+
+        assertTrue(BackfillCheckpoint.open(dir, BackfillMode.NORMAL, 0, 100, 10).isDone(3));
+        assertFalse(BackfillCheckpoint.open(dir, BackfillMode.VERIFY, 0, 100, 10).isDone(3));
+        assertFalse(BackfillCheckpoint.open(dir, BackfillMode.NORMAL, 0, 200, 10).isDone(3));
+    }
+
+    @Test
+    public void testFailedSaveIsRetriedByTheNextSave() throws Exception {
+        Path dir = Files.createTempDirectory("backfill");
+        BackfillCheckpoint checkpoint = BackfillCheckpoint.open(dir, BackfillMode.NORMAL, 0, 100, 10);
+        checkpoint.markDone(3);
+        Path temp = checkpoint.getFile().resolveSibling(checkpoint.getFile().getFileName() + ".tmp");
+        Files.createDirectory(temp);    // makes writing the temp file fail
+        try {
+            checkpoint.save();
+            fail("Expected the save to fail");
+        } catch (IOException e) {
+            // expected
+        }
+        Files.delete(temp);
+
+        checkpoint.save();
+        assertTrue(BackfillCheckpoint.open(dir, BackfillMode.NORMAL, 0, 100, 10).isDone(3));
+    }
+
+    private static void assertWrittenOnce(StubClient client, long start, long end) {
+        assertThat((long) client.writes.size(), is(equalTo(end - start)));
+        for (long k = start; k < end; k++) {
+            assertThat(client.writes.get("T" + k).get(), is(equalTo(1)));
+        }
+    }
+
+    private static long fileCount(Path dir) throws Exception {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.count();
+        }
+    }
+
+    private static class StubClient implements NdBenchClient {
+        private final Map<String, AtomicInteger> writes = new ConcurrentHashMap<>();
+        private final AtomicInteger batches = new AtomicInteger();
+        private volatile String failingKey;
+
+        @Override
+        public void init(DataGenerator dataGenerator) {
+        }
+
+        @Override
+        public String readSingle(String key) {
+            return Long.parseLong(key.substring(1)) % 2 == 0 ? "value" : null;
+        }
+
+        @Override
+        public String writeSingle(String key) throws Exception {
+            if (key.equals(failingKey)) {
+                throw new Exception("Write of " + key + " failed");
+            }
+            writes.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet();
+            return "Ok";
+        }
+
+        @Override
+        public List<String> writeBatch(List<String> keys) throws Exception {
+            batches.incrementAndGet();
+            List<String> results = new ArrayList<>();
+            for (String key : keys) {
+                results.add(writeSingle(key));
+            }
+            return results;
+        }
+
+        @Override
+        public void shutdown() {
+        }
+
+        @Override
+        public String getConnectionInfo() {
+            return null;
+        }
+
+        @Override
+        public String runWorkFlow() {
+            return null;
+        }
+    }
+}
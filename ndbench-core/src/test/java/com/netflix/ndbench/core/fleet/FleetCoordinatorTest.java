@@ -0,0 +1,191 @@
+package com.netflix.ndbench.core.fleet;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.netflix.archaius.api.config.SettableConfig;
+import com.netflix.ndbench.api.plugin.common.NdBenchConstants;
+import com.netflix.ndbench.core.NdBenchDriver;
+import com.netflix.ndbench.core.config.IConfiguration;
+import com.netflix.ndbench.core.discovery.IClusterDiscovery;
+import com.netflix.ndbench.core.util.LoadPattern;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class FleetCoordinatorTest {
+    private final IConfiguration config = mock(IConfiguration.class);
+    private final StubDiscovery discovery = new StubDiscovery();
+    private final StubFleetClient client = new StubFleetClient();
+    private final FleetCoordinator coordinator = new FleetCoordinator(discovery, config, client);
+
+    @Before
+    public void setUp() {
+        when(config.getFleetStartDelayMillis()).thenReturn(0);
+        when(config.getFleetRebalanceIntervalSeconds()).thenReturn(3600);   // rebalanced by the tests instead
+    }
+
+    @Test
+    public void testUnchangedFleetIsNotRebalanced() throws Exception {
+        discovery.endpoints = Arrays.asList("a", "b");
+        coordinator.start("app", 8080, run(-1));
+        client.clear();
+
+        coordinator.rebalance();
+
+        assertTrue(client.assigned.isEmpty());
+        assertTrue(client.stopped.isEmpty());
+        assertThat(new ArrayList<>(coordinator.getAssignments().keySet()), is(equalTo(Arrays.asList("a", "b"))));
+    }
+
+    @Test
+    public void testNodeThatFailsItsAssignmentIsLeftOutAndNotRetriedOnEveryCheck() throws Exception {
+        discovery.endpoints = Arrays.asList("a", "b", "c");
+        client.failing.add("c");
+
+        Map<String, FleetAssignment> assignments = coordinator.start("app", 8080, run(-1));
+
+        assertThat(new ArrayList<>(assignments.keySet()), is(equalTo(Arrays.asList("a", "b"))));
+        assertThat(assignments.get("a").getReadRateLimit() + assignments.get("b").getReadRateLimit(), is(equalTo(1000)));
+        assertThat(assignments.get("b").getKeyRangeStart() + assignments.get("b").getNumKeys(), is(equalTo(1000L)));
+
+        client.clear();
+        coordinator.rebalance();
+        assertTrue(client.assigned.isEmpty());
+    }
+
+    @Test
+    public void testJoiningNodeGetsItsShareForTheRemainingDuration() throws Exception {
+        discovery.endpoints = Arrays.asList("a", "b");
+        coordinator.start("app", 8080, run(600));
+        client.clear();
+
+        discovery.endpoints = Arrays.asList("a", "b", "c");
+        coordinator.rebalance();
+
+        assertThat(client.assigned.size(), is(equalTo(3)));
+        for (FleetAssignment assignment : client.assigned) {
+            assertTrue(Math.abs(assignment.getReadRateLimit() - 333) <= 1);
+            assertTrue(assignment.getDurationInSec() <= 600 && assignment.getDurationInSec() >= 599);
+        }
+        assertTrue(client.stopped.isEmpty());
+    }
+
+    @Test
+    public void testDepartingNodeIsStoppedAndItsShareSpreadAcrossTheRest() throws Exception {
+        discovery.endpoints = Arrays.asList("a", "b", "c");
+        coordinator.start("app", 8080, run(-1));
+        client.clear();
+
+        discovery.endpoints = Arrays.asList("a", "b");
+        coordinator.rebalance();
+
+        assertThat(client.stopped, is(equalTo(Collections.singletonList("c"))));
+        assertThat(new ArrayList<>(coordinator.getAssignments().keySet()), is(equalTo(Arrays.asList("a", "b"))));
+        assertThat(coordinator.getAssignments().get("a").getNumKeys(), is(equalTo(500L)));
+    }
+
+    @Test
+    public void testRunIsForgottenOnceItsDurationHasPassed() throws Exception {
+        when(config.getFleetStartDelayMillis()).thenReturn(-2000);   // started two seconds ago
+        discovery.endpoints = Arrays.asList("a", "b");
+        coordinator.start("app", 8080, run(1));
+        client.clear();
+
+        discovery.endpoints = Arrays.asList("a", "b", "c");
+        coordinator.rebalance();
+
+        assertFalse(coordinator.isRunning());
+        assertTrue(client.assigned.isEmpty());
+    }
+
+    @Test
+    public void testStopStopsEveryAssignedNode() throws Exception {
+        discovery.endpoints = Arrays.asList("a", "b");
+        coordinator.start("app", 8080, run(-1));
+
+        coordinator.stop();
+
+        assertThat(new HashSet<>(client.stopped), is(equalTo(new HashSet<>(Arrays.asList("a", "b")))));
+        assertFalse(coordinator.isRunning());
+        assertTrue(coordinator.getAssignments().isEmpty());
+    }
+
+    @Test
+    public void testMemberAppliesItsAssignmentAndStartsAtTheStartTime() throws Exception {
+        NdBenchDriver driver = mock(NdBenchDriver.class);
+        SettableConfig settableConfig = mock(SettableConfig.class);
+
+        new FleetMember(driver, settableConfig).apply(
+                new FleetAssignment(100, 50, 20, 0, "random", -1, -1, true, false, 0L));
+
+        verify(settableConfig).setProperty(NdBenchConstants.PROP_NAMESPACE + FleetAssignment.KEY_RANGE_START, "100");
+        verify(settableConfig).setProperty(NdBenchConstants.PROP_NAMESPACE + FleetAssignment.NUM_KEYS, "50");
+        verify(settableConfig).setProperty(NdBenchConstants.PROP_NAMESPACE + FleetAssignment.READ_RATE_LIMIT, "20");
+        verify(driver).onReadRateLimitChange();
+        verify(driver, timeout(5000)).startReads(LoadPattern.RANDOM, -1, -1);
+    }
+
+    private static FleetRun run(long durationInSec) {
+        return new FleetRun(1000, 1000, 1000, "random", -1, durationInSec, true, true);
+    }
+
+    private static class StubDiscovery implements IClusterDiscovery {
+        private volatile List<String> endpoints = Collections.emptyList();
+
+        @Override
+        public List<String> getApps() {
+            return Collections.singletonList("app");
+        }
+
+        @Override
+        public List<String> getEndpoints(String appName, int defaultPort) {
+            return endpoints;
+        }
+    }
+
+    // records the requests of the coordinator, which makes them from several threads at once
+    private static class StubFleetClient extends FleetClient {
+        private final List<FleetAssignment> assigned = Collections.synchronizedList(new ArrayList<>());
+        private final List<String> stopped = Collections.synchronizedList(new ArrayList<>());
+        private final Set<String> failing = Collections.synchronizedSet(new HashSet<>());
+
+        @Override
+        <T> T get(String endpoint, String path, TypeReference<T> type) throws IOException {
+            if (FleetCoordinator.STOP_PATH.equals(path)) {
+                stopped.add(endpoint);
+            }
+            return null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        void post(String endpoint, String path, Object body) throws IOException {
+            if (failing.contains(endpoint)) {
+                throw new IOException("Connection refused: " + endpoint);
+            }
+            assigned.add(FleetAssignment.fromMap((Map<String, String>) body));
+        }
+
+        void clear() {
+            assigned.clear();
+            stopped.clear();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.netflix.ndbench.core.fleet;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class FleetRunTest {
+    @Test
+    public void testPartitionCoversKeySpaceAndRatesExactly() throws Exception {
+        FleetRun run = new FleetRun(1000, 2_000_000, 101, "random", -1, -1, true, true);
+        Map<String, FleetAssignment> assignments = run.partition(Arrays.asList("c:8080", "a:8080", "b:8080"), 42L);
+
+        assertThat(new ArrayList<>(assignments.keySet()), is(equalTo(Arrays.asList("a:8080", "b:8080", "c:8080"))));
+        long nextKey = 0;
+        long reads = 0;
+        long writes = 0;
+        for (FleetAssignment assignment : assignments.values()) {
+            assertThat(assignment.getKeyRangeStart(), is(equalTo(nextKey)));
+            assertTrue(Math.abs(assignment.getNumKeys() - 1000 / 3) <= 1);
+            assertThat(assignment.getStartAtMillis(), is(equalTo(42L)));
+            nextKey += assignment.getNumKeys();
+            reads += assignment.getReadRateLimit();
+            writes += assignment.getWriteRateLimit();
+        }
+        assertThat(nextKey, is(equalTo(1000L)));
+        assertThat(reads, is(equalTo(2_000_000L)));
+        assertThat(writes, is(equalTo(101L)));
+    }
+
+    @Test
+    public void testPartitionOfKeySpaceBeyondIntRange() throws Exception {
+        long numKeys = 10_000_000_000L;
+        FleetRun run = new FleetRun(numKeys, 300, 300, "random", -1, -1, true, true);
+        Map<String, FleetAssignment> assignments = run.partition(Arrays.asList("a", "b", "c"), 0L);
+
+        assertThat(assignments.get("b").getKeyRangeStart(), is(equalTo(3_333_333_333L)));
+        assertThat(assignments.get("c").getKeyRangeStart() + assignments.get("c").getNumKeys(), is(equalTo(numKeys)));
+        assertThat(FleetAssignment.fromMap(assignments.get("c").toMap()).getNumKeys(), is(equalTo(3_333_333_334L)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRatesMustCoverEveryNode() throws Exception {
+        new FleetRun(1000, 2, 100, "random", -1, -1, true, false).partition(Arrays.asList("a", "b", "c"), 0L);
+    }
+
+    @Test
+    public void testAssignmentsSurviveTheWire() throws Exception {
+        List<String> endpoints = Arrays.asList("a", "b");
+        FleetAssignment sent = new FleetRun(10, 10, 10, "zipfian", -1, -1, true, false)
+                .partition(endpoints, 7L).get("b");
+        FleetAssignment received = FleetAssignment.fromMap(sent.toMap());
+
+        assertThat(received.toMap(), is(equalTo(sent.toMap())));
+        assertThat(received.getKeyRangeStart(), is(equalTo(5L)));
+        assertTrue(received.isReads());
+        assertFalse(received.isWrites());
+        assertFalse(received.getConfig().containsKey(FleetAssignment.WRITE_RATE_LIMIT));
+    }
+}
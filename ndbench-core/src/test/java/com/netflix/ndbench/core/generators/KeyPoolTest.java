@@ -0,0 +1,78 @@
+package com.netflix.ndbench.core.generators;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class KeyPoolTest {
+    @Test
+    public void testCachedKeysAreReused() throws Exception {
+        KeyPool keyPool = new KeyPool(100, true);
+        String key = keyPool.getKey(42);
+        assertThat(key, is(equalTo("T42")));
+        assertSame(key, keyPool.getKey(42));
+        assertThat(keyPool.getKey(100), is(equalTo("T100")));      // outside of the pool, built on demand
+    }
+
+    @Test
+    public void testEncodedKeysMatchKeys() throws Exception {
+        KeyPool keyPool = new KeyPool(10, false);
+        byte[] buffer = new byte[24];
+        for (long index : new long[]{0, 7, 10, 99, 100, 12345, Integer.MAX_VALUE, 10_000_000_000L, Long.MAX_VALUE,
+                -1, -10, -100, Integer.MIN_VALUE, Long.MIN_VALUE}) {
+            int length = KeyPool.encodeKey(index, buffer, 2);
+            assertThat(length, is(equalTo(KeyPool.encodedLength(index))));
+            assertThat(new String(buffer, 2, length, StandardCharsets.US_ASCII), is(equalTo(keyPool.getKey(index))));
+        }
+    }
+
+    @Test
+    public void testKeysStartAtFirstKey() throws Exception {
+        KeyPool keyPool = new KeyPool(500, 100, true);
+        byte[] buffer = new byte[16];
+        assertThat(keyPool.getKey(0), is(equalTo("T500")));
+        assertThat(keyPool.getKey(99), is(equalTo("T599")));
+        int length = keyPool.encode(42, buffer, 0);
+        assertThat(new String(buffer, 0, length, StandardCharsets.US_ASCII), is(equalTo("T542")));
+    }
+
+    @Test
+    public void testKeySpacesBeyondIntRange() throws Exception {
+        KeyPool keyPool = new KeyPool(5_000_000_000L, 3_000_000_000L, true);
+        assertFalse(keyPool.isCaching());   // too large for a cache
+        assertThat(keyPool.getKey(2_999_999_999L), is(equalTo("T7999999999")));
+
+        KeyGenerator<String> keys = new RandomStringKeyGenrator(false, keyPool, new RandomSource(7L, RandomSource.KEY_STREAM));
+        keys.init();
+        assertThat(keys.getNumKeys(), is(equalTo(3_000_000_000L)));
+        boolean beyondIntRange = false;
+        for (int i = 0; i < 100; i++) {
+            long key = Long.parseLong(keys.getNextKey().substring(1));
+            assertTrue(key >= 5_000_000_000L && key < 8_000_000_000L);
+            beyondIntRange |= key - 5_000_000_000L > Integer.MAX_VALUE;
+        }
+        assertTrue(beyondIntRange);
+    }
+
+    @Test
+    public void testGeneratorsEncodeTheKeysTheyHandOut() throws Exception {
+        KeyGenerator<String> keys = new SlidingWindowFlipStringKeyGenerator(100, 60_000L, false,
+                new KeyPool(1000, true), new RandomSource(7L, RandomSource.KEY_STREAM));
+        KeyGenerator<String> encodedKeys = new SlidingWindowFlipStringKeyGenerator(100, 60_000L, false,
+                new KeyPool(1000, true), new RandomSource(7L, RandomSource.KEY_STREAM));
+        keys.init();
+        encodedKeys.init();
+        byte[] buffer = new byte[16];
+        for (int i = 0; i < 100; i++) {
+            int length = encodedKeys.encodeNextKey(buffer, 0);
+            assertThat(new String(buffer, 0, length, StandardCharsets.US_ASCII), is(equalTo(keys.getNextKey())));
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.netflix.ndbench.core.generators;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class KeyTraceTest {
+    @Test
+    public void testRecordsAreReadBackAcrossWindows() throws Exception {
+        Path file = Files.createTempFile("keys", ".ndbt");
+        try {
+            try (OutputStream out = Files.newOutputStream(file); KeyTraceWriter writer = new KeyTraceWriter(out)) {
+                for (int i = 0; i < 10_000; i++) {
+                    writer.write(1_000_000L + i * 250L, i % 2 == 0 ? KeyTraceWriter.READ : KeyTraceWriter.WRITE,
+                            ("key-" + i).getBytes(StandardCharsets.UTF_8));
+                }
+            }
+
+            // a small window makes the reader remap many times over the file
+            try (KeyTraceReader reader = new KeyTraceReader(file, 1)) {
+                for (int pass = 0; pass < 2; pass++) {
+                    for (int i = 0; i < 10_000; i++) {
+                        assertTrue(reader.next());
+                        assertThat(reader.getKey(), is(equalTo("key-" + i)));
+                        assertThat(reader.getTimeMicros(), is(equalTo(i * 250L)));
+                        assertThat(reader.getOp(), is(equalTo(i % 2 == 0 ? KeyTraceWriter.READ : KeyTraceWriter.WRITE)));
+                    }
+                    assertFalse(reader.next());
+                    reader.rewind();
+                }
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testTruncatedRecordEndsTheTrace() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (KeyTraceWriter writer = new KeyTraceWriter(bytes)) {
+            writer.write(0L, KeyTraceWriter.ANY, "first".getBytes(StandardCharsets.UTF_8));
+            writer.write(10L, KeyTraceWriter.ANY, "second".getBytes(StandardCharsets.UTF_8));
+        }
+        Path file = Files.createTempFile("keys", ".ndbt");
+        try {
+            byte[] trace = bytes.toByteArray();
+            Files.write(file, Arrays.copyOf(trace, trace.length - 2));
+            try (KeyTraceReader reader = new KeyTraceReader(file)) {
+                assertTrue(reader.next());
+                assertThat(reader.getKey(), is(equalTo("first")));
+                assertFalse(reader.next());
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testOversizedKeysAreRejected() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        new KeyTraceWriter(bytes).close();
+        bytes.write(new byte[]{0, KeyTraceWriter.ANY, (byte) 0x81, (byte) 0x80, 0x04, 'k'});   // a 64K + 1 byte key
+        Path file = Files.createTempFile("keys", ".ndbt");
+        try {
+            Files.write(file, bytes.toByteArray());
+            try (KeyTraceReader reader = new KeyTraceReader(file)) {
+                reader.next();
+                fail("Expected the record to be rejected");
+            } catch (IOException e) {
+                // expected
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testNonTraceFilesAreRejected() throws Exception {
+        Path file = Files.createTempFile("keys", ".txt");
+        try {
+            Files.write(file, "not a trace".getBytes(StandardCharsets.UTF_8));
+            try {
+                new KeyTraceReader(file).close();
+                fail("Expected the file to be rejected");
+            } catch (IOException e) {
+                // expected
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testReplayFiltersByOperationTypeAndLoops() throws Exception {
+        Path file = Files.createTempFile("keys", ".ndbt");
+        try {
+            String log = "# captured traffic\n"
+                    + "1000.0 get a\n"
+                    + "1000.5 put b\n"
+                    + "1001 scan c\n"
+                    + "1002 any d\n";
+            try (OutputStream out = Files.newOutputStream(file); KeyTraceWriter writer = new KeyTraceWriter(out)) {
+                assertArrayEquals(new long[]{3, 1}, KeyTraceConverter.convert(new StringReader(log), writer));
+            }
+
+            TraceReplayKeyGenerator reads = new TraceReplayKeyGenerator(file, false, 0, true);
+            reads.init();
+            StringBuilder keys = new StringBuilder();
+            for (int i = 0; i < 5; i++) {
+                keys.append(reads.getNextKey());
+            }
+            assertThat(keys.toString(), is(equalTo("adada")));
+            assertTrue(reads.hasNextKey());
+
+            TraceReplayKeyGenerator writes = new TraceReplayKeyGenerator(file, true, 0, false);
+            writes.init();
+            byte[] buffer = new byte[16];
+            assertThat(writes.encodeNextKey(buffer, 0), is(equalTo(1)));
+            assertThat(buffer[0], is(equalTo((byte) 'b')));
+            assertThat(writes.getNextKey(), is(equalTo("d")));
+            assertTrue(writes.hasNextKey());
+            writes.getNextKey();
+            assertFalse(writes.hasNextKey());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testTimedReplayKeepsInterArrivalTimes() throws Exception {
+        Path file = Files.createTempFile("keys", ".ndbt");
+        try {
+            try (OutputStream out = Files.newOutputStream(file); KeyTraceWriter writer = new KeyTraceWriter(out)) {
+                writer.write(0L, KeyTraceWriter.ANY, new byte[]{'a'});
+                writer.write(400_000L, KeyTraceWriter.ANY, new byte[]{'b'});
+            }
+            TraceReplayKeyGenerator generator = new TraceReplayKeyGenerator(file, false, 2.0, false);
+            generator.init();
+            long start = System.nanoTime();
+            generator.getNextKey();
+            generator.getNextKey();
+            assertTrue(System.nanoTime() - start >= 200_000_000L);
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
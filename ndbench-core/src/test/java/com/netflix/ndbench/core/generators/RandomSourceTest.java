@@ -0,0 +1,60 @@
+package com.netflix.ndbench.core.generators;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+
+public class RandomSourceTest {
+    @Test
+    public void testSeededSourcesAreReproducible() throws Exception {
+        assertThat(draw(new RandomSource(42L, RandomSource.KEY_STREAM)),
+                is(equalTo(draw(new RandomSource(42L, RandomSource.KEY_STREAM)))));
+        assertFalse(draw(new RandomSource(42L, RandomSource.KEY_STREAM))
+                .equals(draw(new RandomSource(42L, RandomSource.VALUE_STREAM))));
+    }
+
+    @Test
+    public void testThreadsDrawFromTheirOwnStreams() throws Exception {
+        RandomSource source = new RandomSource(42L, RandomSource.KEY_STREAM);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            List<Integer> otherThread = executor.submit((Callable<List<Integer>>) () -> draw(source)).get();
+            assertFalse(draw(source).equals(otherThread));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testSeededKeyGeneratorsAreReproducible() throws Exception {
+        assertThat(keys(7L), is(equalTo(keys(7L))));
+    }
+
+    private static List<Integer> draw(RandomSource source) {
+        List<Integer> values = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            values.add(source.nextInt(Integer.MAX_VALUE));
+        }
+        return values;
+    }
+
+    private static List<String> keys(long seed) {
+        KeyGenerator<String> generator = new RandomStringKeyGenrator(false, new KeyPool(1000, true),
+                new RandomSource(seed, RandomSource.KEY_STREAM));
+        generator.init();
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            keys.add(generator.getNextKey());
+        }
+        return keys;
+    }
+}
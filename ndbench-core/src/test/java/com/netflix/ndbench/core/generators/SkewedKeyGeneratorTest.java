@@ -0,0 +1,85 @@
+package com.netflix.ndbench.core.generators;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class SkewedKeyGeneratorTest {
+    private static final int NUM_KEYS = 1000;
+    private static final int SAMPLES = 200_000;
+
+    @Test
+    public void testZipfianFavorsLowRanks() throws Exception {
+        ZipfianSampler sampler = new ZipfianSampler(NUM_KEYS, 0.99);
+        int[] counts = new int[NUM_KEYS];
+        for (int i = 0; i < SAMPLES; i++) {
+            counts[(int) sampler.sample((i + 0.5) / SAMPLES)]++;
+        }
+        assertTrue(counts[0] > counts[1]);
+        assertTrue(counts[1] > counts[10]);
+        assertTrue(counts[10] > counts[NUM_KEYS - 1]);
+        // with theta close to 1, the hottest key gets about 1 / zeta(n) of the operations
+        double expectedShare = 1 / ZipfianSampler.zeta(NUM_KEYS, 0.99);
+        assertTrue(Math.abs(counts[0] / (double) SAMPLES - expectedShare) < 0.01);
+    }
+
+    @Test
+    public void testSampledRanksStayInRange() throws Exception {
+        ZipfianSampler sampler = new ZipfianSampler(NUM_KEYS, 0.5);
+        assertThat(sampler.sample(0.0), is(equalTo(0L)));
+        assertTrue(sampler.sample(0.999999999) < NUM_KEYS);
+    }
+
+    @Test
+    public void testZetaApproximationForLargeKeySpaces() throws Exception {
+        // exact sum of the terms beyond the approximation threshold, for a key space just over the threshold
+        long n = 10_100_000L;
+        double exact = ZipfianSampler.zeta(10_000_000L, 0.99);
+        for (long i = 10_000_001L; i <= n; i++) {
+            exact += 1 / Math.pow(i, 0.99);
+        }
+        assertTrue(Math.abs(ZipfianSampler.zeta(n, 0.99) - exact) < 1e-9);
+    }
+
+    @Test
+    public void testHotspotSendsConfiguredFractionToHotKeys() throws Exception {
+        HotspotStringKeyGenerator generator = new HotspotStringKeyGenerator(false, new KeyPool(NUM_KEYS, true), new RandomSource(), 0.1, 0.9);
+        generator.init();
+        int hot = 0;
+        for (int i = 0; i < SAMPLES; i++) {
+            if (generator.nextKeyIndex() < NUM_KEYS / 10) {
+                hot++;
+            }
+        }
+        assertTrue(Math.abs(hot / (double) SAMPLES - 0.9) < 0.01);
+    }
+
+    @Test
+    public void testLatestReadsFollowWrites() throws Exception {
+        AtomicLong latest = new AtomicLong(-1L);
+        KeyPool keyPool = new KeyPool(NUM_KEYS, true);
+        LatestStringKeyGenerator writes = new LatestStringKeyGenerator(false, keyPool, new RandomSource(), 0.99, latest, true);
+        LatestStringKeyGenerator reads = new LatestStringKeyGenerator(false, keyPool, new RandomSource(), 0.99, latest, false);
+        writes.init();
+        reads.init();
+
+        assertThat(writes.getNextKey(), is(equalTo("T0")));
+        for (int i = 0; i < 499; i++) {
+            writes.getNextKey();
+        }
+        // the 100 most recent writes should get about zeta(100) / zeta(1000) = 69% of the reads
+        int recent = 0;
+        for (int i = 0; i < 1000; i++) {
+            long index = reads.nextKeyIndex();
+            if (index <= 499 && index > 399) {
+                recent++;
+            }
+        }
+        assertTrue(recent > 600);
+    }
+}
@@ -0,0 +1,38 @@
+package com.netflix.ndbench.core.generators;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class ValueArenaTest {
+    @Test
+    public void testValuesAreAlphanumericSlicesOfTheRequestedLength() throws Exception {
+        ValueArena arena = new ValueArena(4096, new RandomSource(42L, RandomSource.VALUE_STREAM));
+        for (int length : new int[]{0, 1, 100, 4096}) {
+            String value = arena.randomString(length);
+            assertThat(value.length(), is(equalTo(length)));
+            assertTrue(value.matches("[A-Za-z0-9]*"));
+
+            ByteBuffer slice = arena.randomSlice(length);
+            assertThat(slice.remaining(), is(equalTo(length)));
+            assertTrue(slice.isReadOnly());
+        }
+    }
+
+    @Test
+    public void testSeededArenasAreReproducible() throws Exception {
+        ValueArena first = new ValueArena(1024, new RandomSource(42L, RandomSource.VALUE_STREAM));
+        ValueArena second = new ValueArena(1024, new RandomSource(42L, RandomSource.VALUE_STREAM));
+        assertThat(first.randomString(1024), is(equalTo(second.randomString(1024))));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testValuesCannotExceedTheArena() throws Exception {
+        new ValueArena(16, new RandomSource()).randomString(17);
+    }
+}
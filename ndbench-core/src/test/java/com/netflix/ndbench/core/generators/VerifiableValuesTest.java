@@ -0,0 +1,34 @@
+package com.netflix.ndbench.core.generators;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class VerifiableValuesTest {
+    @Test
+    public void testValuesAreAFunctionOfKeyAndVersion() throws Exception {
+        String value = VerifiableValues.create("T42", 1234L, 128);
+        assertThat(value.length(), is(equalTo(128)));
+        assertThat(VerifiableValues.create("T42", 1234L, 128), is(equalTo(value)));
+        assertFalse(VerifiableValues.create("T42", 1235L, 128).equals(value));
+        assertThat(VerifiableValues.versionOf(value), is(equalTo(1234L)));
+        assertThat(VerifiableValues.create("T42", 1234L, 1).length(), is(equalTo(VerifiableValues.MIN_LENGTH)));
+    }
+
+    @Test
+    public void testVerificationDetectsCorruptionAndForeignKeys() throws Exception {
+        String value = VerifiableValues.create("T42", 1234L, 128);
+        assertTrue(VerifiableValues.verify("T42", value));
+        assertFalse(VerifiableValues.verify("T43", value));
+
+        char[] corrupted = value.toCharArray();
+        corrupted[60] = corrupted[60] == 'a' ? 'b' : 'a';
+        assertFalse(VerifiableValues.verify("T42", new String(corrupted)));
+        assertFalse(VerifiableValues.verify("T42", value.substring(0, 100)));
+        assertFalse(VerifiableValues.verify("T42", "Ok"));
+    }
+}
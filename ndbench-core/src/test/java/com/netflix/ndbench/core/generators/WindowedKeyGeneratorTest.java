@@ -0,0 +1,113 @@
+package com.netflix.ndbench.core.generators;
+
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class WindowedKeyGeneratorTest {
+    private final AtomicLong clock = new AtomicLong(1_000_000L);
+    private final RandomSource random = new RandomSource(7L, RandomSource.KEY_STREAM);
+
+    @Test
+    public void testSlidingWindowMovesAcrossTheKeySpaceAndEnds() throws Exception {
+        SlidingWindowStringKeyGenerator generator = new SlidingWindowStringKeyGenerator(100, 10_000L, false,
+                new KeyPool(1100, false), random, clock::get);
+        generator.init();
+        assertThat(generator.windowStart(0L), is(equalTo(0L)));
+        assertThat(generator.windowStart(5_000L), is(equalTo(500L)));
+        assertThat(generator.windowStart(10_000L), is(equalTo(1000L)));
+        assertThat(generator.windowStart(60_000L), is(equalTo(1000L)));
+
+        clock.addAndGet(5_000L);
+        assertKeysWithin(generator, 500, 600);
+        assertTrue(generator.hasNextKey());
+        clock.addAndGet(5_001L);
+        assertFalse(generator.hasNextKey());
+    }
+
+    @Test
+    public void testSlidingWindowStartIsExactForLargeKeySpacesAndLongTests() throws Exception {
+        long numKeys = (1L << 62) + 101;      // a span of 2^62 + 1 keys, beyond the precision of a double
+        SlidingWindowStringKeyGenerator shortTest = new SlidingWindowStringKeyGenerator(100, 3L, false,
+                new KeyPool(numKeys, false), random, clock::get);
+        assertThat(shortTest.windowStart(1L), is(equalTo(exactWindowStart(1L, numKeys - 100, 3L))));
+        assertThat(shortTest.windowStart(2L), is(equalTo(exactWindowStart(2L, numKeys - 100, 3L))));
+
+        long duration = 10_000_000_000L;     // ~4 months, so that elapsed times the remainder overflows
+        SlidingWindowStringKeyGenerator longTest = new SlidingWindowStringKeyGenerator(100, duration, false,
+                new KeyPool(numKeys, false), random, clock::get);
+        assertThat(longTest.windowStart(7_000_000_001L),
+                is(equalTo(exactWindowStart(7_000_000_001L, numKeys - 100, duration))));
+        assertThat(longTest.windowStart(duration - 1), is(equalTo(exactWindowStart(duration - 1, numKeys - 100, duration))));
+    }
+
+    @Test
+    public void testFlipJumpsToDisjointWindowsAndWraps() throws Exception {
+        SlidingWindowFlipStringKeyGenerator generator = new SlidingWindowFlipStringKeyGenerator(100, 1_000L, 0L, false,
+                false, new KeyPool(1050, false), random, clock::get);
+        generator.init();
+        assertThat(generator.windowStart(999L), is(equalTo(0L)));
+        assertThat(generator.windowStart(1_000L), is(equalTo(100L)));
+        assertThat(generator.windowStart(9_999L), is(equalTo(900L)));
+        assertThat(generator.windowStart(10_000L), is(equalTo(0L)));     // only 10 whole windows fit
+
+        clock.addAndGet(3_500L);
+        assertKeysWithin(generator, 300, 400);
+        assertTrue(generator.hasNextKey());
+    }
+
+    @Test
+    public void testFlipWindowsOverlapWithSmallerSteps() throws Exception {
+        SlidingWindowFlipStringKeyGenerator generator = new SlidingWindowFlipStringKeyGenerator(100, 1_000L, 25L, false,
+                false, new KeyPool(200, false), random, clock::get);
+        assertThat(generator.windowStart(1_000L), is(equalTo(25L)));
+        assertThat(generator.windowStart(4_000L), is(equalTo(100L)));
+        assertThat(generator.windowStart(5_000L), is(equalTo(0L)));
+    }
+
+    @Test
+    public void testGradualDriftMovesAKeyAtATime() throws Exception {
+        SlidingWindowFlipStringKeyGenerator generator = new SlidingWindowFlipStringKeyGenerator(100, 1_000L, 100L, true,
+                false, new KeyPool(300, false), random, clock::get);
+        assertThat(generator.windowStart(10L), is(equalTo(1L)));
+        assertThat(generator.windowStart(1_500L), is(equalTo(150L)));
+        assertThat(generator.windowStart(2_000L), is(equalTo(200L)));
+        assertThat(generator.windowStart(2_010L), is(equalTo(0L)));
+    }
+
+    @Test
+    public void testWindowLargerThanKeySpaceIsRejected() throws Exception {
+        try {
+            new SlidingWindowFlipStringKeyGenerator(0, 1_000L, false, new KeyPool(100, false), random);
+            fail("Expected an empty window to be rejected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            new SlidingWindowStringKeyGenerator(101, 10L, false, new KeyPool(100, false), random);
+            fail("Expected a window larger than the key space to be rejected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    private static long exactWindowStart(long elapsedMillis, long span, long durationMillis) {
+        return BigInteger.valueOf(elapsedMillis).multiply(BigInteger.valueOf(span))
+                .divide(BigInteger.valueOf(durationMillis)).longValue();
+    }
+
+    private static void assertKeysWithin(KeyGenerator<String> generator, int from, int to) {
+        for (int i = 0; i < 1000; i++) {
+            int key = Integer.parseInt(generator.getNextKey().substring(1));
+            assertTrue(key + " not in [" + from + ", " + to + ")", key >= from && key < to);
+        }
+    }
+}
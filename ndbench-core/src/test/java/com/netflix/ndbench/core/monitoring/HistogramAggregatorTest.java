@@ -0,0 +1,69 @@
+package com.netflix.ndbench.core.monitoring;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.netflix.ndbench.core.util.EstimatedHistogram;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class HistogramAggregatorTest {
+    @Test
+    public void testSnapshotSurvivesJsonRoundTrip() throws Exception {
+        EstimatedHistogram histogram = new EstimatedHistogram(180);
+        for (long value : new long[]{1, 1, 250, 9000, 9000, 9001}) {
+            histogram.add(value);
+        }
+        ObjectMapper mapper = new ObjectMapper();
+        HistogramSnapshot snapshot = HistogramSnapshot.of(histogram);
+        HistogramSnapshot copy = mapper.readValue(mapper.writeValueAsString(snapshot), HistogramSnapshot.class);
+
+        assertThat(copy.getIndexes().length, is(equalTo(3)));
+        assertThat(copy.toHistogram(), is(equalTo(histogram)));
+    }
+
+    @Test
+    public void testMergedPercentilesAreThoseOfAllValues() throws Exception {
+        // one fast node, one slow node: the fleet's p99 is the slow node's latency, not an average of the nodes' p99s
+        EstimatedHistogram fast = new EstimatedHistogram(180);
+        EstimatedHistogram slow = new EstimatedHistogram(180);
+        EstimatedHistogram all = new EstimatedHistogram(180);
+        for (int i = 0; i < 9000; i++) {
+            fast.add(100);
+            all.add(100);
+        }
+        for (int i = 0; i < 1000; i++) {
+            slow.add(50_000);
+            all.add(50_000);
+        }
+
+        HistogramAggregator aggregator = new HistogramAggregator();
+        aggregator.add("read", HistogramSnapshot.of(fast));
+        aggregator.add("read", HistogramSnapshot.of(slow));
+
+        assertThat(aggregator.get("read"), is(equalTo(all)));
+        Map<String, Long> summary = aggregator.summary().get("read");
+        assertThat(summary.get("count"), is(equalTo(10_000L)));
+        assertThat(summary.get("latP50"), is(equalTo(all.percentile(0.5))));
+        assertThat(summary.get("latP99"), is(equalTo(all.percentile(0.99))));
+        assertThat(summary.get("latMax"), is(equalTo(slow.max())));
+    }
+
+    @Test
+    public void testHistogramsWithDifferentBucketsAreRejected() throws Exception {
+        HistogramAggregator aggregator = new HistogramAggregator();
+        aggregator.add("write", HistogramSnapshot.of(new EstimatedHistogram(180)));
+        try {
+            aggregator.addAll(Collections.singletonMap("write", HistogramSnapshot.of(new EstimatedHistogram(90))));
+            fail("Expected histograms with different bucket offsets to be rejected");
+        } catch (IllegalArgumentException expected) {
+        }
+        assertNull(aggregator.get("read"));
+    }
+}
@@ -0,0 +1,58 @@
+package com.netflix.ndbench.core.monitoring;
+
+import com.netflix.ndbench.core.util.EstimatedHistogram;
+import com.netflix.ndbench.core.util.IntervalHistogramRecorder;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertThat;
+
+public class HistogramDeltaTrackerTest {
+    @Test
+    public void testDeltaHoldsValuesRecordedSincePreviousCall() throws Exception {
+        HistogramDeltaTracker tracker = new HistogramDeltaTracker();
+        EstimatedHistogram histogram = new EstimatedHistogram(180);
+        histogram.add(100);
+        histogram.add(100);
+        assertThat(tracker.delta("read", histogram).toHistogram().count(), is(equalTo(2L)));
+
+        histogram.add(5000);
+        EstimatedHistogram delta = tracker.delta("read", histogram).toHistogram();
+        assertThat(delta.count(), is(equalTo(1L)));
+        assertThat(delta.max(), is(equalTo(histogram.max())));
+
+        // the monitor replaces its histogram on reset
+        EstimatedHistogram next = new EstimatedHistogram(180);
+        next.add(100);
+        assertThat(tracker.delta("read", next).toHistogram().count(), is(equalTo(1L)));
+    }
+
+    @Test
+    public void testValuesRecordedBeforeAResetAreCarriedIntoTheNextDelta() throws Exception {
+        IntervalHistogramRecorder recorder = new IntervalHistogramRecorder(180);
+        HistogramDeltaTracker tracker = new HistogramDeltaTracker();
+        recorder.record(100);
+        assertThat(tracker.delta("read", recorder.current()).toHistogram().count(), is(equalTo(1L)));
+
+        recorder.record(5000);      // recorded after the previous delta, but completed by the reset
+        recorder.reset();
+        recorder.record(100);
+        recorder.record(100);
+
+        EstimatedHistogram delta = tracker.delta("read", recorder.current()).toHistogram();
+        assertThat(delta.count(), is(equalTo(3L)));
+        EstimatedHistogram slowest = new EstimatedHistogram(180);
+        slowest.add(5000);
+        assertThat(delta.max(), is(equalTo(slowest.max())));
+    }
+
+    @Test
+    public void testDeltaOfResetBucketsIsTheirCurrentContent() throws Exception {
+        long[] previous = {0, 5, 3};
+        assertArrayEquals(new long[]{1, 2, 0}, HistogramDeltaTracker.delta(new long[]{1, 7, 3}, previous));
+        assertArrayEquals(new long[]{1, 2, 0}, HistogramDeltaTracker.delta(new long[]{1, 2, 0}, previous));
+        assertArrayEquals(new long[]{4, 4, 4}, HistogramDeltaTracker.delta(new long[]{4, 4, 4}, null));
+    }
+}
@@ -0,0 +1,49 @@
+package com.netflix.ndbench.core.operations;
+
+import com.netflix.ndbench.api.plugin.NdBenchClient;
+import com.netflix.ndbench.api.plugin.NdBenchMonitor;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class BatchOperationTest {
+    private final NdBenchMonitor monitor = mock(NdBenchMonitor.class);
+    private final NdBenchClient client = mock(NdBenchClient.class);
+
+    @Test
+    public void testBatchReadIsCountedAsOneRequestOfSeveralItems() throws Exception {
+        List<String> keys = Arrays.asList("T0", "T1", "T2");
+        when(client.readBatch(keys)).thenReturn(Arrays.asList("value", null, "value"));
+
+        assertTrue(new ReadOperation(client).processBatch(null, monitor, keys, new AtomicReference<>(), System.nanoTime()));
+
+        verify(monitor).incReadSuccess();
+        verify(monitor).recordReadLatency(anyLong());
+        verify(monitor, times(2)).incCacheHit();
+        verify(monitor).incCacheMiss();
+        verify(monitor).recordReadBatch(eq(3), anyLong());
+    }
+
+    @Test
+    public void testBatchWriteIsCountedAsOneRequestOfSeveralItems() throws Exception {
+        List<String> keys = Arrays.asList("T0", "T1");
+        when(client.writeBatch(keys)).thenReturn(Arrays.asList("Ok", "Ok"));
+
+        assertTrue(new WriteOperation<>(client).processBatch(null, monitor, keys, new AtomicReference<>(), System.nanoTime()));
+
+        verify(client).writeBatch(keys);
+        verify(monitor).incWriteSuccess();
+        verify(monitor).recordWriteLatency(anyLong());
+        verify(monitor).recordWriteBatch(eq(2), anyLong());
+    }
+}
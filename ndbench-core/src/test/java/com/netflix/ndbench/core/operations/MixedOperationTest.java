@@ -0,0 +1,81 @@
+package com.netflix.ndbench.core.operations;
+
+import com.google.common.util.concurrent.RateLimiter;
+import com.netflix.ndbench.api.plugin.NdBenchMonitor;
+import com.netflix.ndbench.core.NdBenchDriver;
+import com.netflix.ndbench.core.generators.RandomSource;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class MixedOperationTest {
+    @Test
+    public void testParseWeights() throws Exception {
+        Map<String, Double> expected = new LinkedHashMap<>();
+        expected.put("read", 70.0);
+        expected.put("write", 25.0);
+        expected.put("rmw", 5.0);
+        assertThat(MixedOperation.parseWeights("read:70, Write:20,rmw:5,write:5"), is(equalTo(expected)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseWeightsRejectsMalformedEntries() throws Exception {
+        MixedOperation.parseWeights("read:70,write");
+    }
+
+    @Test
+    public void testOperationsArePickedInProportionToTheirWeights() throws Exception {
+        NdBenchMonitor monitor = mock(NdBenchMonitor.class);
+
+        MixedOperation mix = new MixedOperation(MixedOperation.parseWeights("read:70,write:25,rmw:5"),
+                name -> new StubOperation(), new RandomSource(42L, RandomSource.MIX_STREAM));
+        int draws = 100_000;
+        for (int i = 0; i < draws; i++) {
+            assertTrue(mix.process(null, monitor, "T" + i, new AtomicReference<>()));
+        }
+
+        ArgumentCaptor<String> names = ArgumentCaptor.forClass(String.class);
+        verify(monitor, times(draws)).recordOperation(names.capture(), anyLong(), eq(true));
+        Map<String, Integer> recorded = new HashMap<>();
+        for (String name : names.getAllValues()) {
+            recorded.merge(name, 1, Integer::sum);
+        }
+
+        assertThat(recorded.get("read") + recorded.get("write") + recorded.get("rmw"), is(equalTo(draws)));
+        assertTrue(Math.abs(recorded.get("read") - 70_000) < 1_000);
+        assertTrue(Math.abs(recorded.get("write") - 25_000) < 1_000);
+        assertTrue(Math.abs(recorded.get("rmw") - 5_000) < 500);
+    }
+
+    private static class StubOperation implements NdBenchDriver.NdBenchOperation {
+        @Override
+        public boolean process(NdBenchDriver driver, NdBenchMonitor monitor, String key,
+                               AtomicReference<RateLimiter> rateLimiter) {
+            return true;
+        }
+
+        @Override
+        public boolean isReadType() {
+            return true;
+        }
+
+        @Override
+        public boolean isWriteType() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.netflix.ndbench.core.operations;
+
+import com.netflix.ndbench.api.plugin.DataGenerator;
+import com.netflix.ndbench.api.plugin.NdBenchClient;
+import com.netflix.ndbench.api.plugin.NdBenchMonitor;
+import com.netflix.ndbench.core.generators.VerifiableValues;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class StaleReadTest {
+    private final NdBenchMonitor monitor = mock(NdBenchMonitor.class);
+
+    private final WriteVersions writeVersions = new WriteVersions(16);
+    private final VersionedStubClient client = new VersionedStubClient();
+
+    @Test
+    public void testReadOfTheLatestWriteIsNotStale() throws Exception {
+        assertTrue(new WriteOperation<>(client, writeVersions).process(null, monitor, "T1", new AtomicReference<>()));
+        assertTrue(new ReadOperation(client, writeVersions).process(null, monitor, "T1", new AtomicReference<>()));
+
+        verify(monitor).incCacheHit();
+        verify(monitor, never()).incReadStaleValue();
+        verify(monitor, never()).incReadVerificationFailure();
+    }
+
+    @Test
+    public void testReadOfAValueOlderThanASuccessfulWriteIsStale() throws Exception {
+        assertTrue(new WriteOperation<>(client, writeVersions).process(null, monitor, "T1", new AtomicReference<>()));
+        client.values.put("T1", VerifiableValues.create("T1", 0L, 32));  // e.g. read from a lagging replica
+
+        assertTrue(new ReadOperation(client, writeVersions).process(null, monitor, "T1", new AtomicReference<>()));
+
+        verify(monitor).incReadStaleValue();
+        verify(monitor, never()).incReadVerificationFailure();
+    }
+
+    @Test
+    public void testValuesOfKeysWithoutKnownWritesAreOnlyVerified() throws Exception {
+        client.values.put("T1", VerifiableValues.create("T1", 0L, 32));
+        client.values.put("T2", VerifiableValues.create("T1", 0L, 32));
+
+        ReadOperation operation = new ReadOperation(client, writeVersions);
+        assertTrue(operation.process(null, monitor, "T1", new AtomicReference<>()));
+        assertTrue(operation.process(null, monitor, "T2", new AtomicReference<>()));
+
+        verify(monitor, never()).incReadStaleValue();
+        verify(monitor).incReadVerificationFailure();
+    }
+
+    @Test
+    public void testValuesAreNotCheckedWithoutWriteVersions() throws Exception {
+        client.values.put("T1", "not a verifiable value");
+
+        assertTrue(new ReadOperation(client).process(null, monitor, "T1", new AtomicReference<>()));
+
+        verify(monitor).incCacheHit();
+        verify(monitor, never()).incReadVerificationFailure();
+    }
+
+    @Test
+    public void testWriteVersionsKeepTheLatestWriteOfAKey() {
+        recordWrite(writeVersions, "T1", 20L);
+        recordWrite(writeVersions, "T1", 10L);
+
+        assertThat(writeVersions.minimumVersion("T1"), is(equalTo(20L)));
+        assertThat(writeVersions.minimumVersion("T2"), is(equalTo(-1L)));
+    }
+
+    @Test
+    public void testOverlappingWritesOnlyRequireTheOldestWriteInFlight() {
+        writeVersions.beginWrite("T1", 10L);
+        writeVersions.beginWrite("T1", 20L);
+        writeVersions.endWrite("T1", 20L, true);
+        // the write issued at 10 may still be applied after the one issued at 20
+        assertThat(writeVersions.minimumVersion("T1"), is(equalTo(10L)));
+
+        writeVersions.endWrite("T1", 10L, true);
+        writeVersions.beginWrite("T1", 30L);
+        writeVersions.endWrite("T1", 30L, true);
+        assertThat(writeVersions.minimumVersion("T1"), is(equalTo(30L)));
+    }
+
+    @Test
+    public void testWritesInFlightDoNotRaiseTheMinimumVersion() {
+        recordWrite(writeVersions, "T1", 10L);
+        writeVersions.beginWrite("T1", 20L);
+        assertThat(writeVersions.minimumVersion("T1"), is(equalTo(10L)));
+
+        writeVersions.endWrite("T1", 20L, false);
+        assertThat(writeVersions.minimumVersion("T1"), is(equalTo(10L)));
+    }
+
+    @Test
+    public void testEvictedKeysAreNoLongerChecked() {
+        WriteVersions single = new WriteVersions(1);
+        for (int k = 0; k < 16; k++) {
+            recordWrite(single, "T" + k, 10L);
+        }
+
+        int tracked = 0;
+        for (int k = 0; k < 16; k++) {
+            long version = single.minimumVersion("T" + k);
+            assertTrue(version == -1L || version == 10L);
+            tracked += version == 10L ? 1 : 0;
+        }
+        assertTrue(tracked <= 2);
+    }
+
+    private static void recordWrite(WriteVersions versions, String key, long issuedMillis) {
+        versions.beginWrite(key, issuedMillis);
+        versions.endWrite(key, issuedMillis, true);
+    }
+
+    // stores values the way DefaultDataGenerator generates them when verification is enabled
+    private static class VersionedStubClient implements NdBenchClient {
+        private final Map<String, String> values = new HashMap<>();
+
+        @Override
+        public void init(DataGenerator dataGenerator) {
+        }
+
+        @Override
+        public String readSingle(String key) {
+            return values.get(key);
+        }
+
+        @Override
+        public String writeSingle(String key) {
+            values.put(key, VerifiableValues.create(key, System.currentTimeMillis(), 32));
+            return "Ok";
+        }
+
+        @Override
+        public boolean supportsValueVerification() {
+            return true;
+        }
+
+        @Override
+        public void shutdown() {
+        }
+
+        @Override
+        public String getConnectionInfo() {
+            return null;
+        }
+
+        @Override
+        public String runWorkFlow() {
+            return null;
+        }
+    }
+}
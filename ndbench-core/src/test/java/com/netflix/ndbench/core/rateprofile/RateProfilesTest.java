@@ -0,0 +1,130 @@
+package com.netflix.ndbench.core.rateprofile;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class RateProfilesTest {
+    @Test
+    public void testRampHoldsItsFinalRate() throws Exception {
+        RateProfile ramp = RateProfiles.parse("ramp:from=100,to=1100,duration=10s");
+        assertThat(ramp.rateAt(0), is(equalTo(100.0)));
+        assertThat(ramp.rateAt(5_000), is(equalTo(600.0)));
+        assertThat(ramp.rateAt(10_000), is(equalTo(1100.0)));
+        assertThat(ramp.rateAt(1_000_000), is(equalTo(1100.0)));
+    }
+
+    @Test
+    public void testStepsStopAfterTheirCount() throws Exception {
+        RateProfile steps = RateProfiles.parse("steps:start=100,step=50,every=1m,count=2");
+        assertThat(steps.rateAt(59_999), is(equalTo(100.0)));
+        assertThat(steps.rateAt(60_000), is(equalTo(150.0)));
+        assertThat(steps.rateAt(120_000), is(equalTo(200.0)));
+        assertThat(steps.rateAt(600_000), is(equalTo(200.0)));
+    }
+
+    @Test
+    public void testSineStartsAtItsTroughAndPeaksHalfwayThroughThePeriod() throws Exception {
+        RateProfile sine = RateProfiles.parse("sine:mean=1000,amplitude=800,period=20m");
+        assertEquals(200.0, sine.rateAt(0), 1e-9);
+        assertEquals(1000.0, sine.rateAt(300_000), 1e-9);
+        assertEquals(1800.0, sine.rateAt(600_000), 1e-9);
+        assertEquals(200.0, sine.rateAt(1_200_000), 1e-9);
+    }
+
+    @Test
+    public void testBurstsComeAtTheEndOfEachPeriod() throws Exception {
+        RateProfile burst = RateProfiles.parse("burst:base=100,peak=5000,every=60,for=10s");
+        assertThat(burst.rateAt(0), is(equalTo(100.0)));
+        assertThat(burst.rateAt(49_999), is(equalTo(100.0)));
+        assertThat(burst.rateAt(50_000), is(equalTo(5000.0)));
+        assertThat(burst.rateAt(60_000), is(equalTo(100.0)));
+        assertThat(burst.rateAt(115_000), is(equalTo(5000.0)));
+    }
+
+    @Test
+    public void testSequenceRunsEachSegmentOnItsOwnClock() throws Exception {
+        RateProfile sequence = RateProfiles.parse("ramp:from=0,to=1000,duration=10s; constant:rate=50,duration=5s;"
+                + " steps:start=200,step=100,every=1s");
+        assertThat(sequence.rateAt(5_000), is(equalTo(500.0)));
+        assertThat(sequence.rateAt(10_000), is(equalTo(50.0)));
+        assertThat(sequence.rateAt(15_000), is(equalTo(200.0)));
+        assertThat(sequence.rateAt(17_500), is(equalTo(400.0)));
+    }
+
+    @Test
+    public void testSpedUpTraceAveragesTheSecondsItSkips() throws Exception {
+        TraceProfile trace = new TraceProfile(new double[]{10, 20, 30, 40, 50, 60}, 2.0, false);
+        assertThat(trace.rateAt(0), is(equalTo(15.0)));
+        assertThat(trace.rateAt(1_999), is(equalTo(35.0)));
+        assertThat(trace.rateAt(2_000), is(equalTo(55.0)));
+        assertThat(trace.rateAt(10_000), is(equalTo(60.0)));      // holds the last rate past the end
+
+        TraceProfile looped = new TraceProfile(new double[]{10, 20, 30, 40, 50, 60}, 2.0, true);
+        assertThat(looped.rateAt(3_000), is(equalTo(15.0)));
+        assertThat(looped.rateAt(4_000), is(equalTo(35.0)));
+    }
+
+    @Test
+    public void testTraceIsReadFromFile() throws Exception {
+        Path file = Files.createTempFile("rates", ".csv");
+        try {
+            Files.write(file, Arrays.asList("# second,rps", "0,100", "1,250.5", "", "2,75"), StandardCharsets.UTF_8);
+            assertArrayEquals(new double[]{100, 250.5, 75}, TraceProfile.readTrace(file), 0.0);
+
+            RateProfile trace = RateProfiles.parse("trace:file=" + file + ",loop=true");
+            assertThat(trace.rateAt(1_000), is(equalTo(250.5)));
+            assertThat(trace.rateAt(3_000), is(equalTo(100.0)));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testDurations() throws Exception {
+        assertThat(RateProfiles.parseDuration("", "250ms"), is(equalTo(250L)));
+        assertThat(RateProfiles.parseDuration("", "1.5"), is(equalTo(1_500L)));
+        assertThat(RateProfiles.parseDuration("", "30s"), is(equalTo(30_000L)));
+        assertThat(RateProfiles.parseDuration("", "2m"), is(equalTo(120_000L)));
+        assertThat(RateProfiles.parseDuration("", "1h"), is(equalTo(3_600_000L)));
+    }
+
+    @Test
+    public void testBlankSpecMeansNoProfile() throws Exception {
+        assertNull(RateProfiles.parse(""));
+        assertNull(RateProfiles.parse("  "));
+    }
+
+    @Test
+    public void testMalformedSpecsAreRejected() throws Exception {
+        for (String spec : new String[]{
+                "ramp",
+                "zigzag:rate=1",
+                "ramp:from=1,to=2",
+                "ramp:from=1,to=2,duration=1m,slope=3",
+                "constant:rate=-1",
+                "constant:rate=abc",
+                "burst:base=1,peak=2,every=10s,for=20s",
+                "steps:start=1,step=1,every=0",
+                "sine:mean=10,amplitude=5,period=1m;constant:rate=1",
+                "trace:file=/does/not/exist"}) {
+            try {
+                RateProfiles.parse(spec);
+                fail("Expected " + spec + " to be rejected");
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+    }
+}
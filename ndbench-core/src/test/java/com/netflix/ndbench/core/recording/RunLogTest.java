@@ -0,0 +1,91 @@
+package com.netflix.ndbench.core.recording;
+
+import com.netflix.ndbench.core.monitoring.HistogramSnapshot;
+import com.netflix.ndbench.core.util.EstimatedHistogram;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class RunLogTest {
+    @Test
+    public void testIntervalsSurviveRoundTrip() throws Exception {
+        EstimatedHistogram first = histogram(100, 100, 2000);
+        EstimatedHistogram second = histogram(150, 90_000);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (RunLogWriter writer = new RunLogWriter(bytes, 1_000_000L)) {
+            writer.write(interval(1_005_000L, 500L, -3L, first));
+            writer.write(interval(1_010_000L, 400L, 7L, second));
+        }
+
+        RunLogReader reader = new RunLogReader(new ByteArrayInputStream(bytes.toByteArray()));
+        assertThat(reader.getStartMillis(), is(equalTo(1_000_000L)));
+        List<RunInterval> intervals = reader.readAll();
+        assertThat(intervals.size(), is(equalTo(2)));
+
+        assertThat(intervals.get(0).getTimestampMillis(), is(equalTo(1_005_000L)));
+        assertThat(intervals.get(0).getCounters().get("readSuccess"), is(equalTo(500L)));
+        assertThat(intervals.get(0).getCounters().get("lag"), is(equalTo(-3L)));
+        assertThat(intervals.get(0).getHistograms().get("read").toHistogram(), is(equalTo(first)));
+
+        assertThat(intervals.get(1).getTimestampMillis(), is(equalTo(1_010_000L)));
+        assertThat(intervals.get(1).getCounters().get("readSuccess"), is(equalTo(400L)));
+        assertThat(intervals.get(1).getCounters().get("lag"), is(equalTo(7L)));
+        assertThat(intervals.get(1).getHistograms().get("read").toHistogram(), is(equalTo(second)));
+    }
+
+    @Test
+    public void testTruncatedLogIsReadUpToLastCompleteInterval() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        RunLogWriter writer = new RunLogWriter(bytes, 0L);
+        writer.write(interval(5000L, 1L, 0L, histogram(10)));
+        int complete = bytes.size();
+        writer.write(interval(10000L, 2L, 0L, histogram(20)));
+
+        byte[] truncated = Arrays.copyOf(bytes.toByteArray(), complete + (bytes.size() - complete) / 2);
+        RunLogReader reader = new RunLogReader(new ByteArrayInputStream(truncated));
+        assertThat(reader.next().getTimestampMillis(), is(equalTo(5000L)));
+        assertNull(reader.next());
+    }
+
+    @Test
+    public void testCsvHasOneLinePerInterval() throws Exception {
+        StringWriter csv = new StringWriter();
+        RunLogExporter.writeCsv(Arrays.asList(
+                interval(5000L, 10L, 0L, histogram(100)),
+                interval(10000L, 20L, 0L, histogram(100, 200))), csv);
+
+        String[] lines = csv.toString().split("\n");
+        assertThat(lines.length, is(equalTo(3)));
+        assertTrue(lines[0].startsWith("timestampMillis,readSuccess,lag,read.count,"));
+        assertTrue(lines[2].startsWith("10000,20,0,2,"));
+    }
+
+    private static RunInterval interval(long timestampMillis, long readSuccess, long lag, EstimatedHistogram read) {
+        Map<String, Long> counters = new LinkedHashMap<>();
+        counters.put("readSuccess", readSuccess);
+        counters.put("lag", lag);
+        return new RunInterval(timestampMillis, counters, Collections.singletonMap("read", HistogramSnapshot.of(read)));
+    }
+
+    private static EstimatedHistogram histogram(long... values) {
+        EstimatedHistogram histogram = new EstimatedHistogram(180);
+        for (long value : values) {
+            histogram.add(value);
+        }
+        return histogram;
+    }
+}
@@ -0,0 +1,48 @@
+package com.netflix.ndbench.core.recording;
+
+import com.netflix.ndbench.api.plugin.NdBenchMonitor;
+import com.netflix.ndbench.core.config.IConfiguration;
+import org.junit.Test;
+
+import java.io.FileInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class RunRecorderTest {
+    @Test
+    public void testRunsStartedAtOnceAreRecordedToSeparateLogs() throws Exception {
+        Path dir = Files.createTempDirectory("runs");
+        IConfiguration config = mock(IConfiguration.class);
+        when(config.isRunRecordingEnabled()).thenReturn(true);
+        when(config.getRunRecordingDir()).thenReturn(dir.toString());
+
+        List<RunRecorder> recorders = new ArrayList<>();
+        List<String> runs = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            RunRecorder recorder = new RunRecorder(config, mock(NdBenchMonitor.class));
+            recorder.onInterval(true);
+            recorders.add(recorder);
+            runs.add(recorder.getCurrentRun());
+        }
+        for (RunRecorder recorder : recorders) {
+            recorder.onInterval(false);
+        }
+
+        assertThat(new HashSet<>(runs).size(), is(equalTo(3)));
+        assertThat(new HashSet<>(recorders.get(0).listRuns()), is(equalTo(new HashSet<>(runs))));
+        for (String run : runs) {
+            try (RunLogReader reader = new RunLogReader(new FileInputStream(recorders.get(0).getRunFile(run)))) {
+                assertThat(reader.readAll().size(), is(equalTo(2)));
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.netflix.ndbench.core.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class IntervalHistogramRecorderTest {
+    @Test
+    public void testIntervalContainsValuesRecordedSinceLastReset() throws Exception {
+        IntervalHistogramRecorder recorder = new IntervalHistogramRecorder(90);
+        recorder.record(3);
+        recorder.record(4);
+        recorder.record(4);
+
+        assertThat(recorder.current().count(), is(equalTo(3L)));
+        assertThat(recorder.current().max(), is(equalTo(4L)));
+
+        EstimatedHistogram completed = recorder.reset();
+        assertThat(completed.count(), is(equalTo(3L)));
+        assertThat(recorder.current().count(), is(equalTo(0L)));
+
+        recorder.record(10);
+        assertThat(recorder.reset().count(), is(equalTo(1L)));
+    }
+
+    @Test
+    public void testNoValuesAreLostWhileResettingConcurrently() throws Exception {
+        final IntervalHistogramRecorder recorder = new IntervalHistogramRecorder(90);
+        final int numThreads = 4;
+        final int valuesPerThread = 200_000;
+        final CountDownLatch done = new CountDownLatch(numThreads);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < numThreads; i++) {
+            Thread thread = new Thread(() -> {
+                for (int j = 0; j < valuesPerThread; j++) {
+                    recorder.record(j % 1000);
+                }
+                done.countDown();
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        long total = 0;
+        while (done.getCount() > 0) {
+            total += recorder.reset().count();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        total += recorder.reset().count();
+
+        assertThat(total, is(equalTo((long) numThreads * valuesPerThread)));
+    }
+}
@@ -0,0 +1,42 @@
+package com.netflix.ndbench.core.util;
+
+import com.google.common.util.concurrent.RateLimiter;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class OpenLoopSchedulerTest {
+    @Test
+    public void testSlotsAreSpacedByInverseOfRate() throws Exception {
+        AtomicReference<RateLimiter> limiter = new AtomicReference<>(RateLimiter.create(1000));
+        OpenLoopScheduler scheduler = new OpenLoopScheduler(limiter, 0L, 0L);
+
+        assertThat(scheduler.claimNextSlot(), is(equalTo(0L)));
+        assertThat(scheduler.claimNextSlot(), is(equalTo(1_000_000L)));
+        assertThat(scheduler.claimNextSlot(), is(equalTo(2_000_000L)));
+
+        limiter.set(RateLimiter.create(10));            // rate changes apply to slots claimed after the change
+        assertThat(scheduler.claimNextSlot(), is(equalTo(3_000_000L)));
+        assertThat(scheduler.claimNextSlot(), is(equalTo(103_000_000L)));
+    }
+
+    @Test
+    public void testSlotsInThePastAreHandedOutWithoutWaiting() throws Exception {
+        AtomicReference<RateLimiter> limiter = new AtomicReference<>(RateLimiter.create(1));
+        long oneHourAgo = System.nanoTime() - 3600L * 1_000_000_000L;
+        OpenLoopScheduler scheduler = new OpenLoopScheduler(limiter, 0L, oneHourAgo);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 100; i++) {
+            assertThat(scheduler.acquire(), is(equalTo(oneHourAgo + i * 1_000_000_000L)));
+        }
+        assertTrue(System.nanoTime() - start < 1_000_000_000L);
+        // the backlog shows up as scheduler lag
+        assertTrue(scheduler.getAndResetMaxLagNanos() > 3599L * 1_000_000_000L);
+    }
+}
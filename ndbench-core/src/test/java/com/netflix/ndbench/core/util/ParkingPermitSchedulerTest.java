@@ -0,0 +1,42 @@
+package com.netflix.ndbench.core.util;
+
+import com.google.common.util.concurrent.RateLimiter;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class ParkingPermitSchedulerTest {
+    @Test
+    public void testSlotsAreNotHandedOutInThePast() throws Exception {
+        AtomicReference<RateLimiter> limiter = new AtomicReference<>(RateLimiter.create(1));
+        long oneHourAgo = System.nanoTime() - 3600L * 1_000_000_000L;
+        ParkingPermitScheduler scheduler = new ParkingPermitScheduler(limiter, 0L, oneHourAgo);
+
+        long before = System.nanoTime();
+        long first = scheduler.claimNextSlot();
+        assertTrue(first >= before);
+        assertThat(scheduler.claimNextSlot(), is(equalTo(first + 1_000_000_000L)));
+    }
+
+    @Test
+    public void testWorkersAreReleasedAtTheConfiguredRate() throws Exception {
+        AtomicReference<RateLimiter> limiter = new AtomicReference<>(RateLimiter.create(200));
+        long start = System.nanoTime();
+        ParkingPermitScheduler scheduler = new ParkingPermitScheduler(limiter, 50_000L);
+
+        for (int i = 0; i <= 20; i++) {
+            // closed-loop, so what's returned is the time of the release rather than of the slot
+            long released = scheduler.acquire();
+            assertTrue(released - start >= i * 5_000_000L);
+            assertTrue(System.nanoTime() >= released);
+        }
+        assertTrue(System.nanoTime() - start >= 20 * 5_000_000L);
+        assertTrue(scheduler.getAndResetMaxLagNanos() >= 0L);
+        assertThat(scheduler.getAndResetMaxLagNanos(), is(equalTo(0L)));
+    }
+}
@@ -26,6 +26,7 @@ import com.netflix.ndbench.api.plugin.annotations.NdBenchClientPlugin;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
@@ -109,6 +110,87 @@ public class DynoJedis implements NdBenchClient {
         return result;
     }
 
+    @Override
+    public String readSingleBinary(ByteBuffer key) throws Exception {
+        byte[] res = jedisClient.get().get(toBytes(key));
+
+        if (res != null) {
+            if (res.length == 0) {
+                throw new Exception("Data retrieved is not ok ");
+            }
+        } else {
+            return CacheMiss;
+        }
+
+        return ResultOK;
+    }
+
+    @Override
+    public String writeSingleBinary(ByteBuffer key) throws Exception {
+        String result = jedisClient.get().set(toBytes(key), toBytes(dataGenerator.getValueBytes(key)));
+
+        if (!"OK".equals(result)) {
+            logger.error("SET_ERROR: GOT " + result + " for SET operation");
+            throw new RuntimeException("DynoJedis: value for SET operation is NOT VALID");
+        }
+
+        return result;
+    }
+
+    @Override
+    public String deleteSingle(String key) throws Exception {
+        jedisClient.get().del(key);
+        return ResultOK;
+    }
+
+    /**
+     * Redis keeps no order among keys, so a scan reads the keys numbered consecutively from 'startKey' (e.g. T10,
+     * T11, ...), fetching them with a single MGET. Keys which are not present are left out of the result.
+     */
+    @Override
+    public List<String> scan(String startKey, int limit) throws Exception {
+        int digits = startKey.length();
+        while (digits > 0 && Character.isDigit(startKey.charAt(digits - 1))) {
+            digits--;
+        }
+        if (digits == startKey.length()) {
+            throw new IllegalArgumentException("DynoJedis: cannot scan from key " + startKey + ", which does not end with a number");
+        }
+        String prefix = startKey.substring(0, digits);
+        long start = Long.parseLong(startKey.substring(digits));
+
+        String[] keys = new String[limit];
+        for (int i = 0; i < limit; i++) {
+            keys[i] = prefix + (start + i);
+        }
+        List<String> result = new ArrayList<>(limit);
+        for (String value : jedisClient.get().mget(keys)) {
+            if (value != null) {
+                result.add(value);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public boolean supportsDeletes() {
+        return true;
+    }
+
+    @Override
+    public boolean supportsScans() {
+        return true;
+    }
+
+    /**
+     * Copies the remaining bytes of 'buffer', which Jedis needs as an array of exactly their length
+     */
+    private static byte[] toBytes(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return bytes;
+    }
+
     /**
      * Shutdown the client
      */
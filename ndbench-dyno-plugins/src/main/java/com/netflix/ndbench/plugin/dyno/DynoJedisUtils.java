@@ -23,6 +23,7 @@ import org.slf4j.LoggerFactory;
 import redis.clients.jedis.Response;
 
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicReference;
 
 public class DynoJedisUtils {
@@ -33,7 +34,6 @@ public class DynoJedisUtils {
     private static final String CacheMiss = null;
 
     private final static Logger logger = LoggerFactory.getLogger(DynoJedisUtils.class);
-    private static Random randomGenerator = new Random();
 
     public DynoJedisUtils(AtomicReference<DynoJedisClient> jedisClient) {
         this.jedisClient = jedisClient;
@@ -70,7 +70,7 @@ public class DynoJedisUtils {
      * @throws Exception
      */
     public String pipelineRead(String key, int max_pipe_keys, int min_pipe_keys) throws Exception {
-        int pipe_keys = randomGenerator.nextInt(max_pipe_keys);
+        int pipe_keys = ThreadLocalRandom.current().nextInt(max_pipe_keys);
         pipe_keys = Math.max(min_pipe_keys, pipe_keys);
 
         DynoJedisPipeline pipeline = this.jedisClient.get().pipelined();
@@ -185,7 +185,7 @@ public class DynoJedisUtils {
     public String pipelineWrite(String key, DataGenerator dataGenerator, int max_pipe_keys, int min_pipe_keys)
             throws Exception {
         // Create a random key between [0,MAX_PIPE_KEYS]
-        int pipe_keys = randomGenerator.nextInt(max_pipe_keys);
+        int pipe_keys = ThreadLocalRandom.current().nextInt(max_pipe_keys);
 
         // Make sure that the number of keys in the pipeline are at least
         // MIN_PIPE_KEYS
@@ -45,17 +45,13 @@ class EsAutoTuner {
      *  statistics accumulated to date.   Currently only the success-to-failure ratio is considered and
      *  compared against {@link com.netflix.ndbench.core.config.IConfiguration#getAutoTuneWriteFailureRatioThreshold()}
      *
-     * Note that we can ignore the  possible race condition that arises if multiple threads call this method at around
-     * the same time.     In this case two threads will be attempting to set timeOfFirstAutoTuneRequest.. but the
-     * target values they are using to set this variable  be so close it will not affect the desired behavior of the
-     * auto-tuning feature.
-     *
-     * Note 2: this method will only be called after the ndbench driver tries to perform a writeSingle operation
+     * Note that this method is called once per stats interval by the driver's auto-tune controller, from a single
+     * thread, so the rate follows the ramp in steps of statsUpdateFreqSeconds.
      */
     double recommendNewRate(double currentRateLimit, WriteResult event, NdBenchMonitor runStats) {
         long currentTime = new Date().getTime();
 
-        if (timeOfFirstAutoTuneRequest < 0) {          // race condition here when multiple writers, but can be ignored
+        if (timeOfFirstAutoTuneRequest < 0) {
             timeOfFirstAutoTuneRequest = currentTime;
         }
 
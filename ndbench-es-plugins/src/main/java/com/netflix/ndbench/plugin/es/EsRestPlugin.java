@@ -13,6 +13,7 @@ import org.apache.commons.lang.StringUtils;
 import org.apache.http.HttpHost;
 import org.apache.http.client.config.RequestConfig;
 import org.elasticsearch.client.Response;
+import org.elasticsearch.client.ResponseListener;
 import org.elasticsearch.client.RestClient;
 import org.elasticsearch.client.RestClientBuilder;
 import org.slf4j.Logger;
@@ -20,7 +21,10 @@ import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nullable;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 @Singleton
 @NdBenchClientPlugin("ES_REST")
@@ -33,7 +37,7 @@ public class EsRestPlugin implements NdBenchAbstractClient<WriteResult> {
     private final IConfiguration coreConfig;
 
     // package scope for fields below --  so their values can be used in tests
-    private RestClient restClient;
+    RestClient restClient;
 
     private EsWriter writer;
     private String ES_HOST_PORT;
@@ -179,6 +183,19 @@ public class EsRestPlugin implements NdBenchAbstractClient<WriteResult> {
         return writer.writeDocument(restClient, key, randomizeKeys);
     }
 
+    /**
+     * Writes a document for each of 'keys' via one bulk write. As in {@link #writeSingle}, random values are appended
+     * to the keys unless key randomization is turned off. Throws if Elasticsearch rejected any of the documents, so
+     * that the batch is counted as failed.
+     */
+    @Override
+    public List<WriteResult> writeBatch(List<String> keys) throws Exception {
+        logger.debug("writeBatch: {} keys", keys.size());
+
+        WriteResult result = writer.writeDocuments(restClient, keys, randomizeKeys);
+        return Collections.nCopies(keys.size(), result);
+    }
+
     @Override
     public String readSingle(String key) throws Exception {
         logger.debug("readSingle: {}", key);
@@ -196,6 +213,39 @@ public class EsRestPlugin implements NdBenchAbstractClient<WriteResult> {
         return RESULT_OK;
     }
 
+    @Override
+    public CompletionStage<WriteResult> writeAsync(String key) {
+        logger.debug("writeAsync: {}", key);
+
+        return writer.writeDocumentAsync(restClient, key, randomizeKeys);
+    }
+
+    @Override
+    public CompletionStage<String> readAsync(String key) {
+        logger.debug("readAsync: {}", key);
+
+        String url = getUrlToDocGivenId(key);
+        CompletableFuture<String> result = new CompletableFuture<>();
+        restClient.performRequestAsync("GET", url, Collections.emptyMap(), new ResponseListener() {
+            @Override
+            public void onSuccess(Response response) {
+                logger.debug("http GET to {} resulted in response: {}", url, response);
+                if (response.getStatusLine().getStatusCode() != 200) {
+                    result.completeExceptionally(
+                            new RuntimeException("read operation failed [" + key + "]. response: " + response));
+                } else {
+                    result.complete(RESULT_OK);
+                }
+            }
+
+            @Override
+            public void onFailure(Exception exception) {
+                result.completeExceptionally(exception);
+            }
+        });
+        return result;
+    }
+
     @Override
     public void shutdown() throws Exception {
         restClient.close();
@@ -214,7 +264,7 @@ public class EsRestPlugin implements NdBenchAbstractClient<WriteResult> {
     // Will never be called by driver if isAutoTuneEnabled=false -- for that reason autoTuner is allowed to be null.
     // See constructor for details.
     //
-    // Note: this method will only be called after the ndbench driver tries to perform a writeSingle operation
+    // Note: this method is called once per stats interval by the driver's auto-tune controller, not per write
     //
     @Override
     public Double autoTuneWriteRateLimit(Double currentRateLimit, WriteResult event, NdBenchMonitor runStats) {
@@ -1,20 +1,33 @@
 package com.netflix.ndbench.plugin.es;
 
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
 import com.netflix.ndbench.api.plugin.DataGenerator;
+import org.apache.http.HttpEntity;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.message.BasicHeader;
 import org.elasticsearch.client.Response;
+import org.elasticsearch.client.ResponseListener;
 import org.elasticsearch.client.RestClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Collections;
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 
 /**
@@ -118,11 +131,77 @@ class EsWriter {
         return WriteResult.PROVISIONAL_RESULT_THAT_ASSUMES_ALL_WENT_WELL;
     }
 
+    /**
+     * Writes one document per key of 'keys' via a single bulk write, whether or not this writer was configured for
+     * bulk writes. Used for the batches of the driver (see NdBenchAbstractClient#writeBatch), which then counts each
+     * document, rather than each request, as an item written. The whole batch fails if any of its documents does.
+     */
+    WriteResult writeDocuments(RestClient restClient,
+                               List<String> keys,
+                               Boolean randomizeKeys) throws Exception {
+        String json = buildBulkPayload(keys, randomizeKeys);
+        Response response = restClient.performRequest("POST", "/_bulk", Collections.emptyMap(), new StringEntity(json), CONTENT_TYPE_HDR_JSON);
+        logger.debug("GOT response: {} after sending bulk write payload of {} docs", response, keys.size());
+        checkResponse("/_bulk", response);
+        checkBulkResponse(response);
+
+        return WriteResult.PROVISIONAL_RESULT_THAT_ASSUMES_ALL_WENT_WELL;
+    }
+
+    /**
+     * Same as {@link #writeDocument}, except that the write is issued via the rest client's asynchronous API, and the
+     * returned stage is completed by the rest client's I/O thread once the response arrives.
+     */
+    CompletionStage<WriteResult> writeDocumentAsync(RestClient restClient,
+                                                    String key,
+                                                    Boolean randomizeKeys) {
+        CompletableFuture<WriteResult> result = new CompletableFuture<>();
+        try {
+            String url;
+            String payload;
+            if (isBulkWrite) {
+                url = "/_bulk";
+                payload = buildBulkPayload(key, randomizeKeys);
+            } else {
+                url = singleDocUrl(key, randomizeKeys);
+                payload = EsUtils.createDefaultDocumentAsJson(dataGenerator, false);
+            }
+
+            restClient.performRequestAsync(
+                    isBulkWrite ? "POST" : "PUT",
+                    url,
+                    Collections.emptyMap(),
+                    new StringEntity(payload),
+                    new ResponseListener() {
+                        @Override
+                        public void onSuccess(Response response) {
+                            try {
+                                checkResponse(url, response);
+                                if (isBulkWrite) {
+                                    checkBulkResponse(response);
+                                }
+                                result.complete(WriteResult.PROVISIONAL_RESULT_THAT_ASSUMES_ALL_WENT_WELL);
+                            } catch (RuntimeException | IOException e) {
+                                result.completeExceptionally(e);
+                            }
+                        }
+
+                        @Override
+                        public void onFailure(Exception exception) {
+                            result.completeExceptionally(exception);
+                        }
+                    },
+                    CONTENT_TYPE_HDR_JSON);
+        } catch (Exception e) {
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
     private void writeSingleDoc(RestClient restClient,
                                 String key,
                                 Boolean randomizeKeys) throws IOException {
-        String randomizedKey = key + (randomizeKeys ? UUID.randomUUID().toString() : "");
-        String url = "/" + esIndexUrl + "/" + randomizedKey;
+        String url = singleDocUrl(key, randomizeKeys);
         String doc = EsUtils.createDefaultDocumentAsJson(dataGenerator, false);
         Response response =
                 restClient.performRequest(
@@ -131,27 +210,15 @@ class EsWriter {
                         Collections.emptyMap(),
                         new StringEntity(doc),
                         CONTENT_TYPE_HDR_JSON);
-        logger.debug(
-                "write of doc with key={} to index={} resulted in response: {}", randomizedKey, indexName, response);
+        logger.debug("write of doc to url={} resulted in response: {}", url, response);
 
-        int responseCode = response.getStatusLine().getStatusCode();
-        if (responseCode != 200 && responseCode != 201) {
-            throw new RuntimeException("write operation failed [" + url + "]. response: " + response);
-        }
+        checkResponse(url, response);
     }
 
     private void writeBatchSizeWorthOfDocs(RestClient restClient,
                                            String key,
                                            Boolean randomizeKeys) throws IOException {
-        StringBuilder stringBuilder = new StringBuilder();
-        String indexName = constructIndexName(this.indexName, indexRollsPerDay, new Date());
-        for (int i = 0; i < bulkWriteBatchSize; i++) {
-            String doc = EsUtils.createDefaultDocumentAsJson(dataGenerator, true);
-            String randomizedKey = key + (randomizeKeys ? UUID.randomUUID().toString() : "");
-            stringBuilder.append(jsonForAddingDoc(randomizedKey, doc, indexName));
-            stringBuilder.append("\n");
-        }
-        String json = stringBuilder.toString();
+        String json = buildBulkPayload(key, randomizeKeys);
         Response response = restClient.performRequest("POST", "/_bulk", Collections.emptyMap(), new StringEntity(json), CONTENT_TYPE_HDR_JSON);
         if (logger.isTraceEnabled()) {
             logger.trace("got response: {} after sending bulk write payload of: {}", response, json);
@@ -160,6 +227,51 @@ class EsWriter {
         }
     }
 
+    private String singleDocUrl(String key, Boolean randomizeKeys) {
+        String randomizedKey = key + (randomizeKeys ? UUID.randomUUID().toString() : "");
+        return "/" + esIndexUrl + "/" + randomizedKey;
+    }
+
+    private static void checkResponse(String url, Response response) {
+        int responseCode = response.getStatusLine().getStatusCode();
+        if (responseCode != 200 && responseCode != 201) {
+            throw new RuntimeException("write operation failed [" + url + "]. response: " + response);
+        }
+    }
+
+    /**
+     * Fails a bulk write if Elasticsearch rejected any of its documents: the bulk API responds with 200 even then, and
+     * only flags the failed items in the response's body.
+     */
+    static void checkBulkResponse(Response response) throws IOException {
+        HttpEntity entity = response.getEntity();
+        if (entity == null) {
+            return;
+        }
+        JsonObject body;
+        try (Reader content = new InputStreamReader(entity.getContent(), StandardCharsets.UTF_8)) {
+            body = new JsonParser().parse(content).getAsJsonObject();
+        }
+        if (!body.has("errors") || !body.get("errors").getAsBoolean()) {
+            return;
+        }
+
+        JsonArray items = body.getAsJsonArray("items");
+        int failed = 0;
+        JsonElement firstError = null;
+        for (JsonElement item : items) {
+            // each item holds the outcome under the name of its action, e.g. {"index": {"status": 429, "error": ...}}
+            for (Map.Entry<String, JsonElement> outcome : item.getAsJsonObject().entrySet()) {
+                JsonElement error = outcome.getValue().getAsJsonObject().get("error");
+                if (error != null) {
+                    failed++;
+                    firstError = firstError == null ? error : firstError;
+                }
+            }
+        }
+        throw new RuntimeException("bulk write failed for " + failed + " of " + items.size()
+                + " documents, first error: " + firstError);
+    }
 
     private String jsonForAddingDoc(String key, String doc, String indexName) {
         String metadata = String.format(
@@ -176,6 +288,22 @@ class EsWriter {
     /**
      * methods below are package scoped to facilitate unit testing
      */
+    String buildBulkPayload(String key, Boolean randomizeKeys) {
+        return buildBulkPayload(Collections.nCopies(bulkWriteBatchSize, key), randomizeKeys);
+    }
+
+    String buildBulkPayload(List<String> keys, Boolean randomizeKeys) {
+        StringBuilder stringBuilder = new StringBuilder();
+        String indexName = constructIndexName(this.indexName, indexRollsPerDay, new Date());
+        for (String key : keys) {
+            String doc = EsUtils.createDefaultDocumentAsJson(dataGenerator, true);
+            String randomizedKey = key + (randomizeKeys ? UUID.randomUUID().toString() : "");
+            stringBuilder.append(jsonForAddingDoc(randomizedKey, doc, indexName));
+            stringBuilder.append("\n");
+        }
+        return stringBuilder.toString();
+    }
+
     static String constructIndexName(String indexName, int indexRollsPerDay, Date date) {
         if (indexRollsPerDay > 0) {
             ZonedDateTime zdt = ZonedDateTime.ofInstant(date.toInstant(), ZoneId.of("UTC"));
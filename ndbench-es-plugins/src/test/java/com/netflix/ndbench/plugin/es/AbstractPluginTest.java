@@ -124,7 +124,7 @@ public class AbstractPluginTest {
             }
 
             @Override
-            public int getNumKeys() {
+            public long getNumKeys() {
                 return 0;
             }
 
@@ -149,10 +149,40 @@ public class AbstractPluginTest {
             }
 
             @Override
-            public int getBackfillStartKey() {
+            public long getBackfillStartKey() {
                 return 0;
             }
 
+            @Override
+            public int getBackfillChunkSize() {
+                return 10000;
+            }
+
+            @Override
+            public int getBackfillBatchSize() {
+                return 1;
+            }
+
+            @Override
+            public int getBackfillMaxInFlight() {
+                return 1;
+            }
+
+            @Override
+            public double getBackfillRateLimit() {
+                return 0;
+            }
+
+            @Override
+            public int getBackfillMaxRetries() {
+                return 5;
+            }
+
+            @Override
+            public String getBackfillCheckpointDir() {
+                return "";
+            }
+
             @Override
             public boolean isWriteEnabled() {
                 return false;
@@ -228,6 +258,201 @@ public class AbstractPluginTest {
                 return maxAcceptableWriteFailures;
             }
 
+            @Override
+            public boolean isSloAutoTuneEnabled() {
+                return false;
+            }
+
+            @Override
+            public long getAutoTuneTargetP99Micros() {
+                return 10000L;
+            }
+
+            @Override
+            public float getAutoTuneMaxFailureRatio() {
+                return 0.01f;
+            }
+
+            @Override
+            public int getAutoTuneRateIncrement() {
+                return 100;
+            }
+
+            @Override
+            public float getAutoTuneBackoffFactor() {
+                return 0.7f;
+            }
+
+            @Override
+            public int getAutoTuneMaxRate() {
+                return 1000000;
+            }
+
+            @Override
+            public String getReadRateProfile() {
+                return "";
+            }
+
+            @Override
+            public String getWriteRateProfile() {
+                return "";
+            }
+
+            @Override
+            public int getRateProfileUpdateMillis() {
+                return 1000;
+            }
+
+            @Override
+            public long getRandomSeed() {
+                return 0L;
+            }
+
+            @Override
+            public int getMaxCachedKeys() {
+                return 5000000;
+            }
+
+            @Override
+            public double getZipfianConstant() {
+                return 0.99;
+            }
+
+            @Override
+            public double getHotspotKeyFraction() {
+                return 0.2;
+            }
+
+            @Override
+            public double getHotspotOpFraction() {
+                return 0.8;
+            }
+
+            @Override
+            public long getWindowStepKeys() {
+                return 0;
+            }
+
+            @Override
+            public boolean isWindowDriftGradual() {
+                return false;
+            }
+
+            @Override
+            public String getKeyTraceFile() {
+                return "";
+            }
+
+            @Override
+            public double getKeyTraceSpeedup() {
+                return 0;
+            }
+
+            @Override
+            public boolean isKeyTraceLoop() {
+                return true;
+            }
+
+            @Override
+            public boolean isOpenLoopEnabled() {
+                return false;
+            }
+
+            @Override
+            public boolean isAsyncEnabled() {
+                return false;
+            }
+
+            @Override
+            public int getMaxInFlightPerWorker() {
+                return 32;
+            }
+
+            @Override
+            public String getPermitScheduler() {
+                return "parking";
+            }
+
+            @Override
+            public int getSchedulerSpinThresholdMicros() {
+                return 50;
+            }
+
+            @Override
+            public String getWorkerExecutorMode() {
+                return "platform";
+            }
+
+            @Override
+            public boolean isStripedCountersEnabled() {
+                return false;
+            }
+
+            @Override
+            public boolean isVerifyValuesEnabled() {
+                return false;
+            }
+
+            @Override
+            public boolean isBinaryPathEnabled() {
+                return false;
+            }
+
+            @Override
+            public int getValueArenaSizeMB() {
+                return 64;
+            }
+
+            @Override
+            public long getKeyRangeStart() {
+                return 0;
+            }
+
+            @Override
+            public int getFleetStartDelayMillis() {
+                return 5000;
+            }
+
+            @Override
+            public int getFleetRebalanceIntervalSeconds() {
+                return 30;
+            }
+
+            @Override
+            public boolean isRunRecordingEnabled() {
+                return false;
+            }
+
+            @Override
+            public String getRunRecordingDir() {
+                return "/tmp/ndbench/runs";
+            }
+
+            @Override
+            public int getBatchSize() {
+                return 1;
+            }
+
+            @Override
+            public String getWorkloadMix() {
+                return "read:70,write:25,rmw:5";
+            }
+
+            @Override
+            public int getScanLimit() {
+                return 100;
+            }
+
+            @Override
+            public int getMultiGetSize() {
+                return 10;
+            }
+
+            @Override
+            public int getMixRateLimit() {
+                return 100;
+            }
+
         };
     }
 }
@@ -0,0 +1,130 @@
+package com.netflix.ndbench.plugin.es;
+
+import com.netflix.ndbench.api.plugin.DataGenerator;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.ProtocolVersion;
+import org.apache.http.message.BasicStatusLine;
+import org.elasticsearch.client.Response;
+import org.elasticsearch.client.ResponseListener;
+import org.elasticsearch.client.RestClient;
+import org.junit.Test;
+import org.mockito.Matchers;
+import org.mockito.stubbing.Answer;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyMap;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks that the asynchronous reads and writes of the ES plugin complete their stages according to the responses
+ * of the (mocked) rest client.
+ */
+public class EsAsyncTest {
+
+    @Test
+    public void writeCompletesOnSuccessfulResponse() throws Exception {
+        RestClient restClient = restClientRespondingWith(response(201));
+
+        CompletionStage<WriteResult> write = newWriter().writeDocumentAsync(restClient, "key", false);
+
+        assertEquals(WriteResult.PROVISIONAL_RESULT_THAT_ASSUMES_ALL_WENT_WELL,
+                write.toCompletableFuture().get());
+    }
+
+    @Test
+    public void writeFailsOnErrorResponse() throws Exception {
+        RestClient restClient = restClientRespondingWith(response(500));
+
+        assertFailed(newWriter().writeDocumentAsync(restClient, "key", false), RuntimeException.class);
+    }
+
+    @Test
+    public void writeFailsWhenRequestFails() throws Exception {
+        RestClient restClient = restClientRespondingWith(new IOException("connection refused"));
+
+        assertFailed(newWriter().writeDocumentAsync(restClient, "key", false), IOException.class);
+    }
+
+    @Test
+    public void readCompletesOnSuccessfulResponse() throws Exception {
+        EsRestPlugin plugin = new EsRestPlugin(null, null, null, false);
+        plugin.restClient = restClientRespondingWith(response(200));
+
+        assertEquals(EsRestPlugin.RESULT_OK, plugin.readAsync("key").toCompletableFuture().get());
+    }
+
+    @Test
+    public void readFailsOnErrorResponse() throws Exception {
+        EsRestPlugin plugin = new EsRestPlugin(null, null, null, false);
+        plugin.restClient = restClientRespondingWith(response(404));
+
+        assertFailed(plugin.readAsync("key"), RuntimeException.class);
+    }
+
+    @Test
+    public void readFailsWhenRequestFails() throws Exception {
+        EsRestPlugin plugin = new EsRestPlugin(null, null, null, false);
+        plugin.restClient = restClientRespondingWith(new IOException("connection refused"));
+
+        assertFailed(plugin.readAsync("key"), IOException.class);
+    }
+
+    private static EsWriter newWriter() {
+        return new EsWriter("test_index", "default", false, 0, 0, mock(DataGenerator.class));
+    }
+
+    private static Response response(int statusCode) {
+        Response response = mock(Response.class);
+        when(response.getStatusLine()).thenReturn(
+                new BasicStatusLine(new ProtocolVersion("HTTP", 1, 1), statusCode, "status " + statusCode));
+        return response;
+    }
+
+    /**
+     * @param outcome either the {@link Response} or the {@link Exception} passed to the listener of every request
+     */
+    private static RestClient restClientRespondingWith(Object outcome) {
+        Answer<Void> respond = invocation -> {
+            for (Object argument : invocation.getArguments()) {
+                if (argument instanceof ResponseListener) {
+                    if (outcome instanceof Response) {
+                        ((ResponseListener) argument).onSuccess((Response) outcome);
+                    } else {
+                        ((ResponseListener) argument).onFailure((Exception) outcome);
+                    }
+                }
+            }
+            return null;
+        };
+
+        RestClient restClient = mock(RestClient.class);
+        doAnswer(respond).when(restClient).performRequestAsync(anyString(), anyString(), anyMap(),
+                any(HttpEntity.class), any(ResponseListener.class), Matchers.<Header>anyVararg());
+        doAnswer(respond).when(restClient).performRequestAsync(anyString(), anyString(), anyMap(),
+                any(ResponseListener.class), Matchers.<Header>anyVararg());
+        return restClient;
+    }
+
+    private static void assertFailed(CompletionStage<?> stage, Class<? extends Exception> expected) throws Exception {
+        CompletableFuture<?> future = stage.toCompletableFuture();
+        assertTrue(future.isCompletedExceptionally());
+        try {
+            future.get();
+            fail("expected " + expected.getSimpleName());
+        } catch (ExecutionException e) {
+            assertTrue(expected.isInstance(e.getCause()));
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.netflix.ndbench.plugin.es;
+
+import com.netflix.ndbench.api.plugin.DataGenerator;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.ProtocolVersion;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.message.BasicStatusLine;
+import org.elasticsearch.client.Response;
+import org.elasticsearch.client.RestClient;
+import org.junit.Test;
+import org.mockito.Matchers;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyMap;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks that bulk writes fail when Elasticsearch rejects some of their documents, which it reports in the body of
+ * an otherwise successful response.
+ */
+public class EsBulkWriteTest {
+
+    @Test
+    public void bulkWriteSucceedsWhenNoDocumentFailed() throws Exception {
+        RestClient restClient = restClientRespondingWith(
+                "{\"took\":3,\"errors\":false,\"items\":[{\"index\":{\"_id\":\"a\",\"status\":201}}," +
+                        "{\"index\":{\"_id\":\"b\",\"status\":201}}]}");
+
+        assertEquals(WriteResult.PROVISIONAL_RESULT_THAT_ASSUMES_ALL_WENT_WELL,
+                newWriter().writeDocuments(restClient, Arrays.asList("a", "b"), false));
+    }
+
+    @Test
+    public void bulkWriteFailsWhenSomeDocumentsFailed() throws Exception {
+        RestClient restClient = restClientRespondingWith(
+                "{\"took\":3,\"errors\":true,\"items\":[{\"index\":{\"_id\":\"a\",\"status\":201}}," +
+                        "{\"index\":{\"_id\":\"b\",\"status\":429," +
+                        "\"error\":{\"type\":\"es_rejected_execution_exception\",\"reason\":\"queue full\"}}}]}");
+
+        try {
+            newWriter().writeDocuments(restClient, Arrays.asList("a", "b"), false);
+            fail("expected the bulk write to fail");
+        } catch (RuntimeException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("1 of 2 documents"));
+            assertTrue(e.getMessage(), e.getMessage().contains("es_rejected_execution_exception"));
+        }
+    }
+
+    private static EsWriter newWriter() {
+        return new EsWriter("test_index", "default", false, 0, 0, mock(DataGenerator.class));
+    }
+
+    private static RestClient restClientRespondingWith(String body) throws Exception {
+        Response response = mock(Response.class);
+        when(response.getStatusLine()).thenReturn(new BasicStatusLine(new ProtocolVersion("HTTP", 1, 1), 200, "OK"));
+        when(response.getEntity()).thenReturn(new StringEntity(body, ContentType.APPLICATION_JSON));
+
+        RestClient restClient = mock(RestClient.class);
+        when(restClient.performRequest(anyString(), anyString(), anyMap(), any(HttpEntity.class),
+                Matchers.<Header>anyVararg())).thenReturn(response);
+        return restClient;
+    }
+}
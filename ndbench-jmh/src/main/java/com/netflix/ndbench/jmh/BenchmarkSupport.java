@@ -0,0 +1,49 @@
+/*
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package com.netflix.ndbench.jmh;
+
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.netflix.archaius.api.config.SettableConfig;
+import com.netflix.archaius.api.inject.RuntimeLayer;
+import com.netflix.ndbench.api.plugin.common.NdBenchConstants;
+import com.netflix.ndbench.core.config.GuiceInjectorProvider;
+
+import java.util.Map;
+
+/**
+ * Helpers shared by the benchmarks of this module.
+ */
+final class BenchmarkSupport {
+
+    private BenchmarkSupport() {
+    }
+
+    /**
+     * Creates the same injector the ndbench web app uses, with the given ndbench configuration properties
+     * (names without the {@link NdBenchConstants#PROP_NAMESPACE} prefix) overridden. Since overrides are applied
+     * to the runtime layer, they must be set before any singleton that reads them at construction is created.
+     */
+    static Injector newInjector(Map<String, Object> configOverrides) {
+        Injector injector = new GuiceInjectorProvider().getInjector();
+        SettableConfig runtimeConfig = injector.getInstance(Key.get(SettableConfig.class, RuntimeLayer.class));
+        for (Map.Entry<String, Object> override : configOverrides.entrySet()) {
+            runtimeConfig.setProperty(NdBenchConstants.PROP_NAMESPACE + override.getKey(), override.getValue());
+        }
+        return injector;
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package com.netflix.ndbench.jmh;
+
+import com.google.common.collect.ImmutableMap;
+import com.netflix.ndbench.api.plugin.DataGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of picking the value to write, single threaded and with one thread per core sharing the generator (as the
+ * driver's write workers do.)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class DataGeneratorBenchmark {
+
+    @Param({"128", "4096"})
+    public int dataSize;
+
+    private DataGenerator dataGenerator;
+
+    @Setup
+    public void setUp() {
+        dataGenerator = BenchmarkSupport.newInjector(ImmutableMap.of("dataSize", dataSize))
+                .getInstance(DataGenerator.class);
+    }
+
+    @Benchmark
+    public String getRandomValue() {
+        return dataGenerator.getRandomValue();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public String getRandomValueContended() {
+        return dataGenerator.getRandomValue();
+    }
+}
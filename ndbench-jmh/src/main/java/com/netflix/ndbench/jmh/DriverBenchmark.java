@@ -0,0 +1,101 @@
+/*
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package com.netflix.ndbench.jmh;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.inject.Injector;
+import com.netflix.ndbench.api.plugin.NdBenchMonitor;
+import com.netflix.ndbench.core.NdBenchDriver;
+import com.netflix.ndbench.core.util.LoadPattern;
+import com.netflix.ndbench.plugin.sample.InMemoryTestPlugin;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs the driver's write workers against {@link InMemoryTestPlugin}, whose writes are nearly free, with a rate limit
+ * high enough not to throttle them. The time per operation is therefore the overhead ndbench itself adds to every
+ * operation: permit scheduling, key and value generation, and monitoring.
+ * <p>
+ * Each invocation starts the workers, waits for {@link #OPERATIONS} writes to succeed and stops the workers again,
+ * so worker startup and shutdown is amortized over all those operations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+public class DriverBenchmark {
+    private static final int OPERATIONS = 1_000_000;
+
+    @Param({"parking", "spinning"})
+    public String permitScheduler;
+
+    @Param({"4"})
+    public int numWriters;
+
+    private NdBenchDriver driver;
+    private NdBenchMonitor monitor;
+
+    @Setup
+    public void setUp() throws Exception {
+        Injector injector = BenchmarkSupport.newInjector(ImmutableMap.<String, Object>builder()
+                .put("writeEnabled", true)
+                .put("numWriters", numWriters)
+                .put("writeRateLimit", 100_000_000)
+                .put("numKeys", 100_000)
+                .put("permitScheduler", permitScheduler)
+                .build());
+        driver = injector.getInstance(NdBenchDriver.class);
+        monitor = injector.getInstance(NdBenchMonitor.class);
+        driver.init(new InMemoryTestPlugin());
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        driver.stop();
+        driver.shutdownClient();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPERATIONS)
+    public long writeLoop() {
+        driver.startWrites(LoadPattern.RANDOM, 1, 1);
+        while (monitor.getWriteSuccess() + monitor.getWriteFailure() < OPERATIONS) {
+            LockSupport.parkNanos(100_000L);
+        }
+        driver.stopWrites();
+
+        long completed = monitor.getWriteSuccess();
+        monitor.resetStats();
+        return completed;
+    }
+}
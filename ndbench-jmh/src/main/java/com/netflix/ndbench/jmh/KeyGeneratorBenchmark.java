@@ -0,0 +1,68 @@
+/*
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package com.netflix.ndbench.jmh;
+
+import com.netflix.ndbench.core.generators.KeyGenerator;
+import com.netflix.ndbench.core.generators.KeyGeneratorFactory;
+import com.netflix.ndbench.core.util.LoadPattern;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of picking the next key, for each of the load patterns.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class KeyGeneratorBenchmark {
+
+    @Param({"RANDOM", "SLIDING_WINDOW", "SLIDING_WINDOW_FLIP", "ZIPFIAN", "SCRAMBLED_ZIPFIAN", "LATEST", "HOTSPOT"})
+    public LoadPattern loadPattern;
+
+    @Param({"false", "true"})
+    public boolean preloadKeys;
+
+    @Param({"1000000"})
+    public int numKeys;
+
+    private KeyGenerator<String> keyGenerator;
+
+    @Setup
+    public void setUp() {
+        keyGenerator = new KeyGeneratorFactory().getKeyGenerator(loadPattern, numKeys, 1000, 60, preloadKeys);
+        keyGenerator.init();
+    }
+
+    @Benchmark
+    public String getNextKey() {
+        return keyGenerator.getNextKey();
+    }
+}
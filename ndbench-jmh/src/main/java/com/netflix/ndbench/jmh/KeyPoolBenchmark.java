@@ -0,0 +1,89 @@
+/*
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package com.netflix.ndbench.jmh;
+
+import com.netflix.ndbench.core.generators.KeyPool;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GC pressure of handing out keys: concatenating a new key per operation (as ndbench used to), taking it from a
+ * {@link KeyPool}, or encoding it into a reusable buffer. Run with -Pprof=gc and compare gc.alloc.rate.norm, which
+ * should be ~0 bytes/op for the cached and encoded variants.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class KeyPoolBenchmark {
+    private static final int INDEXES = 1 << 16;
+
+    @Param({"false", "true"})
+    public boolean cacheKeys;
+
+    @Param({"1000000"})
+    public int numKeys;
+
+    private KeyPool keyPool;
+    private final int[] indexes = new int[INDEXES];
+    private final byte[] buffer = new byte[16];
+    private int next;
+
+    @Setup
+    public void setUp() {
+        keyPool = new KeyPool(numKeys, cacheKeys);
+        keyPool.preload();
+        Random random = new Random(0);
+        for (int i = 0; i < INDEXES; i++) {
+            indexes[i] = random.nextInt(numKeys);
+        }
+    }
+
+    @Benchmark
+    public String concatenateKey() {
+        return "T" + nextIndex();
+    }
+
+    @Benchmark
+    public String getKey() {
+        return keyPool.getKey(nextIndex());
+    }
+
+    @Benchmark
+    public byte[] encodeKey() {
+        KeyPool.encodeKey(nextIndex(), buffer, 0);
+        return buffer;
+    }
+
+    private int nextIndex() {
+        return indexes[next++ & (INDEXES - 1)];
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package com.netflix.ndbench.jmh;
+
+import com.netflix.ndbench.api.plugin.NdBenchMonitor;
+import com.netflix.ndbench.core.config.GuiceInjectorProvider;
+import com.netflix.ndbench.core.config.IConfiguration;
+import com.netflix.ndbench.core.monitoring.FakeMonitor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the cost of the per-operation monitor updates made by workers, with as many threads as there are cores
+ * hammering one monitor instance -- i.e. the situation on a fully loaded benchmark client.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(Threads.MAX)
+public class MonitorBenchmark {
+
+    @Param({"atomic", "striped"})
+    public String counters;
+
+    private NdBenchMonitor monitor;
+
+    @Setup
+    public void setUp() {
+        IConfiguration config = new GuiceInjectorProvider().getInjector().getInstance(IConfiguration.class);
+        monitor = new FakeMonitor(config, "striped".equals(counters));
+    }
+
+    @Benchmark
+    public void incReadSuccess() {
+        monitor.incReadSuccess();
+    }
+
+    @Benchmark
+    public void recordReadLatency() {
+        monitor.recordReadLatency(ThreadLocalRandom.current().nextInt(1, 10_000));
+    }
+
+    /**
+     * What a successful read costs the monitor: a success and cache hit count, and a latency sample.
+     */
+    @Benchmark
+    public void successfulRead() {
+        monitor.recordReadLatency(ThreadLocalRandom.current().nextInt(1, 10_000));
+        monitor.incReadSuccess();
+        monitor.incCacheHit();
+    }
+}
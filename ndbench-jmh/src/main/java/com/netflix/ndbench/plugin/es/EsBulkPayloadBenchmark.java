@@ -0,0 +1,72 @@
+/*
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package com.netflix.ndbench.plugin.es;
+
+import com.google.inject.Injector;
+import com.netflix.ndbench.api.plugin.DataGenerator;
+import com.netflix.ndbench.core.config.GuiceInjectorProvider;
+import com.netflix.ndbench.core.config.IConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of building the payload of one bulk write request, which the ES_REST plugin does on the worker thread
+ * before every bulk write. Lives in the plugin's package since {@link EsWriter} is package private.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class EsBulkPayloadBenchmark {
+
+    @Param({"10", "100"})
+    public int bulkWriteBatchSize;
+
+    @Param({"false", "true"})
+    public boolean randomizeStrings;
+
+    private EsWriter writer;
+
+    @Setup
+    public void setUp() {
+        Injector injector = new GuiceInjectorProvider().getInjector();
+        IConfiguration config = injector.getInstance(IConfiguration.class);
+        DataGenerator dataGenerator = injector.getInstance(DataGenerator.class);
+
+        // mirrors the way EsRestPlugin.init sets up its writer
+        writer = new EsWriter("ndbench_index", "default", true, 0, bulkWriteBatchSize,
+                randomizeStrings ? dataGenerator : new FakeWordDictionaryBasedDataGenerator(dataGenerator, config.getDataSize()));
+    }
+
+    @Benchmark
+    public String buildBulkPayload() {
+        return writer.buildBulkPayload("key", true);
+    }
+}
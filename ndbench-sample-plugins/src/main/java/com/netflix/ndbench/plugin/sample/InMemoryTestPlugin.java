@@ -76,7 +76,7 @@ public class InMemoryTestPlugin implements NdBenchClient{
             return CacheMiss;
         }
 
-        return ResultOK;
+        return res;
     }
 
     /**
@@ -88,10 +88,26 @@ public class InMemoryTestPlugin implements NdBenchClient{
      */
     @Override
     public String writeSingle(String key) throws Exception {
-        data.put(key, this.dataGenerator.getRandomValue());
+        data.put(key, this.dataGenerator.getValue(key));
         return ResultOK;
     }
 
+    @Override
+    public boolean supportsValueVerification() {
+        return true;
+    }
+
+    @Override
+    public String deleteSingle(String key) throws Exception {
+        data.remove(key);
+        return ResultOK;
+    }
+
+    @Override
+    public boolean supportsDeletes() {
+        return true;
+    }
+
     /**
      * shutdown the client
      */